@@ -0,0 +1,21 @@
+package org.jala.university.application.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.ToString;
+
+/**
+ * The identity of an account resolved from its account number: what a transfer needs to
+ * show and address the destination, without the balance.
+ */
+@Getter
+@Builder
+@ToString
+@AllArgsConstructor
+public class AccountLookup {
+    private final Long accountId;
+    private final String accountNumber;
+    private final String agency;
+    private final String ownerName;
+}
@@ -1,19 +1,22 @@
 package org.jala.university.application.service.implementations;
 
-import jakarta.persistence.EntityManager;
-import jakarta.persistence.EntityTransaction;
+import jakarta.persistence.NoResultException;
 import org.jala.university.application.dto.AccountDTO;
+import org.jala.university.application.dto.AccountLookup;
 import org.jala.university.application.map.AccountMapper;
 import org.jala.university.application.service.interfaces.AccountService;
+import org.jala.university.commons.infrastructure.persistance.UnitOfWork;
 import org.jala.university.domain.entity.Account;
 import org.jala.university.domain.entity.enums.AccountType;
 import org.jala.university.domain.repository.AccountRepository;
 import org.jala.university.domain.repository.UserRepository;
+import org.jala.university.infrastructure.cache.AccountLookupCache;
 import org.jala.university.infrastructure.config.JPAConfig;
 import org.jala.university.infrastructure.persistence.AccountRepositoryImp;
 import org.jala.university.infrastructure.persistence.UserRepositoryImp;
 
 import java.math.BigDecimal;
+import java.util.List;
 import java.util.Random;
 
 /**
@@ -22,20 +25,26 @@ import java.util.Random;
  * @since 1.0
  */
 public class AccountServiceImpl implements AccountService {
+    private static final String LOOKUP_JPQL = "SELECT new org.jala.university.application.dto.AccountLookup("
+            + "a.id, a.accountNumber, a.agency, u.name) "
+            + "FROM Account a JOIN a.user u WHERE a.accountNumber = :accountNumber";
+
     private final AccountRepository accountRepository;
     private final UserRepository userRepository;
     private static final Random RANDOM = new Random();
-    private final EntityManager entityManager;
+    private final UnitOfWork unitOfWork;
     private final AccountMapper mapper;
+    private final AccountLookupCache accountLookupCache;
 
     /**
      * Constructor.
      */
     public AccountServiceImpl() {
         this.mapper = new AccountMapper();
-        this.entityManager = JPAConfig.getEntityManagerFactory().createEntityManager();
-        this.userRepository = new UserRepositoryImp(entityManager);
-        this.accountRepository = new AccountRepositoryImp(entityManager);
+        this.unitOfWork = JPAConfig.getUnitOfWork();
+        this.userRepository = new UserRepositoryImp(unitOfWork);
+        this.accountRepository = new AccountRepositoryImp(unitOfWork);
+        this.accountLookupCache = AccountLookupCache.getInstance();
     }
 
     /**
@@ -47,35 +56,32 @@ public class AccountServiceImpl implements AccountService {
      */
     @Override
     public AccountDTO createAccount(String cpf, AccountType accountType) {
-        EntityTransaction transaction = null;
         try {
-            transaction = entityManager.getTransaction();
-            transaction.begin();
-            
-            var user = userRepository.findByCpf(cpf)
-                .orElseThrow(() -> new IllegalArgumentException("User not found"));
-
-            var account = Account.builder()
-                    .user(user)
-                    .agency(generateAgency())
-                    .accountNumber(generateAccountNumber())
-                    .accountType(accountType)
-                    .build();
-
-            entityManager.persist(account);
-            transaction.commit();
-            
-            return AccountDTO.builder()
-                    .id(account.getId())
-                    .userId(user.getId())
-                    .agency(account.getAgency())
-                    .accountNumber(account.getAccountNumber())
-                    .accountType(account.getAccountType())
-                    .build();
+            AccountDTO created = unitOfWork.write(entityManager -> {
+                var user = userRepository.findByCpf(cpf)
+                    .orElseThrow(() -> new IllegalArgumentException("User not found"));
+
+                var account = Account.builder()
+                        .user(user)
+                        .agency(generateAgency())
+                        .accountNumber(generateAccountNumber())
+                        .accountType(accountType)
+                        .build();
+
+                entityManager.persist(account);
+
+                return AccountDTO.builder()
+                        .id(account.getId())
+                        .userId(user.getId())
+                        .agency(account.getAgency())
+                        .accountNumber(account.getAccountNumber())
+                        .accountType(account.getAccountType())
+                        .build();
+            });
+            // The new number may have been looked up, and remembered as unknown, before it existed
+            accountLookupCache.invalidate(created.getAccountNumber());
+            return created;
         } catch (Exception e) {
-            if (transaction != null && transaction.isActive()) {
-                transaction.rollback();
-            }
             throw new RuntimeException("Error creating account", e);
         }
     }
@@ -89,9 +95,12 @@ public class AccountServiceImpl implements AccountService {
      */
     @Override
     public void updateUserAccountBalance(Long userId, BigDecimal balance) {
-        Account accountByUserId = this.accountRepository.findAccountByUserId(userId);
-        accountByUserId.setBalance(balance);
-        accountRepository.save(accountByUserId);
+        unitOfWork.execute(entityManager -> {
+            Account accountByUserId = this.accountRepository.findAccountByUserId(userId);
+            accountByUserId.setBalance(balance);
+            accountRepository.save(accountByUserId);
+            accountLookupCache.invalidate(accountByUserId.getAccountNumber());
+        });
     }
 
     /**
@@ -112,10 +121,36 @@ public class AccountServiceImpl implements AccountService {
         return this.mapper.mapTo(accountFound);
     }
 
+    /**
+     * Retrieves an account by its number. The number is resolved through the
+     * {@link AccountLookupCache}, and the account itself by id, from the second-level cache
+     * when it is there.
+     *
+     * @param accountNumber the account number
+     * @return the account DTO
+     * @throws NoResultException if no account has that number
+     */
     @Override
     public AccountDTO getAccountByAccountNumber(String accountNumber) {
-        Account accountByAccountNumber = this.accountRepository.findByAccountNumber(accountNumber);
-        return this.mapper.mapTo(accountByAccountNumber);
+        AccountLookup lookup = resolveAccountNumber(accountNumber);
+        if (lookup == null) {
+            throw new NoResultException("Account not found: " + accountNumber);
+        }
+        return getAccountById(lookup.getAccountId());
+    }
+
+    @Override
+    public AccountLookup resolveAccountNumber(String accountNumber) {
+        if (accountNumber == null || accountNumber.isBlank()) {
+            return null;
+        }
+        return accountLookupCache.get(accountNumber.trim(), number -> {
+            List<AccountLookup> lookups = unitOfWork.read(entityManager -> entityManager
+                    .createQuery(LOOKUP_JPQL, AccountLookup.class)
+                    .setParameter("accountNumber", number)
+                    .getResultList());
+            return lookups.isEmpty() ? null : lookups.get(0);
+        });
     }
 
     /**
@@ -145,13 +180,13 @@ public class AccountServiceImpl implements AccountService {
      */
     @Override
     public BigDecimal getAccountBalance(Long accountId) {
-        Account account = accountRepository.findById(accountId);
+        BigDecimal balance = accountRepository.findBalanceById(accountId);
 
-        if (account == null) {
+        if (balance == null) {
             throw new IllegalArgumentException("Account not found");
         }
 
-        return account.getBalance();
+        return balance;
     }
 
        private boolean checkSenderBalance(BigDecimal amount, BigDecimal balance) {
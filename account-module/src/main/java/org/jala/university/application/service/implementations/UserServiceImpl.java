@@ -1,6 +1,5 @@
 package org.jala.university.application.service.implementations;
 
-import jakarta.persistence.EntityManager;
 import org.jala.university.application.dto.UserDTO;
 import org.jala.university.application.map.UserMapper;
 import org.jala.university.application.service.interfaces.UserService;
@@ -37,21 +36,13 @@ public class UserServiceImpl implements UserService {
      */
     private final UserMapper userMapper;
 
-    /**
-     * JPA EntityManager instance for managing persistence operations.
-     * Handles entity lifecycle management and provides the interface
-     * for all JPA-related database operations.
-     */
-    private final EntityManager entityManager;
-
     /**
      * Constructs a new UserServiceImpl instance.
-     * Initializes the EntityManager from JPA configuration, creates
-     * the UserRepository implementation, and instantiates the UserMapper.
+     * Creates the UserRepository implementation on the shared unit of work
+     * of the JPA configuration, and instantiates the UserMapper.
      */
     public UserServiceImpl() {
-        this.entityManager = JPAConfig.getEntityManagerFactory().createEntityManager();
-        this.userRepository = new UserRepositoryImp(entityManager);
+        this.userRepository = new UserRepositoryImp(JPAConfig.getUnitOfWork());
         this.userMapper = new UserMapper();
     }
 
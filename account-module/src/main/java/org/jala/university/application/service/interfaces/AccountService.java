@@ -1,6 +1,7 @@
 package org.jala.university.application.service.interfaces;
 
 import org.jala.university.application.dto.AccountDTO;
+import org.jala.university.application.dto.AccountLookup;
 import org.jala.university.domain.entity.enums.AccountType;
 
 import java.math.BigDecimal;
@@ -45,4 +46,13 @@ public interface AccountService {
     AccountDTO getAccountByUserId(Long userId);
     AccountDTO getAccountById(Long accountId);
     AccountDTO getAccountByAccountNumber(String accountNumber);
+
+    /**
+     * Resolves an account number to the account it identifies, from memory when it was
+     * looked up before.
+     *
+     * @param accountNumber the account number
+     * @return the account, or null if no account has that number
+     */
+    AccountLookup resolveAccountNumber(String accountNumber);
 }
@@ -2,6 +2,8 @@ package org.jala.university.domain.entity;
 
 import jakarta.persistence.*;
 import lombok.*;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 import org.hibernate.annotations.CreationTimestamp;
 import org.hibernate.annotations.UpdateTimestamp;
 import org.jala.university.commons.domain.BaseEntity;
@@ -11,9 +13,18 @@ import java.math.BigDecimal;
 import java.time.LocalDateTime;
 import java.util.Set;
 
-
+/**
+ * Bank account of a user.
+ * <p>
+ * Kept in the second-level cache for the lookups by id and account number. Transfers change
+ * the balance as entity updates on the locked row, which refresh the cache entry of that
+ * account only; the cached {@code balance} is still not authoritative, and balance reads go
+ * to the database through {@code AccountRepository#findBalanceById}.
+ */
 @Entity
 @Table(name = "accounts")
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE)
 @Builder
 @Getter
 @Setter
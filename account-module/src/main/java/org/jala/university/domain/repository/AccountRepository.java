@@ -3,8 +3,18 @@ package org.jala.university.domain.repository;
 import org.jala.university.commons.domain.Repository;
 import org.jala.university.domain.entity.Account;
 
+import java.math.BigDecimal;
+
 public interface AccountRepository extends Repository<Account, Long> {
     Account findAccountByUserId(Long userId);
     Account findByAccountId(Long accountId);
     Account findByAccountNumber(String accountNumber);
+
+    /**
+     * Reads the balance of an account from the database, bypassing the second-level cache.
+     *
+     * @param accountId the account id
+     * @return the balance, or null if the account does not exist
+     */
+    BigDecimal findBalanceById(Long accountId);
 }
@@ -0,0 +1,231 @@
+package org.jala.university.infrastructure.cache;
+
+import org.jala.university.application.dto.AccountLookup;
+
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Function;
+import java.util.function.LongSupplier;
+
+/**
+ * Bounded in-memory cache of account numbers resolved to their {@link AccountLookup}.
+ * <p>
+ * Keys are spread over a fixed number of segments, each an LRU map guarded by its own
+ * monitor, so lookups of different numbers rarely contend. Known numbers stay until they
+ * are evicted or invalidated, since the number, agency and owner of an account do not change
+ * on their own. Unknown numbers are remembered separately, with a smaller bound and a short
+ * time-to-live, so a mistyped number is not looked up again on every keystroke but an account
+ * created by another process still becomes visible.
+ * <p>
+ * A load that races with an invalidation of its segment is returned but not stored, so a
+ * lookup started before an account was created can never cache it as unknown.
+ */
+public final class AccountLookupCache {
+
+    /**
+     * Default number of known account numbers held.
+     */
+    public static final int DEFAULT_CAPACITY = 10_000;
+    /**
+     * Default number of unknown account numbers held.
+     */
+    public static final int DEFAULT_NEGATIVE_CAPACITY = 1_000;
+    /**
+     * Default time an unknown account number is remembered.
+     */
+    public static final Duration DEFAULT_NEGATIVE_TTL = Duration.ofSeconds(30);
+
+    private static final int SEGMENTS = 16;
+
+    private final Segment[] segments = new Segment[SEGMENTS];
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder negativeHits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final long negativeTtlNanos;
+    private final LongSupplier clock;
+
+    /**
+     * Holder for the shared instance used by the services.
+     */
+    private static final class InstanceHolder {
+        private static final AccountLookupCache INSTANCE =
+                new AccountLookupCache(DEFAULT_CAPACITY, DEFAULT_NEGATIVE_CAPACITY, DEFAULT_NEGATIVE_TTL);
+    }
+
+    /**
+     * Returns the shared cache.
+     *
+     * @return the shared instance
+     */
+    public static AccountLookupCache getInstance() {
+        return InstanceHolder.INSTANCE;
+    }
+
+    /**
+     * Creates a cache with the given bounds.
+     *
+     * @param capacity the maximum number of known account numbers held
+     * @param negativeCapacity the maximum number of unknown account numbers held
+     * @param negativeTtl the time an unknown account number is remembered
+     */
+    public AccountLookupCache(int capacity, int negativeCapacity, Duration negativeTtl) {
+        this(capacity, negativeCapacity, negativeTtl, System::nanoTime);
+    }
+
+    AccountLookupCache(int capacity, int negativeCapacity, Duration negativeTtl, LongSupplier clock) {
+        if (capacity <= 0 || negativeCapacity <= 0) {
+            throw new IllegalArgumentException("Capacity must be greater than zero");
+        }
+        for (int i = 0; i < SEGMENTS; i++) {
+            segments[i] = new Segment(
+                    Math.max(1, capacity / SEGMENTS), Math.max(1, negativeCapacity / SEGMENTS));
+        }
+        this.negativeTtlNanos = negativeTtl.toNanos();
+        this.clock = clock;
+    }
+
+    /**
+     * Resolves an account number, loading it on a miss.
+     *
+     * @param accountNumber the account number
+     * @param loader reads the account from the database; returns null if there is none
+     * @return the account, or null if the number is unknown
+     */
+    public AccountLookup get(String accountNumber, Function<String, AccountLookup> loader) {
+        Segment segment = segmentOf(accountNumber);
+        long generation;
+        synchronized (segment) {
+            AccountLookup found = segment.found.get(accountNumber);
+            if (found != null) {
+                hits.increment();
+                return found;
+            }
+            Long expiresAt = segment.missing.get(accountNumber);
+            if (expiresAt != null) {
+                if (clock.getAsLong() - expiresAt < 0) {
+                    negativeHits.increment();
+                    return null;
+                }
+                segment.missing.remove(accountNumber);
+            }
+            generation = segment.generation;
+        }
+
+        misses.increment();
+        AccountLookup loaded = loader.apply(accountNumber);
+
+        synchronized (segment) {
+            if (segment.generation == generation) {
+                if (loaded != null) {
+                    segment.found.put(accountNumber, loaded);
+                } else {
+                    segment.missing.put(accountNumber, clock.getAsLong() + negativeTtlNanos);
+                }
+            }
+        }
+        return loaded;
+    }
+
+    /**
+     * Drops an account number, known or unknown. Called when an account is created or updated.
+     *
+     * @param accountNumber the account number
+     */
+    public void invalidate(String accountNumber) {
+        Segment segment = segmentOf(accountNumber);
+        synchronized (segment) {
+            segment.found.remove(accountNumber);
+            segment.missing.remove(accountNumber);
+            segment.generation++;
+        }
+    }
+
+    /**
+     * Drops every account number.
+     */
+    public void invalidateAll() {
+        for (Segment segment : segments) {
+            synchronized (segment) {
+                segment.found.clear();
+                segment.missing.clear();
+                segment.generation++;
+            }
+        }
+    }
+
+    /**
+     * Returns the number of lookups answered with a known account.
+     *
+     * @return the hit count
+     */
+    public long getHits() {
+        return hits.sum();
+    }
+
+    /**
+     * Returns the number of lookups answered from the unknown account numbers.
+     *
+     * @return the negative hit count
+     */
+    public long getNegativeHits() {
+        return negativeHits.sum();
+    }
+
+    /**
+     * Returns the number of lookups that went to the database.
+     *
+     * @return the miss count
+     */
+    public long getMisses() {
+        return misses.sum();
+    }
+
+    /**
+     * Returns the number of known account numbers currently held.
+     *
+     * @return the cache size
+     */
+    public int size() {
+        int size = 0;
+        for (Segment segment : segments) {
+            synchronized (segment) {
+                size += segment.found.size();
+            }
+        }
+        return size;
+    }
+
+    private Segment segmentOf(String accountNumber) {
+        int hash = accountNumber.hashCode();
+        return segments[(hash ^ (hash >>> 16)) & (SEGMENTS - 1)];
+    }
+
+    private static final class Segment {
+        private final Map<String, AccountLookup> found;
+        private final Map<String, Long> missing;
+        private long generation;
+
+        private Segment(int capacity, int negativeCapacity) {
+            this.found = new LruMap<>(capacity);
+            this.missing = new LruMap<>(negativeCapacity);
+        }
+    }
+
+    private static final class LruMap<K, V> extends LinkedHashMap<K, V> {
+        private static final long serialVersionUID = 1L;
+
+        private final int capacity;
+
+        private LruMap(int capacity) {
+            super(16, 0.75f, true);
+            this.capacity = capacity;
+        }
+
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<K, V> eldest) {
+            return size() > capacity;
+        }
+    }
+}
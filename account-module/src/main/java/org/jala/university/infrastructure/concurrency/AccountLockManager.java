@@ -0,0 +1,249 @@
+package org.jala.university.infrastructure.concurrency;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Objects;
+import java.util.TreeSet;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Supplier;
+
+/**
+ * Striped, in-process lock manager keyed by account ID.
+ * <p>
+ * Every account maps to one of a fixed number of fair locks (stripes). Operations on
+ * accounts that land on different stripes run fully in parallel, while operations on a
+ * hot account queue in arrival order. Multi-account operations always acquire their
+ * stripes in ascending stripe index, so they can never deadlock with each other.
+ * <p>
+ * Each stripe records how often it was acquired, how long callers waited and how many
+ * threads are currently queued; see {@link #getMetrics()}.
+ */
+public final class AccountLockManager {
+
+    /**
+     * Default number of stripes of the shared instance.
+     */
+    public static final int DEFAULT_STRIPES = 64;
+
+    private final Stripe[] stripes;
+    private final int mask;
+
+    /**
+     * Holder for the shared instance used by the services.
+     */
+    private static final class InstanceHolder {
+        private static final AccountLockManager INSTANCE = new AccountLockManager(DEFAULT_STRIPES);
+    }
+
+    /**
+     * Returns the shared lock manager.
+     *
+     * @return the shared instance
+     */
+    public static AccountLockManager getInstance() {
+        return InstanceHolder.INSTANCE;
+    }
+
+    /**
+     * Creates a lock manager with at least the given number of stripes.
+     * The count is rounded up to the next power of two.
+     *
+     * @param stripeCount the minimum number of stripes
+     */
+    public AccountLockManager(int stripeCount) {
+        if (stripeCount <= 0) {
+            throw new IllegalArgumentException("Stripe count must be greater than zero");
+        }
+        int size = Integer.highestOneBit(stripeCount);
+        if (size < stripeCount) {
+            size <<= 1;
+        }
+        this.stripes = new Stripe[size];
+        this.mask = size - 1;
+        for (int i = 0; i < size; i++) {
+            stripes[i] = new Stripe(i);
+        }
+    }
+
+    /**
+     * Runs an action while holding the lock of a single account.
+     *
+     * @param accountId the account ID
+     * @param action the action to run
+     * @param <T> the result type
+     * @return the result of the action
+     */
+    public <T> T withAccountLock(Long accountId, Supplier<T> action) {
+        Stripe stripe = stripeFor(accountId);
+        stripe.lock();
+        try {
+            return action.get();
+        } finally {
+            stripe.unlock();
+        }
+    }
+
+    /**
+     * Runs an action while holding the locks of two accounts, acquired in a fixed order.
+     *
+     * @param firstAccountId the first account ID
+     * @param secondAccountId the second account ID
+     * @param action the action to run
+     * @param <T> the result type
+     * @return the result of the action
+     */
+    public <T> T withAccountLocks(Long firstAccountId, Long secondAccountId, Supplier<T> action) {
+        int first = indexFor(firstAccountId);
+        int second = indexFor(secondAccountId);
+        if (first == second) {
+            return withStripe(stripes[first], action);
+        }
+        Stripe lower = stripes[Math.min(first, second)];
+        Stripe upper = stripes[Math.max(first, second)];
+        lower.lock();
+        try {
+            upper.lock();
+            try {
+                return action.get();
+            } finally {
+                upper.unlock();
+            }
+        } finally {
+            lower.unlock();
+        }
+    }
+
+    /**
+     * Runs an action while holding the locks of all the given accounts, acquired in a fixed order.
+     *
+     * @param accountIds the account IDs
+     * @param action the action to run
+     * @param <T> the result type
+     * @return the result of the action
+     */
+    public <T> T withAccountLocks(Collection<Long> accountIds, Supplier<T> action) {
+        TreeSet<Integer> indexes = new TreeSet<>();
+        for (Long accountId : accountIds) {
+            indexes.add(indexFor(accountId));
+        }
+        List<Stripe> acquired = new ArrayList<>(indexes.size());
+        try {
+            for (Integer index : indexes) {
+                Stripe stripe = stripes[index];
+                stripe.lock();
+                acquired.add(stripe);
+            }
+            return action.get();
+        } finally {
+            for (int i = acquired.size() - 1; i >= 0; i--) {
+                acquired.get(i).unlock();
+            }
+        }
+    }
+
+    /**
+     * Returns a snapshot of the contention metrics of every stripe.
+     *
+     * @return the metrics, ordered by stripe index
+     */
+    public List<StripeMetrics> getMetrics() {
+        List<StripeMetrics> metrics = new ArrayList<>(stripes.length);
+        for (Stripe stripe : stripes) {
+            metrics.add(stripe.snapshot());
+        }
+        return metrics;
+    }
+
+    /**
+     * Returns a snapshot of the contention metrics of the stripe guarding an account.
+     *
+     * @param accountId the account ID
+     * @return the metrics of the account's stripe
+     */
+    public StripeMetrics getMetrics(Long accountId) {
+        return stripeFor(accountId).snapshot();
+    }
+
+    /**
+     * Returns the number of stripes.
+     *
+     * @return the stripe count
+     */
+    public int getStripeCount() {
+        return stripes.length;
+    }
+
+    private <T> T withStripe(Stripe stripe, Supplier<T> action) {
+        stripe.lock();
+        try {
+            return action.get();
+        } finally {
+            stripe.unlock();
+        }
+    }
+
+    private Stripe stripeFor(Long accountId) {
+        return stripes[indexFor(accountId)];
+    }
+
+    private int indexFor(Long accountId) {
+        Objects.requireNonNull(accountId, "Account ID must not be null");
+        int hash = accountId.hashCode();
+        return (hash ^ (hash >>> 16)) & mask;
+    }
+
+    /**
+     * A fair lock together with its contention counters.
+     */
+    private static final class Stripe {
+        private final int index;
+        private final ReentrantLock lock = new ReentrantLock(true);
+        private final LongAdder acquisitions = new LongAdder();
+        private final LongAdder contendedAcquisitions = new LongAdder();
+        private final LongAdder totalWaitNanos = new LongAdder();
+        private final AtomicLong maxWaitNanos = new AtomicLong();
+
+        private Stripe(int index) {
+            this.index = index;
+        }
+
+        private void lock() {
+            long start = System.nanoTime();
+            // tryLock() would barge ahead of queued threads; the timed variant honours fairness
+            boolean acquired;
+            try {
+                acquired = lock.tryLock(0, TimeUnit.NANOSECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                acquired = false;
+            }
+            if (!acquired) {
+                contendedAcquisitions.increment();
+                lock.lock();
+            }
+            long waited = System.nanoTime() - start;
+            acquisitions.increment();
+            totalWaitNanos.add(waited);
+            maxWaitNanos.accumulateAndGet(waited, Math::max);
+        }
+
+        private void unlock() {
+            lock.unlock();
+        }
+
+        private StripeMetrics snapshot() {
+            return new StripeMetrics(
+                    index,
+                    acquisitions.sum(),
+                    contendedAcquisitions.sum(),
+                    totalWaitNanos.sum(),
+                    maxWaitNanos.get(),
+                    lock.getQueueLength()
+            );
+        }
+    }
+}
@@ -0,0 +1,60 @@
+package org.jala.university.infrastructure.concurrency;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.ToString;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Point-in-time contention metrics of a single lock stripe.
+ *
+ * @see AccountLockManager#getMetrics()
+ */
+@Getter
+@ToString
+@AllArgsConstructor
+public class StripeMetrics {
+
+    /**
+     * Index of the stripe inside the lock manager
+     */
+    private final int stripe;
+
+    /**
+     * Total number of times the stripe was acquired
+     */
+    private final long acquisitions;
+
+    /**
+     * Number of acquisitions that had to wait for another holder
+     */
+    private final long contendedAcquisitions;
+
+    /**
+     * Sum of the time spent waiting for the stripe, in nanoseconds
+     */
+    private final long totalWaitNanos;
+
+    /**
+     * Longest single wait for the stripe, in nanoseconds
+     */
+    private final long maxWaitNanos;
+
+    /**
+     * Estimated number of threads currently queued on the stripe
+     */
+    private final int queueDepth;
+
+    /**
+     * Returns the average wait per acquisition.
+     *
+     * @return the average wait in microseconds, or 0 if the stripe was never acquired
+     */
+    public double getAverageWaitMicros() {
+        if (acquisitions == 0) {
+            return 0;
+        }
+        return (double) TimeUnit.NANOSECONDS.toMicros(totalWaitNanos) / acquisitions;
+    }
+}
@@ -3,6 +3,15 @@ package org.jala.university.infrastructure.config;
 import jakarta.persistence.EntityManager;
 import jakarta.persistence.EntityManagerFactory;
 import jakarta.persistence.Persistence;
+import org.hibernate.cfg.AvailableSettings;
+import org.jala.university.commons.infrastructure.persistance.UnitOfWork;
+import org.jala.university.infrastructure.cache.SecondLevelCacheStats;
+import org.jala.university.infrastructure.migration.SchemaMigrator;
+import org.jala.university.infrastructure.pool.ConnectionPoolStats;
+import org.jala.university.infrastructure.pool.PooledConnectionProvider;
+
+import java.util.HashMap;
+import java.util.Map;
 
 /**
  * Configuration class for JPA.
@@ -11,21 +20,77 @@ import jakarta.persistence.Persistence;
 public class JPAConfig {
     
     private static final String PERSISTENCE_UNIT_NAME = "default";
+    /**
+     * Settings of persistence.xml that can be overridden with a system property, e.g.
+     * {@code -Dbank.pool.maximumSize=20}, or {@code -Dhibernate.generate_statistics=true} to
+     * collect the cache statistics, which are off in production.
+     */
+    private static final String[] OVERRIDABLE_PROPERTIES = {
+            PooledConnectionProvider.MAXIMUM_SIZE,
+            PooledConnectionProvider.MINIMUM_IDLE,
+            PooledConnectionProvider.ACQUISITION_TIMEOUT,
+            PooledConnectionProvider.LEAK_DETECTION_THRESHOLD,
+            AvailableSettings.GENERATE_STATISTICS
+    };
     private static EntityManagerFactory entityManagerFactory;
+    private static UnitOfWork unitOfWork;
     
     /**
      * Gets the EntityManagerFactory.
-     * Creates it if it doesn't exist.
+     * Creates it if it doesn't exist and applies the pending schema migrations.
      * 
      * @return the EntityManagerFactory
      */
-    public static EntityManagerFactory getEntityManagerFactory() {
+    public static synchronized EntityManagerFactory getEntityManagerFactory() {
         if (entityManagerFactory == null) {
-            entityManagerFactory = Persistence.createEntityManagerFactory(PERSISTENCE_UNIT_NAME);
+            entityManagerFactory = Persistence.createEntityManagerFactory(PERSISTENCE_UNIT_NAME, overrides());
+            new SchemaMigrator(entityManagerFactory).migrate();
         }
         return entityManagerFactory;
     }
     
+    /**
+     * Gets the shared unit of work, which hands out a short-lived EntityManager per operation.
+     *
+     * @return the UnitOfWork over the EntityManagerFactory
+     */
+    public static synchronized UnitOfWork getUnitOfWork() {
+        if (unitOfWork == null) {
+            unitOfWork = new UnitOfWork(getEntityManagerFactory());
+        }
+        return unitOfWork;
+    }
+
+    /**
+     * Gets the live statistics of the connection pool.
+     *
+     * @return the pool statistics, or null if the persistence unit is not pooled
+     */
+    public static ConnectionPoolStats getConnectionPoolStats() {
+        PooledConnectionProvider provider = PooledConnectionProvider.of(getEntityManagerFactory());
+        return provider == null ? null : provider.getStats();
+    }
+
+    /**
+     * Gets the hit and miss counts of the second-level and query caches.
+     *
+     * @return the cache statistics, all zero unless started with {@code -Dhibernate.generate_statistics=true}
+     */
+    public static SecondLevelCacheStats getCacheStats() {
+        return SecondLevelCacheStats.of(getEntityManagerFactory());
+    }
+
+    private static Map<String, String> overrides() {
+        Map<String, String> overrides = new HashMap<>();
+        for (String property : OVERRIDABLE_PROPERTIES) {
+            String value = System.getProperty(property);
+            if (value != null) {
+                overrides.put(property, value);
+            }
+        }
+        return overrides;
+    }
+
     /**
      * Gets a new EntityManager.
      * 
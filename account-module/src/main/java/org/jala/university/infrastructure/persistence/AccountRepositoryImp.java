@@ -1,36 +1,70 @@
 package org.jala.university.infrastructure.persistence;
 
 import jakarta.persistence.EntityManager;
+import jakarta.persistence.NoResultException;
 import org.jala.university.commons.infrastructure.persistance.CrudRepository;
+import org.jala.university.commons.infrastructure.persistance.UnitOfWork;
 import org.jala.university.domain.entity.Account;
 import org.jala.university.domain.repository.AccountRepository;
 import org.jala.university.infrastructure.config.JPAConfig;
 
+import java.math.BigDecimal;
+import java.util.List;
+
 public class AccountRepositoryImp extends CrudRepository<Account, Long> implements AccountRepository {
+    private static final String CACHEABLE = "org.hibernate.cacheable";
+
+    private final UnitOfWork unitOfWork;
 
-    private final EntityManager entityManager = JPAConfig.getEntityManagerFactory().createEntityManager();
+    public AccountRepositoryImp() {
+        this(JPAConfig.getUnitOfWork());
+    }
 
     public AccountRepositoryImp(EntityManager entityManager) {
-        super(Account.class, entityManager);
+        this(UnitOfWork.bound(entityManager));
+    }
+
+    public AccountRepositoryImp(UnitOfWork unitOfWork) {
+        super(Account.class, unitOfWork);
+        this.unitOfWork = unitOfWork;
     }
 
     @Override
     public Account findAccountByUserId(Long userId) {
         String jpql = "SELECT a FROM Account a WHERE a.user.id = :userId";
-        return entityManager.createQuery(jpql, Account.class).setParameter("userId", userId).getSingleResult();
+        return unitOfWork.read(entityManager -> entityManager.createQuery(jpql, Account.class)
+                .setParameter("userId", userId)
+                .setHint(CACHEABLE, true)
+                .getSingleResult());
     }
 
     @Override
     public Account findByAccountId(Long accountId) {
-        String jpql = "SELECT a FROM Account a WHERE a.id = :accountId";
-        return entityManager.createQuery(jpql, Account.class).setParameter("accountId", accountId).getSingleResult();
+        // find() is answered from the second-level cache when the account is there
+        Account account = unitOfWork.read(entityManager -> entityManager.find(Account.class, accountId));
+        if (account == null) {
+            throw new NoResultException("Account not found: " + accountId);
+        }
+        return account;
     }
 
     @Override
     public Account findByAccountNumber(String accountNumber) {
         String jpql = "SELECT a FROM Account a WHERE a.accountNumber = :accountNumber";
-        return entityManager.createQuery(jpql, Account.class)
+        return unitOfWork.read(entityManager -> entityManager.createQuery(jpql, Account.class)
                 .setParameter("accountNumber", accountNumber)
-                .getSingleResult();
+                .setHint(CACHEABLE, true)
+                .getSingleResult());
+    }
+
+    @Override
+    public BigDecimal findBalanceById(Long accountId) {
+        // A scalar query is never answered from the second-level cache
+        String jpql = "SELECT a.balance FROM Account a WHERE a.id = :accountId";
+        List<BigDecimal> balances = unitOfWork.read(entityManager -> entityManager
+                .createQuery(jpql, BigDecimal.class)
+                .setParameter("accountId", accountId)
+                .getResultList());
+        return balances.isEmpty() ? null : balances.get(0);
     }
 }
@@ -11,6 +11,7 @@ import java.util.List;
 import java.util.Optional;
 
 public class BeneficiaryRepositoryImp implements BeneficiaryRepository {
+    private static final String CACHEABLE = "org.hibernate.cacheable";
 
     private final EntityManager entityManager;
 
@@ -46,6 +47,7 @@ public class BeneficiaryRepositoryImp implements BeneficiaryRepository {
                 entityManager.remove(beneficiary);
             }
             transaction.commit();
+            evict(beneficiaryId);
         } catch (Exception e) {
             if (transaction.isActive()) {
                 transaction.rollback();
@@ -90,6 +92,7 @@ public class BeneficiaryRepositoryImp implements BeneficiaryRepository {
             entityManager.getTransaction().begin();
             entityManager.merge(beneficiary);
             entityManager.getTransaction().commit();
+            evict(beneficiary.getId());
         } catch (Exception e) {
             if (entityManager.getTransaction().isActive()) {
                 entityManager.getTransaction().rollback();
@@ -117,6 +120,18 @@ public class BeneficiaryRepositoryImp implements BeneficiaryRepository {
                 "SELECT b FROM Beneficiary b JOIN b.accountBeneficiaries ab WHERE ab.account.id = :accountId",
                 Beneficiary.class);
         query.setParameter("accountId", accountId);
+        query.setHint(CACHEABLE, true);
         return query.getResultList();
     }
+
+    /**
+     * Drops the cached state of a beneficiary after a write.
+     *
+     * @param beneficiaryId the beneficiary ID, ignored if null
+     */
+    private void evict(Long beneficiaryId) {
+        if (beneficiaryId != null) {
+            entityManager.getEntityManagerFactory().getCache().evict(Beneficiary.class, beneficiaryId);
+        }
+    }
 }
@@ -3,6 +3,7 @@ package org.jala.university.infrastructure.persistence;
 import jakarta.persistence.EntityManager;
 import jakarta.persistence.NoResultException;
 import jakarta.persistence.TypedQuery;
+import org.jala.university.commons.infrastructure.persistance.UnitOfWork;
 import org.jala.university.domain.entity.User;
 import org.jala.university.domain.repository.UserRepository;
 import org.jala.university.infrastructure.config.JPAConfig;
@@ -14,8 +15,9 @@ import java.util.Optional;
  * Handles database operations for User entities.
  */
 public class UserRepositoryImp implements UserRepository {
+    private static final String CACHEABLE = "org.hibernate.cacheable";
 
-    private final EntityManager entityManager;
+    private final UnitOfWork unitOfWork;
 
     /**
      * Constructor with entity manager parameter.
@@ -23,14 +25,23 @@ public class UserRepositoryImp implements UserRepository {
      * @param entityManager the entity manager to use
      */
     public UserRepositoryImp(EntityManager entityManager) {
-        this.entityManager = entityManager;
+        this(UnitOfWork.bound(entityManager));
+    }
+
+    /**
+     * Constructor with unit of work parameter.
+     *
+     * @param unitOfWork the unit of work that provides the entity manager of each operation
+     */
+    public UserRepositoryImp(UnitOfWork unitOfWork) {
+        this.unitOfWork = unitOfWork;
     }
     
     /**
-     * Default constructor that creates a new entity manager.
+     * Default constructor that uses the shared unit of work.
      */
     public UserRepositoryImp() {
-        this.entityManager = JPAConfig.getEntityManager();
+        this(JPAConfig.getUnitOfWork());
     }
 
     /**
@@ -41,8 +52,12 @@ public class UserRepositoryImp implements UserRepository {
      */
     @Override
     public User save(User user) {
-        entityManager.persist(user);
-        return user;
+        User saved = unitOfWork.write(entityManager -> {
+            entityManager.persist(user);
+            return user;
+        });
+        unitOfWork.evict(User.class, saved.getId());
+        return saved;
     }
 
     /**
@@ -53,7 +68,7 @@ public class UserRepositoryImp implements UserRepository {
      */
     @Override
     public User findById(Long id) {
-        return entityManager.find(User.class, id);
+        return unitOfWork.read(entityManager -> entityManager.find(User.class, id));
     }
 
     /**
@@ -64,14 +79,17 @@ public class UserRepositoryImp implements UserRepository {
      */
     @Override
     public Optional<User> findByEmail(String email) {
-        try {
-            TypedQuery<User> query = entityManager.createQuery(
-                "SELECT u FROM User u WHERE u.email = :email", User.class);
-            query.setParameter("email", email);
-            return Optional.ofNullable(query.getSingleResult());
-        } catch (NoResultException e) {
-            return Optional.empty();
-        }
+        return unitOfWork.read(entityManager -> {
+            try {
+                TypedQuery<User> query = entityManager.createQuery(
+                    "SELECT u FROM User u WHERE u.email = :email", User.class);
+                query.setParameter("email", email);
+                query.setHint(CACHEABLE, true);
+                return Optional.ofNullable(query.getSingleResult());
+            } catch (NoResultException e) {
+                return Optional.empty();
+            }
+        });
     }
 
     /**
@@ -82,14 +100,17 @@ public class UserRepositoryImp implements UserRepository {
      */
     @Override
     public Optional<User> findByCpf(String cpf) {
-        try {
-            TypedQuery<User> query = entityManager.createQuery(
-                "SELECT u FROM User u WHERE u.cpf = :cpf", User.class);
-            query.setParameter("cpf", cpf);
-            return Optional.ofNullable(query.getSingleResult());
-        } catch (NoResultException e) {
-            return Optional.empty();
-        }
+        return unitOfWork.read(entityManager -> {
+            try {
+                TypedQuery<User> query = entityManager.createQuery(
+                    "SELECT u FROM User u WHERE u.cpf = :cpf", User.class);
+                query.setParameter("cpf", cpf);
+                query.setHint(CACHEABLE, true);
+                return Optional.ofNullable(query.getSingleResult());
+            } catch (NoResultException e) {
+                return Optional.empty();
+            }
+        });
     }
     
     /**
@@ -101,36 +122,18 @@ public class UserRepositoryImp implements UserRepository {
     @Override
     public Optional<User> findByAccountId(Long accountId) {
         try {
-            // Verificar se a transação está ativa
-            if (!entityManager.getTransaction().isActive()) {
-                entityManager.getTransaction().begin();
-            }
-            
             // Consulta direta para obter o usuário associado à conta
-            TypedQuery<User> query = entityManager.createQuery(
-                "SELECT u FROM User u JOIN u.accounts a WHERE a.id = :accountId", User.class);
-            query.setParameter("accountId", accountId);
-            
-            User result = query.getSingleResult();
-            
-            // Commit da transação se foi iniciada aqui
-            if (entityManager.getTransaction().isActive()) {
-                entityManager.getTransaction().commit();
-            }
-            
-            return Optional.ofNullable(result);
+            return unitOfWork.read(entityManager -> {
+                TypedQuery<User> query = entityManager.createQuery(
+                    "SELECT u FROM User u JOIN u.accounts a WHERE a.id = :accountId", User.class);
+                query.setParameter("accountId", accountId);
+                query.setHint(CACHEABLE, true);
+                return Optional.ofNullable(query.getSingleResult());
+            });
         } catch (NoResultException e) {
-            // Rollback da transação se foi iniciada aqui e ocorreu erro
-            if (entityManager.getTransaction().isActive()) {
-                entityManager.getTransaction().rollback();
-            }
             System.out.println("Nenhum usuário encontrado para o accountId: " + accountId);
             return Optional.empty();
         } catch (Exception e) {
-            // Rollback da transação se foi iniciada aqui e ocorreu erro
-            if (entityManager.getTransaction().isActive()) {
-                entityManager.getTransaction().rollback();
-            }
             System.out.println("Erro ao buscar usuário por accountId: " + e.getMessage());
             e.printStackTrace();
             return Optional.empty();
@@ -145,10 +148,10 @@ public class UserRepositoryImp implements UserRepository {
      */
     @Override
     public boolean existsByEmail(String email) {
-        TypedQuery<Long> query = entityManager.createQuery(
-            "SELECT COUNT(u) FROM User u WHERE u.email = :email", Long.class);
-        query.setParameter("email", email);
-        return query.getSingleResult() > 0;
+        return unitOfWork.read(entityManager -> entityManager.createQuery(
+            "SELECT COUNT(u) FROM User u WHERE u.email = :email", Long.class)
+                .setParameter("email", email)
+                .getSingleResult() > 0);
     }
 
     /**
@@ -159,9 +162,9 @@ public class UserRepositoryImp implements UserRepository {
      */
     @Override
     public boolean existsByCpf(String cpf) {
-        TypedQuery<Long> query = entityManager.createQuery(
-            "SELECT COUNT(u) FROM User u WHERE u.cpf = :cpf", Long.class);
-        query.setParameter("cpf", cpf);
-        return query.getSingleResult() > 0;
+        return unitOfWork.read(entityManager -> entityManager.createQuery(
+            "SELECT COUNT(u) FROM User u WHERE u.cpf = :cpf", Long.class)
+                .setParameter("cpf", cpf)
+                .getSingleResult() > 0);
     }
 }
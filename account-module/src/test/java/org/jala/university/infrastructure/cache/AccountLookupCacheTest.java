@@ -0,0 +1,98 @@
+package org.jala.university.infrastructure.cache;
+
+import org.jala.university.application.dto.AccountLookup;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("Account lookup cache")
+class AccountLookupCacheTest {
+
+    private static final AccountLookup ALICE = AccountLookup.builder()
+            .accountId(1L)
+            .accountNumber("00000001")
+            .agency("0001")
+            .ownerName("Alice")
+            .build();
+
+    private final AtomicLong now = new AtomicLong();
+    private final AtomicInteger loads = new AtomicInteger();
+    private final Function<String, AccountLookup> database = number -> {
+        loads.incrementAndGet();
+        return Map.of(ALICE.getAccountNumber(), ALICE).get(number);
+    };
+
+    private AccountLookupCache cache;
+
+    @BeforeEach
+    void setUp() {
+        cache = new AccountLookupCache(100, 100, Duration.ofSeconds(30), now::get);
+    }
+
+    @Test
+    @DisplayName("Should load a known account number once and answer later lookups from memory")
+    void knownAccount() {
+        assertSame(ALICE, cache.get("00000001", database));
+        assertSame(ALICE, cache.get("00000001", database));
+
+        assertEquals(1, loads.get());
+        assertEquals(1, cache.getHits());
+        assertEquals(1, cache.getMisses());
+    }
+
+    @Test
+    @DisplayName("Should remember an unknown account number until its time-to-live has passed")
+    void unknownAccount() {
+        assertNull(cache.get("99999999", database));
+        assertNull(cache.get("99999999", database));
+        assertEquals(1, loads.get());
+        assertEquals(1, cache.getNegativeHits());
+
+        now.addAndGet(Duration.ofSeconds(31).toNanos());
+
+        assertNull(cache.get("99999999", database));
+        assertEquals(2, loads.get());
+    }
+
+    @Test
+    @DisplayName("Should load an account number again once it is invalidated")
+    void invalidate() {
+        assertNull(cache.get("00000001", number -> null));
+
+        cache.invalidate("00000001");
+
+        assertSame(ALICE, cache.get("00000001", database));
+    }
+
+    @Test
+    @DisplayName("Should not store a load that raced with an invalidation")
+    void invalidatedDuringLoad() {
+        assertNull(cache.get("00000001", number -> {
+            cache.invalidate(number);
+            return null;
+        }));
+
+        assertSame(ALICE, cache.get("00000001", database));
+        assertEquals(1, loads.get());
+    }
+
+    @Test
+    @DisplayName("Should evict the least recently used account numbers beyond its capacity")
+    void boundedSize() {
+        AccountLookupCache small = new AccountLookupCache(16, 16, Duration.ofSeconds(30), now::get);
+        for (int i = 0; i < 1_000; i++) {
+            String number = String.format("%08d", i);
+            small.get(number, n -> AccountLookup.builder().accountId(1L).accountNumber(n).build());
+        }
+
+        assertTrue(small.size() <= 16, "size " + small.size());
+    }
+}
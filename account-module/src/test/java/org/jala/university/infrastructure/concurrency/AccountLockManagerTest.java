@@ -0,0 +1,140 @@
+package org.jala.university.infrastructure.concurrency;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.CyclicBarrier;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("Account lock manager")
+class AccountLockManagerTest {
+
+    private static final Duration TIMEOUT = Duration.ofSeconds(10);
+
+    @Test
+    @DisplayName("Should round the stripe count up to a power of two")
+    void stripeCount() {
+        assertEquals(8, new AccountLockManager(5).getStripeCount());
+        assertEquals(64, new AccountLockManager(64).getStripeCount());
+        assertThrows(IllegalArgumentException.class, () -> new AccountLockManager(0));
+    }
+
+    @Test
+    @DisplayName("Should lock two accounts on the same stripe without deadlocking on itself")
+    void sameStripe() {
+        AccountLockManager manager = new AccountLockManager(1);
+
+        assertTimeoutPreemptively(TIMEOUT, () -> {
+            assertEquals("ok", manager.withAccountLocks(1L, 2L, () -> "ok"));
+            assertEquals("ok", manager.withAccountLocks(Set.of(1L, 2L, 3L), () -> "ok"));
+            assertEquals("ok", manager.withAccountLocks(1L, 2L, () -> manager.withAccountLock(3L, () -> "ok")));
+        });
+        // The nested lock re-enters the stripe already held
+        assertEquals(4, manager.getMetrics(1L).getAcquisitions());
+        assertEquals(0, manager.getMetrics(1L).getContendedAcquisitions());
+    }
+
+    @Test
+    @DisplayName("Should never deadlock transfers running in opposite directions")
+    void oppositeDirections() {
+        AccountLockManager manager = new AccountLockManager(64);
+        int rounds = 5_000;
+        AtomicInteger transfers = new AtomicInteger();
+        CyclicBarrier start = new CyclicBarrier(4);
+
+        assertTimeoutPreemptively(TIMEOUT, () -> {
+            CompletableFuture<?>[] workers = {
+                    run(start, rounds, () -> manager.withAccountLocks(1L, 2L, transfers::incrementAndGet)),
+                    run(start, rounds, () -> manager.withAccountLocks(2L, 1L, transfers::incrementAndGet)),
+                    run(start, rounds, () -> manager.withAccountLocks(List.of(1L, 2L), transfers::incrementAndGet)),
+                    run(start, rounds, () -> manager.withAccountLocks(List.of(2L, 1L), transfers::incrementAndGet))
+            };
+            CompletableFuture.allOf(workers).join();
+        });
+        assertEquals(4 * rounds, transfers.get());
+    }
+
+    @Test
+    @DisplayName("Should release every lock when the action throws")
+    void releaseOnFailure() throws Exception {
+        AccountLockManager manager = new AccountLockManager(64);
+
+        assertThrows(IllegalStateException.class, () -> manager.withAccountLocks(Set.of(1L, 2L, 3L), () -> {
+            throw new IllegalStateException("saldo insuficiente");
+        }));
+
+        Boolean lockedElsewhere = CompletableFuture
+                .supplyAsync(() -> manager.withAccountLocks(Set.of(1L, 2L, 3L), () -> true))
+                .get(5, TimeUnit.SECONDS);
+        assertTrue(lockedElsewhere);
+        for (long accountId = 1; accountId <= 3; accountId++) {
+            assertEquals(0, manager.getMetrics(accountId).getQueueDepth());
+        }
+    }
+
+    @Test
+    @DisplayName("Should report acquisitions, contention and wait times per stripe")
+    void metrics() throws Exception {
+        AccountLockManager manager = new AccountLockManager(64);
+        CountDownLatch held = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+
+        CompletableFuture<Void> holder = CompletableFuture.runAsync(() -> manager.withAccountLock(1L, () -> {
+            held.countDown();
+            await(release);
+            return null;
+        }));
+        assertTrue(held.await(5, TimeUnit.SECONDS));
+        CompletableFuture<Void> waiter = CompletableFuture.runAsync(() -> manager.withAccountLock(1L, () -> null));
+        while (manager.getMetrics(1L).getQueueDepth() == 0) {
+            Thread.sleep(1);
+        }
+        Thread.sleep(50);
+        release.countDown();
+        holder.get(5, TimeUnit.SECONDS);
+        waiter.get(5, TimeUnit.SECONDS);
+
+        StripeMetrics stripe = manager.getMetrics(1L);
+        assertEquals(2, stripe.getAcquisitions());
+        assertEquals(1, stripe.getContendedAcquisitions());
+        assertEquals(0, stripe.getQueueDepth());
+        assertTrue(stripe.getMaxWaitNanos() >= TimeUnit.MILLISECONDS.toNanos(50));
+        assertTrue(stripe.getTotalWaitNanos() >= stripe.getMaxWaitNanos());
+        assertTrue(stripe.getAverageWaitMicros() >= TimeUnit.MILLISECONDS.toMicros(25));
+
+        StripeMetrics idle = manager.getMetrics(2L);
+        assertEquals(0, idle.getAcquisitions());
+        assertEquals(0.0, idle.getAverageWaitMicros());
+        assertEquals(64, manager.getMetrics().size());
+        assertEquals(stripe.getStripe(), manager.getMetrics().get(stripe.getStripe()).getStripe());
+    }
+
+    private static CompletableFuture<Void> run(CyclicBarrier start, int rounds, Runnable transfer) {
+        return CompletableFuture.runAsync(() -> {
+            try {
+                start.await();
+            } catch (Exception e) {
+                throw new IllegalStateException(e);
+            }
+            for (int i = 0; i < rounds; i++) {
+                transfer.run();
+            }
+        }, runnable -> new Thread(runnable).start());
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -13,66 +13,75 @@ public abstract class CrudRepository<T
         implements Repository<T, ID> {
 
     private final Class<T> clazz;
-    private final EntityManager entityManager;
+    private final UnitOfWork unitOfWork;
 
     protected CrudRepository(Class<T> clazzToSet, EntityManager entityManager) {
-        this.entityManager = entityManager;
+        this(clazzToSet, UnitOfWork.bound(entityManager));
+    }
+
+    protected CrudRepository(Class<T> clazzToSet, UnitOfWork unitOfWork) {
+        this.unitOfWork = unitOfWork;
         this.clazz = clazzToSet;
     }
 
     @Override
     @Transactional
     public final T findById(ID id) {
-        return entityManager.find(clazz, id);
+        return unitOfWork.read(entityManager -> entityManager.find(clazz, id));
     }
 
     @Override
     @Transactional
     public final List<T> findAll() {
-        return entityManager
-                .createQuery("from " + clazz.getName()).getResultList();
+        return unitOfWork.read(entityManager -> entityManager
+                .createQuery("from " + clazz.getName(), clazz).getResultList());
     }
 
     @Override
     @Transactional
     public final T save(T entity) {
         Assert.notNull(entity, "Entity must not be null");
-        entityManager.getTransaction().begin();
-        if (isNew(entity)) {
-            entityManager.persist(entityManager.merge(entity));
-            entityManager.getTransaction().commit();
-            return entity;
-        }
-        T mergedEntity = entityManager.merge(entity);
-        entityManager.persist(mergedEntity);
-        entityManager.getTransaction().commit();
-        return mergedEntity;
+        T saved = unitOfWork.write(entityManager -> {
+            if (isNew(entityManager, entity)) {
+                // The managed copy is the one that receives the generated id
+                T createdEntity = entityManager.merge(entity);
+                entityManager.persist(createdEntity);
+                return createdEntity;
+            }
+            T mergedEntity = entityManager.merge(entity);
+            entityManager.persist(mergedEntity);
+            return mergedEntity;
+        });
+        unitOfWork.evict(clazz, saved.getId());
+        return saved;
     }
 
     @Override
     @Transactional
     public final void delete(T entity) {
         Assert.notNull(entity, "Entity must not be null");
-        if (!isNew(entity)) {
-            entityManager.getTransaction().begin();
-            entityManager.remove(entityManager.merge(entity));
-            entityManager.getTransaction().commit();
-        }
+        unitOfWork.execute(entityManager -> {
+            if (!isNew(entityManager, entity)) {
+                entityManager.remove(entityManager.merge(entity));
+            }
+        });
+        unitOfWork.evict(clazz, entity.getId());
     }
 
     @Override
     @Transactional
     public final void deleteById(ID entityId) {
         Assert.notNull(entityId, "The given id must not be null");
-        T entity = findById(entityId);
-        if (entity != null) {
-            entityManager.getTransaction().begin();
-            entityManager.remove(entity);
-            entityManager.getTransaction().commit();
-        }
+        unitOfWork.execute(entityManager -> {
+            T entity = entityManager.find(clazz, entityId);
+            if (entity != null) {
+                entityManager.remove(entity);
+            }
+        });
+        unitOfWork.evict(clazz, entityId);
     }
 
-    private boolean isNew(T entity) {
+    private boolean isNew(EntityManager entityManager, T entity) {
         if (entity.getId() != null) {
             return entityManager.find(clazz, entity.getId()) == null;
         }
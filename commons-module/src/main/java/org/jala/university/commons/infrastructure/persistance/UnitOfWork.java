@@ -0,0 +1,144 @@
+package org.jala.university.commons.infrastructure.persistance;
+
+import jakarta.persistence.Cache;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import jakarta.persistence.EntityTransaction;
+
+import java.util.function.Consumer;
+import java.util.function.Function;
+
+/**
+ * Hands out short-lived EntityManagers, one per operation.
+ * <p>
+ * Each {@link #read}, {@link #write} or {@link #execute} opens an
+ * EntityManager, binds it to the calling thread for the duration of the work
+ * and closes it afterwards, so the first-level cache never outlives an
+ * operation and the EntityManager is never shared between threads. Nested
+ * calls on the same thread join the outer operation and its transaction;
+ * repositories called from a service operation therefore share its
+ * EntityManager.
+ * <p>
+ * Instances are thread-safe and meant to be shared, usually the one of
+ * {@code JPAConfig}.
+ */
+public class UnitOfWork {
+
+    private final EntityManagerFactory entityManagerFactory;
+    private final EntityManager fixedEntityManager;
+    private final ThreadLocal<EntityManager> current = new ThreadLocal<>();
+
+    /**
+     * Creates a unit of work over the given factory.
+     *
+     * @param entityManagerFactory the factory of the per-operation
+     *                             EntityManagers
+     */
+    public UnitOfWork(EntityManagerFactory entityManagerFactory) {
+        this(entityManagerFactory, null);
+    }
+
+    private UnitOfWork(EntityManagerFactory entityManagerFactory,
+                       EntityManager fixedEntityManager) {
+        this.entityManagerFactory = entityManagerFactory;
+        this.fixedEntityManager = fixedEntityManager;
+    }
+
+    /**
+     * Creates a unit of work that always uses the given EntityManager and never
+     * closes it. Kept for callers that still manage their own EntityManager,
+     * and for tests.
+     *
+     * @param entityManager the EntityManager to use
+     * @return the unit of work
+     */
+    public static UnitOfWork bound(EntityManager entityManager) {
+        return new UnitOfWork(null, entityManager);
+    }
+
+    /**
+     * Runs read-only work without a transaction.
+     *
+     * @param work the work, given the EntityManager of the operation
+     * @param <T> the result type
+     * @return the result of the work
+     */
+    public <T> T read(Function<EntityManager, T> work) {
+        EntityManager active = activeEntityManager();
+        if (active != null) {
+            return work.apply(active);
+        }
+        EntityManager entityManager =
+                entityManagerFactory.createEntityManager();
+        current.set(entityManager);
+        try {
+            return work.apply(entityManager);
+        } finally {
+            current.remove();
+            entityManager.close();
+        }
+    }
+
+    /**
+     * Runs work in a transaction, committed when the work returns and rolled
+     * back when it throws. Joins the transaction of an enclosing operation on
+     * the same thread.
+     *
+     * @param work the work, given the EntityManager of the operation
+     * @param <T> the result type
+     * @return the result of the work
+     */
+    public <T> T write(Function<EntityManager, T> work) {
+        return read(entityManager -> {
+            EntityTransaction transaction = entityManager.getTransaction();
+            if (transaction.isActive()) {
+                return work.apply(entityManager);
+            }
+            transaction.begin();
+            try {
+                T result = work.apply(entityManager);
+                transaction.commit();
+                return result;
+            } catch (RuntimeException e) {
+                if (transaction.isActive()) {
+                    transaction.rollback();
+                }
+                throw e;
+            }
+        });
+    }
+
+    /**
+     * Runs work without a result in a transaction, like {@link #write}.
+     *
+     * @param work the work, given the EntityManager of the operation
+     */
+    public void execute(Consumer<EntityManager> work) {
+        write(entityManager -> {
+            work.accept(entityManager);
+            return null;
+        });
+    }
+
+    /**
+     * Removes an entity from the second-level cache, so that the next read of
+     * it goes to the database. Used by writes the cache cannot see, and by
+     * repository writes to drop the cached state explicitly.
+     *
+     * @param entityClass the entity class
+     * @param id the entity id, ignored if null
+     */
+    public void evict(Class<?> entityClass, Object id) {
+        EntityManagerFactory factory = fixedEntityManager != null
+                ? fixedEntityManager.getEntityManagerFactory()
+                : entityManagerFactory;
+        Cache cache = factory == null || id == null ? null : factory.getCache();
+        if (cache != null) {
+            cache.evict(entityClass, id);
+        }
+    }
+
+    private EntityManager activeEntityManager() {
+        return fixedEntityManager != null ? fixedEntityManager : current.get();
+    }
+}
@@ -0,0 +1,99 @@
+package org.jala.university.commons.infrastructure.persistance;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import jakarta.persistence.EntityTransaction;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+
+import java.util.concurrent.CompletableFuture;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@DisplayName("Unit of work")
+class UnitOfWorkTest {
+
+    @Mock
+    private EntityManagerFactory entityManagerFactory;
+
+    @Mock
+    private EntityManager entityManager;
+
+    @Mock
+    private EntityTransaction transaction;
+
+    private UnitOfWork unitOfWork;
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+        when(entityManagerFactory.createEntityManager()).thenReturn(entityManager);
+        when(entityManager.getTransaction()).thenReturn(transaction);
+        unitOfWork = new UnitOfWork(entityManagerFactory);
+    }
+
+    @Test
+    @DisplayName("Should open and close an entity manager per operation")
+    void entityManagerPerOperation() {
+        unitOfWork.read(em -> em);
+        unitOfWork.read(em -> em);
+
+        verify(entityManagerFactory, times(2)).createEntityManager();
+        verify(entityManager, times(2)).close();
+        verify(transaction, never()).begin();
+    }
+
+    @Test
+    @DisplayName("Should join the entity manager and transaction of the enclosing operation")
+    void nestedOperations() {
+        unitOfWork.execute(outer -> {
+            when(transaction.isActive()).thenReturn(true);
+            assertSame(outer, unitOfWork.read(inner -> inner));
+            unitOfWork.execute(inner -> assertSame(outer, inner));
+        });
+
+        verify(entityManagerFactory).createEntityManager();
+        verify(transaction).begin();
+        verify(transaction).commit();
+        verify(entityManager).close();
+    }
+
+    @Test
+    @DisplayName("Should roll back and close the entity manager when the work fails")
+    void failedWrite() {
+        when(transaction.isActive()).thenReturn(false, true);
+
+        assertThrows(IllegalStateException.class, () -> unitOfWork.write(em -> {
+            throw new IllegalStateException("boom");
+        }));
+
+        verify(transaction).rollback();
+        verify(transaction, never()).commit();
+        verify(entityManager).close();
+    }
+
+    @Test
+    @DisplayName("Should not share the entity manager of an operation with another thread")
+    void otherThread() {
+        unitOfWork.read(outer -> CompletableFuture.runAsync(() -> unitOfWork.read(inner -> inner)).join());
+
+        verify(entityManagerFactory, times(2)).createEntityManager();
+    }
+
+    @Test
+    @DisplayName("Should never close a bound entity manager")
+    void boundEntityManager() {
+        UnitOfWork bound = UnitOfWork.bound(entityManager);
+
+        bound.execute(em -> assertSame(entityManager, em));
+
+        verify(entityManagerFactory, never()).createEntityManager();
+        verify(transaction).begin();
+        verify(transaction).commit();
+        verify(entityManager, never()).close();
+    }
+}
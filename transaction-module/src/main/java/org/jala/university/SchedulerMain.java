@@ -0,0 +1,23 @@
+package org.jala.university;
+
+import org.jala.university.application.service.impl.PendingTransferScheduler;
+import org.jala.university.infrastructure.config.JPAConfig;
+
+/**
+ * Headless entry point that only runs the scheduled-transfer settlement,
+ * for hosts where the JavaFX application is not kept open.
+ */
+public class SchedulerMain {
+
+    public static void main(String[] args) throws InterruptedException {
+        PendingTransferScheduler scheduler = PendingTransferScheduler.fromProperties();
+        Runtime.getRuntime().addShutdownHook(new Thread(() -> {
+            scheduler.stop();
+            JPAConfig.close();
+        }));
+        scheduler.start();
+
+        // The scheduler threads are daemons, so keep the JVM alive until it is stopped
+        Thread.currentThread().join();
+    }
+}
@@ -0,0 +1,39 @@
+package org.jala.university;
+
+import org.jala.university.infrastructure.config.JPAConfig;
+import org.jala.university.presentation.util.StatementBatchGenerator;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.time.YearMonth;
+import java.util.Locale;
+
+/**
+ * Headless entry point that generates the month-end statements of every account.
+ * <p>
+ * Usage: {@code StatementBatchMain <yyyy-MM> <csv|pdf> <outputDirectory> [workers]}; the
+ * number of workers defaults to the number of available processors.
+ */
+public class StatementBatchMain {
+
+    public static void main(String[] args) throws IOException {
+        if (args.length < 3) {
+            System.out.println("Usage: StatementBatchMain <yyyy-MM> <csv|pdf> <outputDirectory> [workers]");
+            return;
+        }
+        YearMonth month = YearMonth.parse(args[0]);
+        StatementBatchGenerator.Format format = StatementBatchGenerator.Format.valueOf(args[1].toUpperCase(Locale.ROOT));
+        Path outputDirectory = Path.of(args[2]);
+        int workers = args.length > 3 ? Integer.parseInt(args[3]) : Runtime.getRuntime().availableProcessors();
+
+        try {
+            StatementBatchGenerator.Result result = new StatementBatchGenerator(workers)
+                    .generate(month.atDay(1), month.atEndOfMonth(), format, outputDirectory);
+            System.out.printf("%d statements (%d failed), %d transactions in %d ms, %.1f accounts/s. Manifest: %s%n",
+                    result.accounts(), result.failed(), result.rows(), result.elapsed().toMillis(),
+                    result.accountsPerSecond(), result.manifest());
+        } finally {
+            JPAConfig.close();
+        }
+    }
+}
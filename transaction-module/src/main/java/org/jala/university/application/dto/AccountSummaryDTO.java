@@ -0,0 +1,45 @@
+package org.jala.university.application.dto;
+
+import lombok.Builder;
+import lombok.Getter;
+import lombok.ToString;
+import org.jala.university.domain.entity.enums.TransactionStatus;
+
+import java.math.BigDecimal;
+import java.time.YearMonth;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Point-in-time summary of an account, as shown on the dashboard.
+ */
+@Getter
+@Builder
+@ToString
+public class AccountSummaryDTO {
+    private final Long accountId;
+    private final BigDecimal balance;
+    private final Map<TransactionStatus, Long> countsByStatus;
+    private final Map<YearMonth, MonthlyTotals> monthlyTotals; // oldest month first
+    private final List<TransactionHistoryDTO> recentTransactions; // newest first
+
+    /**
+     * Returns the number of transactions of the account, in any status.
+     *
+     * @return the transaction count
+     */
+    public long getTransactionCount() {
+        return countsByStatus.values().stream().mapToLong(Long::longValue).sum();
+    }
+
+    /**
+     * Money received and sent by the account in one month, from its completed transfers.
+     */
+    @Getter
+    @Builder
+    @ToString
+    public static class MonthlyTotals {
+        private final BigDecimal credits;
+        private final BigDecimal debits;
+    }
+}
@@ -0,0 +1,23 @@
+package org.jala.university.application.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+
+/**
+ * Data Transfer Object describing an account whose stored balance does not match the ledger journal.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class LedgerDiscrepancyDTO {
+    private Long accountId;
+    private String accountNumber;
+    private BigDecimal accountBalance; // Account.balance
+    private BigDecimal ledgerBalance; // snapshot + postings since the snapshot
+    private BigDecimal difference; // accountBalance - ledgerBalance
+}
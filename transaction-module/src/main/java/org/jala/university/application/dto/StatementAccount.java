@@ -0,0 +1,63 @@
+package org.jala.university.application.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.ToString;
+import org.jala.university.domain.entity.enums.AccountType;
+
+/**
+ * The account and holder printed in the header of a statement.
+ * <p>
+ * Passed to the exporters explicitly, so that a statement can be generated for any account
+ * and not only for the one of the logged-in user.
+ */
+@Getter
+@Builder
+@ToString(exclude = "holderCpf")
+@AllArgsConstructor
+public class StatementAccount {
+    private final Long accountId;
+    private final String accountNumber;
+    private final String agency;
+    private final AccountType accountType;
+    private final String holderName;
+    private final String holderCpf;
+
+    /**
+     * Creates the statement account of a user, when only the account ID is at hand.
+     *
+     * @param accountId the account ID, or null
+     * @param user the holder, or null if not known
+     * @return the statement account
+     */
+    public static StatementAccount of(Long accountId, UserDTO user) {
+        return StatementAccount.builder()
+                .accountId(accountId)
+                .holderName(user != null ? user.getName() : null)
+                .holderCpf(user != null ? user.getCpf() : null)
+                .build();
+    }
+
+    /**
+     * Returns how the account is identified on the statement: its number, or its ID when the
+     * number is not known.
+     *
+     * @return the account label, or "N/A"
+     */
+    public String getAccountLabel() {
+        if (accountNumber != null) {
+            return accountNumber;
+        }
+        return accountId != null ? accountId.toString() : "N/A";
+    }
+
+    /**
+     * Returns the name of the account type printed on the statement.
+     *
+     * @return "Conta Poupança" for savings accounts, otherwise "Conta Corrente"
+     */
+    public String getAccountTypeName() {
+        return accountType == AccountType.SAVINGS ? "Conta Poupança" : "Conta Corrente";
+    }
+}
@@ -0,0 +1,59 @@
+package org.jala.university.application.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.ToString;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+/**
+ * Totals of the rows of a statement: their count, credits, debits and period.
+ * <p>
+ * Either read with aggregate queries, or accumulated with {@link #add} while the rows are
+ * written, for a summary placed after them.
+ */
+@Getter
+@ToString
+@NoArgsConstructor
+@AllArgsConstructor
+public class StatementTotals {
+    private long count;
+    private BigDecimal credits = BigDecimal.ZERO;
+    private BigDecimal debits = BigDecimal.ZERO;
+    private LocalDateTime firstDate;
+    private LocalDateTime lastDate;
+
+    /**
+     * Adds one row to the totals.
+     *
+     * @param transaction the row
+     */
+    public void add(TransactionHistoryDTO transaction) {
+        count++;
+        if (transaction.isDebit()) {
+            debits = debits.add(transaction.getAmount());
+        } else {
+            credits = credits.add(transaction.getAmount());
+        }
+        LocalDateTime date = transaction.getDate();
+        if (date != null) {
+            if (firstDate == null || date.isBefore(firstDate)) {
+                firstDate = date;
+            }
+            if (lastDate == null || date.isAfter(lastDate)) {
+                lastDate = date;
+            }
+        }
+    }
+
+    /**
+     * Returns the credits minus the debits.
+     *
+     * @return the balance of the period
+     */
+    public BigDecimal getBalance() {
+        return credits.subtract(debits);
+    }
+}
@@ -31,4 +31,6 @@ public class TransactionDTO {
     private LocalDate transactionSchedule;
 
     private LocalDateTime createdAt;
+
+    private String idempotencyKey;
 }
@@ -0,0 +1,25 @@
+package org.jala.university.application.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * One page of an account's transaction history, newest first.
+ * Pass {@link #nextPageToken} back to the service to read the following page.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class TransactionHistoryPage {
+    private List<TransactionHistoryDTO> items;
+    private String nextPageToken; // null on the last page
+
+    public boolean hasNext() {
+        return nextPageToken != null;
+    }
+}
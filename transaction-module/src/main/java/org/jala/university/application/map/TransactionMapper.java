@@ -16,6 +16,7 @@ public class TransactionMapper implements Mapper<Transaction, TransactionDTO> {
                 .receiver(input.getReceiver())
                 .sender(input.getSender())
                 .transactionSchedule(input.getTransactionSchedule())
+                .idempotencyKey(input.getIdempotencyKey())
                 .build();
     }
 
@@ -29,6 +30,7 @@ public class TransactionMapper implements Mapper<Transaction, TransactionDTO> {
                 .receiver(input.getReceiver())
                 .sender(input.getSender())
                 .transactionSchedule(input.getTransactionSchedule())
+                .idempotencyKey(input.getIdempotencyKey())
                 .build();
     }
 }
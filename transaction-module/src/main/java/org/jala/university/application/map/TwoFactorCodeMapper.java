@@ -27,7 +27,7 @@ public class TwoFactorCodeMapper {
      * Default constructor that initializes a UserRepository.
      */
     public TwoFactorCodeMapper() {
-        this.userRepository = new UserRepositoryImp(JPAConfig.getEntityManagerFactory().createEntityManager());
+        this.userRepository = new UserRepositoryImp(JPAConfig.getUnitOfWork());
     }
 
     /**
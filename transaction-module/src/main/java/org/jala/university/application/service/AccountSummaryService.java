@@ -0,0 +1,18 @@
+package org.jala.university.application.service;
+
+import org.jala.university.application.dto.AccountSummaryDTO;
+
+/**
+ * Service interface for the dashboard summary of an account.
+ */
+public interface AccountSummaryService {
+
+    /**
+     * Gets the summary of an account: its balance, transaction counts by status, monthly
+     * credit and debit totals and most recent transactions.
+     *
+     * @param accountId the account ID
+     * @return the summary
+     */
+    AccountSummaryDTO getAccountSummary(Long accountId);
+}
@@ -14,7 +14,20 @@ public interface AuthenticationService {
      * @param password the user's password
      * @return authentication token or null if 2FA is required
      */
-    String authenticate(String email, String password);
+    default String authenticate(String email, String password) {
+        return authenticate(email, password, null);
+    }
+
+    /**
+     * Authenticates a user with email and password, limiting the attempts per email and per
+     * origin.
+     *
+     * @param email the user's email
+     * @param password the user's password
+     * @param origin the address the attempt comes from, or null if unknown
+     * @return authentication token or null if 2FA is required
+     */
+    String authenticate(String email, String password, String origin);
     
     /**
      * Verifies a two-factor authentication code.
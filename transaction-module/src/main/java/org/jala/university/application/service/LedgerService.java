@@ -0,0 +1,43 @@
+package org.jala.university.application.service;
+
+import org.jala.university.application.dto.LedgerDiscrepancyDTO;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+/**
+ * Service for reading balances from the double-entry ledger journal.
+ * <p>
+ * The ledger balance of an account is its latest balance snapshot plus the postings
+ * recorded after that snapshot.
+ */
+public interface LedgerService {
+
+    /**
+     * Computes the balance of an account from the journal.
+     *
+     * @param accountId the account ID
+     * @return the latest snapshot balance plus the postings since that snapshot
+     */
+    BigDecimal getBalance(Long accountId);
+
+    /**
+     * Records a new snapshot of the account's ledger balance, so later reads only need
+     * the postings made after it.
+     *
+     * @param accountId the account ID
+     * @return the balance recorded in the snapshot
+     */
+    BigDecimal takeSnapshot(Long accountId);
+
+    /**
+     * Verifies the stored balance of every account against the journal.
+     * <p>
+     * Accounts that match get a new snapshot when they have postings since the last one.
+     * Accounts without any snapshot get an opening snapshot derived from their current
+     * balance, since their balance predates the journal.
+     *
+     * @return the accounts whose stored balance differs from the ledger balance
+     */
+    List<LedgerDiscrepancyDTO> reconcile();
+}
@@ -1,14 +1,27 @@
 package org.jala.university.application.service;
 
 import org.jala.university.application.dto.TransactionHistoryDTO;
+import org.jala.university.application.dto.TransactionHistoryPage;
+import org.jala.university.application.dto.StatementTotals;
 
 import java.time.LocalDate;
 import java.util.List;
+import java.util.function.Consumer;
 
 /**
  * Service for retrieving transaction history data.
  */
 public interface TransactionHistoryService {
+
+    /**
+     * Page size used when the requested one is not positive.
+     */
+    int DEFAULT_PAGE_SIZE = 50;
+
+    /**
+     * Largest page size served; larger requests are capped to it.
+     */
+    int MAX_PAGE_SIZE = 200;
     
     /**
      * Retrieves the transaction history for a specific account.
@@ -48,4 +61,84 @@ public interface TransactionHistoryService {
      */
     List<TransactionHistoryDTO> getAccountTransactionHistoryByDateRangeAndStatus(
             Long accountId, LocalDate startDate, LocalDate endDate, String status);
+
+    /**
+     * Retrieves one page of the transaction history of an account, newest first.
+     * <p>
+     * Pages are read by seeking past the {@code (createdAt, id)} of the last row of the
+     * previous page, so every page costs the same regardless of the size of the history.
+     *
+     * @param accountId the ID of the account
+     * @param pageSize the number of rows wanted, capped to {@link #MAX_PAGE_SIZE}
+     * @param pageToken the token of the previous page, or null for the first page
+     * @return the page
+     * @throws IllegalArgumentException if the page token is malformed
+     */
+    TransactionHistoryPage getAccountTransactionHistoryPage(Long accountId, int pageSize, String pageToken);
+
+    /**
+     * Retrieves one page of the transactions of an account within a date range, newest first.
+     *
+     * @param accountId the ID of the account
+     * @param startDate the start date (inclusive)
+     * @param endDate the end date (inclusive)
+     * @param pageSize the number of rows wanted, capped to {@link #MAX_PAGE_SIZE}
+     * @param pageToken the token of the previous page, or null for the first page
+     * @return the page
+     */
+    TransactionHistoryPage getAccountTransactionHistoryPage(
+            Long accountId, LocalDate startDate, LocalDate endDate, int pageSize, String pageToken);
+
+    /**
+     * Retrieves one page of the transactions of an account with a specific status, newest first.
+     *
+     * @param accountId the ID of the account
+     * @param status the transaction status (e.g., "PENDING", "COMPLETED", "FAILED", "CANCELLED")
+     * @param pageSize the number of rows wanted, capped to {@link #MAX_PAGE_SIZE}
+     * @param pageToken the token of the previous page, or null for the first page
+     * @return the page
+     */
+    TransactionHistoryPage getAccountTransactionHistoryPageByStatus(
+            Long accountId, String status, int pageSize, String pageToken);
+
+    /**
+     * Retrieves one page of the transactions of an account within a date range and with a
+     * specific status, newest first.
+     *
+     * @param accountId the ID of the account
+     * @param startDate the start date (inclusive)
+     * @param endDate the end date (inclusive)
+     * @param status the transaction status (e.g., "PENDING", "COMPLETED", "FAILED", "CANCELLED")
+     * @param pageSize the number of rows wanted, capped to {@link #MAX_PAGE_SIZE}
+     * @param pageToken the token of the previous page, or null for the first page
+     * @return the page
+     */
+    TransactionHistoryPage getAccountTransactionHistoryPageByDateRangeAndStatus(
+            Long accountId, LocalDate startDate, LocalDate endDate, String status, int pageSize, String pageToken);
+
+    /**
+     * Streams the transactions of an account to an action, newest first, without holding
+     * them in memory. Used by the statement exports, whose size is not bounded.
+     *
+     * @param accountId the ID of the account
+     * @param startDate the start date (inclusive), or null for no date filter
+     * @param endDate the end date (inclusive), or null for no date filter
+     * @param status the transaction status, or null for every status
+     * @param action receives each transaction, on the calling thread
+     * @return the number of transactions streamed
+     */
+    long streamAccountTransactionHistory(Long accountId, LocalDate startDate, LocalDate endDate, String status,
+                                         Consumer<TransactionHistoryDTO> action);
+
+    /**
+     * Computes the totals of the transactions of an account with aggregate queries, without
+     * reading the transactions. Takes the same filters as {@link #streamAccountTransactionHistory}.
+     *
+     * @param accountId the ID of the account
+     * @param startDate the start date (inclusive), or null for no date filter
+     * @param endDate the end date (inclusive), or null for no date filter
+     * @param status the transaction status, or null for every status
+     * @return the totals
+     */
+    StatementTotals getAccountTransactionTotals(Long accountId, LocalDate startDate, LocalDate endDate, String status);
 }
@@ -14,5 +14,7 @@ public interface TransactionsService {
 
     boolean save(TransactionDTO transaction);
 
+    List<TransactionDTO> saveAll(List<TransactionDTO> transactions);
+
     boolean delete(Long id);
 }
@@ -0,0 +1,56 @@
+package org.jala.university.application.service;
+
+import org.jala.university.domain.entity.Transaction;
+import org.jala.university.domain.entity.enums.TransactionStatus;
+
+import java.util.List;
+
+/**
+ * Executes money transfers between two accounts atomically.
+ */
+public interface TransferEngine {
+
+    /**
+     * Debits the sender, credits the receiver and records the transaction
+     * in a single database transaction.
+     * <p>
+     * The status of the given transaction is updated in place before it is persisted.
+     *
+     * @param transaction the transaction to execute
+     * @return {@link TransactionStatus#COMPLETED} if the funds were moved,
+     *         {@link TransactionStatus#CANCELLED} if the sender has insufficient balance
+     * @throws IllegalArgumentException if the accounts are invalid or the amount is not positive
+     */
+    TransactionStatus transfer(Transaction transaction);
+
+    /**
+     * Executes a stored PENDING transaction in place.
+     * <p>
+     * The funds are moved and the row is switched to its final status in a single database
+     * transaction. The status change is conditional on the row still being PENDING, so a
+     * transaction settled concurrently by another worker is never executed twice.
+     *
+     * @param transactionId the ID of the pending transaction
+     * @return {@link TransactionStatus#COMPLETED}, {@link TransactionStatus#CANCELLED} for insufficient
+     *         balance, {@link TransactionStatus#FAILED} for invalid accounts or amount, or the current
+     *         status if the transaction was no longer pending
+     * @throws IllegalArgumentException if the transaction does not exist
+     */
+    TransactionStatus settle(Long transactionId);
+
+    /**
+     * Executes a group of transfers and commits them together.
+     * <p>
+     * Transfers are applied in list order, so a sender whose balance runs out part-way
+     * through the group gets its remaining transfers cancelled. Items that are invalid or
+     * reference unknown accounts are reported as {@link TransactionStatus#FAILED} without
+     * affecting the rest of the group; if the group commit itself fails, its transfers are
+     * retried one by one, so only the transfers that fail on their own are FAILED.
+     * <p>
+     * The status of each transaction is updated in place.
+     *
+     * @param transactions the transactions to execute
+     * @return the resulting status of each transaction, in the same order
+     */
+    List<TransactionStatus> transferAll(List<Transaction> transactions);
+}
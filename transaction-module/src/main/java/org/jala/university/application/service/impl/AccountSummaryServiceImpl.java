@@ -0,0 +1,126 @@
+package org.jala.university.application.service.impl;
+
+import org.jala.university.application.dto.AccountSummaryDTO;
+import org.jala.university.application.dto.TransactionHistoryDTO;
+import org.jala.university.application.service.AccountSummaryService;
+import org.jala.university.application.service.TransactionHistoryService;
+import org.jala.university.commons.infrastructure.persistance.UnitOfWork;
+import org.jala.university.domain.entity.enums.PostingType;
+import org.jala.university.domain.entity.enums.TransactionStatus;
+import org.jala.university.infrastructure.cache.AccountSummaryStore;
+import org.jala.university.infrastructure.config.JPAConfig;
+import org.jala.university.infrastructure.persistence.TransactionRepositoryImpl;
+
+import java.math.BigDecimal;
+import java.time.YearMonth;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Implementation of the AccountSummaryService.
+ * <p>
+ * Summaries are served from the {@link AccountSummaryStore}, which the transfer paths keep
+ * up to date. On a miss the summary is read from the database in one transaction: the
+ * balance, the transaction counts grouped by status on each side, the ledger totals of the
+ * last {@value AccountSummaryStore#MONTHS} months and the first page of the history.
+ */
+public class AccountSummaryServiceImpl implements AccountSummaryService {
+
+    private static final String BALANCE_JPQL = "SELECT a.balance FROM Account a WHERE a.id = :accountId";
+
+    private static final String SENT_COUNTS_JPQL = "SELECT t.status, COUNT(t) FROM Transaction t "
+            + "WHERE t.sender.id = :accountId AND t.createdAt IS NOT NULL GROUP BY t.status";
+
+    private static final String RECEIVED_COUNTS_JPQL = "SELECT t.status, COUNT(t) FROM Transaction t "
+            + "WHERE t.receiver.id = :accountId AND t.createdAt IS NOT NULL GROUP BY t.status";
+
+    private static final String MONTHLY_TOTALS_JPQL = "SELECT year(l.createdAt), month(l.createdAt), l.type, "
+            + "SUM(l.amount) FROM LedgerEntry l WHERE l.account.id = :accountId AND l.createdAt >= :since "
+            + "GROUP BY year(l.createdAt), month(l.createdAt), l.type";
+
+    private final UnitOfWork unitOfWork;
+    private final TransactionHistoryService transactionHistoryService;
+    private final AccountSummaryStore summaryStore;
+
+    /**
+     * Constructor using the shared unit of work and summary store.
+     */
+    public AccountSummaryServiceImpl() {
+        this(JPAConfig.getUnitOfWork(), new TransactionHistoryServiceImpl(new TransactionRepositoryImpl()),
+                AccountSummaryStore.getInstance());
+    }
+
+    /**
+     * Constructor with the dependencies used to load summaries and the store to keep them in.
+     *
+     * @param unitOfWork the unit of work to query with; the history service should share it
+     * @param transactionHistoryService the service that reads the recent transactions
+     * @param summaryStore the store of loaded summaries
+     */
+    public AccountSummaryServiceImpl(UnitOfWork unitOfWork, TransactionHistoryService transactionHistoryService,
+                                     AccountSummaryStore summaryStore) {
+        this.unitOfWork = unitOfWork;
+        this.transactionHistoryService = transactionHistoryService;
+        this.summaryStore = summaryStore;
+    }
+
+    @Override
+    public AccountSummaryDTO getAccountSummary(Long accountId) {
+        return summaryStore.get(accountId, this::load);
+    }
+
+    /**
+     * Reads the summary of an account from the database. The queries share one transaction,
+     * so they see the same committed state.
+     */
+    private AccountSummaryDTO load(Long accountId) {
+        YearMonth since = YearMonth.now().minusMonths(AccountSummaryStore.MONTHS - 1L);
+        return unitOfWork.write(entityManager -> {
+            List<BigDecimal> balances = entityManager.createQuery(BALANCE_JPQL, BigDecimal.class)
+                    .setParameter("accountId", accountId)
+                    .getResultList();
+            if (balances.isEmpty()) {
+                throw new IllegalArgumentException("Account not found");
+            }
+
+            Map<TransactionStatus, Long> counts = new EnumMap<>(TransactionStatus.class);
+            for (String jpql : List.of(SENT_COUNTS_JPQL, RECEIVED_COUNTS_JPQL)) {
+                for (Object[] row : entityManager.createQuery(jpql, Object[].class)
+                        .setParameter("accountId", accountId)
+                        .getResultList()) {
+                    counts.merge((TransactionStatus) row[0], (Long) row[1], Long::sum);
+                }
+            }
+
+            Map<YearMonth, BigDecimal[]> months = new TreeMap<>();
+            for (Object[] row : entityManager.createQuery(MONTHLY_TOTALS_JPQL, Object[].class)
+                    .setParameter("accountId", accountId)
+                    .setParameter("since", since.atDay(1).atStartOfDay())
+                    .getResultList()) {
+                YearMonth month = YearMonth.of(((Number) row[0]).intValue(), ((Number) row[1]).intValue());
+                BigDecimal[] totals = months.computeIfAbsent(month,
+                        m -> new BigDecimal[]{BigDecimal.ZERO, BigDecimal.ZERO});
+                totals[row[2] == PostingType.CREDIT ? 0 : 1] = (BigDecimal) row[3];
+            }
+            Map<YearMonth, AccountSummaryDTO.MonthlyTotals> monthlyTotals = new TreeMap<>();
+            months.forEach((month, totals) -> monthlyTotals.put(month, AccountSummaryDTO.MonthlyTotals.builder()
+                    .credits(totals[0])
+                    .debits(totals[1])
+                    .build()));
+
+            List<TransactionHistoryDTO> recent = transactionHistoryService
+                    .getAccountTransactionHistoryPage(accountId, summaryStore.getRecentSize(), null)
+                    .getItems();
+
+            return AccountSummaryDTO.builder()
+                    .accountId(accountId)
+                    .balance(balances.get(0))
+                    .countsByStatus(counts)
+                    .monthlyTotals(monthlyTotals)
+                    .recentTransactions(recent)
+                    .build();
+        });
+    }
+}
@@ -1,51 +1,74 @@
 package org.jala.university.application.service.impl;
 
-import jakarta.persistence.EntityManager;
+import org.hibernate.Hibernate;
 import org.jala.university.application.dto.TwoFactorVerificationDTO;
 import org.jala.university.application.dto.UserDTO;
 import org.jala.university.application.map.UserMapper;
 import org.jala.university.application.service.AuthenticationService;
 import org.jala.university.application.service.TwoFactorAuthService;
+import org.jala.university.commons.infrastructure.persistance.UnitOfWork;
 import org.jala.university.domain.entity.User;
 import org.jala.university.domain.repository.UserRepository;
 import org.jala.university.infrastructure.config.JPAConfig;
 import org.jala.university.infrastructure.persistence.UserRepositoryImp;
 import org.jala.university.presentation.util.SessionManager;
-import org.springframework.security.crypto.bcrypt.BCrypt;
+import org.jala.university.infrastructure.security.LoginRateLimiter;
+import org.jala.university.infrastructure.security.LoginThrottledException;
+import org.jala.university.infrastructure.security.PasswordHasher;
 
 import java.util.Optional;
 import java.util.UUID;
+import java.util.logging.Level;
+import java.util.logging.Logger;
 
 /**
  * Implementation of the AuthenticationService.
  */
 public class AuthenticationServiceImpl implements AuthenticationService {
-    
+
+    private static final Logger LOGGER = Logger.getLogger(AuthenticationServiceImpl.class.getName());
+
     private final UserRepository userRepository;
     private final UserMapper userMapper;
     private final TwoFactorAuthService twoFactorAuthService;
-    private final EntityManager entityManager;
+    private final UnitOfWork unitOfWork;
+    private final PasswordHasher passwordHasher;
+    private final LoginRateLimiter rateLimiter;
     
     /**
      * Constructor initializing the required dependencies.
      */
     public AuthenticationServiceImpl() {
-        this.entityManager = JPAConfig.getEntityManagerFactory().createEntityManager();
-        this.userRepository = new UserRepositoryImp(entityManager);
+        this.unitOfWork = JPAConfig.getUnitOfWork();
+        this.userRepository = new UserRepositoryImp(unitOfWork);
         this.userMapper = new UserMapper();
         this.twoFactorAuthService = new TwoFactorAuthServiceImpl();
+        this.passwordHasher = PasswordHasher.getInstance();
+        this.rateLimiter = LoginRateLimiter.getInstance();
     }
     
     /**
      * Authenticates a user with email and password.
+     * <p>
+     * Attempts over the rate limit are refused before the password is checked. A password
+     * hashed with an outdated cost is hashed again with the current one.
      * 
      * @param email the user's email
      * @param password the user's password
+     * @param origin the address the attempt comes from, or null if unknown
      * @return authentication token or null if 2FA is required
      */
     @Override
-    public String authenticate(String email, String password) {
-        Optional<User> userOptional = userRepository.findByEmail(email);
+    public String authenticate(String email, String password, String origin) {
+        if (!rateLimiter.tryAcquire(email, origin)) {
+            throw new LoginThrottledException(rateLimiter.getRetryAfter(email));
+        }
+
+        Optional<User> userOptional = unitOfWork.read(entityManager -> {
+            Optional<User> found = userRepository.findByEmail(email);
+            found.ifPresent(AuthenticationServiceImpl::initializeAccounts);
+            return found;
+        });
         
         if (userOptional.isEmpty()) {
             throw new RuntimeException("Usuário não encontrado");
@@ -53,9 +76,11 @@ public class AuthenticationServiceImpl implements AuthenticationService {
         
         User user = userOptional.get();
         
-        if (!BCrypt.checkpw(password, user.getPassword())) {
+        if (!passwordHasher.verify(password, user.getPassword())) {
             throw new RuntimeException("Senha incorreta");
         }
+        rateLimiter.reset(email);
+        rehashIfNeeded(user, password);
         
         UserDTO userDTO = userMapper.mapTo(user);
         
@@ -107,7 +132,11 @@ public class AuthenticationServiceImpl implements AuthenticationService {
         }
         
         // Obter o usuário e suas contas
-        User user = userRepository.findById(verificationDTO.getUserId());
+        User user = unitOfWork.read(entityManager -> {
+            User found = userRepository.findById(verificationDTO.getUserId());
+            initializeAccounts(found);
+            return found;
+        });
         if (user != null && user.getAccounts() != null && !user.getAccounts().isEmpty()) {
             Long accountId = user.getAccounts().get(0).getId();
             org.jala.university.infrastructure.utils.SessionManager.setCurrentAccountId(accountId);
@@ -138,4 +167,35 @@ public class AuthenticationServiceImpl implements AuthenticationService {
     private String generateToken() {
         return UUID.randomUUID().toString();
     }
+
+    /**
+     * Stores a new hash of the password when the stored one was made with another cost.
+     * A failure is only logged: the login itself has succeeded.
+     */
+    private void rehashIfNeeded(User user, String password) {
+        if (!passwordHasher.needsRehash(user.getPassword())) {
+            return;
+        }
+        try {
+            String newHash = passwordHasher.hash(password);
+            unitOfWork.execute(entityManager -> entityManager.createQuery(
+                            "UPDATE User u SET u.password = :password WHERE u.id = :id")
+                    .setParameter("password", newHash)
+                    .setParameter("id", user.getId())
+                    .executeUpdate());
+            unitOfWork.evict(User.class, user.getId());
+            user.setPassword(newHash);
+        } catch (RuntimeException e) {
+            LOGGER.log(Level.WARNING, "Não foi possível atualizar o hash da senha do usuário " + user.getId(), e);
+        }
+    }
+
+    /**
+     * Loads the accounts of a user while the entity manager of the lookup is still open.
+     */
+    private static void initializeAccounts(User user) {
+        if (user != null) {
+            Hibernate.initialize(user.getAccounts());
+        }
+    }
 }
@@ -1,11 +1,15 @@
 package org.jala.university.application.service.impl;
 
 import org.jala.university.application.service.EmailService;
+import org.jala.university.infrastructure.mail.EmailOutbox;
+import org.jala.university.infrastructure.mail.MailSettings;
 
-import jakarta.mail.*;
+import jakarta.mail.Message;
+import jakarta.mail.MessagingException;
+import jakarta.mail.Session;
+import jakarta.mail.Transport;
 import jakarta.mail.internet.InternetAddress;
 import jakarta.mail.internet.MimeMessage;
-import java.util.Properties;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 
@@ -17,35 +21,20 @@ public class EmailServiceImpl implements EmailService {
     private static final Logger LOGGER = Logger.getLogger(EmailServiceImpl.class.getName());
 
     private final String username;
-    private final String password;
-    private final String host;
-    private final int port;
-    private final boolean debug;
+    private final Session session;
 
     public EmailServiceImpl(String username, String password, String host, int port, boolean debug) {
         this.username = username;
-        this.password = password;
-        this.host = host;
-        this.port = port;
-        this.debug = debug;
+        // A session is thread-safe; only the connection is opened per message
+        this.session = new MailSettings(host, port, username, password, true, true, debug, false).createSession();
     }
 
+    /**
+     * Sends an email synchronously, over a new connection. For messages sent on a user's behalf,
+     * prefer {@link EmailOutbox}, which sends them in the background over reused connections.
+     */
     @Override
     public boolean sendEmail(String to, String subject, String body) {
-        Properties props = new Properties();
-        props.put("mail.smtp.auth", "true");
-        props.put("mail.smtp.starttls.enable", "true");
-        props.put("mail.smtp.host", host);
-        props.put("mail.smtp.port", port);
-        props.put("mail.debug", String.valueOf(debug));
-
-        Session session = Session.getInstance(props, new Authenticator() {
-            @Override
-            protected PasswordAuthentication getPasswordAuthentication() {
-                return new PasswordAuthentication(username, password);
-            }
-        });
-
         try {
             Message message = new MimeMessage(session);
             message.setFrom(new InternetAddress(username));
@@ -0,0 +1,39 @@
+package org.jala.university.application.service.impl;
+
+import org.jala.university.application.dto.LedgerDiscrepancyDTO;
+import org.jala.university.application.service.LedgerService;
+
+import java.util.List;
+import java.util.TimerTask;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Periodic job that verifies every Account.balance against the ledger journal
+ * and takes fresh balance snapshots of the accounts that match.
+ */
+public class LedgerReconciliationJob extends TimerTask {
+    private static final Logger LOGGER = Logger.getLogger(LedgerReconciliationJob.class.getName());
+
+    private final LedgerService ledgerService;
+
+    public LedgerReconciliationJob() {
+        this.ledgerService = new LedgerServiceImpl();
+    }
+
+    @Override
+    public void run() {
+        try {
+            List<LedgerDiscrepancyDTO> discrepancies = this.ledgerService.reconcile();
+            if (discrepancies.isEmpty()) {
+                LOGGER.info("Reconciliação do razão concluída sem divergências");
+            } else {
+                LOGGER.warning("Reconciliação do razão encontrou " + discrepancies.size()
+                        + " conta(s) divergente(s)");
+            }
+        } catch (RuntimeException e) {
+            // A failing run must not cancel the Timer thread shared with the other jobs
+            LOGGER.log(Level.SEVERE, "Erro na reconciliação do razão", e);
+        }
+    }
+}
@@ -0,0 +1,238 @@
+package org.jala.university.application.service.impl;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import jakarta.persistence.EntityTransaction;
+import jakarta.persistence.LockModeType;
+import org.jala.university.application.dto.LedgerDiscrepancyDTO;
+import org.jala.university.application.service.LedgerService;
+import org.jala.university.domain.entity.Account;
+import org.jala.university.domain.entity.BalanceSnapshot;
+import org.jala.university.domain.entity.enums.PostingType;
+import org.jala.university.infrastructure.config.JPAConfig;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * JPA implementation of the LedgerService.
+ * <p>
+ * Snapshots are taken while holding the account row lock, the same lock the transfer engine
+ * takes before appending postings, so a snapshot never misses a posting that commits later
+ * with a lower id.
+ */
+public class LedgerServiceImpl implements LedgerService {
+    private static final Logger LOGGER = Logger.getLogger(LedgerServiceImpl.class.getName());
+
+    private static final String LATEST_SNAPSHOT_JPQL =
+            "SELECT s FROM BalanceSnapshot s WHERE s.account.id = :accountId ORDER BY s.id DESC";
+
+    private static final String POSTINGS_SINCE_JPQL =
+            "SELECT e.type, SUM(e.amount), MAX(e.id) FROM LedgerEntry e " +
+            "WHERE e.account.id = :accountId AND e.id > :afterId GROUP BY e.type";
+
+    private static final String ACCOUNT_IDS_JPQL = "SELECT a.id FROM Account a ORDER BY a.id";
+
+    private final EntityManagerFactory entityManagerFactory;
+
+    /**
+     * Default constructor that uses the application EntityManagerFactory.
+     */
+    public LedgerServiceImpl() {
+        this(JPAConfig.getEntityManagerFactory());
+    }
+
+    /**
+     * Constructor with EntityManagerFactory parameter.
+     *
+     * @param entityManagerFactory the factory used to open one EntityManager per operation
+     */
+    public LedgerServiceImpl(EntityManagerFactory entityManagerFactory) {
+        this.entityManagerFactory = entityManagerFactory;
+    }
+
+    @Override
+    public BigDecimal getBalance(Long accountId) {
+        EntityManager entityManager = entityManagerFactory.createEntityManager();
+        try {
+            BalanceSnapshot snapshot = findLatestSnapshot(entityManager, accountId);
+            if (snapshot == null) {
+                snapshot = openingSnapshot(entityManager, findAccount(entityManager, accountId, LockModeType.NONE));
+            }
+            Postings postings = postingsSince(entityManager, accountId, snapshot.getLastEntryId());
+            return snapshot.getBalance().add(postings.net());
+        } finally {
+            entityManager.close();
+        }
+    }
+
+    @Override
+    public BigDecimal takeSnapshot(Long accountId) {
+        EntityManager entityManager = entityManagerFactory.createEntityManager();
+        EntityTransaction dbTransaction = entityManager.getTransaction();
+        try {
+            dbTransaction.begin();
+            Account account = findAccount(entityManager, accountId, LockModeType.PESSIMISTIC_WRITE);
+            BalanceSnapshot snapshot = findLatestSnapshot(entityManager, accountId);
+            if (snapshot == null) {
+                snapshot = openingSnapshot(entityManager, account);
+                entityManager.persist(snapshot);
+            }
+            Postings postings = postingsSince(entityManager, accountId, snapshot.getLastEntryId());
+            BigDecimal balance = snapshot.getBalance().add(postings.net());
+            if (postings.lastEntryId() > snapshot.getLastEntryId()) {
+                entityManager.persist(snapshot(account, balance, postings.lastEntryId()));
+            }
+            dbTransaction.commit();
+            return balance;
+        } catch (RuntimeException e) {
+            if (dbTransaction.isActive()) {
+                dbTransaction.rollback();
+            }
+            throw e;
+        } finally {
+            entityManager.close();
+        }
+    }
+
+    @Override
+    public List<LedgerDiscrepancyDTO> reconcile() {
+        List<Long> accountIds;
+        EntityManager entityManager = entityManagerFactory.createEntityManager();
+        try {
+            accountIds = entityManager.createQuery(ACCOUNT_IDS_JPQL, Long.class).getResultList();
+        } finally {
+            entityManager.close();
+        }
+
+        List<LedgerDiscrepancyDTO> discrepancies = new ArrayList<>();
+        for (Long accountId : accountIds) {
+            try {
+                LedgerDiscrepancyDTO discrepancy = reconcileAccount(accountId);
+                if (discrepancy != null) {
+                    discrepancies.add(discrepancy);
+                }
+            } catch (RuntimeException e) {
+                LOGGER.log(Level.SEVERE, "Erro ao reconciliar a conta " + accountId, e);
+            }
+        }
+        return discrepancies;
+    }
+
+    /**
+     * Compares one account against the journal and snapshots it when it matches.
+     *
+     * @return the discrepancy, or null if the account matches the journal
+     */
+    private LedgerDiscrepancyDTO reconcileAccount(Long accountId) {
+        EntityManager entityManager = entityManagerFactory.createEntityManager();
+        EntityTransaction dbTransaction = entityManager.getTransaction();
+        try {
+            dbTransaction.begin();
+            Account account = findAccount(entityManager, accountId, LockModeType.PESSIMISTIC_WRITE);
+            BigDecimal accountBalance = balanceOf(account);
+            BalanceSnapshot snapshot = findLatestSnapshot(entityManager, accountId);
+
+            if (snapshot == null) {
+                entityManager.persist(openingSnapshot(entityManager, account));
+                dbTransaction.commit();
+                return null;
+            }
+
+            Postings postings = postingsSince(entityManager, accountId, snapshot.getLastEntryId());
+            BigDecimal ledgerBalance = snapshot.getBalance().add(postings.net());
+            if (accountBalance.compareTo(ledgerBalance) != 0) {
+                dbTransaction.commit();
+                LOGGER.warning("Saldo da conta " + accountId + " diverge do razão: conta=" + accountBalance
+                        + ", razão=" + ledgerBalance);
+                return LedgerDiscrepancyDTO.builder()
+                        .accountId(accountId)
+                        .accountNumber(account.getAccountNumber())
+                        .accountBalance(accountBalance)
+                        .ledgerBalance(ledgerBalance)
+                        .difference(accountBalance.subtract(ledgerBalance))
+                        .build();
+            }
+
+            if (postings.lastEntryId() > snapshot.getLastEntryId()) {
+                entityManager.persist(snapshot(account, ledgerBalance, postings.lastEntryId()));
+            }
+            dbTransaction.commit();
+            return null;
+        } catch (RuntimeException e) {
+            if (dbTransaction.isActive()) {
+                dbTransaction.rollback();
+            }
+            throw e;
+        } finally {
+            entityManager.close();
+        }
+    }
+
+    private Account findAccount(EntityManager entityManager, Long accountId, LockModeType lockMode) {
+        Account account = entityManager.find(Account.class, accountId, lockMode);
+        if (account == null) {
+            throw new IllegalArgumentException("Account not found: " + accountId);
+        }
+        return account;
+    }
+
+    private BalanceSnapshot findLatestSnapshot(EntityManager entityManager, Long accountId) {
+        List<BalanceSnapshot> snapshots = entityManager.createQuery(LATEST_SNAPSHOT_JPQL, BalanceSnapshot.class)
+                .setParameter("accountId", accountId)
+                .setMaxResults(1)
+                .getResultList();
+        return snapshots.isEmpty() ? null : snapshots.get(0);
+    }
+
+    /**
+     * Builds the snapshot that opens the journal of an account: the balance the account had
+     * before its first posting, so that the account balance and the journal agree from the
+     * start. Not persisted; callers holding the account lock save it.
+     */
+    private BalanceSnapshot openingSnapshot(EntityManager entityManager, Account account) {
+        Postings postings = postingsSince(entityManager, account.getId(), 0L);
+        return snapshot(account, balanceOf(account).subtract(postings.net()), 0L);
+    }
+
+    /**
+     * Sums the postings of an account recorded after the given entry id.
+     */
+    private Postings postingsSince(EntityManager entityManager, Long accountId, long afterId) {
+        List<Object[]> rows = entityManager.createQuery(POSTINGS_SINCE_JPQL, Object[].class)
+                .setParameter("accountId", accountId)
+                .setParameter("afterId", afterId)
+                .getResultList();
+        BigDecimal net = BigDecimal.ZERO;
+        long lastEntryId = 0L;
+        for (Object[] row : rows) {
+            BigDecimal sum = (BigDecimal) row[1];
+            net = row[0] == PostingType.CREDIT ? net.add(sum) : net.subtract(sum);
+            lastEntryId = Math.max(lastEntryId, ((Number) row[2]).longValue());
+        }
+        return new Postings(net, lastEntryId);
+    }
+
+    private static BigDecimal balanceOf(Account account) {
+        return account.getBalance() == null ? BigDecimal.ZERO : account.getBalance();
+    }
+
+    private static BalanceSnapshot snapshot(Account account, BigDecimal balance, long lastEntryId) {
+        return BalanceSnapshot.builder()
+                .account(account)
+                .balance(balance)
+                .lastEntryId(lastEntryId)
+                .createdAt(LocalDateTime.now())
+                .build();
+    }
+
+    /**
+     * Net amount (credits minus debits) and highest entry id of a range of postings.
+     */
+    private record Postings(BigDecimal net, long lastEntryId) {
+    }
+}
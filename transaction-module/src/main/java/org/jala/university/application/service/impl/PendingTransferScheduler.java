@@ -0,0 +1,180 @@
+package org.jala.university.application.service.impl;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import jakarta.persistence.EntityTransaction;
+import org.jala.university.domain.entity.SchedulerWatermark;
+import org.jala.university.infrastructure.config.JPAConfig;
+import org.jala.university.infrastructure.config.SchedulerProperties;
+import org.jala.university.infrastructure.persistence.TransferEngineImpl;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Runs the {@link ScheduledTransferExecutor} at a fixed interval, independently of any UI.
+ * <p>
+ * The time of the last completed run is persisted as a {@link SchedulerWatermark}. On start,
+ * if the watermark is older than one interval (for instance because the application was
+ * closed at midnight), a catch-up run happens immediately; since a run settles every PENDING
+ * transaction scheduled up to the current date, a single run covers all missed windows.
+ * <p>
+ * Settings are read from {@code properties/scheduler.properties} and can be overridden with
+ * system properties; see {@code scheduler.example.properties}.
+ */
+public class PendingTransferScheduler {
+    private static final Logger LOGGER = Logger.getLogger(PendingTransferScheduler.class.getName());
+
+    /**
+     * Name of the watermark row of this job.
+     */
+    static final String JOB_NAME = "pending-transfers";
+
+    private final EntityManagerFactory entityManagerFactory;
+    private final ScheduledTransferExecutor transferExecutor;
+    private final Duration interval;
+    private final Clock clock;
+    private ScheduledExecutorService timer;
+
+    /**
+     * Creates a scheduler configured from {@code properties/scheduler.properties}.
+     *
+     * @return the scheduler, not yet started
+     */
+    public static PendingTransferScheduler fromProperties() {
+        SchedulerProperties props = SchedulerProperties.load();
+        long intervalSeconds = props.getLong("scheduler.interval.seconds", 60);
+        int workers = props.getInt("scheduler.workers", ScheduledTransferExecutor.DEFAULT_WORKERS);
+        int chunkSize = props.getInt("scheduler.chunk.size", ScheduledTransferExecutor.DEFAULT_CHUNK_SIZE);
+
+        EntityManagerFactory entityManagerFactory = JPAConfig.getEntityManagerFactory();
+        ScheduledTransferExecutor transferExecutor = new ScheduledTransferExecutor(
+                entityManagerFactory, new TransferEngineImpl(entityManagerFactory), workers, chunkSize);
+        return new PendingTransferScheduler(entityManagerFactory, transferExecutor,
+                Duration.ofSeconds(intervalSeconds), Clock.systemDefaultZone());
+    }
+
+    /**
+     * Checks whether the scheduler is enabled in {@code properties/scheduler.properties}.
+     *
+     * @return true unless {@code scheduler.enabled} is false
+     */
+    public static boolean isEnabled() {
+        return SchedulerProperties.load().getBoolean("scheduler.enabled", true);
+    }
+
+    /**
+     * Creates a scheduler.
+     *
+     * @param entityManagerFactory the factory used to read and write the watermark
+     * @param transferExecutor the executor that settles the due transactions
+     * @param interval the time between the end of a run and the start of the next one
+     * @param clock the clock used for the watermark
+     */
+    public PendingTransferScheduler(EntityManagerFactory entityManagerFactory,
+                                    ScheduledTransferExecutor transferExecutor,
+                                    Duration interval,
+                                    Clock clock) {
+        if (interval.isZero() || interval.isNegative()) {
+            throw new IllegalArgumentException("Scheduler interval must be positive");
+        }
+        this.entityManagerFactory = entityManagerFactory;
+        this.transferExecutor = transferExecutor;
+        this.interval = interval;
+        this.clock = clock;
+    }
+
+    /**
+     * Starts the periodic runs, catching up immediately if a window was missed.
+     */
+    public synchronized void start() {
+        if (timer != null) {
+            return;
+        }
+        long initialDelay = initialDelayMillis(getLastRunAt());
+        timer = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "pending-transfer-scheduler");
+            thread.setDaemon(true);
+            return thread;
+        });
+        timer.scheduleWithFixedDelay(this::runOnce, initialDelay, interval.toMillis(), TimeUnit.MILLISECONDS);
+        LOGGER.info("Agendador de transferências iniciado com intervalo de " + interval.toSeconds() + "s");
+    }
+
+    /**
+     * Stops the periodic runs and the worker pool.
+     */
+    public synchronized void stop() {
+        if (timer == null) {
+            return;
+        }
+        timer.shutdownNow();
+        timer = null;
+        transferExecutor.shutdown();
+    }
+
+    /**
+     * Settles every due transaction once and advances the watermark.
+     */
+    public void runOnce() {
+        LocalDateTime startedAt = LocalDateTime.now(clock);
+        try {
+            transferExecutor.executeDue(startedAt.toLocalDate());
+            saveWatermark(startedAt);
+        } catch (RuntimeException e) {
+            // An exception would cancel the periodic task, so it is only logged
+            LOGGER.log(Level.SEVERE, "Erro ao executar as transferências agendadas", e);
+        }
+    }
+
+    /**
+     * Returns the time of the last completed run.
+     *
+     * @return the start time of the last completed run, or null if the job never ran
+     */
+    public LocalDateTime getLastRunAt() {
+        EntityManager entityManager = entityManagerFactory.createEntityManager();
+        try {
+            SchedulerWatermark watermark = entityManager.find(SchedulerWatermark.class, JOB_NAME);
+            return watermark == null ? null : watermark.getLastRunAt();
+        } finally {
+            entityManager.close();
+        }
+    }
+
+    long initialDelayMillis(LocalDateTime lastRunAt) {
+        if (lastRunAt == null) {
+            return 0L;
+        }
+        Duration sinceLastRun = Duration.between(lastRunAt, LocalDateTime.now(clock));
+        if (sinceLastRun.compareTo(interval) >= 0) {
+            LOGGER.info("Última execução em " + lastRunAt + "; " + sinceLastRun.dividedBy(interval)
+                    + " janela(s) perdida(s), recuperando agora");
+            return 0L;
+        }
+        return interval.minus(sinceLastRun).toMillis();
+    }
+
+    private void saveWatermark(LocalDateTime lastRunAt) {
+        EntityManager entityManager = entityManagerFactory.createEntityManager();
+        EntityTransaction dbTransaction = entityManager.getTransaction();
+        try {
+            dbTransaction.begin();
+            entityManager.merge(SchedulerWatermark.builder().id(JOB_NAME).lastRunAt(lastRunAt).build());
+            dbTransaction.commit();
+        } catch (RuntimeException e) {
+            if (dbTransaction.isActive()) {
+                dbTransaction.rollback();
+            }
+            throw e;
+        } finally {
+            entityManager.close();
+        }
+    }
+}
@@ -0,0 +1,172 @@
+package org.jala.university.application.service.impl;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import org.jala.university.application.service.TransferEngine;
+import org.jala.university.domain.entity.enums.TransactionStatus;
+import org.jala.university.infrastructure.concurrency.AccountLockManager;
+import org.jala.university.infrastructure.config.JPAConfig;
+import org.jala.university.infrastructure.persistence.TransferEngineImpl;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Executes the PENDING transactions that are due.
+ * <p>
+ * Due rows are read through the {@code (status, transactionSchedule, id)} index in chunks of
+ * ids, using the last id of a chunk as the starting point of the next one, so the cost does
+ * not depend on the number of historical transactions. Each chunk is settled in parallel on a
+ * bounded worker pool, and the next chunk is only read once the previous one has finished,
+ * which bounds the number of rows in flight. Every transaction is settled in place by the
+ * {@link TransferEngine}, while holding the in-process locks of its two accounts.
+ */
+public class ScheduledTransferExecutor {
+    private static final Logger LOGGER = Logger.getLogger(ScheduledTransferExecutor.class.getName());
+
+    /**
+     * Default number of due transactions read per chunk.
+     */
+    public static final int DEFAULT_CHUNK_SIZE = 200;
+
+    /**
+     * Default number of worker threads.
+     */
+    public static final int DEFAULT_WORKERS = 4;
+
+    private static final String DUE_CHUNK_JPQL =
+            "SELECT t.id, t.sender.id, t.receiver.id FROM Transaction t " +
+            "WHERE t.status = :pending AND t.transactionSchedule <= :dueDate AND t.id > :afterId " +
+            "ORDER BY t.id";
+
+    private final EntityManagerFactory entityManagerFactory;
+    private final TransferEngine transferEngine;
+    private final AccountLockManager accountLockManager;
+    private final ExecutorService workers;
+    private final int chunkSize;
+
+    /**
+     * Creates an executor with the default pool and chunk sizes.
+     */
+    public ScheduledTransferExecutor() {
+        this(JPAConfig.getEntityManagerFactory(), new TransferEngineImpl(), DEFAULT_WORKERS, DEFAULT_CHUNK_SIZE);
+    }
+
+    /**
+     * Creates an executor.
+     *
+     * @param entityManagerFactory the factory used to read the due transactions
+     * @param transferEngine the engine that settles each transaction
+     * @param workerCount the number of worker threads
+     * @param chunkSize the number of due transactions read and settled at a time
+     */
+    public ScheduledTransferExecutor(EntityManagerFactory entityManagerFactory, TransferEngine transferEngine,
+                                     int workerCount, int chunkSize) {
+        this.entityManagerFactory = entityManagerFactory;
+        this.transferEngine = transferEngine;
+        this.accountLockManager = AccountLockManager.getInstance();
+        this.chunkSize = chunkSize;
+        AtomicInteger threadNumber = new AtomicInteger();
+        this.workers = Executors.newFixedThreadPool(workerCount, runnable -> {
+            Thread thread = new Thread(runnable, "scheduled-transfer-" + threadNumber.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    /**
+     * Settles every PENDING transaction scheduled up to the given date.
+     *
+     * @param dueDate the last schedule date to execute, usually today
+     * @return the number of transactions that ended in each status
+     */
+    public Map<TransactionStatus, Integer> executeDue(LocalDate dueDate) {
+        Map<TransactionStatus, Integer> summary = new EnumMap<>(TransactionStatus.class);
+        long afterId = 0L;
+        List<Object[]> chunk;
+        do {
+            chunk = findDueChunk(dueDate, afterId);
+            List<Future<TransactionStatus>> results = new ArrayList<>(chunk.size());
+            for (Object[] row : chunk) {
+                Long transactionId = (Long) row[0];
+                Long senderId = (Long) row[1];
+                Long receiverId = (Long) row[2];
+                results.add(workers.submit(() -> settle(transactionId, senderId, receiverId)));
+                afterId = transactionId;
+            }
+            for (Future<TransactionStatus> result : results) {
+                summary.merge(await(result), 1, Integer::sum);
+            }
+        } while (chunk.size() == chunkSize);
+
+        if (!summary.isEmpty()) {
+            LOGGER.info("Transferências agendadas executadas: " + summary);
+        }
+        return summary;
+    }
+
+    /**
+     * Stops the worker pool, waiting briefly for running settlements.
+     */
+    public void shutdown() {
+        workers.shutdown();
+        try {
+            if (!workers.awaitTermination(30, TimeUnit.SECONDS)) {
+                workers.shutdownNow();
+            }
+        } catch (InterruptedException e) {
+            workers.shutdownNow();
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private List<Object[]> findDueChunk(LocalDate dueDate, long afterId) {
+        EntityManager entityManager = entityManagerFactory.createEntityManager();
+        try {
+            return entityManager.createQuery(DUE_CHUNK_JPQL, Object[].class)
+                    .setParameter("pending", TransactionStatus.PENDING)
+                    .setParameter("dueDate", dueDate)
+                    .setParameter("afterId", afterId)
+                    .setMaxResults(chunkSize)
+                    .getResultList();
+        } finally {
+            entityManager.close();
+        }
+    }
+
+    private TransactionStatus settle(Long transactionId, Long senderId, Long receiverId) {
+        try {
+            if (senderId == null || receiverId == null) {
+                return transferEngine.settle(transactionId);
+            }
+            return accountLockManager.withAccountLocks(senderId, receiverId,
+                    () -> transferEngine.settle(transactionId));
+        } catch (RuntimeException e) {
+            // Left PENDING, so the next run retries it
+            LOGGER.log(Level.SEVERE, "Erro ao executar a transferência agendada " + transactionId, e);
+            return TransactionStatus.PENDING;
+        }
+    }
+
+    private TransactionStatus await(Future<TransactionStatus> result) {
+        try {
+            return result.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while executing scheduled transfers", e);
+        } catch (ExecutionException e) {
+            throw new IllegalStateException(e.getCause());
+        }
+    }
+}
@@ -3,19 +3,17 @@ package org.jala.university.application.service.impl;
 import org.jala.university.application.dto.UserDTO;
 import org.jala.university.application.map.UserMapper;
 import org.jala.university.application.service.SignupService;
+import org.jala.university.commons.infrastructure.persistance.UnitOfWork;
 import org.jala.university.domain.entity.User;
 import org.jala.university.domain.repository.UserRepository;
 import org.jala.university.infrastructure.persistence.UserRepositoryImp;
 import org.jala.university.infrastructure.config.JPAConfig;
-import org.springframework.security.crypto.bcrypt.BCrypt;
+import org.jala.university.infrastructure.security.PasswordHasher;
 import org.springframework.stereotype.Service;
-import jakarta.persistence.EntityManager;
-import jakarta.persistence.EntityTransaction;
 
 /**
  * Implementation of the SignupService that handles user registration operations.
  * This service is responsible for creating new user accounts and managing user data.
- * Implements AutoCloseable to ensure proper resource cleanup.
  *
  * @version 1.0
  * @see SignupService
@@ -23,7 +21,7 @@ import jakarta.persistence.EntityTransaction;
  * @see UserMapper
  */
 @Service
-public class SignupServiceImpl implements SignupService, AutoCloseable {
+public class SignupServiceImpl implements SignupService {
 
     /** Repository for user data persistence operations */
     private final UserRepository userRepository;
@@ -31,22 +29,26 @@ public class SignupServiceImpl implements SignupService, AutoCloseable {
     /** Mapper for converting between User entities and DTOs */
     private final UserMapper userMapper;
 
-    /** Entity manager for handling JPA operations */
-    private final EntityManager entityManager;
+    /** Unit of work that provides the entity manager of each JPA operation */
+    private final UnitOfWork unitOfWork;
+
+    /** Hashes the passwords with the configured BCrypt cost */
+    private final PasswordHasher passwordHasher;
 
     /**
      * Constructs a new SignupServiceImp.
      * Initializes the required dependencies for user registration operations.
      */
     public SignupServiceImpl() {
-        this.entityManager = JPAConfig.getEntityManagerFactory().createEntityManager();
-        this.userRepository = new UserRepositoryImp(entityManager);
+        this.unitOfWork = JPAConfig.getUnitOfWork();
+        this.userRepository = new UserRepositoryImp(unitOfWork);
         this.userMapper = new UserMapper();
+        this.passwordHasher = PasswordHasher.getInstance();
     }
 
     /**
      * Creates a new user account with the provided user data.
-     * The password is hashed using BCrypt before storage.
+     * The password is hashed using BCrypt, with the configured cost, before storage.
      *
      * @param userDTO the user data transfer object containing registration information
      * @return UserDTO containing the saved user's information
@@ -54,24 +56,16 @@ public class SignupServiceImpl implements SignupService, AutoCloseable {
      */
     @Override
     public UserDTO save(UserDTO userDTO) {
-        EntityTransaction transaction = null;
         try {
-            transaction = entityManager.getTransaction();
-            transaction.begin();
-
             User userMapped = userMapper.mapFrom(userDTO);
 
-            String passwordHash = BCrypt.hashpw(userMapped.getPassword(), BCrypt.gensalt());
+            String passwordHash = passwordHasher.hash(userMapped.getPassword());
             userMapped.setPassword(passwordHash);
 
-            entityManager.persist(userMapped);
-            transaction.commit();
+            unitOfWork.execute(entityManager -> entityManager.persist(userMapped));
 
             return userMapper.mapTo(userMapped);
         } catch (Exception e) {
-            if (transaction != null && transaction.isActive()) {
-                transaction.rollback();
-            }
             throw new RuntimeException("Error creating user account", e);
         }
     }
@@ -136,16 +130,4 @@ public class SignupServiceImpl implements SignupService, AutoCloseable {
     public boolean isCpfRegistered(String cpf) {
         return userRepository.existsByCpf(cpf);
     }
-
-    /**
-     * Closes the entity manager and releases resources.
-     * Should be called when the service is no longer needed.
-     * This method is automatically called when using try-with-resources.
-     */
-    @Override
-    public void close() {
-        if (entityManager != null && entityManager.isOpen()) {
-            entityManager.close();
-        }
-    }
 }
\ No newline at end of file
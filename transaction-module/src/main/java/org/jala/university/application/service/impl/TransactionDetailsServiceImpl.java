@@ -1,21 +1,32 @@
 package org.jala.university.application.service.impl;
 
+import jakarta.persistence.EntityManager;
+import org.jala.university.commons.infrastructure.persistance.UnitOfWork;
 import org.jala.university.application.dto.TransactionDetailsDTO;
 import org.jala.university.application.service.TransactionDetailsService;
-import org.jala.university.domain.entity.Transaction;
-import org.jala.university.domain.repository.TransactionRepository;
-import org.jala.university.infrastructure.persistence.TransactionRepositoryImpl;
+import org.jala.university.infrastructure.config.JPAConfig;
 
 import java.text.NumberFormat;
 import java.time.format.DateTimeFormatter;
+import java.util.List;
 import java.util.Locale;
 
 /**
  * Implementation of the TransactionDetailsService.
+ * <p>
+ * Details are read as a single {@link TransactionDetailsDTO} projection with both parties
+ * joined in, instead of loading the transaction and then its accounts and users.
  */
 public class TransactionDetailsServiceImpl implements TransactionDetailsService {
+
+    private static final String DETAILS_JPQL = "SELECT new org.jala.university.application.dto.TransactionDetailsDTO("
+            + "t.id, t.amount, t.createdAt, t.status, t.description, "
+            + "s.accountNumber, su.name, r.accountNumber, ru.name, "
+            + "CASE WHEN s.id = :accountId THEN true ELSE false END) "
+            + "FROM Transaction t JOIN t.sender s JOIN s.user su JOIN t.receiver r JOIN r.user ru "
+            + "WHERE t.id = :transactionId";
     
-    private final TransactionRepository transactionRepository;
+    private final UnitOfWork unitOfWork;
     private final DateTimeFormatter dateFormatter;
     private final NumberFormat currencyFormatter;
     
@@ -23,18 +34,25 @@ public class TransactionDetailsServiceImpl implements TransactionDetailsService
      * Constructor initializing the required dependencies.
      */
     public TransactionDetailsServiceImpl() {
-        this.transactionRepository = new TransactionRepositoryImpl();
-        this.dateFormatter = DateTimeFormatter.ofPattern("dd/MM/yyyy HH:mm:ss");
-        this.currencyFormatter = NumberFormat.getCurrencyInstance(new Locale("pt", "BR"));
+        this(JPAConfig.getUnitOfWork());
     }
     
     /**
-     * Constructor with repository parameter.
+     * Constructor with entity manager parameter.
      * 
-     * @param transactionRepository the transaction repository to use
+     * @param entityManager the entity manager to query with
      */
-    public TransactionDetailsServiceImpl(TransactionRepository transactionRepository) {
-        this.transactionRepository = transactionRepository;
+    public TransactionDetailsServiceImpl(EntityManager entityManager) {
+        this(UnitOfWork.bound(entityManager));
+    }
+
+    /**
+     * Constructor with unit of work parameter.
+     *
+     * @param unitOfWork the unit of work that provides the entity manager of each query
+     */
+    public TransactionDetailsServiceImpl(UnitOfWork unitOfWork) {
+        this.unitOfWork = unitOfWork;
         this.dateFormatter = DateTimeFormatter.ofPattern("dd/MM/yyyy HH:mm:ss");
         this.currencyFormatter = NumberFormat.getCurrencyInstance(new Locale("pt", "BR"));
     }
@@ -47,29 +65,8 @@ public class TransactionDetailsServiceImpl implements TransactionDetailsService
      */
     @Override
     public TransactionDetailsDTO getTransactionDetails(Long transactionId) {
-        Transaction transaction = transactionRepository.findById(transactionId);
-        
-        if (transaction == null) {
-            return null;
-        }
-        
-        String senderName = transaction.getSender().getUser().getName();
-        String senderAccount = transaction.getSender().getAccountNumber();
-        
-        String receiverName = transaction.getReceiver().getUser().getName();
-        String receiverAccount = transaction.getReceiver().getAccountNumber();
-        
-        return TransactionDetailsDTO.builder()
-                .id(transaction.getId())
-                .createdAt(transaction.getCreatedAt())
-                .amount(transaction.getAmount())
-                .description(transaction.getDescription())
-                .status(transaction.getStatus())
-                .senderName(senderName)
-                .senderAccountNumber(senderAccount)
-                .receiverName(receiverName)
-                .receiverAccountNumber(receiverAccount)
-                .build();
+        // Sem conta de referência, a transação é exibida como crédito
+        return findDetails(transactionId, null, "");
     }
     
     /**
@@ -81,39 +78,16 @@ public class TransactionDetailsServiceImpl implements TransactionDetailsService
      */
     @Override
     public TransactionDetailsDTO getTransactionDetails(Long transactionId, Long accountId) {
-        Transaction transaction = transactionRepository.findById(transactionId);
-        
-        if (transaction == null) {
-            return null;
-        }
-        
         // Verificar se a conta está envolvida na transação
-        boolean isAccountInvolved = transaction.getSender().getId().equals(accountId) || 
-                                   transaction.getReceiver().getId().equals(accountId);
-        
-        if (!isAccountInvolved) {
-            return null; // A conta não está envolvida nesta transação
-        }
-        
-        String senderName = transaction.getSender().getUser().getName();
-        String senderAccount = transaction.getSender().getAccountNumber();
-        
-        String receiverName = transaction.getReceiver().getUser().getName();
-        String receiverAccount = transaction.getReceiver().getAccountNumber();
-        
-        boolean isDebit = transaction.getSender().getId().equals(accountId);
-        
-        return TransactionDetailsDTO.builder()
-                .id(transaction.getId())
-                .createdAt(transaction.getCreatedAt())
-                .amount(transaction.getAmount())
-                .description(transaction.getDescription())
-                .status(transaction.getStatus())
-                .senderName(senderName)
-                .senderAccountNumber(senderAccount)
-                .receiverName(receiverName)
-                .receiverAccountNumber(receiverAccount)
-                .isDebit(isDebit)
-                .build();
+        return findDetails(transactionId, accountId, " AND (s.id = :accountId OR r.id = :accountId)");
+    }
+
+    private TransactionDetailsDTO findDetails(Long transactionId, Long accountId, String accountFilter) {
+        List<TransactionDetailsDTO> details = unitOfWork.read(entityManager -> entityManager
+                .createQuery(DETAILS_JPQL + accountFilter, TransactionDetailsDTO.class)
+                .setParameter("transactionId", transactionId)
+                .setParameter("accountId", accountId)
+                .getResultList());
+        return details.isEmpty() ? null : details.get(0);
     }
-}
\ No newline at end of file
+}
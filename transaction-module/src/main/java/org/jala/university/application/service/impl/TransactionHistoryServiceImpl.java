@@ -1,12 +1,14 @@
 package org.jala.university.application.service.impl;
 
 import jakarta.persistence.EntityManager;
-import jakarta.persistence.TypedQuery;
+import jakarta.persistence.Query;
 import lombok.RequiredArgsConstructor;
 import org.jala.university.domain.entity.enums.TransactionStatus;
+import org.jala.university.application.dto.StatementTotals;
 import org.jala.university.application.dto.TransactionHistoryDTO;
-import org.jala.university.application.map.TransactionHistoryMapper;
+import org.jala.university.application.dto.TransactionHistoryPage;
 import org.jala.university.application.service.TransactionHistoryService;
+import org.jala.university.commons.infrastructure.persistance.UnitOfWork;
 import org.jala.university.domain.entity.Transaction;
 import org.jala.university.domain.repository.TransactionRepository;
 import org.jala.university.infrastructure.config.JPAConfig;
@@ -15,44 +17,81 @@ import org.springframework.data.domain.Pageable;
 import org.springframework.data.domain.Sort;
 import org.springframework.stereotype.Service;
 
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.sql.Timestamp;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.time.LocalTime;
 import java.util.ArrayList;
+import java.util.Base64;
+import java.util.Iterator;
 import java.util.List;
-import java.util.stream.Collectors;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
 
 /**
  * Implementation of the TransactionHistoryService.
- * Uses a database view approach to efficiently retrieve transaction history.
+ * <p>
+ * History rows are read as flat {@link TransactionHistoryDTO} rows with the counterparty name
+ * joined in, in a single statement per call instead of extra account and user loads per row.
  */
 public class TransactionHistoryServiceImpl implements TransactionHistoryService {
+
+    /**
+     * Branch of the history query for one side of the transfer: the transactions sent by the
+     * account, with the receiver as counterparty, or the ones it received, with the sender.
+     */
+    private static final String HISTORY_BRANCH_SQL = "SELECT t.id, t.status, t.amount, t.createdAt AS created_at, "
+            + "t.description, u.name AS counterparty_name, %d AS debit "
+            + "FROM transactions t JOIN accounts a ON a.id = t.%s JOIN users u ON u.id = a.user_id "
+            + "WHERE t.%s = :accountId AND t.createdAt IS NOT NULL";
+
+    /**
+     * Totals of one side of the history, with the same filters as {@link #HISTORY_BRANCH_SQL}.
+     */
+    private static final String TOTALS_BRANCH_SQL = "SELECT COUNT(*), SUM(t.amount), MIN(t.createdAt), "
+            + "MAX(t.createdAt) FROM transactions t WHERE t.%s = :accountId AND t.createdAt IS NOT NULL";
+
+    private static final String FETCH_SIZE = "org.hibernate.fetchSize";
+
+    /**
+     * Rows fetched per round trip by {@link #streamAccountTransactionHistory}.
+     */
+    private static final int STREAM_FETCH_SIZE = 1_000;
     
     private final TransactionRepository transactionRepository;
-    private final EntityManager entityManager;
+    private final UnitOfWork unitOfWork;
     
     public TransactionHistoryServiceImpl(TransactionRepository transactionRepository) {
+        this(transactionRepository, JPAConfig.getUnitOfWork());
+    }
+
+    /**
+     * Constructor with the entity manager used by the history queries.
+     *
+     * @param transactionRepository the transaction repository to use
+     * @param entityManager the entity manager to query with
+     */
+    public TransactionHistoryServiceImpl(TransactionRepository transactionRepository, EntityManager entityManager) {
+        this(transactionRepository, UnitOfWork.bound(entityManager));
+    }
+
+    /**
+     * Constructor with the unit of work that provides the entity manager of each history query.
+     *
+     * @param transactionRepository the transaction repository to use
+     * @param unitOfWork the unit of work to query with
+     */
+    public TransactionHistoryServiceImpl(TransactionRepository transactionRepository, UnitOfWork unitOfWork) {
         this.transactionRepository = transactionRepository;
-        this.entityManager = JPAConfig.getEntityManagerFactory().createEntityManager();
+        this.unitOfWork = unitOfWork;
     }
     
     @Override
     public List<TransactionHistoryDTO> getAccountTransactionHistory(Long accountId) {
         try {
-            // Usando JPQL para criar uma "view" virtual
-            String jpql = "SELECT t FROM Transaction t " +
-                          "WHERE t.sender.id = :accountId OR t.receiver.id = :accountId " +
-                          "ORDER BY t.createdAt DESC";
-            
-            TypedQuery<Transaction> query = entityManager.createQuery(jpql, Transaction.class);
-            query.setParameter("accountId", accountId);
-            
-            List<Transaction> transactions = query.getResultList();
-            
-            TransactionHistoryMapper mapper = new TransactionHistoryMapper(accountId);
-            return transactions.stream()
-                    .map(mapper::mapTo)
-                    .collect(Collectors.toList());
+            return findHistory(accountId, null, null, null, null, 0);
         } catch (Exception e) {
             e.printStackTrace();
             return new ArrayList<>();
@@ -62,26 +101,7 @@ public class TransactionHistoryServiceImpl implements TransactionHistoryService
     @Override
     public List<TransactionHistoryDTO> getAccountTransactionHistory(Long accountId, LocalDate startDate, LocalDate endDate) {
         try {
-            // Convertendo LocalDate para LocalDateTime para incluir todo o dia
-            LocalDateTime startDateTime = startDate.atStartOfDay();
-            LocalDateTime endDateTime = endDate.atTime(LocalTime.MAX);
-            
-            String jpql = "SELECT t FROM Transaction t " +
-                          "WHERE (t.sender.id = :accountId OR t.receiver.id = :accountId) " +
-                          "AND t.createdAt BETWEEN :startDate AND :endDate " +
-                          "ORDER BY t.createdAt DESC";
-            
-            TypedQuery<Transaction> query = entityManager.createQuery(jpql, Transaction.class);
-            query.setParameter("accountId", accountId);
-            query.setParameter("startDate", startDateTime);
-            query.setParameter("endDate", endDateTime);
-            
-            List<Transaction> transactions = query.getResultList();
-            
-            TransactionHistoryMapper mapper = new TransactionHistoryMapper(accountId);
-            return transactions.stream()
-                    .map(mapper::mapTo)
-                    .collect(Collectors.toList());
+            return findHistory(accountId, startDate, endDate, null, null, 0);
         } catch (Exception e) {
             e.printStackTrace();
             return new ArrayList<>();
@@ -94,21 +114,7 @@ public class TransactionHistoryServiceImpl implements TransactionHistoryService
             TransactionStatus status =
                 TransactionStatus.valueOf(statusStr.toUpperCase());
             
-            String jpql = "SELECT t FROM Transaction t " +
-                          "WHERE (t.sender.id = :accountId OR t.receiver.id = :accountId) " +
-                          "AND t.status = :status " +
-                          "ORDER BY t.createdAt DESC";
-            
-            TypedQuery<Transaction> query = entityManager.createQuery(jpql, Transaction.class);
-            query.setParameter("accountId", accountId);
-            query.setParameter("status", status);
-            
-            List<Transaction> transactions = query.getResultList();
-            
-            TransactionHistoryMapper mapper = new TransactionHistoryMapper(accountId);
-            return transactions.stream()
-                    .map(mapper::mapTo)
-                    .collect(Collectors.toList());
+            return findHistory(accountId, null, null, status, null, 0);
         } catch (IllegalArgumentException e) {
             // Status de transação inválido
             e.printStackTrace();
@@ -123,21 +129,10 @@ public class TransactionHistoryServiceImpl implements TransactionHistoryService
     public List<TransactionHistoryDTO> getAccountTransactionHistoryByDateRangeAndStatus(
             Long accountId, LocalDate startDate, LocalDate endDate, String statusStr) {
         try {
-            // Convertendo LocalDate para LocalDateTime para incluir todo o dia
-            LocalDateTime startDateTime = startDate.atStartOfDay();
-            LocalDateTime endDateTime = endDate.atTime(LocalTime.MAX);
-            
             TransactionStatus status =
                 TransactionStatus.valueOf(statusStr.toUpperCase());
             
-            // Usando o repositório para buscar as transações
-            List<Transaction> transactions = transactionRepository.findByAccountIdAndDateRangeAndStatus(
-                accountId, startDateTime, endDateTime, status);
-            
-            TransactionHistoryMapper mapper = new TransactionHistoryMapper(accountId);
-            return transactions.stream()
-                    .map(mapper::mapTo)
-                    .collect(Collectors.toList());
+            return findHistory(accountId, startDate, endDate, status, null, 0);
         } catch (IllegalArgumentException e) {
             // Status de transação inválido
             e.printStackTrace();
@@ -148,6 +143,226 @@ public class TransactionHistoryServiceImpl implements TransactionHistoryService
         }
     }
 
+    @Override
+    public TransactionHistoryPage getAccountTransactionHistoryPage(Long accountId, int pageSize, String pageToken) {
+        return findPage(accountId, null, null, null, pageSize, pageToken);
+    }
+
+    @Override
+    public TransactionHistoryPage getAccountTransactionHistoryPage(
+            Long accountId, LocalDate startDate, LocalDate endDate, int pageSize, String pageToken) {
+        return findPage(accountId, startDate, endDate, null, pageSize, pageToken);
+    }
+
+    @Override
+    public TransactionHistoryPage getAccountTransactionHistoryPageByStatus(
+            Long accountId, String statusStr, int pageSize, String pageToken) {
+        return findPage(accountId, null, null, TransactionStatus.valueOf(statusStr.toUpperCase()),
+                pageSize, pageToken);
+    }
+
+    @Override
+    public TransactionHistoryPage getAccountTransactionHistoryPageByDateRangeAndStatus(
+            Long accountId, LocalDate startDate, LocalDate endDate, String statusStr, int pageSize, String pageToken) {
+        return findPage(accountId, startDate, endDate, TransactionStatus.valueOf(statusStr.toUpperCase()),
+                pageSize, pageToken);
+    }
+
+    private TransactionHistoryPage findPage(Long accountId, LocalDate startDate, LocalDate endDate,
+                                            TransactionStatus status, int pageSize, String pageToken) {
+        int limit = pageSize <= 0 ? DEFAULT_PAGE_SIZE : Math.min(pageSize, MAX_PAGE_SIZE);
+        PageCursor cursor = pageToken == null ? null : PageCursor.decode(pageToken);
+
+        List<TransactionHistoryDTO> rows = findHistory(accountId, startDate, endDate, status, cursor, limit + 1);
+        boolean hasNext = rows.size() > limit;
+        List<TransactionHistoryDTO> items = hasNext ? new ArrayList<>(rows.subList(0, limit)) : rows;
+        String nextPageToken = null;
+        if (hasNext) {
+            TransactionHistoryDTO last = items.get(items.size() - 1);
+            nextPageToken = new PageCursor(last.getDate(), last.getId()).encode();
+        }
+        return TransactionHistoryPage.builder()
+                .items(items)
+                .nextPageToken(nextPageToken)
+                .build();
+    }
+
+    /**
+     * Reads the history of an account, newest first, in one statement.
+     * <p>
+     * An {@code OR} of the sender and receiver columns cannot use an index on either of them,
+     * so the database would collect and sort every matching row. The query is instead a
+     * {@code UNION ALL} of one branch per column; each branch walks its
+     * {@code (sender_id|receiver_id[, status], createdAt, id)} index in order and, when a limit
+     * is given, stops after that many rows.
+     *
+     * @param cursor the position to seek after, or null to start from the newest row
+     * @param limit the number of rows to read, or 0 for all of them
+     */
+    private List<TransactionHistoryDTO> findHistory(Long accountId, LocalDate startDate, LocalDate endDate,
+                                                    TransactionStatus status, PageCursor cursor, int limit) {
+        boolean dateRange = startDate != null && endDate != null;
+        List<Object[]> rows = unitOfWork.read(entityManager -> {
+            Query query = entityManager.createNativeQuery(
+                    historySql(dateRange, status != null, cursor != null, limit));
+            bind(query, accountId, startDate, endDate, status);
+            if (cursor != null) {
+                query.setParameter("cursorCreatedAt", cursor.createdAt());
+                query.setParameter("cursorId", cursor.id());
+            }
+            @SuppressWarnings("unchecked")
+            List<Object[]> result = query.getResultList();
+            return result;
+        });
+        List<TransactionHistoryDTO> history = new ArrayList<>(rows.size());
+        for (Object[] row : rows) {
+            history.add(toHistoryDTO(row));
+        }
+        return history;
+    }
+
+    @Override
+    public long streamAccountTransactionHistory(Long accountId, LocalDate startDate, LocalDate endDate,
+                                                String statusStr, Consumer<TransactionHistoryDTO> action) {
+        boolean dateRange = startDate != null && endDate != null;
+        TransactionStatus status = statusStr == null ? null : TransactionStatus.valueOf(statusStr.toUpperCase());
+        return unitOfWork.read(entityManager -> {
+            Query query = entityManager.createNativeQuery(historySql(dateRange, status != null, false, 0));
+            bind(query, accountId, startDate, endDate, status);
+            // Rows are fetched in batches through a server-side cursor instead of all at once
+            query.setHint(FETCH_SIZE, STREAM_FETCH_SIZE);
+            long count = 0;
+            @SuppressWarnings("unchecked")
+            Stream<Object[]> rows = query.getResultStream();
+            try (rows) {
+                Iterator<Object[]> iterator = rows.iterator();
+                while (iterator.hasNext()) {
+                    action.accept(toHistoryDTO(iterator.next()));
+                    count++;
+                }
+            }
+            return count;
+        });
+    }
+
+    @Override
+    public StatementTotals getAccountTransactionTotals(Long accountId, LocalDate startDate, LocalDate endDate,
+                                                       String statusStr) {
+        boolean dateRange = startDate != null && endDate != null;
+        TransactionStatus status = statusStr == null ? null : TransactionStatus.valueOf(statusStr.toUpperCase());
+        String filters = filterSql(dateRange, status != null, false);
+        String sent = String.format(TOTALS_BRANCH_SQL, "sender_id") + filters;
+        String received = String.format(TOTALS_BRANCH_SQL, "receiver_id") + " AND t.sender_id <> :accountId" + filters;
+        return unitOfWork.read(entityManager -> {
+            Object[] debits = totalsRow(entityManager, sent, accountId, startDate, endDate, status);
+            Object[] credits = totalsRow(entityManager, received, accountId, startDate, endDate, status);
+            return new StatementTotals(
+                    ((Number) debits[0]).longValue() + ((Number) credits[0]).longValue(),
+                    credits[1] == null ? BigDecimal.ZERO : (BigDecimal) credits[1],
+                    debits[1] == null ? BigDecimal.ZERO : (BigDecimal) debits[1],
+                    earliest(toDateTime(debits[2]), toDateTime(credits[2])),
+                    latest(toDateTime(debits[3]), toDateTime(credits[3])));
+        });
+    }
+
+    private Object[] totalsRow(EntityManager entityManager, String sql, Long accountId, LocalDate startDate,
+                               LocalDate endDate, TransactionStatus status) {
+        Query query = entityManager.createNativeQuery(sql);
+        bind(query, accountId, startDate, endDate, status);
+        return (Object[]) query.getSingleResult();
+    }
+
+    private static void bind(Query query, Long accountId, LocalDate startDate, LocalDate endDate,
+                             TransactionStatus status) {
+        query.setParameter("accountId", accountId);
+        if (startDate != null && endDate != null) {
+            query.setParameter("startDate", startDate.atStartOfDay());
+            query.setParameter("endDate", endDate.atTime(LocalTime.MAX));
+        }
+        if (status != null) {
+            query.setParameter("status", status.name());
+        }
+    }
+
+    private static LocalDateTime toDateTime(Object value) {
+        return value instanceof Timestamp timestamp ? timestamp.toLocalDateTime() : (LocalDateTime) value;
+    }
+
+    private static LocalDateTime earliest(LocalDateTime a, LocalDateTime b) {
+        return a == null ? b : b == null || a.isBefore(b) ? a : b;
+    }
+
+    private static LocalDateTime latest(LocalDateTime a, LocalDateTime b) {
+        return a == null ? b : b == null || a.isAfter(b) ? a : b;
+    }
+
+    /**
+     * Builds the history query with the requested filters.
+     *
+     * @param limit the number of rows to read, or 0 for all of them
+     * @return the SQL, with named parameters
+     */
+    static String historySql(boolean dateRange, boolean status, boolean cursor, int limit) {
+        String filters = filterSql(dateRange, status, cursor);
+        String limitSql = limit > 0 ? " LIMIT " + limit : "";
+        String branchOrder = " ORDER BY t.createdAt DESC, t.id DESC" + limitSql;
+
+        String sent = String.format(HISTORY_BRANCH_SQL, 1, "receiver_id", "sender_id") + filters + branchOrder;
+        // A transfer to the account itself is listed once, as a debit
+        String received = String.format(HISTORY_BRANCH_SQL, 0, "sender_id", "receiver_id")
+                + " AND t.sender_id <> :accountId" + filters + branchOrder;
+        return "(" + sent + ") UNION ALL (" + received + ") ORDER BY created_at DESC, id DESC" + limitSql;
+    }
+
+    private static String filterSql(boolean dateRange, boolean status, boolean cursor) {
+        StringBuilder filters = new StringBuilder();
+        if (dateRange) {
+            filters.append(" AND t.createdAt BETWEEN :startDate AND :endDate");
+        }
+        if (status) {
+            filters.append(" AND t.status = :status");
+        }
+        if (cursor) {
+            filters.append(" AND (t.createdAt < :cursorCreatedAt")
+                    .append(" OR (t.createdAt = :cursorCreatedAt AND t.id < :cursorId))");
+        }
+        return filters.toString();
+    }
+
+    private static TransactionHistoryDTO toHistoryDTO(Object[] row) {
+        return TransactionHistoryDTO.builder()
+                .id(((Number) row[0]).longValue())
+                .status(TransactionStatus.valueOf(row[1].toString()))
+                .amount((BigDecimal) row[2])
+                .date(toDateTime(row[3]))
+                .description((String) row[4])
+                .counterpartyName((String) row[5])
+                .debit(((Number) row[6]).intValue() == 1)
+                .build();
+    }
+
+    /**
+     * Position after the last row of a page, carried between calls as an opaque token.
+     */
+    record PageCursor(LocalDateTime createdAt, Long id) {
+
+        String encode() {
+            String raw = createdAt + "|" + id;
+            return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+        }
+
+        static PageCursor decode(String token) {
+            try {
+                String raw = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+                int separator = raw.indexOf('|');
+                return new PageCursor(LocalDateTime.parse(raw.substring(0, separator)),
+                        Long.parseLong(raw.substring(separator + 1)));
+            } catch (RuntimeException e) {
+                throw new IllegalArgumentException("Invalid page token", e);
+            }
+        }
+    }
+
     @Service
     @RequiredArgsConstructor
     public static class TransactionService {
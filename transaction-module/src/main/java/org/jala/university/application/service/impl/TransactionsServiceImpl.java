@@ -1,26 +1,32 @@
 package org.jala.university.application.service.impl;
 
-import jakarta.persistence.EntityManager;
-import org.jala.university.application.dto.AccountDTO;
 import org.jala.university.application.dto.TransactionDTO;
 import org.jala.university.application.map.TransactionMapper;
 import org.jala.university.application.service.TransactionsService;
-import org.jala.university.application.service.implementations.AccountServiceImpl;
+import org.jala.university.application.service.TransferEngine;
 import org.jala.university.application.service.implementations.UserServiceImpl;
-import org.jala.university.application.service.interfaces.AccountService;
 import org.jala.university.application.service.interfaces.UserService;
 import org.jala.university.domain.entity.Transaction;
 import org.jala.university.domain.entity.enums.TransactionStatus;
 import org.jala.university.domain.repository.TransactionsRepository;
+import org.jala.university.infrastructure.cache.AccountSummaryStore;
+import org.jala.university.infrastructure.cache.IdempotencyCache;
+import org.jala.university.infrastructure.concurrency.AccountLockManager;
 import org.jala.university.infrastructure.config.JPAConfig;
 import org.jala.university.infrastructure.persistence.TransactionsRepositoryImpl;
+import org.jala.university.infrastructure.persistence.TransferEngineImpl;
 import org.springframework.stereotype.Service;
-import org.springframework.transaction.annotation.Isolation;
-import org.springframework.transaction.annotation.Transactional;
 
-import java.math.BigDecimal;
 import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.IdentityHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
 import java.util.stream.Collectors;
 
 /**
@@ -40,6 +46,11 @@ import java.util.stream.Collectors;
  */
 @Service
 public class TransactionsServiceImpl implements TransactionsService {
+    /**
+     * Maximum number of transfers committed together by {@link #saveAll(List)}.
+     */
+    private static final int GROUP_SIZE = 500;
+
     /**
      * Repository for accessing and manipulating transaction data in the database.
      */
@@ -55,24 +66,41 @@ public class TransactionsServiceImpl implements TransactionsService {
      */
     private final UserService userService;
 
-    private final EntityManager entityManager = JPAConfig.getEntityManagerFactory().createEntityManager();
+    /**
+     * Engine that moves the funds and records the transaction in a single database transaction.
+     */
+    private final TransferEngine transferEngine;
+
+    /**
+     * In-process locks that serialize transfers touching the same account.
+     */
+    private final AccountLockManager accountLockManager;
+
+    /**
+     * Recently submitted idempotency keys and their outcome, shared by all service instances.
+     */
+    private final IdempotencyCache idempotencyCache;
 
     /**
-     * Service for account-related operations, used for balance checks and updates.
+     * Dashboard read model, told about the transactions stored outside the transfer engine.
      */
-    private final AccountService accountService;
+    private final AccountSummaryStore summaryStore;
 
     /**
      * Constructs a new TransactionsServiceImpl with all required dependencies.
      * <p>
-     * Initializes the transaction mapper, entity manager, transactions repository,
-     * user service, and account service.
+     * Initializes the transaction mapper, transactions repository on the shared unit of work,
+     * user service, transfer engine, and the shared account lock manager, idempotency cache
+     * and account summary store.
      */
     public TransactionsServiceImpl() {
         this.mapper = new TransactionMapper();
-        this.transactionsRepository = new TransactionsRepositoryImpl(entityManager);
+        this.transactionsRepository = new TransactionsRepositoryImpl(JPAConfig.getUnitOfWork());
         this.userService = new UserServiceImpl();
-        this.accountService = new AccountServiceImpl();
+        this.transferEngine = new TransferEngineImpl();
+        this.accountLockManager = AccountLockManager.getInstance();
+        this.idempotencyCache = IdempotencyCache.getInstance();
+        this.summaryStore = AccountSummaryStore.getInstance();
     }
 
     /**
@@ -125,53 +153,226 @@ public class TransactionsServiceImpl implements TransactionsService {
      *     <li>Setting appropriate transaction status based on the outcome</li>
      * </ul>
      * <p>
-     * The method uses SERIALIZABLE isolation level to ensure data consistency
-     * during the transaction process.
+     * Transfers for today are delegated to the {@link TransferEngine}, which debits, credits
+     * and inserts the transaction row in one database transaction. The transfer runs while
+     * holding the in-process locks of both accounts, so transfers on a hot account queue
+     * instead of piling up on the database row locks.
+     * <p>
+     * A transaction carrying an idempotency key is executed at most once: a duplicate
+     * submission of the key returns the outcome of the original one, from the in-memory
+     * {@link IdempotencyCache} or, once evicted, from the stored transaction. If the original
+     * submission failed, its key was released and the duplicate is executed as a retry.
      *
      * @param transaction The TransactionDTO containing transaction details
      * @return true if the transaction was processed successfully, false otherwise
      * @throws RuntimeException if an error occurs during transaction processing
      */
     @Override
-    @Transactional(isolation = Isolation.SERIALIZABLE)
     public boolean save(TransactionDTO transaction) {
+        String idempotencyKey = transaction.getIdempotencyKey();
+        if (idempotencyKey == null) {
+            return isSuccessful(execute(transaction));
+        }
+
+        TransactionStatus earlier = awaitOrReserve(idempotencyKey);
+        if (earlier != null) {
+            return isSuccessful(earlier);
+        }
+
+        try {
+            Transaction stored = this.transactionsRepository.findByIdempotencyKey(idempotencyKey);
+            TransactionStatus status = stored != null ? stored.getStatus() : execute(transaction);
+            this.idempotencyCache.complete(idempotencyKey, status);
+            return isSuccessful(status);
+        } catch (RuntimeException e) {
+            this.idempotencyCache.release(idempotencyKey, e);
+            throw e;
+        }
+    }
+
+    /**
+     * Reserves a key, or waits for the outcome of its submission in progress. A submission that
+     * failed released its key, so the key is reserved again for this one to retry it.
+     *
+     * @return the outcome of the earlier submission, or null if the key was reserved by this call
+     */
+    private TransactionStatus awaitOrReserve(String idempotencyKey) {
+        while (true) {
+            CompletableFuture<TransactionStatus> original = this.idempotencyCache.reserve(idempotencyKey);
+            if (original == null) {
+                return null;
+            }
+            try {
+                return original.join();
+            } catch (CompletionException e) {
+                // Released by the failed submission; reserve it again
+            }
+        }
+    }
+
+    /**
+     * Executes a transaction without any duplicate check.
+     *
+     * @return the resulting status of the transaction
+     */
+    private TransactionStatus execute(TransactionDTO transaction) {
         Transaction transactionConverted = this.mapper.mapFrom(transaction);
         if (!isTransactionForToday(transactionConverted.getTransactionSchedule())) {
             transactionConverted.setStatus(TransactionStatus.PENDING);
-            this.transactionsRepository.save(transactionConverted);
-            return true;
+            store(transactionConverted);
+            return TransactionStatus.PENDING;
         }
 
         transactionConverted.setStatus(TransactionStatus.PENDING);
 
         try {
-            Long senderId = transactionConverted.getSender().getId();
-            Long receiverId = transactionConverted.getReceiver().getId();
-
-            AccountDTO senderAccount = this.getAccountByUserId(senderId);
-            AccountDTO receiverAccount = this.getAccountByUserId(receiverId);
-            boolean isSenderAvailableToSend = checkSenderBalance(transactionConverted.getAmount(), senderAccount.getBalance());
-            if (!isSenderAvailableToSend) {
-                transactionConverted.setStatus(TransactionStatus.CANCELLED);
-                this.transactionsRepository.save(transactionConverted);
-                return false;
+            return this.accountLockManager.withAccountLocks(
+                    transactionConverted.getSender().getId(),
+                    transactionConverted.getReceiver().getId(),
+                    () -> this.transferEngine.transfer(transactionConverted));
+        } catch (RuntimeException e) {
+            transactionConverted.setStatus(TransactionStatus.FAILED);
+            // The failed attempt was rolled back, so it must not hold the key against a retry
+            transactionConverted.setIdempotencyKey(null);
+            store(transactionConverted);
+            throw new RuntimeException(e);
+        }
+    }
+
+    /**
+     * Stores a transaction the transfer engine did not execute, and reports it to the summary store.
+     * <p>
+     * The stored copy is the one reported, since only it carries the generated id that a later
+     * settlement is matched on.
+     */
+    private void store(Transaction transaction) {
+        try (AccountSummaryStore.Update summaryUpdate = this.summaryStore.open(accountIdsOf(List.of(transaction)))) {
+            Transaction saved = this.transactionsRepository.save(transaction);
+            transaction.setId(saved.getId());
+            summaryUpdate.record(saved);
+        }
+    }
+
+    /**
+     * A scheduled transaction counts as successfully submitted.
+     */
+    private boolean isSuccessful(TransactionStatus status) {
+        return status == TransactionStatus.COMPLETED || status == TransactionStatus.PENDING;
+    }
+
+    /**
+     * Processes a burst of transactions, such as a payroll run, with group commits.
+     * <p>
+     * Transactions scheduled for today are split into groups of up to {@value #GROUP_SIZE};
+     * each group is executed by {@link TransferEngine#transferAll(List)} while holding the
+     * in-process locks of every account involved, and is committed once. Transactions
+     * scheduled for another day are stored as {@link TransactionStatus#PENDING}.
+     * <p>
+     * Keyed transactions are resolved before grouping, the same way {@link #save} does: a key
+     * already submitted, earlier or within the batch, is not executed again and reports the
+     * outcome of its original submission, unless that submission failed, in which case the
+     * transaction is executed as a retry.
+     *
+     * @param transactions the transactions to process
+     * @return the processed transactions, in the same order, with their resulting status:
+     *         COMPLETED, CANCELLED for insufficient balance, FAILED, or PENDING if scheduled
+     */
+    @Override
+    public List<TransactionDTO> saveAll(List<TransactionDTO> transactions) {
+        List<Transaction> converted = transactions.stream()
+                .map(this.mapper::mapFrom)
+                .collect(Collectors.toList());
+
+        Map<String, Transaction> reserved = new HashMap<>();
+        Map<Transaction, Transaction> repeated = new IdentityHashMap<>();
+        try {
+            List<Transaction> dueToday = new ArrayList<>();
+            for (Transaction transaction : converted) {
+                transaction.setStatus(TransactionStatus.PENDING);
+                String idempotencyKey = transaction.getIdempotencyKey();
+                if (idempotencyKey != null) {
+                    Transaction original = reserved.get(idempotencyKey);
+                    if (original != null) {
+                        repeated.put(transaction, original);
+                        continue;
+                    }
+                    TransactionStatus earlier = earlierOutcome(idempotencyKey);
+                    if (earlier != null) {
+                        transaction.setStatus(earlier);
+                        continue;
+                    }
+                    reserved.put(idempotencyKey, transaction);
+                }
+                if (transaction.getTransactionSchedule() == null
+                        || isTransactionForToday(transaction.getTransactionSchedule())) {
+                    dueToday.add(transaction);
+                    continue;
+                }
+                try {
+                    store(transaction);
+                } catch (RuntimeException e) {
+                    transaction.setStatus(TransactionStatus.FAILED);
+                }
+                settle(reserved, transaction);
             }
 
-            BigDecimal currentSenderBalance = senderAccount.getBalance();
-            BigDecimal newSenderBalance = currentSenderBalance.subtract(transactionConverted.getAmount());
-            this.updateUserAccountBalance(senderId, newSenderBalance);
+            for (int from = 0; from < dueToday.size(); from += GROUP_SIZE) {
+                List<Transaction> group = dueToday.subList(from, Math.min(from + GROUP_SIZE, dueToday.size()));
+                this.accountLockManager.withAccountLocks(accountIdsOf(group),
+                        () -> this.transferEngine.transferAll(group));
+                group.forEach(transaction -> settle(reserved, transaction));
+            }
+        } finally {
+            // Keys of transactions the batch never reached must not block a retry
+            reserved.forEach((idempotencyKey, transaction) -> this.idempotencyCache.release(idempotencyKey,
+                    new IllegalStateException("Lote interrompido antes da transação " + idempotencyKey)));
+        }
+        repeated.forEach((transaction, original) -> transaction.setStatus(original.getStatus()));
 
-            BigDecimal newReceiverBalance = receiverAccount.getBalance().add(transactionConverted.getAmount());
-            this.updateUserAccountBalance(receiverId, newReceiverBalance);
+        return converted.stream()
+                .map(this.mapper::mapTo)
+                .collect(Collectors.toList());
+    }
 
-            transactionConverted.setStatus(TransactionStatus.COMPLETED);
-            this.transactionsRepository.save(transactionConverted);
+    /**
+     * Looks up the outcome of an earlier submission of a key, reserving the key if there is none.
+     *
+     * @return the earlier outcome, FAILED if the stored transactions could not be searched, or
+     *         null if the key was reserved by this call
+     */
+    private TransactionStatus earlierOutcome(String idempotencyKey) {
+        TransactionStatus earlier = awaitOrReserve(idempotencyKey);
+        if (earlier != null) {
+            return earlier;
+        }
 
-            return true;
+        try {
+            Transaction stored = this.transactionsRepository.findByIdempotencyKey(idempotencyKey);
+            if (stored == null) {
+                return null;
+            }
+            this.idempotencyCache.complete(idempotencyKey, stored.getStatus());
+            return stored.getStatus();
         } catch (RuntimeException e) {
-            transactionConverted.setStatus(TransactionStatus.FAILED);
-            this.transactionsRepository.save(transactionConverted);
-            throw new RuntimeException(e);
+            this.idempotencyCache.release(idempotencyKey, e);
+            return TransactionStatus.FAILED;
+        }
+    }
+
+    /**
+     * Records the outcome of a batch transaction under its reserved key. A failed transaction
+     * left no row behind, so its key is released for a retry.
+     */
+    private void settle(Map<String, Transaction> reserved, Transaction transaction) {
+        String idempotencyKey = transaction.getIdempotencyKey();
+        if (idempotencyKey == null || reserved.remove(idempotencyKey) == null) {
+            return;
+        }
+        if (transaction.getStatus() == TransactionStatus.FAILED) {
+            this.idempotencyCache.release(idempotencyKey,
+                    new IllegalStateException("Falha ao processar a transação " + idempotencyKey));
+        } else {
+            this.idempotencyCache.complete(idempotencyKey, transaction.getStatus());
         }
     }
 
@@ -185,6 +386,8 @@ public class TransactionsServiceImpl implements TransactionsService {
     public boolean delete(Long id) {
         try {
             this.transactionsRepository.deleteById(id);
+            // The accounts of the deleted transaction are not known here
+            this.summaryStore.invalidateAll();
             return true;
         } catch (Exception e) {
             return false;
@@ -201,34 +404,16 @@ public class TransactionsServiceImpl implements TransactionsService {
         return transactionDate.equals(LocalDate.now());
     }
 
-    /**
-     * Verifies if the sender has sufficient balance to complete the transaction.
-     *
-     * @param amount The amount to be transferred
-     * @param balance The current balance of the sender
-     * @return true if the sender has sufficient balance, false otherwise
-     */
-    private boolean checkSenderBalance(BigDecimal amount, BigDecimal balance) {
-        return balance.compareTo(amount) >= 0;
-    }
-
-    /**
-     * Retrieves the account information for a specific user.
-     *
-     * @param userId The ID of the user whose account information is needed
-     * @return The AccountDTO containing the user's account information
-     */
-    private AccountDTO getAccountByUserId(Long userId) {
-        return this.accountService.getAccountByUserId(userId);
-    }
-
-    /**
-     * Updates the balance of a user's account.
-     *
-     * @param userId The ID of the user whose account balance is to be updated
-     * @param newBalance The new balance to set for the user's account
-     */
-    private void updateUserAccountBalance(Long userId, BigDecimal newBalance) {
-        this.accountService.updateUserAccountBalance(userId, newBalance);
+    private Set<Long> accountIdsOf(List<Transaction> transactions) {
+        Set<Long> accountIds = new HashSet<>();
+        for (Transaction transaction : transactions) {
+            if (transaction.getSender() != null && transaction.getSender().getId() != null) {
+                accountIds.add(transaction.getSender().getId());
+            }
+            if (transaction.getReceiver() != null && transaction.getReceiver().getId() != null) {
+                accountIds.add(transaction.getReceiver().getId());
+            }
+        }
+        return accountIds;
     }
 }
@@ -1,23 +1,23 @@
 package org.jala.university.application.service.impl;
 
-import jakarta.persistence.EntityManager;
 import org.jala.university.application.map.TwoFactorCodeMapper;
 import org.jala.university.application.map.UserMapper;
 import org.jala.university.application.service.EmailService;
 import org.jala.university.application.service.TwoFactorAuthService;
-import org.jala.university.domain.entity.TwoFactorCode;
+import org.jala.university.commons.infrastructure.persistance.UnitOfWork;
 import org.jala.university.domain.entity.User;
-import org.jala.university.domain.repository.TwoFactorCodeRepository;
+import org.jala.university.domain.repository.TwoFactorCodeStore;
 import org.jala.university.domain.repository.UserRepository;
+import org.jala.university.infrastructure.cache.InMemoryTwoFactorCodeStore;
 import org.jala.university.infrastructure.config.JPAConfig;
+import org.jala.university.infrastructure.mail.EmailOutbox;
+import org.jala.university.infrastructure.persistence.JpaTwoFactorCodeStore;
 import org.jala.university.infrastructure.persistence.TwoFactorCodeRepositoryImpl;
 import org.jala.university.infrastructure.persistence.UserRepositoryImp;
 
-import java.io.IOException;
-import java.io.InputStream;
 import java.security.SecureRandom;
-import java.time.LocalDateTime;
-import java.util.Properties;
+import java.time.Duration;
+import java.util.Optional;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 
@@ -28,53 +28,47 @@ public class TwoFactorAuthServiceImpl implements TwoFactorAuthService {
 
     private static final Logger LOGGER = Logger.getLogger(TwoFactorAuthServiceImpl.class.getName());
 
+    /**
+     * System property choosing where the codes are kept: {@code memory}, the default, or
+     * {@code jpa} for the {@code two_factor_codes} table, when several instances of the
+     * application must share them.
+     */
+    public static final String CODE_STORE_PROPERTY = "bank.twofactor.store";
+
+    private static final Duration CODE_TTL = InMemoryTwoFactorCodeStore.DEFAULT_TTL;
+
     private final UserRepository userRepository;
-    private final TwoFactorCodeRepository twoFactorCodeRepository;
+    private final TwoFactorCodeStore codeStore;
     private final UserMapper userMapper;
     private final TwoFactorCodeMapper twoFactorCodeMapper;
     private final EmailService emailService;
-    private final EntityManager entityManager;
+    private final UnitOfWork unitOfWork;
     private final SecureRandom random;
 
     /**
      * Constructor initializing the required dependencies.
      */
     public TwoFactorAuthServiceImpl() {
-        this.entityManager = JPAConfig.getEntityManagerFactory().createEntityManager();
-        this.userRepository = new UserRepositoryImp(entityManager);
-        this.twoFactorCodeRepository = new TwoFactorCodeRepositoryImpl(entityManager);
+        this.unitOfWork = JPAConfig.getUnitOfWork();
+        this.userRepository = new UserRepositoryImp(unitOfWork);
+        this.codeStore = usesDatabaseCodeStore()
+                ? new JpaTwoFactorCodeStore(new TwoFactorCodeRepositoryImpl(unitOfWork), unitOfWork, CODE_TTL)
+                : InMemoryTwoFactorCodeStore.getInstance();
         this.userMapper = new UserMapper();
         this.twoFactorCodeMapper = new TwoFactorCodeMapper();
 
-        // Configurar o serviço de email real
-        Properties emailProps = loadEmailProperties();
-        String smtpHost = emailProps.getProperty("mail.smtp.host", "smtp.gmail.com");
-        int smtpPort = Integer.parseInt(emailProps.getProperty("mail.smtp.port", "587"));
-        String username = emailProps.getProperty("mail.username", "");
-        String password = emailProps.getProperty("mail.password", "");
-        boolean debug = Boolean.parseBoolean(emailProps.getProperty("mail.debug", "true"));
-
-        this.emailService = new EmailServiceImpl(username, password, smtpHost, smtpPort, debug);
+        // Os emails saem pela caixa de saída, em segundo plano
+        this.emailService = EmailOutbox.getInstance();
         this.random = new SecureRandom();
     }
 
     /**
-     * Carrega as propriedades de email do arquivo de configuração.
+     * Checks whether the codes are kept in the database, as chosen by {@link #CODE_STORE_PROPERTY}.
      *
-     * @return Properties com as configurações de email
+     * @return true for the JPA store, false for the in-memory one
      */
-    private Properties loadEmailProperties() {
-        Properties props = new Properties();
-        try (InputStream input = getClass().getClassLoader().getResourceAsStream("properties/email.properties")) {
-            if (input != null) {
-                props.load(input);
-            } else {
-                LOGGER.warning("Arquivo email.properties não encontrado. Usando configurações padrão.");
-            }
-        } catch (IOException ex) {
-            LOGGER.log(Level.SEVERE, "Erro ao carregar configurações de email", ex);
-        }
-        return props;
+    public static boolean usesDatabaseCodeStore() {
+        return "jpa".equalsIgnoreCase(System.getProperty(CODE_STORE_PROPERTY, "memory").trim());
     }
 
     /**
@@ -99,32 +93,17 @@ public class TwoFactorAuthServiceImpl implements TwoFactorAuthService {
     @Override
     public boolean setTwoFactorEnabled(Long userId, boolean enabled) {
         try {
-            entityManager.getTransaction().begin();
-
-            User user = userRepository.findById(userId);
-            if (user == null) {
-                entityManager.getTransaction().rollback();
-                return false;
-            }
-
-            user.setTwoFactorEnabled(enabled);
-
-            try {
-                entityManager.merge(user);
-            } catch (Exception mergeException) {
-                if (entityManager.getTransaction().isActive()) {
-                    entityManager.getTransaction().rollback();
+            return unitOfWork.write(entityManager -> {
+                User user = userRepository.findById(userId);
+                if (user == null) {
+                    return false;
                 }
-                LOGGER.log(Level.SEVERE, "Error merging user entity: " + user.getId() + ", Error: " + mergeException.getMessage(), mergeException);
-                return false;
-            }
 
-            entityManager.getTransaction().commit();
-            return true;
+                user.setTwoFactorEnabled(enabled);
+                entityManager.merge(user);
+                return true;
+            });
         } catch (Exception e) {
-            if (entityManager.getTransaction().isActive()) {
-                entityManager.getTransaction().rollback();
-            }
             LOGGER.log(Level.SEVERE, "Error setting two-factor authentication", e);
             return false;
         }
@@ -132,48 +111,33 @@ public class TwoFactorAuthServiceImpl implements TwoFactorAuthService {
 
 
     /**
-     * Generates and sends a verification code to the user.
+     * Generates a verification code and queues it to be emailed to the user.
      *
      * @param userId the user ID
-     * @return true if the code was generated and sent successfully, false otherwise
+     * @return true if the code was generated and queued successfully, false otherwise
      */
     @Override
     public boolean generateAndSendCode(Long userId) {
         try {
-            entityManager.getTransaction().begin();
-
             User user = userRepository.findById(userId);
             if (user == null) {
-                entityManager.getTransaction().rollback();
                 return false;
             }
 
             String code = generateRandomCode();
+            codeStore.save(userId, code);
 
-            TwoFactorCode twoFactorCode = new TwoFactorCode();
-            twoFactorCode.setUser(user);
-            twoFactorCode.setCode(code);
-            twoFactorCode.setExpiresAt(LocalDateTime.now().plusMinutes(10));
-
-            entityManager.persist(twoFactorCode);
-            entityManager.getTransaction().commit();
-
-            String subject = "Código de Verificação - Sistema Bancário";
-            String body = "Seu código de verificação é: " + code + "\n\n" +
-                    "Este código expira em 10 minutos.";
-
-            return emailService.sendEmail(user.getEmail(), subject, body);
+            // O email só é enfileirado; o envio não atrasa o login
+            return sendCode(user, code, codeStore.getTimeToLive());
         } catch (Exception e) {
-            if (entityManager.getTransaction().isActive()) {
-                entityManager.getTransaction().rollback();
-            }
             LOGGER.log(Level.SEVERE, "Error generating and sending verification code", e);
             return false;
         }
     }
 
     /**
-     * Verifies a two-factor authentication code.
+     * Verifies a two-factor authentication code. A valid code is used up; a code is discarded
+     * after too many wrong attempts, and a new one must be requested.
      *
      * @param userId the user ID
      * @param code   the verification code
@@ -182,22 +146,11 @@ public class TwoFactorAuthServiceImpl implements TwoFactorAuthService {
     @Override
     public boolean verifyCode(Long userId, String code) {
         try {
-            User user = userRepository.findById(userId);
-            if (user == null) {
-                return false;
-            }
-
-            TwoFactorCode twoFactorCode = twoFactorCodeRepository.findLatestValidCode(userId);
-
-            if (twoFactorCode == null) {
-                return false;
-            }
-
-            if (twoFactorCode.getExpiresAt().isBefore(LocalDateTime.now())) {
-                return false;
+            TwoFactorCodeStore.Result result = codeStore.verify(userId, code);
+            if (result == TwoFactorCodeStore.Result.LOCKED) {
+                LOGGER.warning("Código de verificação descartado após tentativas inválidas: usuário " + userId);
             }
-
-            return twoFactorCode.getCode().equals(code);
+            return result == TwoFactorCodeStore.Result.VALID;
         } catch (Exception e) {
             LOGGER.log(Level.SEVERE, "Error verifying code", e);
             return false;
@@ -205,7 +158,7 @@ public class TwoFactorAuthServiceImpl implements TwoFactorAuthService {
     }
 
     /**
-     * Resends the verification code to the user.
+     * Resends the active verification code to the user, or a new one if it has expired.
      *
      * @param userId the user ID
      * @return true if the code was resent successfully, false otherwise
@@ -213,30 +166,29 @@ public class TwoFactorAuthServiceImpl implements TwoFactorAuthService {
     @Override
     public boolean resendCode(Long userId) {
         try {
+            Optional<TwoFactorCodeStore.ActiveCode> active = codeStore.findActive(userId);
+            if (active.isEmpty()) {
+                return generateAndSendCode(userId);
+            }
+
             User user = userRepository.findById(userId);
             if (user == null) {
                 return false;
             }
-
-            TwoFactorCode twoFactorCode = twoFactorCodeRepository.findLatestValidCode(userId);
-
-            if (twoFactorCode == null || twoFactorCode.getExpiresAt().isBefore(LocalDateTime.now())) {
-                generateAndSendCode(userId);
-            }
-
-            String subject = "Código de Verificação - Sistema Bancário";
-            String body = "Seu código de verificação é: " + twoFactorCode.getCode() + "\n\n" +
-                    "Este código expira em " +
-                    java.time.Duration.between(LocalDateTime.now(), twoFactorCode.getExpiresAt()).toMinutes() +
-                    " minutos.";
-
-            return emailService.sendEmail(user.getEmail(), subject, body);
+            return sendCode(user, active.get().code(), active.get().remaining());
         } catch (Exception e) {
             LOGGER.log(Level.SEVERE, "Error resending verification code", e);
             return false;
         }
     }
 
+    private boolean sendCode(User user, String code, Duration validity) {
+        String subject = "Código de Verificação - Sistema Bancário";
+        String body = "Seu código de verificação é: " + code + "\n\n" +
+                "Este código expira em " + Math.max(1, validity.toMinutes()) + " minutos.";
+        return emailService.sendEmail(user.getEmail(), subject, body);
+    }
+
     /**
      * Generates a random 6-digit code.
      *
@@ -0,0 +1,61 @@
+package org.jala.university.domain.entity;
+
+import jakarta.persistence.*;
+import lombok.*;
+import org.jala.university.commons.domain.BaseEntity;
+import org.jala.university.domain.entity.enums.TransactionStatus;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+/**
+ * Transaction moved out of {@code transactions} because it stayed PENDING or CANCELLED past
+ * the retention period. Accounts are kept as plain IDs, so archived rows do not hold
+ * references to live accounts.
+ */
+@Entity
+@Table(name = "transactions_archive")
+@Builder
+@Getter
+@Setter
+@AllArgsConstructor
+@NoArgsConstructor
+public class ArchivedTransaction implements BaseEntity<Long> {
+    private static final long serialVersionUID = 1L;
+
+    /**
+     * ID the transaction had in {@code transactions}
+     */
+    @Id
+    private Long id;
+
+    @Column(nullable = false, precision = 10, scale = 2)
+    private BigDecimal amount;
+
+    @Column(name = "sender_id", nullable = false)
+    private Long senderId;
+
+    @Column(name = "receiver_id", nullable = false)
+    private Long receiverId;
+
+    /**
+     * Status of the transaction when it was archived
+     */
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false)
+    private TransactionStatus status;
+
+    private LocalDate transactionSchedule;
+
+    @Column(nullable = false, length = 255)
+    private String description;
+
+    private LocalDateTime createdAt;
+
+    @Column(name = "idempotency_key", length = 64)
+    private String idempotencyKey;
+
+    @Column(name = "archived_at", nullable = false)
+    private LocalDateTime archivedAt;
+}
@@ -0,0 +1,43 @@
+package org.jala.university.domain.entity;
+
+import jakarta.persistence.*;
+import lombok.*;
+import org.jala.university.commons.domain.BaseEntity;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+/**
+ * Balance of an account at a point of the ledger journal.
+ * <p>
+ * The current balance of an account is the balance of its latest snapshot plus the
+ * postings recorded after {@link #lastEntryId}. A snapshot with {@code lastEntryId = 0}
+ * holds the opening balance of an account that existed before the journal.
+ */
+@Entity
+@Table(name = "balance_snapshots")
+@Builder
+@Getter
+@Setter
+@AllArgsConstructor
+@NoArgsConstructor
+public class BalanceSnapshot implements BaseEntity<Long> {
+    private static final long serialVersionUID = 1L;
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "account_id", nullable = false, updatable = false)
+    private Account account;
+
+    @Column(nullable = false, updatable = false, precision = 10, scale = 2)
+    private BigDecimal balance;
+
+    @Column(name = "last_entry_id", nullable = false, updatable = false)
+    private Long lastEntryId;
+
+    @Column(name = "created_at", nullable = false, updatable = false)
+    private LocalDateTime createdAt;
+}
@@ -0,0 +1,52 @@
+package org.jala.university.domain.entity;
+
+import jakarta.persistence.*;
+import lombok.*;
+import org.jala.university.commons.domain.BaseEntity;
+import org.jala.university.domain.entity.enums.PostingType;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+/**
+ * Append-only posting of the ledger journal.
+ * <p>
+ * Entries are only ever inserted. Their ids are increasing, so the postings of an account
+ * made after a {@link BalanceSnapshot} are the ones with an id greater than
+ * {@link BalanceSnapshot#getLastEntryId()}.
+ */
+@Entity
+@Table(name = "ledger_entries")
+@Builder
+@Getter
+@Setter
+@AllArgsConstructor
+@NoArgsConstructor
+public class LedgerEntry implements BaseEntity<Long> {
+    private static final long serialVersionUID = 1L;
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "account_id", nullable = false, updatable = false)
+    private Account account;
+
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "transaction_id", nullable = false, updatable = false)
+    private Transaction transaction;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, updatable = false, length = 10)
+    private PostingType type;
+
+    /**
+     * Always positive; the direction is given by {@link #type}
+     */
+    @Column(nullable = false, updatable = false, precision = 10, scale = 2)
+    private BigDecimal amount;
+
+    @Column(name = "created_at", nullable = false, updatable = false)
+    private LocalDateTime createdAt;
+}
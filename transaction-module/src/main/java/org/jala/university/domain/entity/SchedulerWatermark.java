@@ -0,0 +1,31 @@
+package org.jala.university.domain.entity;
+
+import jakarta.persistence.*;
+import lombok.*;
+import org.jala.university.commons.domain.BaseEntity;
+
+import java.time.LocalDateTime;
+
+/**
+ * Last completed run of a scheduled job, kept across application restarts.
+ */
+@Entity
+@Table(name = "scheduler_watermarks")
+@Builder
+@Getter
+@Setter
+@AllArgsConstructor
+@NoArgsConstructor
+public class SchedulerWatermark implements BaseEntity<String> {
+    private static final long serialVersionUID = 1L;
+
+    /**
+     * Name of the job
+     */
+    @Id
+    @Column(length = 64)
+    private String id;
+
+    @Column(name = "last_run_at", nullable = false)
+    private LocalDateTime lastRunAt;
+}
@@ -44,4 +44,10 @@ public class Transaction implements BaseEntity<Long> {
     @Column(updatable = false)
     @CreationTimestamp
     private LocalDateTime createdAt;
+
+    /**
+     * Key chosen by the client for one submission; a retried submission reuses it
+     */
+    @Column(name = "idempotency_key", unique = true, updatable = false, length = 64)
+    private String idempotencyKey;
 }
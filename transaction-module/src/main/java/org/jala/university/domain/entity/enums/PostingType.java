@@ -0,0 +1,17 @@
+package org.jala.university.domain.entity.enums;
+
+/**
+ * Enumeration representing the side of a ledger posting.
+ * Every completed transaction produces one posting of each type.
+ */
+public enum PostingType {
+    /**
+     * Money leaving the account; decreases its balance
+     */
+    DEBIT,
+
+    /**
+     * Money entering the account; increases its balance
+     */
+    CREDIT
+}
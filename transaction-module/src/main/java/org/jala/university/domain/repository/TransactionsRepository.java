@@ -7,4 +7,6 @@ import java.util.List;
 
 public interface TransactionsRepository extends Repository<Transaction, Long> {
     List<Transaction> findAllByUserId(Long userId);
+
+    Transaction findByIdempotencyKey(String idempotencyKey);
 }
@@ -0,0 +1,76 @@
+package org.jala.university.domain.repository;
+
+import java.time.Duration;
+import java.util.Optional;
+
+/**
+ * Keeps the active two-factor code of each user.
+ * <p>
+ * A user has at most one active code: saving a new one replaces the previous. A code stops
+ * being active when it expires, when it is verified successfully, or when too many wrong
+ * attempts lock it.
+ */
+public interface TwoFactorCodeStore {
+
+    /**
+     * Outcome of a verification.
+     */
+    enum Result {
+        /** The code matched and has been used up. */
+        VALID,
+        /** The code did not match; the user may try again. */
+        INVALID,
+        /** The code did not match and was the last allowed attempt; the code is discarded. */
+        LOCKED,
+        /** The user has no active code. */
+        MISSING
+    }
+
+    /**
+     * An active code.
+     *
+     * @param code the code
+     * @param remaining the time until it expires
+     */
+    record ActiveCode(String code, Duration remaining) {
+    }
+
+    /**
+     * Saves a new code for a user, replacing any active one.
+     *
+     * @param userId the user ID
+     * @param code the code
+     */
+    void save(Long userId, String code);
+
+    /**
+     * Finds the active code of a user.
+     *
+     * @param userId the user ID
+     * @return the active code, or empty if there is none
+     */
+    Optional<ActiveCode> findActive(Long userId);
+
+    /**
+     * Checks a code against the active code of a user, using it up when it matches.
+     *
+     * @param userId the user ID
+     * @param code the code entered by the user
+     * @return the outcome
+     */
+    Result verify(Long userId, String code);
+
+    /**
+     * Discards the active code of a user, if any.
+     *
+     * @param userId the user ID
+     */
+    void invalidate(Long userId);
+
+    /**
+     * Returns how long a saved code stays active.
+     *
+     * @return the time-to-live of the codes
+     */
+    Duration getTimeToLive();
+}
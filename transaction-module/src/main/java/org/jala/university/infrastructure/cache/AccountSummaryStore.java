@@ -0,0 +1,379 @@
+package org.jala.university.infrastructure.cache;
+
+import org.jala.university.application.dto.AccountSummaryDTO;
+import org.jala.university.application.dto.TransactionHistoryDTO;
+import org.jala.university.domain.entity.Transaction;
+import org.jala.university.domain.entity.enums.TransactionStatus;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.function.LongSupplier;
+
+/**
+ * In-memory read model of the dashboard: one {@link AccountSummaryDTO} per account,
+ * maintained incrementally as transactions are recorded and settled.
+ * <p>
+ * A summary is loaded from the database on the first read of its account and then kept up
+ * to date by the writers of this process, which report each change through an
+ * {@link Update}. The writers open the update before their commit and apply it after, so
+ * a load running concurrently with a write is returned but not stored: it may or may not
+ * have seen the write, and storing it could lose or double-count it.
+ * <p>
+ * Changes made by other processes, such as the headless scheduler, are not reported, so a
+ * summary is reloaded once its time-to-live has passed.
+ */
+public final class AccountSummaryStore {
+
+    /**
+     * Default number of recent transactions kept per account.
+     */
+    public static final int DEFAULT_RECENT_SIZE = 10;
+    /**
+     * Default time a loaded summary is trusted before it is read again from the database.
+     */
+    public static final Duration DEFAULT_TTL = Duration.ofMinutes(1);
+    /**
+     * Number of months of credit and debit totals kept per account, the current one included.
+     */
+    public static final int MONTHS = 12;
+
+    private static final int STRIPES = 64;
+
+    private final Map<Long, Summary> summaries = new ConcurrentHashMap<>();
+    private final AtomicLongArray versions = new AtomicLongArray(STRIPES);
+    private final AtomicLongArray writers = new AtomicLongArray(STRIPES);
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final int recentSize;
+    private final long ttlNanos;
+    private final LongSupplier clock;
+
+    /**
+     * Holder for the shared instance used by the services.
+     */
+    private static final class InstanceHolder {
+        private static final AccountSummaryStore INSTANCE = new AccountSummaryStore(DEFAULT_RECENT_SIZE, DEFAULT_TTL);
+    }
+
+    /**
+     * Returns the shared store.
+     *
+     * @return the shared instance
+     */
+    public static AccountSummaryStore getInstance() {
+        return InstanceHolder.INSTANCE;
+    }
+
+    /**
+     * Creates a store.
+     *
+     * @param recentSize the number of recent transactions kept per account
+     * @param ttl the time a loaded summary is trusted
+     */
+    public AccountSummaryStore(int recentSize, Duration ttl) {
+        this(recentSize, ttl, System::nanoTime);
+    }
+
+    AccountSummaryStore(int recentSize, Duration ttl, LongSupplier clock) {
+        if (recentSize <= 0) {
+            throw new IllegalArgumentException("Recent size must be greater than zero");
+        }
+        this.recentSize = recentSize;
+        this.ttlNanos = ttl.toNanos();
+        this.clock = clock;
+    }
+
+    /**
+     * Returns the summary of an account, loading it on a miss.
+     *
+     * @param accountId the account ID
+     * @param loader reads the summary from the database, with at most
+     *               {@link #getRecentSize()} recent transactions
+     * @return the summary
+     */
+    public AccountSummaryDTO get(Long accountId, Function<Long, AccountSummaryDTO> loader) {
+        long now = clock.getAsLong();
+        Summary summary = summaries.get(accountId);
+        if (summary != null && !summary.isExpired(now)) {
+            hits.increment();
+            return summary.snapshot();
+        }
+        misses.increment();
+
+        int stripe = stripeOf(accountId);
+        long version = versions.get(stripe);
+        boolean quiet = writers.get(stripe) == 0;
+        AccountSummaryDTO loaded = loader.apply(accountId);
+        if (quiet) {
+            Summary fresh = new Summary(loaded, recentSize, now + ttlNanos);
+            summaries.compute(accountId, (id, current) -> versions.get(stripe) == version ? fresh : null);
+        }
+        return loaded;
+    }
+
+    /**
+     * Starts reporting a write that touches the given accounts. Must be called before the
+     * write commits, and the update closed once it has committed or failed.
+     *
+     * @param accountIds the accounts the write touches
+     * @return the update to apply the committed changes with
+     */
+    public Update open(Long... accountIds) {
+        return open(List.of(accountIds));
+    }
+
+    /**
+     * Starts reporting a write that touches the given accounts, like {@link #open(Long...)}.
+     *
+     * @param accountIds the accounts the write touches
+     * @return the update to apply the committed changes with
+     */
+    public Update open(Iterable<Long> accountIds) {
+        boolean[] touched = new boolean[STRIPES];
+        for (Long accountId : accountIds) {
+            if (accountId != null) {
+                touched[stripeOf(accountId)] = true;
+            }
+        }
+        for (int stripe = 0; stripe < STRIPES; stripe++) {
+            if (touched[stripe]) {
+                writers.incrementAndGet(stripe);
+                versions.incrementAndGet(stripe);
+            }
+        }
+        return new Update(touched);
+    }
+
+    /**
+     * Drops the summary of an account.
+     *
+     * @param accountId the account ID
+     */
+    public void invalidate(Long accountId) {
+        versions.incrementAndGet(stripeOf(accountId));
+        summaries.remove(accountId);
+    }
+
+    /**
+     * Drops every summary. Used by writes that do not know which accounts they touched.
+     */
+    public void invalidateAll() {
+        for (int stripe = 0; stripe < STRIPES; stripe++) {
+            versions.incrementAndGet(stripe);
+        }
+        summaries.clear();
+    }
+
+    /**
+     * Returns the number of summaries answered from memory.
+     *
+     * @return the hit count
+     */
+    public long getHits() {
+        return hits.sum();
+    }
+
+    /**
+     * Returns the number of summaries loaded from the database.
+     *
+     * @return the miss count
+     */
+    public long getMisses() {
+        return misses.sum();
+    }
+
+    /**
+     * Returns the number of recent transactions kept per account.
+     *
+     * @return the recent size
+     */
+    public int getRecentSize() {
+        return recentSize;
+    }
+
+    private static int stripeOf(Long accountId) {
+        return Long.hashCode(accountId) & (STRIPES - 1);
+    }
+
+    /**
+     * The committed changes of one write. Close it when the write is over, whether it
+     * committed or not; closing twice has no effect.
+     */
+    public final class Update implements AutoCloseable {
+        private final boolean[] stripes;
+        private boolean closed;
+
+        private Update(boolean[] stripes) {
+            this.stripes = stripes;
+        }
+
+        /**
+         * Applies a committed new transaction to the summaries of both of its accounts.
+         *
+         * @param transaction the transaction, with its id, status and creation time
+         */
+        public void record(Transaction transaction) {
+            Long senderId = transaction.getSender() == null ? null : transaction.getSender().getId();
+            Long receiverId = transaction.getReceiver() == null ? null : transaction.getReceiver().getId();
+            TransactionStatus status = transaction.getStatus();
+            BigDecimal amount = transaction.getAmount();
+            apply(senderId, summary -> summary.add(transaction, true));
+            apply(receiverId, summary -> summary.add(transaction, false));
+            if (status == TransactionStatus.COMPLETED) {
+                YearMonth month = YearMonth.from(transaction.getCreatedAt() == null
+                        ? LocalDateTime.now() : transaction.getCreatedAt());
+                apply(senderId, summary -> summary.move(amount, true, month));
+                apply(receiverId, summary -> summary.move(amount, false, month));
+            }
+        }
+
+        /**
+         * Applies the committed settlement of a PENDING transaction.
+         *
+         * @param transactionId the transaction ID
+         * @param senderId the sender account ID
+         * @param receiverId the receiver account ID
+         * @param amount the amount
+         * @param status the status the transaction was settled with
+         */
+        public void settle(Long transactionId, Long senderId, Long receiverId, BigDecimal amount,
+                           TransactionStatus status) {
+            YearMonth month = YearMonth.now();
+            apply(senderId, summary -> summary.settle(transactionId, status, amount, true, month));
+            apply(receiverId, summary -> summary.settle(transactionId, status, amount, false, month));
+        }
+
+        private void apply(Long accountId, Consumer<Summary> change) {
+            if (accountId == null) {
+                return;
+            }
+            summaries.computeIfPresent(accountId, (id, summary) -> {
+                change.accept(summary);
+                return summary;
+            });
+        }
+
+        @Override
+        public void close() {
+            if (closed) {
+                return;
+            }
+            closed = true;
+            for (int stripe = 0; stripe < STRIPES; stripe++) {
+                if (stripes[stripe]) {
+                    writers.decrementAndGet(stripe);
+                }
+            }
+        }
+    }
+
+    /**
+     * The mutable summary of one account. Guarded by its own monitor.
+     */
+    private static final class Summary {
+        private final Long accountId;
+        private final long expiresAt;
+        private BigDecimal balance;
+        private final Map<TransactionStatus, Long> counts = new EnumMap<>(TransactionStatus.class);
+        private final TreeMap<YearMonth, BigDecimal[]> months = new TreeMap<>();
+        private final TransactionHistoryDTO[] recent;
+        private int head;
+        private int size;
+
+        private Summary(AccountSummaryDTO loaded, int recentSize, long expiresAt) {
+            this.accountId = loaded.getAccountId();
+            this.expiresAt = expiresAt;
+            this.balance = loaded.getBalance() == null ? BigDecimal.ZERO : loaded.getBalance();
+            this.counts.putAll(loaded.getCountsByStatus());
+            loaded.getMonthlyTotals().forEach((month, totals) ->
+                    months.put(month, new BigDecimal[]{totals.getCredits(), totals.getDebits()}));
+            this.recent = new TransactionHistoryDTO[recentSize];
+            List<TransactionHistoryDTO> newestFirst = loaded.getRecentTransactions();
+            for (int i = Math.min(newestFirst.size(), recentSize) - 1; i >= 0; i--) {
+                push(newestFirst.get(i));
+            }
+        }
+
+        private boolean isExpired(long now) {
+            return now - expiresAt >= 0;
+        }
+
+        private synchronized void add(Transaction transaction, boolean debit) {
+            counts.merge(transaction.getStatus(), 1L, Long::sum);
+            push(TransactionHistoryDTO.builder()
+                    .id(transaction.getId())
+                    .status(transaction.getStatus())
+                    .amount(transaction.getAmount())
+                    .date(transaction.getCreatedAt())
+                    .description(transaction.getDescription())
+                    .debit(debit)
+                    .build());
+        }
+
+        private synchronized void settle(Long transactionId, TransactionStatus to, BigDecimal amount, boolean debit,
+                                         YearMonth month) {
+            counts.computeIfPresent(TransactionStatus.PENDING, (status, count) -> count > 1 ? count - 1 : null);
+            counts.merge(to, 1L, Long::sum);
+            if (to == TransactionStatus.COMPLETED) {
+                move(amount, debit, month);
+            }
+            for (int i = 0; i < size; i++) {
+                int slot = (head - 1 - i + recent.length) % recent.length;
+                TransactionHistoryDTO entry = recent[slot];
+                if (entry.getId() != null && entry.getId().equals(transactionId)) {
+                    recent[slot] = new TransactionHistoryDTO(entry.getId(), to, entry.getAmount(), entry.getDate(),
+                            entry.getDescription(), entry.getCounterpartyName(), entry.isDebit());
+                }
+            }
+        }
+
+        private synchronized void move(BigDecimal amount, boolean debit, YearMonth month) {
+            balance = debit ? balance.subtract(amount) : balance.add(amount);
+            BigDecimal[] totals = months.computeIfAbsent(month, m -> new BigDecimal[]{BigDecimal.ZERO, BigDecimal.ZERO});
+            int side = debit ? 1 : 0;
+            totals[side] = totals[side].add(amount);
+            while (months.size() > MONTHS) {
+                months.pollFirstEntry();
+            }
+        }
+
+        private void push(TransactionHistoryDTO entry) {
+            recent[head] = entry;
+            head = (head + 1) % recent.length;
+            size = Math.min(size + 1, recent.length);
+        }
+
+        private synchronized AccountSummaryDTO snapshot() {
+            List<TransactionHistoryDTO> newestFirst = new ArrayList<>(size);
+            for (int i = 0; i < size; i++) {
+                newestFirst.add(recent[(head - 1 - i + recent.length) % recent.length]);
+            }
+            Map<YearMonth, AccountSummaryDTO.MonthlyTotals> totals = new LinkedHashMap<>();
+            months.forEach((month, amounts) -> totals.put(month, AccountSummaryDTO.MonthlyTotals.builder()
+                    .credits(amounts[0])
+                    .debits(amounts[1])
+                    .build()));
+            return AccountSummaryDTO.builder()
+                    .accountId(accountId)
+                    .balance(balance)
+                    .countsByStatus(Collections.unmodifiableMap(new EnumMap<>(counts)))
+                    .monthlyTotals(Collections.unmodifiableMap(totals))
+                    .recentTransactions(Collections.unmodifiableList(newestFirst))
+                    .build();
+        }
+    }
+}
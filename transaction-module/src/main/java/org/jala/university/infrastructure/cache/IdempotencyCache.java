@@ -0,0 +1,172 @@
+package org.jala.university.infrastructure.cache;
+
+import org.jala.university.domain.entity.enums.TransactionStatus;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.LongSupplier;
+
+/**
+ * In-memory cache of recently submitted idempotency keys and the outcome of their transfer.
+ * <p>
+ * The first submission of a key reserves it; concurrent and later duplicates of that key
+ * receive the same pending outcome and wait for it instead of executing the transfer again.
+ * Entries expire after a fixed time-to-live. Since every entry has the same TTL, keys are
+ * queued in expiry order and expired ones are evicted from the head of the queue on each
+ * reservation, in amortized O(1).
+ */
+public final class IdempotencyCache {
+
+    /**
+     * Default time an outcome stays in memory.
+     */
+    public static final Duration DEFAULT_TTL = Duration.ofMinutes(10);
+
+    private final Map<String, Entry> entries = new ConcurrentHashMap<>();
+    private final Queue<Entry> expiryQueue = new ConcurrentLinkedQueue<>();
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final long ttlNanos;
+    private final LongSupplier clock;
+
+    /**
+     * Holder for the shared instance used by the services.
+     */
+    private static final class InstanceHolder {
+        private static final IdempotencyCache INSTANCE = new IdempotencyCache(DEFAULT_TTL);
+    }
+
+    /**
+     * Returns the shared cache.
+     *
+     * @return the shared instance
+     */
+    public static IdempotencyCache getInstance() {
+        return InstanceHolder.INSTANCE;
+    }
+
+    /**
+     * Creates a cache whose entries expire after the given time.
+     *
+     * @param ttl the time-to-live of each entry
+     */
+    public IdempotencyCache(Duration ttl) {
+        this(ttl, System::nanoTime);
+    }
+
+    IdempotencyCache(Duration ttl, LongSupplier clock) {
+        this.ttlNanos = ttl.toNanos();
+        this.clock = clock;
+    }
+
+    /**
+     * Reserves a key for a new submission.
+     *
+     * @param key the idempotency key
+     * @return null if the key was reserved by this call, which must then {@link #complete} or
+     *         {@link #release} it; otherwise the outcome of the earlier submission of the key,
+     *         possibly still in progress
+     */
+    public CompletableFuture<TransactionStatus> reserve(String key) {
+        long now = clock.getAsLong();
+        evictExpired(now);
+
+        Entry entry = new Entry(key, now + ttlNanos);
+        while (true) {
+            Entry existing = entries.putIfAbsent(key, entry);
+            if (existing == null) {
+                expiryQueue.add(entry);
+                misses.increment();
+                return null;
+            }
+            if (!existing.isExpired(now)) {
+                hits.increment();
+                return existing.outcome;
+            }
+            entries.remove(key, existing);
+        }
+    }
+
+    /**
+     * Records the outcome of a reserved key and wakes up any waiting duplicates.
+     *
+     * @param key the idempotency key
+     * @param status the final status of the transfer
+     */
+    public void complete(String key, TransactionStatus status) {
+        Entry entry = entries.get(key);
+        if (entry != null) {
+            entry.outcome.complete(status);
+        }
+    }
+
+    /**
+     * Drops a reserved key whose submission failed without a recorded outcome,
+     * so that a retry can execute it. Waiting duplicates receive the failure.
+     *
+     * @param key the idempotency key
+     * @param cause the failure
+     */
+    public void release(String key, Throwable cause) {
+        Entry entry = entries.remove(key);
+        if (entry != null) {
+            entry.outcome.completeExceptionally(cause);
+        }
+    }
+
+    /**
+     * Returns the number of submissions answered from the cache.
+     *
+     * @return the dedupe hit count
+     */
+    public long getHits() {
+        return hits.sum();
+    }
+
+    /**
+     * Returns the number of submissions whose key was not in the cache.
+     *
+     * @return the dedupe miss count
+     */
+    public long getMisses() {
+        return misses.sum();
+    }
+
+    /**
+     * Returns the number of keys currently held.
+     *
+     * @return the cache size
+     */
+    public int size() {
+        return entries.size();
+    }
+
+    private void evictExpired(long now) {
+        Entry head;
+        while ((head = expiryQueue.peek()) != null && head.isExpired(now)) {
+            if (expiryQueue.remove(head)) {
+                entries.remove(head.key, head);
+            }
+        }
+    }
+
+    private static final class Entry {
+        private final String key;
+        private final long expiresAt;
+        private final CompletableFuture<TransactionStatus> outcome = new CompletableFuture<>();
+
+        private Entry(String key, long expiresAt) {
+            this.key = key;
+            this.expiresAt = expiresAt;
+        }
+
+        private boolean isExpired(long now) {
+            return now - expiresAt >= 0;
+        }
+    }
+}
@@ -0,0 +1,168 @@
+package org.jala.university.infrastructure.cache;
+
+import org.jala.university.domain.repository.TwoFactorCodeStore;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.time.Duration;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.LongSupplier;
+
+/**
+ * Keeps two-factor codes in memory.
+ * <p>
+ * Verifying a code is a map lookup and a comparison, without touching the database. Since every
+ * code has the same time-to-live, codes are queued in expiry order and expired ones are evicted
+ * from the head of the queue on each save and verification, in amortized O(1), so no database
+ * job is needed to clean them up.
+ * <p>
+ * Codes are compared in constant time, and a code is discarded after {@code maxAttempts} wrong
+ * guesses. The codes live in this process only: they are lost on restart, and a user must
+ * verify on the instance that sent the code.
+ */
+public final class InMemoryTwoFactorCodeStore implements TwoFactorCodeStore {
+
+    /**
+     * Default time a code stays active.
+     */
+    public static final Duration DEFAULT_TTL = Duration.ofMinutes(10);
+
+    /**
+     * Default number of verifications allowed per code.
+     */
+    public static final int DEFAULT_MAX_ATTEMPTS = 5;
+
+    private final Map<Long, Entry> codes = new ConcurrentHashMap<>();
+    private final Queue<Entry> expiryQueue = new ConcurrentLinkedQueue<>();
+    private final Duration ttl;
+    private final int maxAttempts;
+    private final LongSupplier clock;
+
+    /**
+     * Holder for the shared instance used by the services.
+     */
+    private static final class InstanceHolder {
+        private static final InMemoryTwoFactorCodeStore INSTANCE =
+                new InMemoryTwoFactorCodeStore(DEFAULT_TTL, DEFAULT_MAX_ATTEMPTS);
+    }
+
+    /**
+     * Returns the shared store.
+     *
+     * @return the shared instance
+     */
+    public static InMemoryTwoFactorCodeStore getInstance() {
+        return InstanceHolder.INSTANCE;
+    }
+
+    /**
+     * Creates a store.
+     *
+     * @param ttl the time a code stays active
+     * @param maxAttempts the number of verifications allowed per code
+     */
+    public InMemoryTwoFactorCodeStore(Duration ttl, int maxAttempts) {
+        this(ttl, maxAttempts, System::nanoTime);
+    }
+
+    InMemoryTwoFactorCodeStore(Duration ttl, int maxAttempts, LongSupplier clock) {
+        if (maxAttempts < 1) {
+            throw new IllegalArgumentException("Max attempts must be positive");
+        }
+        this.ttl = ttl;
+        this.maxAttempts = maxAttempts;
+        this.clock = clock;
+    }
+
+    @Override
+    public void save(Long userId, String code) {
+        long now = clock.getAsLong();
+        evictExpired(now);
+
+        Entry entry = new Entry(userId, code, now + ttl.toNanos());
+        codes.put(userId, entry);
+        expiryQueue.add(entry);
+    }
+
+    @Override
+    public Optional<ActiveCode> findActive(Long userId) {
+        long now = clock.getAsLong();
+        Entry entry = codes.get(userId);
+        if (entry == null || entry.isExpired(now)) {
+            return Optional.empty();
+        }
+        return Optional.of(new ActiveCode(entry.code, Duration.ofNanos(entry.expiresAt - now)));
+    }
+
+    @Override
+    public Result verify(Long userId, String code) {
+        long now = clock.getAsLong();
+        evictExpired(now);
+
+        Entry entry = codes.get(userId);
+        if (entry == null || entry.isExpired(now) || code == null) {
+            return Result.MISSING;
+        }
+        if (MessageDigest.isEqual(entry.bytes, code.getBytes(StandardCharsets.UTF_8))) {
+            // One use only: of two concurrent verifications, only the one removing the entry wins
+            return codes.remove(userId, entry) ? Result.VALID : Result.MISSING;
+        }
+        if (entry.failures.incrementAndGet() < maxAttempts) {
+            return Result.INVALID;
+        }
+        codes.remove(userId, entry);
+        return Result.LOCKED;
+    }
+
+    @Override
+    public void invalidate(Long userId) {
+        codes.remove(userId);
+    }
+
+    @Override
+    public Duration getTimeToLive() {
+        return ttl;
+    }
+
+    /**
+     * Returns the number of codes currently held, including expired ones not yet evicted.
+     *
+     * @return the store size
+     */
+    public int size() {
+        return codes.size();
+    }
+
+    private void evictExpired(long now) {
+        Entry head;
+        while ((head = expiryQueue.peek()) != null && head.isExpired(now)) {
+            if (expiryQueue.remove(head)) {
+                codes.remove(head.userId, head);
+            }
+        }
+    }
+
+    private static final class Entry {
+        private final Long userId;
+        private final String code;
+        private final byte[] bytes;
+        private final long expiresAt;
+        private final AtomicInteger failures = new AtomicInteger();
+
+        private Entry(Long userId, String code, long expiresAt) {
+            this.userId = userId;
+            this.code = code;
+            this.bytes = code.getBytes(StandardCharsets.UTF_8);
+            this.expiresAt = expiresAt;
+        }
+
+        private boolean isExpired(long now) {
+            return now - expiresAt >= 0;
+        }
+    }
+}
@@ -0,0 +1,102 @@
+package org.jala.university.infrastructure.cache;
+
+import jakarta.persistence.EntityManagerFactory;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.ToString;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.CacheRegionStatistics;
+import org.hibernate.stat.Statistics;
+
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Point-in-time hit and miss counts of the second-level and query caches.
+ * <p>
+ * Requires {@code hibernate.generate_statistics}; without it every count is zero.
+ */
+@Getter
+@Builder
+@ToString
+public final class SecondLevelCacheStats {
+    private final long entityHits;
+    private final long entityMisses;
+    private final long queryHits;
+    private final long queryMisses;
+    private final Map<String, RegionStats> regions;
+
+    /**
+     * Reads the cache statistics of a factory.
+     *
+     * @param entityManagerFactory the factory
+     * @return the statistics
+     */
+    public static SecondLevelCacheStats of(EntityManagerFactory entityManagerFactory) {
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        Map<String, RegionStats> regions = new TreeMap<>();
+        for (String regionName : statistics.getSecondLevelCacheRegionNames()) {
+            CacheRegionStatistics region = statistics.getCacheRegionStatistics(regionName);
+            if (region != null) {
+                regions.put(regionName, RegionStats.builder()
+                        .hits(region.getHitCount())
+                        .misses(region.getMissCount())
+                        .puts(region.getPutCount())
+                        .elementsInMemory(region.getElementCountInMemory())
+                        .build());
+            }
+        }
+        return SecondLevelCacheStats.builder()
+                .entityHits(statistics.getSecondLevelCacheHitCount())
+                .entityMisses(statistics.getSecondLevelCacheMissCount())
+                .queryHits(statistics.getQueryCacheHitCount())
+                .queryMisses(statistics.getQueryCacheMissCount())
+                .regions(regions)
+                .build();
+    }
+
+    /**
+     * Returns the share of entity lookups answered by the second-level cache.
+     *
+     * @return the hit ratio, between 0 and 1
+     */
+    public double getEntityHitRatio() {
+        return ratio(entityHits, entityMisses);
+    }
+
+    /**
+     * Returns the share of cacheable queries answered by the query cache.
+     *
+     * @return the hit ratio, between 0 and 1
+     */
+    public double getQueryHitRatio() {
+        return ratio(queryHits, queryMisses);
+    }
+
+    private static double ratio(long hits, long misses) {
+        long lookups = hits + misses;
+        return lookups == 0 ? 0 : (double) hits / lookups;
+    }
+
+    /**
+     * Counts of a single cache region.
+     */
+    @Getter
+    @Builder
+    @ToString
+    public static final class RegionStats {
+        private final long hits;
+        private final long misses;
+        private final long puts;
+        private final long elementsInMemory;
+
+        /**
+         * Returns the share of lookups of the region that were hits.
+         *
+         * @return the hit ratio, between 0 and 1
+         */
+        public double getHitRatio() {
+            return ratio(hits, misses);
+        }
+    }
+}
@@ -0,0 +1,88 @@
+package org.jala.university.infrastructure.config;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Properties;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Settings of the background jobs, read from {@code properties/scheduler.properties}.
+ * <p>
+ * Every setting can be overridden with a system property of the same name; see
+ * {@code scheduler.example.properties}.
+ */
+public final class SchedulerProperties {
+    private static final Logger LOGGER = Logger.getLogger(SchedulerProperties.class.getName());
+
+    private static final String RESOURCE = "properties/scheduler.properties";
+
+    private final Properties props;
+
+    private SchedulerProperties(Properties props) {
+        this.props = props;
+    }
+
+    /**
+     * Loads the settings, falling back to the defaults of each caller when the file is missing.
+     *
+     * @return the settings
+     */
+    public static SchedulerProperties load() {
+        Properties props = new Properties();
+        try (InputStream input = SchedulerProperties.class.getClassLoader().getResourceAsStream(RESOURCE)) {
+            if (input != null) {
+                props.load(input);
+            }
+        } catch (IOException ex) {
+            LOGGER.log(Level.SEVERE, "Erro ao carregar configurações do agendador", ex);
+        }
+        return new SchedulerProperties(props);
+    }
+
+    /**
+     * Reads a setting.
+     *
+     * @param name the name of the setting
+     * @param defaultValue the value used when the setting is not given
+     * @return the system property, else the value in the file, else the default
+     */
+    public String get(String name, String defaultValue) {
+        return System.getProperty(name, props.getProperty(name, defaultValue));
+    }
+
+    /**
+     * Reads an integer setting.
+     *
+     * @param name the name of the setting
+     * @param defaultValue the value used when the setting is not given
+     * @return the value of the setting
+     * @throws NumberFormatException if the value is not an integer
+     */
+    public int getInt(String name, int defaultValue) {
+        return Integer.parseInt(get(name, String.valueOf(defaultValue)));
+    }
+
+    /**
+     * Reads a long setting.
+     *
+     * @param name the name of the setting
+     * @param defaultValue the value used when the setting is not given
+     * @return the value of the setting
+     * @throws NumberFormatException if the value is not a number
+     */
+    public long getLong(String name, long defaultValue) {
+        return Long.parseLong(get(name, String.valueOf(defaultValue)));
+    }
+
+    /**
+     * Reads a boolean setting.
+     *
+     * @param name the name of the setting
+     * @param defaultValue the value used when the setting is not given
+     * @return true if the value is {@code true}, ignoring case
+     */
+    public boolean getBoolean(String name, boolean defaultValue) {
+        return Boolean.parseBoolean(get(name, String.valueOf(defaultValue)));
+    }
+}
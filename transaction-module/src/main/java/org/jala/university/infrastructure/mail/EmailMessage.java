@@ -0,0 +1,11 @@
+package org.jala.university.infrastructure.mail;
+
+/**
+ * A plain-text email waiting to be sent.
+ *
+ * @param to the recipient's address
+ * @param subject the subject
+ * @param body the text of the message
+ */
+public record EmailMessage(String to, String subject, String body) {
+}
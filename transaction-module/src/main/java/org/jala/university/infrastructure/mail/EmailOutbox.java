@@ -0,0 +1,297 @@
+package org.jala.university.infrastructure.mail;
+
+import jakarta.mail.MessagingException;
+import jakarta.mail.Session;
+import jakarta.mail.internet.AddressException;
+import jakarta.mail.internet.InternetAddress;
+import org.jala.university.application.service.EmailService;
+import org.jala.university.infrastructure.mock.LocalSmtpServer;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.time.Duration;
+import java.util.concurrent.DelayQueue;
+import java.util.concurrent.Delayed;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Sends emails in the background.
+ * <p>
+ * {@link #sendEmail} only queues the message and returns, so callers such as the login do not
+ * wait for the SMTP handshake. A small pool of workers takes the messages from the queue; each
+ * worker keeps its own {@link MailConnection} open between messages, and closes it after
+ * {@link #IDLE_DISCONNECT} without work.
+ * <p>
+ * A message that fails is queued again after a growing delay, up to {@code maxAttempts}
+ * attempts, and is then logged and dropped. The queue lives in memory, so messages still
+ * waiting when the application stops are lost; a verification code can always be requested
+ * again.
+ */
+public final class EmailOutbox implements EmailService {
+    private static final Logger LOGGER = Logger.getLogger(EmailOutbox.class.getName());
+
+    /**
+     * Default number of workers, and so of open SMTP connections.
+     */
+    public static final int DEFAULT_WORKERS = 2;
+
+    /**
+     * Default number of messages waiting to be sent, including those waiting for a retry.
+     */
+    public static final int DEFAULT_CAPACITY = 1_000;
+
+    /**
+     * Default number of attempts per message.
+     */
+    public static final int DEFAULT_MAX_ATTEMPTS = 5;
+
+    /**
+     * Default delay before the first retry; each further retry waits twice as long.
+     */
+    public static final Duration DEFAULT_INITIAL_BACKOFF = Duration.ofSeconds(2);
+
+    /**
+     * Longest delay between two attempts.
+     */
+    public static final Duration MAX_BACKOFF = Duration.ofMinutes(5);
+
+    /**
+     * Time without messages after which a worker closes its connection.
+     */
+    public static final Duration IDLE_DISCONNECT = Duration.ofSeconds(30);
+
+    private static final long POLL_INTERVAL_MILLIS = 500;
+
+    private final Supplier<MailConnection> connections;
+    private final int capacity;
+    private final int maxAttempts;
+    private final Duration initialBackoff;
+    private final DelayQueue<Pending> queue = new DelayQueue<>();
+    private final AtomicInteger pending = new AtomicInteger();
+    private final AtomicLong sent = new AtomicLong();
+    private final AtomicLong failed = new AtomicLong();
+    private final ExecutorService workers;
+    private volatile boolean closed;
+
+    /**
+     * Holder for the shared outbox, configured from {@code properties/email.properties}.
+     */
+    private static final class InstanceHolder {
+        private static final EmailOutbox INSTANCE = create(MailSettings.load());
+    }
+
+    /**
+     * Returns the shared outbox.
+     *
+     * @return the shared instance
+     */
+    public static EmailOutbox getInstance() {
+        return InstanceHolder.INSTANCE;
+    }
+
+    /**
+     * Creates an outbox sending through SMTP with the default limits. With {@code mail.local}
+     * set, an in-process {@link LocalSmtpServer} is started and receives the messages instead.
+     *
+     * @param settings the server settings
+     * @return the outbox
+     */
+    public static EmailOutbox create(MailSettings settings) {
+        MailSettings server = settings;
+        if (settings.local()) {
+            try {
+                server = MailSettings.local(LocalSmtpServer.start(0).getPort());
+            } catch (IOException e) {
+                throw new UncheckedIOException("Não foi possível iniciar o servidor SMTP local", e);
+            }
+        }
+        MailSettings resolved = server;
+        Session session = resolved.createSession();
+        return new EmailOutbox(() -> new SmtpConnection(resolved, session), DEFAULT_WORKERS, DEFAULT_CAPACITY,
+                DEFAULT_MAX_ATTEMPTS, DEFAULT_INITIAL_BACKOFF);
+    }
+
+    /**
+     * Creates an outbox and starts its workers.
+     *
+     * @param connections opens a connection for each worker
+     * @param workerCount the number of workers
+     * @param capacity the number of messages that may wait to be sent
+     * @param maxAttempts the number of attempts per message
+     * @param initialBackoff the delay before the first retry
+     */
+    public EmailOutbox(Supplier<MailConnection> connections, int workerCount, int capacity, int maxAttempts,
+                       Duration initialBackoff) {
+        if (workerCount < 1 || capacity < 1 || maxAttempts < 1) {
+            throw new IllegalArgumentException("Workers, capacity and attempts must be positive");
+        }
+        this.connections = connections;
+        this.capacity = capacity;
+        this.maxAttempts = maxAttempts;
+        this.initialBackoff = initialBackoff;
+
+        AtomicInteger threadNumber = new AtomicInteger();
+        this.workers = Executors.newFixedThreadPool(workerCount, runnable -> {
+            Thread thread = new Thread(runnable, "email-outbox-" + threadNumber.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+        for (int i = 0; i < workerCount; i++) {
+            workers.execute(this::work);
+        }
+    }
+
+    /**
+     * Queues a message.
+     *
+     * @param to the recipient's email address
+     * @param subject the email subject
+     * @param body the email body
+     * @return true if the message was queued; false if the address is invalid, the queue is full
+     *         or the outbox is shut down
+     */
+    @Override
+    public boolean sendEmail(String to, String subject, String body) {
+        try {
+            if (to == null) {
+                throw new AddressException("Endereço ausente");
+            }
+            new InternetAddress(to, true);
+        } catch (AddressException e) {
+            LOGGER.warning("Endereço de email inválido: " + to);
+            return false;
+        }
+        if (closed) {
+            LOGGER.warning("Caixa de saída encerrada; email para " + to + " não enviado");
+            return false;
+        }
+        if (pending.incrementAndGet() > capacity) {
+            pending.decrementAndGet();
+            LOGGER.warning("Caixa de saída cheia; email para " + to + " não enviado");
+            return false;
+        }
+        queue.put(new Pending(new EmailMessage(to, subject, body), 1, System.nanoTime()));
+        return true;
+    }
+
+    /**
+     * Returns the number of messages queued or being sent, including those waiting for a retry.
+     *
+     * @return the number of pending messages
+     */
+    public int getPendingCount() {
+        return pending.get();
+    }
+
+    /**
+     * Returns the number of messages sent since the outbox was created.
+     *
+     * @return the number of sent messages
+     */
+    public long getSentCount() {
+        return sent.get();
+    }
+
+    /**
+     * Returns the number of messages dropped after their last attempt.
+     *
+     * @return the number of failed messages
+     */
+    public long getFailedCount() {
+        return failed.get();
+    }
+
+    /**
+     * Stops accepting messages. The workers send what is already queued, including pending
+     * retries, and then close their connections.
+     */
+    public void shutdown() {
+        closed = true;
+        workers.shutdown();
+    }
+
+    /**
+     * Waits for the workers to finish after {@link #shutdown()}.
+     *
+     * @param timeout the longest time to wait
+     * @return true if every worker finished
+     * @throws InterruptedException if interrupted while waiting
+     */
+    public boolean awaitTermination(Duration timeout) throws InterruptedException {
+        return workers.awaitTermination(timeout.toMillis(), TimeUnit.MILLISECONDS);
+    }
+
+    private void work() {
+        MailConnection connection = connections.get();
+        long lastActivity = System.nanoTime();
+        try {
+            while (!closed || !queue.isEmpty()) {
+                Pending next = queue.poll(POLL_INTERVAL_MILLIS, TimeUnit.MILLISECONDS);
+                if (next == null) {
+                    if (System.nanoTime() - lastActivity > IDLE_DISCONNECT.toNanos()) {
+                        connection.disconnect();
+                    }
+                    continue;
+                }
+                deliver(connection, next);
+                lastActivity = System.nanoTime();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } finally {
+            connection.disconnect();
+        }
+    }
+
+    private void deliver(MailConnection connection, Pending next) {
+        String to = next.message().to();
+        try {
+            connection.send(next.message());
+            sent.incrementAndGet();
+            pending.decrementAndGet();
+            LOGGER.info("Email enviado para: " + to);
+        } catch (MessagingException | RuntimeException e) {
+            // The connection may be broken; the next message opens a new one
+            connection.disconnect();
+            if (next.attempt() >= maxAttempts) {
+                failed.incrementAndGet();
+                pending.decrementAndGet();
+                LOGGER.log(Level.SEVERE, "Email para " + to + " descartado após " + next.attempt()
+                        + " tentativas", e);
+                return;
+            }
+            Duration delay = backoff(next.attempt());
+            LOGGER.log(Level.WARNING, "Falha ao enviar email para " + to + " (tentativa " + next.attempt()
+                    + "); nova tentativa em " + delay.toMillis() + " ms", e);
+            queue.put(new Pending(next.message(), next.attempt() + 1, System.nanoTime() + delay.toNanos()));
+        }
+    }
+
+    private Duration backoff(int attempt) {
+        Duration delay = initialBackoff.multipliedBy(1L << Math.min(attempt - 1, 20));
+        return delay.compareTo(MAX_BACKOFF) > 0 ? MAX_BACKOFF : delay;
+    }
+
+    /**
+     * A queued message, available to the workers from {@code dueAt} (in {@link System#nanoTime()}).
+     */
+    private record Pending(EmailMessage message, int attempt, long dueAt) implements Delayed {
+
+        @Override
+        public long getDelay(TimeUnit unit) {
+            return unit.convert(dueAt - System.nanoTime(), TimeUnit.NANOSECONDS);
+        }
+
+        @Override
+        public int compareTo(Delayed other) {
+            return Long.compare(dueAt, ((Pending) other).dueAt);
+        }
+    }
+}
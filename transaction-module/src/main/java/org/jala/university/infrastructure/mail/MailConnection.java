@@ -0,0 +1,25 @@
+package org.jala.university.infrastructure.mail;
+
+import jakarta.mail.MessagingException;
+
+/**
+ * A connection to a mail server, used by one thread at a time.
+ * <p>
+ * The connection is opened on the first message and kept open for the next ones, so a batch of
+ * messages pays for a single handshake.
+ */
+public interface MailConnection {
+
+    /**
+     * Sends a message, connecting first if the connection is not open.
+     *
+     * @param message the message
+     * @throws MessagingException if the message cannot be sent
+     */
+    void send(EmailMessage message) throws MessagingException;
+
+    /**
+     * Closes the connection if it is open. The next message opens a new one.
+     */
+    void disconnect();
+}
@@ -0,0 +1,119 @@
+package org.jala.university.infrastructure.mail;
+
+import jakarta.mail.Authenticator;
+import jakarta.mail.PasswordAuthentication;
+import jakarta.mail.Session;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Properties;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * SMTP settings, read from {@code properties/email.properties}.
+ *
+ * @param host the SMTP host
+ * @param port the SMTP port
+ * @param username the account used to log in and as the sender; may be blank
+ * @param password the password of the account
+ * @param auth whether to log in to the server
+ * @param startTls whether to switch the connection to TLS
+ * @param debug whether JavaMail logs the SMTP dialog
+ * @param local whether messages go to an in-process {@code LocalSmtpServer} instead of the host
+ */
+public record MailSettings(String host, int port, String username, String password,
+                           boolean auth, boolean startTls, boolean debug, boolean local) {
+
+    private static final Logger LOGGER = Logger.getLogger(MailSettings.class.getName());
+
+    private static final String DEFAULT_SENDER = "banco@localhost";
+
+    /**
+     * Loads the settings from {@code properties/email.properties}, falling back to the defaults
+     * when the file is missing.
+     *
+     * @return the settings
+     */
+    public static MailSettings load() {
+        Properties props = new Properties();
+        try (InputStream input = MailSettings.class.getClassLoader()
+                .getResourceAsStream("properties/email.properties")) {
+            if (input != null) {
+                props.load(input);
+            } else {
+                LOGGER.warning("Arquivo email.properties não encontrado. Usando configurações padrão.");
+            }
+        } catch (IOException ex) {
+            LOGGER.log(Level.SEVERE, "Erro ao carregar configurações de email", ex);
+        }
+        return from(props);
+    }
+
+    /**
+     * Reads the settings from properties; blank values take the defaults.
+     *
+     * @param props the {@code mail.*} properties
+     * @return the settings
+     */
+    public static MailSettings from(Properties props) {
+        return new MailSettings(
+                value(props, "mail.smtp.host", "smtp.gmail.com"),
+                Integer.parseInt(value(props, "mail.smtp.port", "587")),
+                value(props, "mail.username", ""),
+                value(props, "mail.password", ""),
+                Boolean.parseBoolean(value(props, "mail.smtp.auth", "true")),
+                Boolean.parseBoolean(value(props, "mail.smtp.starttls.enable", "true")),
+                Boolean.parseBoolean(value(props, "mail.debug", "true")),
+                Boolean.parseBoolean(value(props, "mail.local", "false")));
+    }
+
+    /**
+     * Returns settings for a plain SMTP server on this machine, without login or TLS.
+     *
+     * @param port the port of the server
+     * @return the settings
+     */
+    public static MailSettings local(int port) {
+        return new MailSettings("localhost", port, "", "", false, false, false, true);
+    }
+
+    /**
+     * Returns the sender address of the messages.
+     *
+     * @return the username, or a local address when there is none
+     */
+    public String sender() {
+        return username.isBlank() ? DEFAULT_SENDER : username;
+    }
+
+    /**
+     * Creates a JavaMail session for these settings. Sessions are thread-safe and meant to be
+     * shared; the connection is opened separately, by a {@code Transport}.
+     *
+     * @return the session
+     */
+    public Session createSession() {
+        Properties props = new Properties();
+        props.put("mail.smtp.auth", String.valueOf(auth));
+        props.put("mail.smtp.starttls.enable", String.valueOf(startTls));
+        props.put("mail.smtp.host", host);
+        props.put("mail.smtp.port", String.valueOf(port));
+        props.put("mail.debug", String.valueOf(debug));
+
+        if (!auth) {
+            return Session.getInstance(props);
+        }
+        return Session.getInstance(props, new Authenticator() {
+            @Override
+            protected PasswordAuthentication getPasswordAuthentication() {
+                return new PasswordAuthentication(username, password);
+            }
+        });
+    }
+
+    private static String value(Properties props, String key, String defaultValue) {
+        String value = props.getProperty(key);
+        return value == null || value.isBlank() ? defaultValue : value.trim();
+    }
+}
@@ -0,0 +1,79 @@
+package org.jala.university.infrastructure.mail;
+
+import jakarta.mail.Message;
+import jakarta.mail.MessagingException;
+import jakarta.mail.Session;
+import jakarta.mail.Transport;
+import jakarta.mail.internet.InternetAddress;
+import jakarta.mail.internet.MimeMessage;
+
+import java.nio.charset.StandardCharsets;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * A long-lived SMTP connection.
+ * <p>
+ * Before each message the transport is checked with a {@code NOOP}, and opened again when the
+ * server has dropped it, so an idle connection never fails a send.
+ */
+public class SmtpConnection implements MailConnection {
+
+    private static final Logger LOGGER = Logger.getLogger(SmtpConnection.class.getName());
+
+    private final MailSettings settings;
+    private final Session session;
+    private Transport transport;
+
+    /**
+     * Creates a connection, without opening it.
+     *
+     * @param settings the server settings
+     * @param session the session shared by the connections to the server
+     */
+    public SmtpConnection(MailSettings settings, Session session) {
+        this.settings = settings;
+        this.session = session;
+    }
+
+    @Override
+    public void send(EmailMessage email) throws MessagingException {
+        MimeMessage message = new MimeMessage(session);
+        message.setFrom(new InternetAddress(settings.sender()));
+        message.setRecipients(Message.RecipientType.TO, InternetAddress.parse(email.to()));
+        message.setSubject(email.subject(), StandardCharsets.UTF_8.name());
+        message.setText(email.body(), StandardCharsets.UTF_8.name());
+        // Transport.send does this itself; sendMessage does not
+        message.saveChanges();
+
+        connect().sendMessage(message, message.getAllRecipients());
+    }
+
+    @Override
+    public void disconnect() {
+        if (transport == null) {
+            return;
+        }
+        try {
+            transport.close();
+        } catch (MessagingException e) {
+            LOGGER.log(Level.FINE, "Erro ao fechar a conexão SMTP", e);
+        }
+        transport = null;
+    }
+
+    private Transport connect() throws MessagingException {
+        if (transport != null && transport.isConnected()) {
+            return transport;
+        }
+        disconnect();
+        Transport opened = session.getTransport("smtp");
+        if (settings.auth()) {
+            opened.connect(settings.host(), settings.port(), settings.username(), settings.password());
+        } else {
+            opened.connect(settings.host(), settings.port(), null, null);
+        }
+        transport = opened;
+        return opened;
+    }
+}
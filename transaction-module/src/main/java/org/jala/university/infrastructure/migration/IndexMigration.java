@@ -0,0 +1,101 @@
+package org.jala.university.infrastructure.migration;
+
+import java.sql.Connection;
+import java.sql.DatabaseMetaData;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Migration that creates a set of indexes.
+ * <p>
+ * An index that already exists is skipped, so the migration can run on databases where
+ * the index was created before by Hibernate's schema update.
+ */
+public class IndexMigration implements Migration {
+
+    private final int version;
+    private final String description;
+    private final List<IndexDefinition> indexes = new ArrayList<>();
+
+    /**
+     * Creates an empty index migration.
+     *
+     * @param version the version of the migration
+     * @param description a short description
+     */
+    public IndexMigration(int version, String description) {
+        this.version = version;
+        this.description = description;
+    }
+
+    /**
+     * Adds an index to create.
+     *
+     * @param table the table name
+     * @param name the index name
+     * @param columns the indexed columns, in order
+     * @return this migration
+     */
+    public IndexMigration index(String table, String name, String... columns) {
+        indexes.add(new IndexDefinition(table, name, List.of(columns)));
+        return this;
+    }
+
+    /**
+     * Returns the indexes created by this migration.
+     *
+     * @return the index definitions
+     */
+    public List<IndexDefinition> getIndexes() {
+        return Collections.unmodifiableList(indexes);
+    }
+
+    @Override
+    public int getVersion() {
+        return version;
+    }
+
+    @Override
+    public String getDescription() {
+        return description;
+    }
+
+    @Override
+    public void apply(Connection connection) throws SQLException {
+        for (IndexDefinition index : indexes) {
+            if (exists(connection.getMetaData(), index)) {
+                continue;
+            }
+            try (Statement statement = connection.createStatement()) {
+                statement.execute("CREATE INDEX " + index.name() + " ON " + index.table()
+                        + " (" + String.join(", ", index.columns()) + ")");
+            }
+        }
+    }
+
+    private static boolean exists(DatabaseMetaData metaData, IndexDefinition index) throws SQLException {
+        String table = metaData.storesUpperCaseIdentifiers() ? index.table().toUpperCase() : index.table();
+        try (ResultSet rows = metaData.getIndexInfo(null, null, table, false, false)) {
+            while (rows.next()) {
+                if (index.name().equalsIgnoreCase(rows.getString("INDEX_NAME"))) {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Index created by an {@link IndexMigration}.
+     *
+     * @param table the table name
+     * @param name the index name
+     * @param columns the indexed columns, in order
+     */
+    public record IndexDefinition(String table, String name, List<String> columns) {
+    }
+}
@@ -0,0 +1,32 @@
+package org.jala.university.infrastructure.migration;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+
+/**
+ * Versioned change to the database schema, applied once by the {@link SchemaMigrator}.
+ */
+public interface Migration {
+
+    /**
+     * Returns the version of the migration; migrations are applied in increasing order.
+     *
+     * @return the version, unique and positive
+     */
+    int getVersion();
+
+    /**
+     * Returns a short description recorded in {@code schema_version}.
+     *
+     * @return the description
+     */
+    String getDescription();
+
+    /**
+     * Applies the migration.
+     *
+     * @param connection the connection to apply it with
+     * @throws SQLException if a statement fails
+     */
+    void apply(Connection connection) throws SQLException;
+}
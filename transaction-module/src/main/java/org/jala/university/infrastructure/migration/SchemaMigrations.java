@@ -0,0 +1,47 @@
+package org.jala.university.infrastructure.migration;
+
+import java.util.List;
+
+/**
+ * Migrations of the bank schema, in version order.
+ * <p>
+ * Tables are still created by Hibernate's schema update; indexes are owned by these
+ * migrations. A new index or change is added as a new version, never by editing an
+ * applied one.
+ */
+public final class SchemaMigrations {
+
+    /**
+     * Indexes that used to be declared on the entities.
+     */
+    static final Migration V1_ENTITY_INDEXES = new IndexMigration(1, "Indices das entidades")
+            .index("transactions", "idx_transactions_status_schedule", "status", "transactionSchedule", "id")
+            .index("transactions", "idx_transactions_sender_created", "sender_id", "createdAt", "id")
+            .index("transactions", "idx_transactions_receiver_created", "receiver_id", "createdAt", "id")
+            .index("ledger_entries", "idx_ledger_entries_account_id", "account_id", "id")
+            .index("balance_snapshots", "idx_balance_snapshots_account_id", "account_id", "id");
+
+    /**
+     * Indexes of the history filtered by status, of the two-factor code lookups and of the
+     * accounts of a user.
+     */
+    static final Migration V2_HOT_PATH_INDEXES = new IndexMigration(2, "Indices das consultas frequentes")
+            .index("transactions", "idx_transactions_sender_status_created",
+                    "sender_id", "status", "createdAt", "id")
+            .index("transactions", "idx_transactions_receiver_status_created",
+                    "receiver_id", "status", "createdAt", "id")
+            .index("two_factor_codes", "idx_two_factor_codes_user_expires", "user_id", "expires_at")
+            .index("accounts", "idx_accounts_user", "user_id", "id");
+
+    private SchemaMigrations() {
+    }
+
+    /**
+     * Returns every migration of the schema.
+     *
+     * @return the migrations, in version order
+     */
+    public static List<Migration> all() {
+        return List.of(V1_ENTITY_INDEXES, V2_HOT_PATH_INDEXES);
+    }
+}
@@ -0,0 +1,130 @@
+package org.jala.university.infrastructure.migration;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import jakarta.persistence.EntityTransaction;
+import org.hibernate.Session;
+
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.Statement;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.logging.Logger;
+
+/**
+ * Applies the pending {@link Migration}s and records them in the {@code schema_version} table.
+ * <p>
+ * Each migration runs in its own transaction together with the insert of its version, so a
+ * failed migration is retried on the next start.
+ */
+public class SchemaMigrator {
+    private static final Logger LOGGER = Logger.getLogger(SchemaMigrator.class.getName());
+
+    private static final String CREATE_VERSION_TABLE_SQL = "CREATE TABLE IF NOT EXISTS schema_version ("
+            + "version INT NOT NULL PRIMARY KEY, "
+            + "description VARCHAR(200) NOT NULL, "
+            + "installed_at TIMESTAMP NOT NULL)";
+    private static final String SELECT_VERSIONS_SQL = "SELECT version FROM schema_version";
+    private static final String INSERT_VERSION_SQL =
+            "INSERT INTO schema_version (version, description, installed_at) VALUES (?, ?, ?)";
+
+    private final EntityManagerFactory entityManagerFactory;
+    private final List<Migration> migrations;
+
+    /**
+     * Creates a migrator of the bank schema.
+     *
+     * @param entityManagerFactory the factory of the database to migrate
+     */
+    public SchemaMigrator(EntityManagerFactory entityManagerFactory) {
+        this(entityManagerFactory, SchemaMigrations.all());
+    }
+
+    /**
+     * Creates a migrator with the given migrations.
+     *
+     * @param entityManagerFactory the factory of the database to migrate
+     * @param migrations the migrations, in any order
+     */
+    public SchemaMigrator(EntityManagerFactory entityManagerFactory, List<Migration> migrations) {
+        this.entityManagerFactory = entityManagerFactory;
+        this.migrations = migrations.stream()
+                .sorted(Comparator.comparingInt(Migration::getVersion))
+                .toList();
+    }
+
+    /**
+     * Applies every migration not yet recorded in {@code schema_version}.
+     *
+     * @return the number of migrations applied
+     */
+    public int migrate() {
+        EntityManager entityManager = entityManagerFactory.createEntityManager();
+        try {
+            Set<Integer> applied = inTransaction(entityManager, this::readAppliedVersions);
+            int count = 0;
+            for (Migration migration : migrations) {
+                if (applied.contains(migration.getVersion())) {
+                    continue;
+                }
+                inTransaction(entityManager, session -> {
+                    apply(session, migration);
+                    return null;
+                });
+                LOGGER.info("Migração " + migration.getVersion() + " aplicada: " + migration.getDescription());
+                count++;
+            }
+            return count;
+        } finally {
+            entityManager.close();
+        }
+    }
+
+    private Set<Integer> readAppliedVersions(Session session) {
+        return session.doReturningWork(connection -> {
+            Set<Integer> versions = new HashSet<>();
+            try (Statement statement = connection.createStatement()) {
+                statement.execute(CREATE_VERSION_TABLE_SQL);
+                try (ResultSet rows = statement.executeQuery(SELECT_VERSIONS_SQL)) {
+                    while (rows.next()) {
+                        versions.add(rows.getInt(1));
+                    }
+                }
+            }
+            return versions;
+        });
+    }
+
+    private static void apply(Session session, Migration migration) {
+        session.doWork(connection -> {
+            migration.apply(connection);
+            try (PreparedStatement statement = connection.prepareStatement(INSERT_VERSION_SQL)) {
+                statement.setInt(1, migration.getVersion());
+                statement.setString(2, migration.getDescription());
+                statement.setTimestamp(3, Timestamp.valueOf(LocalDateTime.now()));
+                statement.executeUpdate();
+            }
+        });
+    }
+
+    private static <T> T inTransaction(EntityManager entityManager, Function<Session, T> work) {
+        EntityTransaction dbTransaction = entityManager.getTransaction();
+        try {
+            dbTransaction.begin();
+            T result = work.apply(entityManager.unwrap(Session.class));
+            dbTransaction.commit();
+            return result;
+        } catch (RuntimeException e) {
+            if (dbTransaction.isActive()) {
+                dbTransaction.rollback();
+            }
+            throw e;
+        }
+    }
+}
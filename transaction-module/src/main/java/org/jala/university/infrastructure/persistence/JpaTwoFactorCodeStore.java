@@ -0,0 +1,94 @@
+package org.jala.university.infrastructure.persistence;
+
+import org.jala.university.commons.infrastructure.persistance.UnitOfWork;
+import org.jala.university.domain.entity.TwoFactorCode;
+import org.jala.university.domain.entity.User;
+import org.jala.university.domain.repository.TwoFactorCodeRepository;
+import org.jala.university.domain.repository.TwoFactorCodeStore;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Optional;
+
+/**
+ * Keeps two-factor codes in the {@code two_factor_codes} table.
+ * <p>
+ * Slower than {@code InMemoryTwoFactorCodeStore}, but the codes survive a restart and are
+ * shared by every instance of the application using the same database. Expired rows are
+ * ignored by the queries and deleted later by {@code ExpiredTwoFactorCodePurge}. The table has
+ * no attempt counter, so wrong guesses are not limited.
+ */
+public class JpaTwoFactorCodeStore implements TwoFactorCodeStore {
+
+    private final TwoFactorCodeRepository repository;
+    private final UnitOfWork unitOfWork;
+    private final Duration ttl;
+
+    /**
+     * Creates a store.
+     *
+     * @param repository the repository of the codes
+     * @param unitOfWork the unit of work the repository runs in
+     * @param ttl the time a code stays active
+     */
+    public JpaTwoFactorCodeStore(TwoFactorCodeRepository repository, UnitOfWork unitOfWork, Duration ttl) {
+        this.repository = repository;
+        this.unitOfWork = unitOfWork;
+        this.ttl = ttl;
+    }
+
+    @Override
+    public void save(Long userId, String code) {
+        unitOfWork.execute(entityManager -> {
+            User user = entityManager.getReference(User.class, userId);
+            repository.invalidateAllActiveCodesForUser(user);
+
+            TwoFactorCode twoFactorCode = new TwoFactorCode();
+            twoFactorCode.setUser(user);
+            twoFactorCode.setCode(code);
+            twoFactorCode.setExpiresAt(LocalDateTime.now().plus(ttl));
+            entityManager.persist(twoFactorCode);
+        });
+    }
+
+    @Override
+    public Optional<ActiveCode> findActive(Long userId) {
+        TwoFactorCode code = findUnused(userId);
+        if (code == null) {
+            return Optional.empty();
+        }
+        return Optional.of(new ActiveCode(code.getCode(), Duration.between(LocalDateTime.now(), code.getExpiresAt())));
+    }
+
+    @Override
+    public Result verify(Long userId, String code) {
+        TwoFactorCode active = findUnused(userId);
+        if (active == null || code == null) {
+            return Result.MISSING;
+        }
+        if (!MessageDigest.isEqual(active.getCode().getBytes(StandardCharsets.UTF_8),
+                code.getBytes(StandardCharsets.UTF_8))) {
+            return Result.INVALID;
+        }
+        invalidate(userId);
+        return Result.VALID;
+    }
+
+    @Override
+    public void invalidate(Long userId) {
+        unitOfWork.execute(entityManager ->
+                repository.invalidateAllActiveCodesForUser(entityManager.getReference(User.class, userId)));
+    }
+
+    @Override
+    public Duration getTimeToLive() {
+        return ttl;
+    }
+
+    private TwoFactorCode findUnused(Long userId) {
+        TwoFactorCode code = repository.findLatestValidCode(userId);
+        return code == null || code.isUsed() ? null : code;
+    }
+}
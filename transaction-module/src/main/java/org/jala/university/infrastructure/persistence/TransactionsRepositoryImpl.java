@@ -3,27 +3,43 @@ package org.jala.university.infrastructure.persistence;
 import jakarta.persistence.EntityManager;
 import jakarta.persistence.TypedQuery;
 import org.jala.university.commons.infrastructure.persistance.CrudRepository;
+import org.jala.university.commons.infrastructure.persistance.UnitOfWork;
 import org.jala.university.domain.entity.Transaction;
 import org.jala.university.domain.repository.TransactionsRepository;
-import org.jala.university.infrastructure.config.JPAConfig;
 
 import java.util.List;
 
 public class TransactionsRepositoryImpl extends CrudRepository<Transaction, Long> implements TransactionsRepository {
-    private final EntityManager entityManager;
-     public TransactionsRepositoryImpl(EntityManager entityManager) {
-        super(Transaction.class, entityManager);
-        this.entityManager = JPAConfig.getEntityManagerFactory().createEntityManager();
+    private final UnitOfWork unitOfWork;
+
+    public TransactionsRepositoryImpl(EntityManager entityManager) {
+        this(UnitOfWork.bound(entityManager));
+    }
+
+    public TransactionsRepositoryImpl(UnitOfWork unitOfWork) {
+        super(Transaction.class, unitOfWork);
+        this.unitOfWork = unitOfWork;
     }
 
     public List<Transaction> findAllByUserId(Long userId) {
         String jpql = "SELECT t FROM Transaction t WHERE t.receiver.id = :userId OR t.sender.id = :userId";
-        TypedQuery<Transaction> query = entityManager.createQuery(jpql, Transaction.class);
-        query.setParameter("userId", userId);
         try {
-            return query.getResultList();
+            return unitOfWork.read(entityManager -> {
+                TypedQuery<Transaction> query = entityManager.createQuery(jpql, Transaction.class);
+                query.setParameter("userId", userId);
+                return query.getResultList();
+            });
         } catch (Exception e) {
             return null;
         }
     }
+
+    public Transaction findByIdempotencyKey(String idempotencyKey) {
+        String jpql = "SELECT t FROM Transaction t WHERE t.idempotencyKey = :idempotencyKey";
+        List<Transaction> result = unitOfWork.read(entityManager -> entityManager.createQuery(jpql, Transaction.class)
+                .setParameter("idempotencyKey", idempotencyKey)
+                .setMaxResults(1)
+                .getResultList());
+        return result.isEmpty() ? null : result.get(0);
+    }
 }
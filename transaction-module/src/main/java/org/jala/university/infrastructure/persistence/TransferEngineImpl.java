@@ -0,0 +1,547 @@
+package org.jala.university.infrastructure.persistence;
+
+import jakarta.persistence.CacheRetrieveMode;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import jakarta.persistence.EntityTransaction;
+import org.hibernate.Session;
+import org.jala.university.application.service.TransferEngine;
+import org.jala.university.domain.entity.Account;
+import org.jala.university.domain.entity.LedgerEntry;
+import org.jala.university.domain.entity.Transaction;
+import org.jala.university.domain.entity.enums.PostingType;
+import org.jala.university.domain.entity.enums.TransactionStatus;
+import org.jala.university.infrastructure.cache.AccountSummaryStore;
+import org.jala.university.infrastructure.config.JPAConfig;
+
+import java.math.BigDecimal;
+import java.sql.Date;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeSet;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * JPA implementation of the TransferEngine.
+ * <p>
+ * Each transfer runs in its own short-lived EntityManager and commits exactly once:
+ * <ol>
+ *     <li>both account rows are locked with {@code SELECT ... FOR UPDATE} in ascending id order,
+ *     so two transfers touching the same pair of accounts can never deadlock;</li>
+ *     <li>if the locked balance of the sender covers the amount, the sender is debited and the
+ *     receiver credited, as updates of the two account entities;</li>
+ *     <li>the transaction row is inserted with its final status;</li>
+ *     <li>a completed transfer appends a debit and a credit posting to the ledger journal.</li>
+ * </ol>
+ * The balances are read and written under the row locks, so concurrent transfers cannot lose
+ * updates, and only the cache entries of the two accounts are refreshed.
+ * <p>
+ * Groups of transfers ({@link #transferAll(List)}) lock every account involved once, apply
+ * the transfers against the locked balances in memory, write the changed balances as one
+ * batch of updates and the transaction rows and ledger postings as JDBC insert batches, and
+ * commit once. A group that fails to commit is logged and retried one transfer at a time, and
+ * a transfer that fails again is stored as FAILED, as {@code TransactionsService#save} does.
+ * <p>
+ * Every committed transfer and settlement is reported to the {@link AccountSummaryStore}.
+ */
+public class TransferEngineImpl implements TransferEngine {
+    private static final Logger LOGGER = Logger.getLogger(TransferEngineImpl.class.getName());
+
+    private static final String LOCK_ACCOUNTS_SQL =
+            "SELECT id FROM accounts WHERE id IN (:ids) ORDER BY id FOR UPDATE";
+
+    private static final String LOCKED_ACCOUNTS_JPQL =
+            "SELECT a FROM Account a JOIN FETCH a.user WHERE a.id IN :ids";
+
+    private static final String CACHE_RETRIEVE_MODE = "jakarta.persistence.cache.retrieveMode";
+
+    private static final String PENDING_TRANSACTION_JPQL =
+            "SELECT t.sender.id, t.receiver.id, t.amount, t.status FROM Transaction t WHERE t.id = :id";
+
+    private static final String SETTLE_JPQL =
+            "UPDATE Transaction t SET t.status = :status WHERE t.id = :id AND t.status = :pending";
+
+    private static final String INSERT_TRANSACTION_SQL =
+            "INSERT INTO transactions (amount, sender_id, receiver_id, status, transactionSchedule, " +
+            "description, createdAt, idempotency_key) VALUES (?, ?, ?, ?, ?, ?, ?, ?)";
+
+    private static final String INSERT_LEDGER_ENTRY_SQL =
+            "INSERT INTO ledger_entries (account_id, transaction_id, type, amount, created_at) " +
+            "VALUES (?, ?, ?, ?, ?)";
+
+    private final EntityManagerFactory entityManagerFactory;
+    private final AccountSummaryStore summaryStore;
+
+    /**
+     * Default constructor that uses the application EntityManagerFactory.
+     */
+    public TransferEngineImpl() {
+        this(JPAConfig.getEntityManagerFactory());
+    }
+
+    /**
+     * Constructor with EntityManagerFactory parameter.
+     *
+     * @param entityManagerFactory the factory used to open one EntityManager per transfer
+     */
+    public TransferEngineImpl(EntityManagerFactory entityManagerFactory) {
+        this(entityManagerFactory, AccountSummaryStore.getInstance());
+    }
+
+    /**
+     * Constructor with the EntityManagerFactory and the summary store to report transfers to.
+     *
+     * @param entityManagerFactory the factory used to open one EntityManager per transfer
+     * @param summaryStore the dashboard read model
+     */
+    public TransferEngineImpl(EntityManagerFactory entityManagerFactory, AccountSummaryStore summaryStore) {
+        this.entityManagerFactory = entityManagerFactory;
+        this.summaryStore = summaryStore;
+    }
+
+    @Override
+    public TransactionStatus transfer(Transaction transaction) {
+        Long senderId = transaction.getSender().getId();
+        Long receiverId = transaction.getReceiver().getId();
+        BigDecimal amount = transaction.getAmount();
+        validate(senderId, receiverId, amount);
+
+        AccountSummaryStore.Update summaryUpdate = summaryStore.open(senderId, receiverId);
+        EntityManager entityManager = entityManagerFactory.createEntityManager();
+        EntityTransaction dbTransaction = entityManager.getTransaction();
+        try {
+            dbTransaction.begin();
+
+            Map<Long, Account> accounts = lockAccountsInOrder(entityManager, senderId, receiverId);
+            Account sender = accounts.get(senderId);
+            Account receiver = accounts.get(receiverId);
+            TransactionStatus status = move(sender, receiver, amount);
+
+            transaction.setSender(sender);
+            transaction.setReceiver(receiver);
+            transaction.setStatus(status);
+            entityManager.persist(transaction);
+            if (status == TransactionStatus.COMPLETED) {
+                post(entityManager, transaction);
+            }
+
+            dbTransaction.commit();
+            summaryUpdate.record(transaction);
+            return status;
+        } catch (RuntimeException e) {
+            if (dbTransaction.isActive()) {
+                dbTransaction.rollback();
+            }
+            // The insert was rolled back, so the generated id no longer refers to a row
+            transaction.setId(null);
+            throw e;
+        } finally {
+            entityManager.close();
+            summaryUpdate.close();
+        }
+    }
+
+    @Override
+    public TransactionStatus settle(Long transactionId) {
+        AccountSummaryStore.Update summaryUpdate = null;
+        EntityManager entityManager = entityManagerFactory.createEntityManager();
+        EntityTransaction dbTransaction = entityManager.getTransaction();
+        try {
+            dbTransaction.begin();
+
+            List<Object[]> rows = entityManager.createQuery(PENDING_TRANSACTION_JPQL, Object[].class)
+                    .setParameter("id", transactionId)
+                    .getResultList();
+            if (rows.isEmpty()) {
+                throw new IllegalArgumentException("Transaction not found: " + transactionId);
+            }
+            Long senderId = (Long) rows.get(0)[0];
+            Long receiverId = (Long) rows.get(0)[1];
+            BigDecimal amount = (BigDecimal) rows.get(0)[2];
+            TransactionStatus current = (TransactionStatus) rows.get(0)[3];
+            if (current != TransactionStatus.PENDING) {
+                dbTransaction.commit();
+                return current;
+            }
+
+            summaryUpdate = summaryStore.open(senderId, receiverId);
+            TransactionStatus status;
+            try {
+                validate(senderId, receiverId, amount);
+                Map<Long, Account> accounts = lockAccountsInOrder(entityManager, senderId, receiverId);
+                status = move(accounts.get(senderId), accounts.get(receiverId), amount);
+            } catch (IllegalArgumentException e) {
+                status = TransactionStatus.FAILED;
+            }
+
+            // Only the worker that moves the row out of PENDING may commit its balance changes
+            int claimed = entityManager.createQuery(SETTLE_JPQL)
+                    .setParameter("status", status)
+                    .setParameter("id", transactionId)
+                    .setParameter("pending", TransactionStatus.PENDING)
+                    .executeUpdate();
+            if (claimed != 1) {
+                dbTransaction.rollback();
+                return currentStatus(transactionId);
+            }
+
+            if (status == TransactionStatus.COMPLETED) {
+                post(entityManager, entityManager.getReference(Transaction.class, transactionId),
+                        entityManager.getReference(Account.class, senderId),
+                        entityManager.getReference(Account.class, receiverId), amount);
+            }
+
+            dbTransaction.commit();
+            summaryUpdate.settle(transactionId, senderId, receiverId, amount, status);
+            return status;
+        } catch (RuntimeException e) {
+            if (dbTransaction.isActive()) {
+                dbTransaction.rollback();
+            }
+            throw e;
+        } finally {
+            entityManager.close();
+            if (summaryUpdate != null) {
+                summaryUpdate.close();
+            }
+        }
+    }
+
+    private TransactionStatus currentStatus(Long transactionId) {
+        EntityManager entityManager = entityManagerFactory.createEntityManager();
+        try {
+            return entityManager.createQuery(
+                            "SELECT t.status FROM Transaction t WHERE t.id = :id", TransactionStatus.class)
+                    .setParameter("id", transactionId)
+                    .getSingleResult();
+        } finally {
+            entityManager.close();
+        }
+    }
+
+    @Override
+    public List<TransactionStatus> transferAll(List<Transaction> transactions) {
+        List<Transaction> accepted = new ArrayList<>(transactions.size());
+        TreeSet<Long> accountIds = new TreeSet<>();
+        for (Transaction transaction : transactions) {
+            if (isValid(transaction)) {
+                accepted.add(transaction);
+                accountIds.add(transaction.getSender().getId());
+                accountIds.add(transaction.getReceiver().getId());
+            } else {
+                transaction.setStatus(TransactionStatus.FAILED);
+            }
+        }
+        if (!accepted.isEmpty() && !transferGroup(accepted, accountIds)) {
+            transferEach(accepted);
+        }
+        return transactions.stream().map(Transaction::getStatus).toList();
+    }
+
+    /**
+     * Executes a group of transfers in one database transaction.
+     *
+     * @return false if the group was rolled back, leaving its transactions FAILED
+     */
+    private boolean transferGroup(List<Transaction> transactions, TreeSet<Long> accountIds) {
+        AccountSummaryStore.Update summaryUpdate = summaryStore.open(accountIds);
+        EntityManager entityManager = entityManagerFactory.createEntityManager();
+        EntityTransaction dbTransaction = entityManager.getTransaction();
+        try {
+            dbTransaction.begin();
+
+            Map<Long, Account> accounts = new HashMap<>();
+            for (Account account : lockAccounts(entityManager, new ArrayList<>(accountIds))) {
+                accounts.put(account.getId(), account);
+            }
+
+            List<Transaction> recorded = new ArrayList<>(transactions.size());
+            for (Transaction transaction : transactions) {
+                Account sender = accounts.get(transaction.getSender().getId());
+                Account receiver = accounts.get(transaction.getReceiver().getId());
+                if (sender == null || receiver == null) {
+                    transaction.setStatus(TransactionStatus.FAILED);
+                    continue;
+                }
+                transaction.setStatus(move(sender, receiver, transaction.getAmount()));
+                transaction.setSender(sender);
+                transaction.setReceiver(receiver);
+                recorded.add(transaction);
+            }
+
+            // Dirty accounts are written as one batch of updates (hibernate.jdbc.batch_size)
+            entityManager.flush();
+            insertBatch(entityManager, recorded);
+            insertLedgerBatch(entityManager, recorded);
+
+            dbTransaction.commit();
+            recorded.forEach(summaryUpdate::record);
+            return true;
+        } catch (RuntimeException e) {
+            if (dbTransaction.isActive()) {
+                dbTransaction.rollback();
+            }
+            LOGGER.log(Level.WARNING, "Falha no lote de " + transactions.size()
+                    + " transferências; reprocessando uma a uma", e);
+            for (Transaction transaction : transactions) {
+                transaction.setId(null);
+                transaction.setStatus(TransactionStatus.FAILED);
+            }
+            return false;
+        } finally {
+            entityManager.close();
+            summaryUpdate.close();
+        }
+    }
+
+    /**
+     * Retries the transfers of a rolled-back group one by one, so that the transfer that broke
+     * the group fails alone instead of taking the whole group down with it. A transfer that
+     * fails again is recorded as a FAILED transaction.
+     */
+    private void transferEach(List<Transaction> transactions) {
+        for (Transaction transaction : transactions) {
+            transaction.setStatus(TransactionStatus.PENDING);
+            try {
+                transfer(transaction);
+            } catch (RuntimeException e) {
+                LOGGER.log(Level.WARNING, "Falha na transferência de " + transaction.getAmount()
+                        + " da conta " + transaction.getSender().getId()
+                        + " para a conta " + transaction.getReceiver().getId(), e);
+                transaction.setStatus(TransactionStatus.FAILED);
+                storeFailed(transaction);
+            }
+        }
+    }
+
+    /**
+     * Inserts the audit row of a transfer that failed, in a transaction of its own.
+     * <p>
+     * The row is a copy without the idempotency key: the failed attempt was rolled back, so it
+     * must not hold the key against a retry.
+     */
+    private void storeFailed(Transaction transaction) {
+        Transaction failed = Transaction.builder()
+                .amount(transaction.getAmount())
+                .sender(transaction.getSender())
+                .receiver(transaction.getReceiver())
+                .status(TransactionStatus.FAILED)
+                .transactionSchedule(transaction.getTransactionSchedule())
+                .description(transaction.getDescription())
+                .build();
+        AccountSummaryStore.Update summaryUpdate =
+                summaryStore.open(transaction.getSender().getId(), transaction.getReceiver().getId());
+        EntityManager entityManager = entityManagerFactory.createEntityManager();
+        EntityTransaction dbTransaction = entityManager.getTransaction();
+        try {
+            dbTransaction.begin();
+            entityManager.persist(failed);
+            dbTransaction.commit();
+            transaction.setId(failed.getId());
+            summaryUpdate.record(failed);
+        } catch (RuntimeException e) {
+            if (dbTransaction.isActive()) {
+                dbTransaction.rollback();
+            }
+            LOGGER.log(Level.WARNING, "Falha ao registrar a transferência com falha da conta "
+                    + transaction.getSender().getId() + " para a conta " + transaction.getReceiver().getId(), e);
+        } finally {
+            entityManager.close();
+            summaryUpdate.close();
+        }
+    }
+
+    /**
+     * Inserts the transaction rows as a single JDBC batch.
+     * <p>
+     * The transactions table uses IDENTITY keys, which makes Hibernate insert row by row,
+     * so the batch is issued directly on the connection of the current transaction.
+     */
+    private void insertBatch(EntityManager entityManager, List<Transaction> transactions) {
+        if (transactions.isEmpty()) {
+            return;
+        }
+        LocalDateTime now = LocalDateTime.now();
+        entityManager.unwrap(Session.class).doWork(connection -> {
+            try (PreparedStatement statement =
+                         connection.prepareStatement(INSERT_TRANSACTION_SQL, Statement.RETURN_GENERATED_KEYS)) {
+                for (Transaction transaction : transactions) {
+                    transaction.setCreatedAt(now);
+                    statement.setBigDecimal(1, transaction.getAmount());
+                    statement.setLong(2, transaction.getSender().getId());
+                    statement.setLong(3, transaction.getReceiver().getId());
+                    statement.setString(4, transaction.getStatus().name());
+                    statement.setDate(5, transaction.getTransactionSchedule() == null
+                            ? null : Date.valueOf(transaction.getTransactionSchedule()));
+                    statement.setString(6, transaction.getDescription());
+                    statement.setTimestamp(7, Timestamp.valueOf(now));
+                    statement.setString(8, transaction.getIdempotencyKey());
+                    statement.addBatch();
+                }
+                statement.executeBatch();
+                try (ResultSet keys = statement.getGeneratedKeys()) {
+                    for (int i = 0; i < transactions.size() && keys.next(); i++) {
+                        transactions.get(i).setId(keys.getLong(1));
+                    }
+                }
+            }
+        });
+    }
+
+    /**
+     * Inserts the debit and credit postings of the completed transactions as a single JDBC batch.
+     * Must run after {@link #insertBatch} so the transactions have their ids.
+     */
+    private void insertLedgerBatch(EntityManager entityManager, List<Transaction> transactions) {
+        List<Transaction> completed = transactions.stream()
+                .filter(transaction -> transaction.getStatus() == TransactionStatus.COMPLETED)
+                .toList();
+        if (completed.isEmpty()) {
+            return;
+        }
+        entityManager.unwrap(Session.class).doWork(connection -> {
+            try (PreparedStatement statement = connection.prepareStatement(INSERT_LEDGER_ENTRY_SQL)) {
+                for (Transaction transaction : completed) {
+                    Timestamp createdAt = Timestamp.valueOf(transaction.getCreatedAt());
+                    addPosting(statement, transaction.getSender().getId(), transaction, PostingType.DEBIT, createdAt);
+                    addPosting(statement, transaction.getReceiver().getId(), transaction, PostingType.CREDIT,
+                            createdAt);
+                }
+                statement.executeBatch();
+            }
+        });
+    }
+
+    private static void addPosting(PreparedStatement statement, Long accountId, Transaction transaction,
+                                   PostingType type, Timestamp createdAt) throws SQLException {
+        statement.setLong(1, accountId);
+        statement.setLong(2, transaction.getId());
+        statement.setString(3, type.name());
+        statement.setBigDecimal(4, transaction.getAmount());
+        statement.setTimestamp(5, createdAt);
+        statement.addBatch();
+    }
+
+    /**
+     * Appends the debit posting of the sender and the credit posting of the receiver.
+     */
+    private void post(EntityManager entityManager, Transaction transaction) {
+        post(entityManager, transaction, transaction.getSender(), transaction.getReceiver(), transaction.getAmount());
+    }
+
+    private void post(EntityManager entityManager, Transaction transaction, Account sender, Account receiver,
+                      BigDecimal amount) {
+        LocalDateTime now = LocalDateTime.now();
+        entityManager.persist(posting(sender, transaction, PostingType.DEBIT, amount, now));
+        entityManager.persist(posting(receiver, transaction, PostingType.CREDIT, amount, now));
+    }
+
+    private static LedgerEntry posting(Account account, Transaction transaction, PostingType type,
+                                       BigDecimal amount, LocalDateTime createdAt) {
+        return LedgerEntry.builder()
+                .account(account)
+                .transaction(transaction)
+                .type(type)
+                .amount(amount)
+                .createdAt(createdAt)
+                .build();
+    }
+
+    /**
+     * Locks both account rows, always in ascending id order.
+     *
+     * @param entityManager the entity manager of the current transfer
+     * @param senderId the sender account ID
+     * @param receiverId the receiver account ID
+     * @return the locked accounts by id
+     * @throws IllegalArgumentException if one of the accounts does not exist
+     */
+    private Map<Long, Account> lockAccountsInOrder(EntityManager entityManager, Long senderId, Long receiverId) {
+        List<Long> ids = senderId < receiverId ? List.of(senderId, receiverId) : List.of(receiverId, senderId);
+        Map<Long, Account> accounts = new HashMap<>();
+        for (Account account : lockAccounts(entityManager, ids)) {
+            accounts.put(account.getId(), account);
+        }
+        if (accounts.size() != ids.size()) {
+            throw new IllegalArgumentException("Sender or receiver account not found");
+        }
+        return accounts;
+    }
+
+    /**
+     * Locks the given account rows in the order of the (ascending) id list, then loads them.
+     * <p>
+     * The lock only selects the ids, and the accounts are then read with their user in a single
+     * query, bypassing the second-level cache so the balances are the ones of the locked rows.
+     *
+     * @return the accounts that exist
+     */
+    private List<Account> lockAccounts(EntityManager entityManager, List<Long> ids) {
+        List<?> locked = entityManager.createNativeQuery(LOCK_ACCOUNTS_SQL)
+                .setParameter("ids", ids)
+                .getResultList();
+        if (locked.isEmpty()) {
+            return List.of();
+        }
+        return entityManager.createQuery(LOCKED_ACCOUNTS_JPQL, Account.class)
+                .setParameter("ids", ids)
+                .setHint(CACHE_RETRIEVE_MODE, CacheRetrieveMode.BYPASS)
+                .getResultList();
+    }
+
+    private static BigDecimal balanceOf(Account account) {
+        return account.getBalance() == null ? BigDecimal.ZERO : account.getBalance();
+    }
+
+    /**
+     * Moves the amount between two locked accounts if the sender holds enough.
+     * <p>
+     * The balances change as entity updates, which refresh only the cache entries of these two
+     * accounts, where a bulk update would evict the whole Account cache region.
+     *
+     * @return COMPLETED, or CANCELLED if the balance of the sender is insufficient
+     */
+    private static TransactionStatus move(Account sender, Account receiver, BigDecimal amount) {
+        // The rows are locked, so the managed balances are the current ones
+        BigDecimal senderBalance = balanceOf(sender);
+        if (senderBalance.compareTo(amount) < 0) {
+            return TransactionStatus.CANCELLED;
+        }
+        sender.setBalance(senderBalance.subtract(amount));
+        receiver.setBalance(balanceOf(receiver).add(amount));
+        return TransactionStatus.COMPLETED;
+    }
+
+    private boolean isValid(Transaction transaction) {
+        if (transaction.getSender() == null || transaction.getReceiver() == null) {
+            return false;
+        }
+        try {
+            validate(transaction.getSender().getId(), transaction.getReceiver().getId(), transaction.getAmount());
+            return true;
+        } catch (IllegalArgumentException e) {
+            return false;
+        }
+    }
+
+    private void validate(Long senderId, Long receiverId, BigDecimal amount) {
+        if (senderId == null || receiverId == null) {
+            throw new IllegalArgumentException("Sender and receiver accounts are required");
+        }
+        if (senderId.equals(receiverId)) {
+            throw new IllegalArgumentException("Sender and receiver must be different accounts");
+        }
+        if (amount == null || amount.signum() <= 0) {
+            throw new IllegalArgumentException("Transfer amount must be greater than zero");
+        }
+    }
+}
@@ -0,0 +1,114 @@
+package org.jala.university.infrastructure.pool;
+
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Records how long callers wait for a pooled connection.
+ * <p>
+ * The percentiles are computed over the last {@value #WINDOW} acquisitions, kept in a ring
+ * buffer, so recording is lock-free and O(1) and only a snapshot pays for the sort.
+ */
+public final class ConnectionPoolMetrics {
+
+    /**
+     * Number of recent acquisitions the wait percentiles are computed over.
+     */
+    static final int WINDOW = 4096;
+
+    private final AtomicLongArray waits = new AtomicLongArray(WINDOW);
+    private final AtomicLong acquisitions = new AtomicLong();
+    private final LongAdder timeouts = new LongAdder();
+    private final LongAccumulator maxWait = new LongAccumulator(Math::max, 0);
+
+    /**
+     * Records a connection handed out after the given wait.
+     *
+     * @param waitNanos the time the caller waited, in nanoseconds
+     */
+    public void recordAcquisition(long waitNanos) {
+        long index = acquisitions.getAndIncrement();
+        waits.set((int) (index % WINDOW), waitNanos);
+        maxWait.accumulate(waitNanos);
+    }
+
+    /**
+     * Records a caller that gave up waiting for a connection.
+     */
+    public void recordTimeout() {
+        timeouts.increment();
+    }
+
+    /**
+     * Returns the number of connections handed out.
+     *
+     * @return the acquisition count
+     */
+    public long getAcquisitions() {
+        return acquisitions.get();
+    }
+
+    /**
+     * Returns the number of callers that timed out waiting for a connection.
+     *
+     * @return the timeout count
+     */
+    public long getTimeouts() {
+        return timeouts.sum();
+    }
+
+    /**
+     * Returns the longest wait recorded.
+     *
+     * @return the maximum wait
+     */
+    public Duration getMaxWait() {
+        return Duration.ofNanos(maxWait.get());
+    }
+
+    /**
+     * Returns the wait at the given percentile of the recent acquisitions.
+     *
+     * @param percentile the percentile, between 0 and 100
+     * @return the wait, or zero if no connection was handed out yet
+     */
+    public Duration getWaitPercentile(double percentile) {
+        return Duration.ofNanos(percentile(recentWaits(), percentile));
+    }
+
+    ConnectionPoolStats.ConnectionPoolStatsBuilder snapshot() {
+        long[] recent = recentWaits();
+        return ConnectionPoolStats.builder()
+                .acquisitions(getAcquisitions())
+                .timeouts(getTimeouts())
+                .waitP50(Duration.ofNanos(percentile(recent, 50)))
+                .waitP95(Duration.ofNanos(percentile(recent, 95)))
+                .waitP99(Duration.ofNanos(percentile(recent, 99)))
+                .maxWait(getMaxWait());
+    }
+
+    private long[] recentWaits() {
+        int size = (int) Math.min(acquisitions.get(), WINDOW);
+        long[] recent = new long[size];
+        for (int i = 0; i < size; i++) {
+            recent[i] = waits.get(i);
+        }
+        Arrays.sort(recent);
+        return recent;
+    }
+
+    /**
+     * Nearest-rank percentile of sorted values.
+     */
+    private static long percentile(long[] sorted, double percentile) {
+        if (sorted.length == 0) {
+            return 0;
+        }
+        int rank = (int) Math.ceil(percentile / 100 * sorted.length);
+        return sorted[Math.max(0, Math.min(sorted.length, rank) - 1)];
+    }
+}
@@ -0,0 +1,27 @@
+package org.jala.university.infrastructure.pool;
+
+import lombok.Builder;
+import lombok.Getter;
+import lombok.ToString;
+
+import java.time.Duration;
+
+/**
+ * Point-in-time view of the connection pool.
+ */
+@Getter
+@Builder
+@ToString
+public final class ConnectionPoolStats {
+    private final int maximumPoolSize;
+    private final int activeConnections;
+    private final int idleConnections;
+    private final int totalConnections;
+    private final int threadsAwaitingConnection;
+    private final long acquisitions;
+    private final long timeouts;
+    private final Duration waitP50;
+    private final Duration waitP95;
+    private final Duration waitP99;
+    private final Duration maxWait;
+}
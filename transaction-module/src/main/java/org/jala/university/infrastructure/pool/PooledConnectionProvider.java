@@ -0,0 +1,170 @@
+package org.jala.university.infrastructure.pool;
+
+import com.zaxxer.hikari.HikariConfig;
+import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.HikariPoolMXBean;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.cfg.JdbcSettings;
+import org.hibernate.engine.jdbc.connections.spi.ConnectionProvider;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.hibernate.service.spi.Configurable;
+import org.hibernate.service.spi.Stoppable;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.SQLTransientConnectionException;
+import java.util.Map;
+import java.util.logging.Logger;
+
+/**
+ * Hibernate connection provider backed by a HikariCP pool, with acquisition metrics.
+ * <p>
+ * Plugged in with {@code hibernate.connection.provider_class} in persistence.xml. The JDBC
+ * URL and credentials are the {@code jakarta.persistence.jdbc.*} properties of the unit; the
+ * pool is tuned with the {@code bank.pool.*} properties below.
+ */
+public class PooledConnectionProvider implements ConnectionProvider, Configurable, Stoppable {
+    private static final long serialVersionUID = 1L;
+    private static final Logger LOGGER = Logger.getLogger(PooledConnectionProvider.class.getName());
+
+    /**
+     * Maximum number of connections, in use or idle.
+     */
+    public static final String MAXIMUM_SIZE = "bank.pool.maximumSize";
+    /**
+     * Number of idle connections the pool keeps ready.
+     */
+    public static final String MINIMUM_IDLE = "bank.pool.minimumIdle";
+    /**
+     * Milliseconds a caller waits for a connection before failing.
+     */
+    public static final String ACQUISITION_TIMEOUT = "bank.pool.acquisitionTimeoutMs";
+    /**
+     * Milliseconds a connection may stay borrowed before it is logged as a possible leak; 0 disables it.
+     */
+    public static final String LEAK_DETECTION_THRESHOLD = "bank.pool.leakDetectionThresholdMs";
+
+    private static final int DEFAULT_MAXIMUM_SIZE = 10;
+    private static final int DEFAULT_MINIMUM_IDLE = 2;
+    private static final long DEFAULT_ACQUISITION_TIMEOUT = 5_000;
+    private static final long DEFAULT_LEAK_DETECTION_THRESHOLD = 60_000;
+
+    private final ConnectionPoolMetrics metrics = new ConnectionPoolMetrics();
+    private HikariDataSource dataSource;
+
+    @Override
+    public void configure(Map<String, Object> settings) {
+        HikariConfig config = new HikariConfig();
+        config.setPoolName("bank-pool");
+        config.setJdbcUrl(setting(settings, JdbcSettings.JAKARTA_JDBC_URL));
+        config.setUsername(setting(settings, JdbcSettings.JAKARTA_JDBC_USER));
+        config.setPassword(setting(settings, JdbcSettings.JAKARTA_JDBC_PASSWORD));
+        String driver = setting(settings, JdbcSettings.JAKARTA_JDBC_DRIVER);
+        if (driver != null) {
+            config.setDriverClassName(driver);
+        }
+        config.setMaximumPoolSize(intSetting(settings, MAXIMUM_SIZE, DEFAULT_MAXIMUM_SIZE));
+        config.setMinimumIdle(intSetting(settings, MINIMUM_IDLE, DEFAULT_MINIMUM_IDLE));
+        config.setConnectionTimeout(longSetting(settings, ACQUISITION_TIMEOUT, DEFAULT_ACQUISITION_TIMEOUT));
+        config.setLeakDetectionThreshold(
+                longSetting(settings, LEAK_DETECTION_THRESHOLD, DEFAULT_LEAK_DETECTION_THRESHOLD));
+
+        this.dataSource = new HikariDataSource(config);
+        LOGGER.info("Pool de conexões iniciado com no máximo " + config.getMaximumPoolSize() + " conexões");
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        long start = System.nanoTime();
+        try {
+            Connection connection = dataSource.getConnection();
+            metrics.recordAcquisition(System.nanoTime() - start);
+            return connection;
+        } catch (SQLTransientConnectionException e) {
+            metrics.recordTimeout();
+            throw e;
+        }
+    }
+
+    @Override
+    public void closeConnection(Connection connection) throws SQLException {
+        connection.close();
+    }
+
+    @Override
+    public boolean supportsAggressiveRelease() {
+        return false;
+    }
+
+    /**
+     * Returns the current state of the pool and the acquisition metrics.
+     *
+     * @return the pool statistics
+     */
+    public ConnectionPoolStats getStats() {
+        HikariPoolMXBean pool = dataSource.getHikariPoolMXBean();
+        return metrics.snapshot()
+                .maximumPoolSize(dataSource.getMaximumPoolSize())
+                .activeConnections(pool.getActiveConnections())
+                .idleConnections(pool.getIdleConnections())
+                .totalConnections(pool.getTotalConnections())
+                .threadsAwaitingConnection(pool.getThreadsAwaitingConnection())
+                .build();
+    }
+
+    @Override
+    public void stop() {
+        if (dataSource != null) {
+            dataSource.close();
+        }
+    }
+
+    @Override
+    public boolean isUnwrappableAs(Class<?> unwrapType) {
+        return unwrapType.isAssignableFrom(PooledConnectionProvider.class)
+                || unwrapType.isAssignableFrom(HikariDataSource.class);
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public <T> T unwrap(Class<T> unwrapType) {
+        if (unwrapType.isAssignableFrom(PooledConnectionProvider.class)) {
+            return (T) this;
+        }
+        if (unwrapType.isAssignableFrom(HikariDataSource.class)) {
+            return (T) dataSource;
+        }
+        throw new IllegalArgumentException("Cannot unwrap to " + unwrapType.getName());
+    }
+
+    /**
+     * Finds the pooled provider of a factory.
+     *
+     * @param entityManagerFactory the factory
+     * @return the provider, or null if the factory uses another connection provider
+     */
+    public static PooledConnectionProvider of(EntityManagerFactory entityManagerFactory) {
+        ConnectionProvider provider = entityManagerFactory.unwrap(SessionFactoryImplementor.class)
+                .getServiceRegistry()
+                .getService(ConnectionProvider.class);
+        if (provider == null || !provider.isUnwrappableAs(PooledConnectionProvider.class)) {
+            return null;
+        }
+        return provider.unwrap(PooledConnectionProvider.class);
+    }
+
+    private static String setting(Map<String, Object> settings, String name) {
+        Object value = settings.get(name);
+        return value == null ? null : value.toString();
+    }
+
+    private static int intSetting(Map<String, Object> settings, String name, int defaultValue) {
+        Object value = settings.get(name);
+        return value == null ? defaultValue : Integer.parseInt(value.toString().trim());
+    }
+
+    private static long longSetting(Map<String, Object> settings, String name, long defaultValue) {
+        Object value = settings.get(name);
+        return value == null ? defaultValue : Long.parseLong(value.toString().trim());
+    }
+}
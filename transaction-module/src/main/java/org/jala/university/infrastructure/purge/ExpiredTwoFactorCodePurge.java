@@ -0,0 +1,39 @@
+package org.jala.university.infrastructure.purge;
+
+import jakarta.persistence.EntityManager;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Deletes the expired rows of {@code two_factor_codes}.
+ * <p>
+ * Only the JPA code store writes to the table, so with the in-memory store each run is a
+ * single empty query.
+ */
+public class ExpiredTwoFactorCodePurge implements PurgeTask {
+
+    private static final String SELECT_EXPIRED_JPQL =
+            "SELECT c.id FROM TwoFactorCode c WHERE c.expiresAt < :now ORDER BY c.id";
+    private static final String DELETE_JPQL = "DELETE FROM TwoFactorCode c WHERE c.id IN :ids";
+
+    @Override
+    public String getName() {
+        return "codigos-2fa-expirados";
+    }
+
+    @Override
+    public int purgeBatch(EntityManager entityManager, LocalDateTime now, int batchSize) {
+        List<Long> ids = entityManager.createQuery(SELECT_EXPIRED_JPQL, Long.class)
+                .setParameter("now", now)
+                .setMaxResults(batchSize)
+                .getResultList();
+        if (ids.isEmpty()) {
+            return 0;
+        }
+        entityManager.createQuery(DELETE_JPQL)
+                .setParameter("ids", ids)
+                .executeUpdate();
+        return ids.size();
+    }
+}
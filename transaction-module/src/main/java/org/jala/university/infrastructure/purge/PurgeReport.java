@@ -0,0 +1,27 @@
+package org.jala.university.infrastructure.purge;
+
+import java.time.Duration;
+
+/**
+ * Outcome of one {@link PurgeTask} in a purge run.
+ *
+ * @param task the name of the task
+ * @param rows the number of rows removed
+ * @param batches the number of batches run
+ * @param elapsed the total time of the task, pauses included
+ * @param slowestBatch the time of the slowest batch
+ * @param failed whether the task stopped on an error; the rows of the batches already
+ *               committed are still counted
+ */
+public record PurgeReport(String task, long rows, int batches, Duration elapsed, Duration slowestBatch,
+                          boolean failed) {
+
+    /**
+     * Returns the average time of a batch.
+     *
+     * @return the average batch time, zero when no batch ran
+     */
+    public Duration averageBatch() {
+        return batches == 0 ? Duration.ZERO : elapsed.dividedBy(batches);
+    }
+}
@@ -0,0 +1,203 @@
+package org.jala.university.infrastructure.purge;
+
+import org.jala.university.commons.infrastructure.persistance.UnitOfWork;
+import org.jala.university.infrastructure.config.JPAConfig;
+import org.jala.university.infrastructure.config.SchedulerProperties;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Runs the {@link PurgeTask}s at a fixed interval.
+ * <p>
+ * Each task removes its rows in batches of at most {@code batchSize}, each batch in its own
+ * short transaction, so no statement holds locks on many rows at once; the service pauses
+ * between batches to leave room for the application's own queries. A task stops at its first
+ * batch smaller than {@code batchSize}. Rows purged and time per batch are logged and
+ * returned as {@link PurgeReport}s.
+ * <p>
+ * Settings are read from {@code properties/scheduler.properties} and can be overridden with
+ * system properties; see {@code scheduler.example.properties}.
+ */
+public class PurgeService {
+    private static final Logger LOGGER = Logger.getLogger(PurgeService.class.getName());
+
+    /**
+     * Default largest number of rows removed per batch.
+     */
+    public static final int DEFAULT_BATCH_SIZE = 500;
+
+    /**
+     * Default pause between two batches.
+     */
+    public static final Duration DEFAULT_PAUSE = Duration.ofMillis(200);
+
+    /**
+     * Default time between the end of a run and the start of the next one.
+     */
+    public static final Duration DEFAULT_INTERVAL = Duration.ofMinutes(30);
+
+    private final UnitOfWork unitOfWork;
+    private final List<PurgeTask> tasks;
+    private final int batchSize;
+    private final Duration pause;
+    private final Duration interval;
+    private final Clock clock;
+    private ScheduledExecutorService timer;
+
+    /**
+     * Creates a service purging expired two-factor codes and archiving stale transactions,
+     * configured from {@code properties/scheduler.properties}.
+     *
+     * @return the service, not yet started
+     */
+    public static PurgeService fromProperties() {
+        SchedulerProperties props = SchedulerProperties.load();
+        long intervalMinutes = props.getLong("purge.interval.minutes", DEFAULT_INTERVAL.toMinutes());
+        int batchSize = props.getInt("purge.batch.size", DEFAULT_BATCH_SIZE);
+        long pauseMillis = props.getLong("purge.pause.millis", DEFAULT_PAUSE.toMillis());
+        long retentionDays = props.getLong("purge.transactions.retention.days",
+                StaleTransactionArchiver.DEFAULT_RETENTION.toDays());
+
+        List<PurgeTask> tasks = List.of(new ExpiredTwoFactorCodePurge(),
+                new StaleTransactionArchiver(Duration.ofDays(retentionDays)));
+        return new PurgeService(JPAConfig.getUnitOfWork(), tasks, batchSize, Duration.ofMillis(pauseMillis),
+                Duration.ofMinutes(intervalMinutes), Clock.systemDefaultZone());
+    }
+
+    /**
+     * Checks whether the purge is enabled in {@code properties/scheduler.properties}.
+     *
+     * @return true unless {@code purge.enabled} is false
+     */
+    public static boolean isEnabled() {
+        return SchedulerProperties.load().getBoolean("purge.enabled", true);
+    }
+
+    /**
+     * Creates a service.
+     *
+     * @param unitOfWork the unit of work each batch runs in
+     * @param tasks the tasks, run in this order
+     * @param batchSize the largest number of rows removed per batch
+     * @param pause the pause between two batches
+     * @param interval the time between the end of a run and the start of the next one
+     * @param clock the clock giving the time of each run
+     */
+    public PurgeService(UnitOfWork unitOfWork, List<PurgeTask> tasks, int batchSize, Duration pause,
+                        Duration interval, Clock clock) {
+        if (batchSize < 1) {
+            throw new IllegalArgumentException("Purge batch size must be positive");
+        }
+        if (interval.isZero() || interval.isNegative()) {
+            throw new IllegalArgumentException("Purge interval must be positive");
+        }
+        this.unitOfWork = unitOfWork;
+        this.tasks = List.copyOf(tasks);
+        this.batchSize = batchSize;
+        this.pause = pause;
+        this.interval = interval;
+        this.clock = clock;
+    }
+
+    /**
+     * Starts the periodic runs; the first one happens after one interval.
+     */
+    public synchronized void start() {
+        if (timer != null) {
+            return;
+        }
+        timer = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "purge-scheduler");
+            thread.setDaemon(true);
+            return thread;
+        });
+        timer.scheduleWithFixedDelay(this::runOnce, interval.toMillis(), interval.toMillis(), TimeUnit.MILLISECONDS);
+        LOGGER.info("Limpeza periódica iniciada com intervalo de " + interval.toMinutes() + " min");
+    }
+
+    /**
+     * Stops the periodic runs, interrupting a run in progress between two batches.
+     */
+    public synchronized void stop() {
+        if (timer == null) {
+            return;
+        }
+        timer.shutdownNow();
+        timer = null;
+    }
+
+    /**
+     * Runs every task once. A failing task is logged and does not stop the next ones.
+     *
+     * @return the report of each task, in task order
+     */
+    public List<PurgeReport> runOnce() {
+        LocalDateTime now = LocalDateTime.now(clock);
+        List<PurgeReport> reports = new ArrayList<>(tasks.size());
+        for (PurgeTask task : tasks) {
+            if (Thread.currentThread().isInterrupted()) {
+                break;
+            }
+            PurgeReport report = purge(task, now);
+            reports.add(report);
+            if (report.rows() > 0 || report.failed()) {
+                LOGGER.info("Limpeza " + report.task() + ": " + report.rows() + " linha(s) em "
+                        + report.batches() + " lote(s), " + report.elapsed().toMillis() + " ms (lote mais lento "
+                        + report.slowestBatch().toMillis() + " ms)" + (report.failed() ? ", interrompida por erro" : ""));
+            }
+        }
+        return reports;
+    }
+
+    private PurgeReport purge(PurgeTask task, LocalDateTime now) {
+        long startedAt = System.nanoTime();
+        long rows = 0;
+        int batches = 0;
+        long slowestBatch = 0;
+        boolean failed = false;
+        try {
+            while (true) {
+                long batchStartedAt = System.nanoTime();
+                int removed = unitOfWork.write(entityManager -> task.purgeBatch(entityManager, now, batchSize));
+                long batchNanos = System.nanoTime() - batchStartedAt;
+                batches++;
+                rows += removed;
+                slowestBatch = Math.max(slowestBatch, batchNanos);
+                LOGGER.fine("Limpeza " + task.getName() + ": lote " + batches + " com " + removed + " linha(s) em "
+                        + TimeUnit.NANOSECONDS.toMillis(batchNanos) + " ms");
+
+                if (removed < batchSize || !pause()) {
+                    break;
+                }
+            }
+        } catch (RuntimeException e) {
+            // An exception would cancel the periodic task, so it is only logged
+            LOGGER.log(Level.SEVERE, "Erro na limpeza " + task.getName(), e);
+            failed = true;
+        }
+        return new PurgeReport(task.getName(), rows, batches, Duration.ofNanos(System.nanoTime() - startedAt),
+                Duration.ofNanos(slowestBatch), failed);
+    }
+
+    private boolean pause() {
+        if (pause.isZero() || pause.isNegative()) {
+            return !Thread.currentThread().isInterrupted();
+        }
+        try {
+            Thread.sleep(pause.toMillis());
+            return true;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+}
@@ -0,0 +1,28 @@
+package org.jala.university.infrastructure.purge;
+
+import jakarta.persistence.EntityManager;
+
+import java.time.LocalDateTime;
+
+/**
+ * Removes obsolete rows of one kind, a bounded batch at a time, for the {@link PurgeService}.
+ */
+public interface PurgeTask {
+
+    /**
+     * Returns the name of the task, used in the logs and reports.
+     *
+     * @return the name
+     */
+    String getName();
+
+    /**
+     * Removes at most {@code batchSize} obsolete rows, in the caller's transaction.
+     *
+     * @param entityManager the EntityManager of the batch's transaction
+     * @param now the start of the purge run, the same for every batch of the run
+     * @param batchSize the largest number of rows to remove
+     * @return the number of rows removed; less than {@code batchSize} when nothing is left
+     */
+    int purgeBatch(EntityManager entityManager, LocalDateTime now, int batchSize);
+}
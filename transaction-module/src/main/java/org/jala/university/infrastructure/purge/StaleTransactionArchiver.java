@@ -0,0 +1,110 @@
+package org.jala.university.infrastructure.purge;
+
+import jakarta.persistence.EntityManager;
+import org.jala.university.domain.entity.ArchivedTransaction;
+import org.jala.university.domain.entity.enums.TransactionStatus;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Moves transactions that stayed PENDING or CANCELLED past the retention period to
+ * {@code transactions_archive}.
+ * <p>
+ * A transaction is stale when its schedule date, or its creation time when it has none, is
+ * older than the retention period. Transactions with ledger entries are never moved.
+ * <p>
+ * A selected transaction is deleted only if it still has the status it was selected with, and
+ * only the deleted ones are archived, so a transaction settled in the meantime, e.g. by the
+ * catch-up of the pending transfer scheduler at startup, stays where it is.
+ */
+public class StaleTransactionArchiver implements PurgeTask {
+
+    /**
+     * Default time a PENDING or CANCELLED transaction stays in {@code transactions}.
+     */
+    public static final Duration DEFAULT_RETENTION = Duration.ofDays(90);
+
+    private static final List<TransactionStatus> STALE_STATUSES =
+            List.of(TransactionStatus.PENDING, TransactionStatus.CANCELLED);
+
+    private static final String SELECT_STALE_JPQL = "SELECT t.id, t.amount, t.sender.id, t.receiver.id, t.status, "
+            + "t.transactionSchedule, t.description, t.createdAt, t.idempotencyKey "
+            + "FROM Transaction t "
+            + "WHERE t.status IN :statuses "
+            + "AND ((t.transactionSchedule IS NOT NULL AND t.transactionSchedule < :cutoffDate) "
+            + "OR (t.transactionSchedule IS NULL AND t.createdAt < :cutoff)) "
+            + "AND NOT EXISTS (SELECT e.id FROM LedgerEntry e WHERE e.transaction = t) "
+            + "ORDER BY t.id";
+    private static final String DELETE_JPQL = "DELETE FROM Transaction t WHERE t.id = :id AND t.status = :status";
+
+    private final Duration retention;
+
+    /**
+     * Creates an archiver with the default retention.
+     */
+    public StaleTransactionArchiver() {
+        this(DEFAULT_RETENTION);
+    }
+
+    /**
+     * Creates an archiver.
+     *
+     * @param retention the time a PENDING or CANCELLED transaction stays in {@code transactions}
+     */
+    public StaleTransactionArchiver(Duration retention) {
+        this.retention = retention;
+    }
+
+    @Override
+    public String getName() {
+        return "transacoes-obsoletas";
+    }
+
+    @Override
+    public int purgeBatch(EntityManager entityManager, LocalDateTime now, int batchSize) {
+        LocalDateTime cutoff = now.minus(retention);
+        // Plain columns, so the accounts of the batch are not loaded
+        List<Object[]> rows = entityManager.createQuery(SELECT_STALE_JPQL, Object[].class)
+                .setParameter("statuses", STALE_STATUSES)
+                .setParameter("cutoffDate", cutoff.toLocalDate())
+                .setParameter("cutoff", cutoff)
+                .setMaxResults(batchSize)
+                .getResultList();
+        if (rows.isEmpty()) {
+            return 0;
+        }
+
+        int archivedCount = 0;
+        for (Object[] row : rows) {
+            int deleted = entityManager.createQuery(DELETE_JPQL)
+                    .setParameter("id", row[0])
+                    .setParameter("status", row[4])
+                    .executeUpdate();
+            if (deleted == 0) {
+                // Settled since it was selected
+                continue;
+            }
+            ArchivedTransaction archived = ArchivedTransaction.builder()
+                    .id((Long) row[0])
+                    .amount((BigDecimal) row[1])
+                    .senderId((Long) row[2])
+                    .receiverId((Long) row[3])
+                    .status((TransactionStatus) row[4])
+                    .transactionSchedule((LocalDate) row[5])
+                    .description((String) row[6])
+                    .createdAt((LocalDateTime) row[7])
+                    .idempotencyKey((String) row[8])
+                    .archivedAt(now)
+                    .build();
+            entityManager.persist(archived);
+            archivedCount++;
+        }
+        // The originals are deleted and their archive rows inserted in the same transaction
+        entityManager.flush();
+        return archivedCount;
+    }
+}
@@ -0,0 +1,211 @@
+package org.jala.university.infrastructure.security;
+
+import java.time.Duration;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongSupplier;
+
+/**
+ * Token buckets limiting login attempts per email and per origin.
+ * <p>
+ * Every attempt takes a token from the bucket of its email and, when an origin is known, from
+ * the bucket of its origin; an attempt is refused, before any password is checked, when
+ * either is empty. Buckets refill at a steady rate up to their burst size. A brute-force run
+ * against one email or from one origin therefore only drains its own buckets, and cannot use
+ * up the hashing capacity the other logins need.
+ * <p>
+ * A successful login refills the bucket of its email. Once more than {@link #MAX_TRACKED_KEYS}
+ * keys are tracked, full buckets are dropped, at most once per refill interval, so memory stays
+ * bounded without every attempt scanning the map.
+ */
+public final class LoginRateLimiter {
+
+    /**
+     * Default attempts per email in a burst.
+     */
+    public static final int DEFAULT_EMAIL_BURST = 5;
+
+    /**
+     * Default time for an email bucket to earn one attempt back.
+     */
+    public static final Duration DEFAULT_EMAIL_REFILL = Duration.ofSeconds(30);
+
+    /**
+     * Default attempts per origin in a burst.
+     */
+    public static final int DEFAULT_ORIGIN_BURST = 30;
+
+    /**
+     * Default time for an origin bucket to earn one attempt back.
+     */
+    public static final Duration DEFAULT_ORIGIN_REFILL = Duration.ofSeconds(2);
+
+    /**
+     * Number of keys above which full buckets are dropped.
+     */
+    static final int MAX_TRACKED_KEYS = 10_000;
+
+    private final Map<String, Bucket> buckets = new ConcurrentHashMap<>();
+    private final int emailBurst;
+    private final long emailRefillNanos;
+    private final int originBurst;
+    private final long originRefillNanos;
+    private final LongSupplier clock;
+    private final long evictionIntervalNanos;
+    private final AtomicLong lastEviction;
+
+    /**
+     * Holder for the shared instance used by the services.
+     */
+    private static final class InstanceHolder {
+        private static final LoginRateLimiter INSTANCE = new LoginRateLimiter(DEFAULT_EMAIL_BURST,
+                DEFAULT_EMAIL_REFILL, DEFAULT_ORIGIN_BURST, DEFAULT_ORIGIN_REFILL);
+    }
+
+    /**
+     * Returns the shared limiter.
+     *
+     * @return the shared instance
+     */
+    public static LoginRateLimiter getInstance() {
+        return InstanceHolder.INSTANCE;
+    }
+
+    /**
+     * Creates a limiter.
+     *
+     * @param emailBurst the attempts per email in a burst
+     * @param emailRefill the time for an email to earn one attempt back
+     * @param originBurst the attempts per origin in a burst
+     * @param originRefill the time for an origin to earn one attempt back
+     */
+    public LoginRateLimiter(int emailBurst, Duration emailRefill, int originBurst, Duration originRefill) {
+        this(emailBurst, emailRefill, originBurst, originRefill, System::nanoTime);
+    }
+
+    LoginRateLimiter(int emailBurst, Duration emailRefill, int originBurst, Duration originRefill,
+                     LongSupplier clock) {
+        if (emailBurst < 1 || originBurst < 1) {
+            throw new IllegalArgumentException("Bursts must be positive");
+        }
+        this.emailBurst = emailBurst;
+        this.emailRefillNanos = emailRefill.toNanos();
+        this.originBurst = originBurst;
+        this.originRefillNanos = originRefill.toNanos();
+        this.clock = clock;
+        // A bucket becomes full again no sooner than one refill interval after its last attempt
+        this.evictionIntervalNanos = Math.min(emailRefillNanos, originRefillNanos);
+        this.lastEviction = new AtomicLong(clock.getAsLong() - evictionIntervalNanos);
+    }
+
+    /**
+     * Takes a token for a login attempt.
+     *
+     * @param email the email of the attempt
+     * @param origin the address the attempt comes from, or null if unknown
+     * @return true if the attempt may proceed; false if it must be refused
+     */
+    public boolean tryAcquire(String email, String origin) {
+        long now = clock.getAsLong();
+        if (buckets.size() > MAX_TRACKED_KEYS) {
+            evictFullIfDue(now);
+        }
+        Bucket emailBucket = buckets.computeIfAbsent(emailKey(email),
+                key -> new Bucket(emailBurst, emailRefillNanos, now));
+        if (origin == null || origin.isBlank()) {
+            return emailBucket.tryTake(now);
+        }
+        Bucket originBucket = buckets.computeIfAbsent("origin:" + origin,
+                key -> new Bucket(originBurst, originRefillNanos, now));
+        // The origin is charged first, so refused guesses on other emails still drain it
+        return originBucket.tryTake(now) && emailBucket.tryTake(now);
+    }
+
+    /**
+     * Refills the bucket of an email after a successful login.
+     *
+     * @param email the email
+     */
+    public void reset(String email) {
+        buckets.remove(emailKey(email));
+    }
+
+    /**
+     * Returns the time until an email can make another attempt.
+     *
+     * @param email the email
+     * @return the wait, zero if an attempt is available
+     */
+    public Duration getRetryAfter(String email) {
+        Bucket bucket = buckets.get(emailKey(email));
+        return bucket == null ? Duration.ZERO : Duration.ofNanos(bucket.nanosUntilToken(clock.getAsLong()));
+    }
+
+    /**
+     * Returns the number of emails and origins tracked.
+     *
+     * @return the number of buckets
+     */
+    public int size() {
+        return buckets.size();
+    }
+
+    private void evictFullIfDue(long now) {
+        long last = lastEviction.get();
+        // Only the thread that moves the mark scans; the others go on with their attempt
+        if (now - last >= evictionIntervalNanos && lastEviction.compareAndSet(last, now)) {
+            buckets.entrySet().removeIf(entry -> entry.getValue().isFull(now));
+        }
+    }
+
+    private static String emailKey(String email) {
+        return "email:" + (email == null ? "" : email.trim().toLowerCase(Locale.ROOT));
+    }
+
+    /**
+     * Token bucket refilled lazily on each access.
+     */
+    private static final class Bucket {
+        private final int capacity;
+        private final long refillNanos;
+        private double tokens;
+        private long updatedAt;
+
+        private Bucket(int capacity, long refillNanos, long now) {
+            this.capacity = capacity;
+            this.refillNanos = refillNanos;
+            this.tokens = capacity;
+            this.updatedAt = now;
+        }
+
+        private synchronized boolean tryTake(long now) {
+            refill(now);
+            if (tokens < 1) {
+                return false;
+            }
+            tokens--;
+            return true;
+        }
+
+        private synchronized boolean isFull(long now) {
+            refill(now);
+            return tokens >= capacity;
+        }
+
+        private synchronized long nanosUntilToken(long now) {
+            refill(now);
+            return tokens >= 1 ? 0 : (long) Math.ceil((1 - tokens) * refillNanos);
+        }
+
+        private void refill(long now) {
+            if (refillNanos <= 0) {
+                tokens = capacity;
+            } else {
+                tokens = Math.min(capacity, tokens + (double) (now - updatedAt) / refillNanos);
+            }
+            updatedAt = now;
+        }
+    }
+}
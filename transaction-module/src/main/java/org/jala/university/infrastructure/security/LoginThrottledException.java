@@ -0,0 +1,27 @@
+package org.jala.university.infrastructure.security;
+
+import java.time.Duration;
+
+/**
+ * Thrown when a login attempt is refused by the {@link LoginRateLimiter}.
+ */
+public class LoginThrottledException extends RuntimeException {
+    private static final long serialVersionUID = 1L;
+
+    private final Duration retryAfter;
+
+    public LoginThrottledException(Duration retryAfter) {
+        super("Muitas tentativas de login; tente novamente em "
+                + Math.max(1, retryAfter.toSeconds()) + " segundos");
+        this.retryAfter = retryAfter;
+    }
+
+    /**
+     * Returns the time until the email can make another attempt.
+     *
+     * @return the wait
+     */
+    public Duration getRetryAfter() {
+        return retryAfter;
+    }
+}
@@ -0,0 +1,114 @@
+package org.jala.university.infrastructure.security;
+
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Records how long password hashes and verifications take, queueing included.
+ * <p>
+ * The percentiles are computed over the last {@value #WINDOW} operations, kept in a ring
+ * buffer, so recording is lock-free and O(1) and only a snapshot pays for the sort.
+ */
+public final class PasswordHashMetrics {
+
+    /**
+     * Number of recent operations the latency percentiles are computed over.
+     */
+    static final int WINDOW = 1024;
+
+    private final AtomicLongArray latencies = new AtomicLongArray(WINDOW);
+    private final AtomicLong operations = new AtomicLong();
+    private final LongAdder rejected = new LongAdder();
+    private final LongAccumulator maxLatency = new LongAccumulator(Math::max, 0);
+
+    /**
+     * Records an operation completed after the given time.
+     *
+     * @param latencyNanos the time from submission to result, in nanoseconds
+     */
+    public void recordOperation(long latencyNanos) {
+        long index = operations.getAndIncrement();
+        latencies.set((int) (index % WINDOW), latencyNanos);
+        maxLatency.accumulate(latencyNanos);
+    }
+
+    /**
+     * Records an operation refused because every worker was busy and the queue was full.
+     */
+    public void recordRejection() {
+        rejected.increment();
+    }
+
+    /**
+     * Returns the number of operations completed.
+     *
+     * @return the operation count
+     */
+    public long getOperations() {
+        return operations.get();
+    }
+
+    /**
+     * Returns the number of operations refused.
+     *
+     * @return the rejection count
+     */
+    public long getRejected() {
+        return rejected.sum();
+    }
+
+    /**
+     * Returns the longest latency recorded.
+     *
+     * @return the maximum latency
+     */
+    public Duration getMaxLatency() {
+        return Duration.ofNanos(maxLatency.get());
+    }
+
+    /**
+     * Returns the latency at the given percentile of the recent operations.
+     *
+     * @param percentile the percentile, between 0 and 100
+     * @return the latency, or zero if no operation completed yet
+     */
+    public Duration getLatencyPercentile(double percentile) {
+        return Duration.ofNanos(percentile(recentLatencies(), percentile));
+    }
+
+    PasswordHashStats.PasswordHashStatsBuilder snapshot() {
+        long[] recent = recentLatencies();
+        return PasswordHashStats.builder()
+                .operations(getOperations())
+                .rejected(getRejected())
+                .latencyP50(Duration.ofNanos(percentile(recent, 50)))
+                .latencyP95(Duration.ofNanos(percentile(recent, 95)))
+                .latencyP99(Duration.ofNanos(percentile(recent, 99)))
+                .maxLatency(getMaxLatency());
+    }
+
+    private long[] recentLatencies() {
+        int size = (int) Math.min(operations.get(), WINDOW);
+        long[] recent = new long[size];
+        for (int i = 0; i < size; i++) {
+            recent[i] = latencies.get(i);
+        }
+        Arrays.sort(recent);
+        return recent;
+    }
+
+    /**
+     * Nearest-rank percentile of sorted values.
+     */
+    private static long percentile(long[] sorted, double percentile) {
+        if (sorted.length == 0) {
+            return 0;
+        }
+        int rank = (int) Math.ceil(percentile / 100 * sorted.length);
+        return sorted[Math.max(0, Math.min(sorted.length, rank) - 1)];
+    }
+}
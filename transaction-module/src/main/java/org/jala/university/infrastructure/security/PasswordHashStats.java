@@ -0,0 +1,25 @@
+package org.jala.university.infrastructure.security;
+
+import lombok.Builder;
+import lombok.Getter;
+import lombok.ToString;
+
+import java.time.Duration;
+
+/**
+ * Point-in-time view of the password hashing service.
+ */
+@Getter
+@Builder
+@ToString
+public final class PasswordHashStats {
+    private final int cost;
+    private final int threads;
+    private final int queuedOperations;
+    private final long operations;
+    private final long rejected;
+    private final Duration latencyP50;
+    private final Duration latencyP95;
+    private final Duration latencyP99;
+    private final Duration maxLatency;
+}
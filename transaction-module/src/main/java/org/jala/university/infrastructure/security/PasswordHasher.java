@@ -0,0 +1,227 @@
+package org.jala.university.infrastructure.security;
+
+import org.springframework.security.crypto.bcrypt.BCrypt;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Hashes and verifies passwords with BCrypt on a fixed pool of threads.
+ * <p>
+ * A BCrypt operation costs tens of milliseconds of CPU by design. Running them on a pool of
+ * {@code threads} workers caps the cores a burst of logins can take, whatever the number of
+ * callers; further operations wait in a bounded queue and are refused with an
+ * {@link IllegalStateException} once it is full. The caller blocks until its result is ready.
+ * <p>
+ * New hashes use the configured cost. A hash made with another cost still verifies, and
+ * {@link #needsRehash} tells the caller to store a new hash once it knows the password.
+ * <p>
+ * The cost and pool size are read from the {@value #COST} and {@value #THREADS} system
+ * properties.
+ */
+public final class PasswordHasher {
+
+    /**
+     * System property with the BCrypt cost (log2 of the rounds) of new hashes.
+     */
+    public static final String COST = "bank.password.bcryptCost";
+
+    /**
+     * System property with the number of hashing threads.
+     */
+    public static final String THREADS = "bank.password.hashThreads";
+
+    /**
+     * Default BCrypt cost, the one of {@code BCrypt.gensalt()}.
+     */
+    public static final int DEFAULT_COST = 10;
+
+    /**
+     * Default number of operations waiting for a thread.
+     */
+    public static final int DEFAULT_QUEUE_CAPACITY = 64;
+
+    private static final int MIN_COST = 4;
+    private static final int MAX_COST = 31;
+
+    private final int cost;
+    private final int threads;
+    private final ThreadPoolExecutor executor;
+    private final PasswordHashMetrics metrics = new PasswordHashMetrics();
+
+    /**
+     * Holder for the shared instance used by the services.
+     */
+    private static final class InstanceHolder {
+        private static final PasswordHasher INSTANCE = new PasswordHasher(
+                Integer.getInteger(COST, DEFAULT_COST),
+                Integer.getInteger(THREADS, defaultThreads()),
+                DEFAULT_QUEUE_CAPACITY);
+    }
+
+    /**
+     * Returns the shared hasher.
+     *
+     * @return the shared instance
+     */
+    public static PasswordHasher getInstance() {
+        return InstanceHolder.INSTANCE;
+    }
+
+    /**
+     * Creates a hasher.
+     *
+     * @param cost the BCrypt cost of new hashes, between 4 and 31
+     * @param threads the number of hashing threads
+     * @param queueCapacity the number of operations that may wait for a thread
+     */
+    public PasswordHasher(int cost, int threads, int queueCapacity) {
+        if (cost < MIN_COST || cost > MAX_COST) {
+            throw new IllegalArgumentException("BCrypt cost must be between " + MIN_COST + " and " + MAX_COST);
+        }
+        if (threads < 1 || queueCapacity < 1) {
+            throw new IllegalArgumentException("Threads and queue capacity must be positive");
+        }
+        this.cost = cost;
+        this.threads = threads;
+        AtomicInteger threadNumber = new AtomicInteger();
+        this.executor = new ThreadPoolExecutor(threads, threads, 0, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity), runnable -> {
+                    Thread thread = new Thread(runnable, "password-hash-" + threadNumber.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                });
+    }
+
+    /**
+     * Hashes a password with the configured cost.
+     *
+     * @param password the password
+     * @return the BCrypt hash
+     * @throws IllegalStateException if the hasher is saturated
+     */
+    public String hash(String password) {
+        return run(() -> BCrypt.hashpw(password, BCrypt.gensalt(cost)));
+    }
+
+    /**
+     * Checks a password against a hash.
+     *
+     * @param password the password
+     * @param hash the stored BCrypt hash
+     * @return true if the password matches; false if it does not or the hash is malformed
+     * @throws IllegalStateException if the hasher is saturated
+     */
+    public boolean verify(String password, String hash) {
+        if (password == null || hash == null) {
+            return false;
+        }
+        return run(() -> {
+            try {
+                return BCrypt.checkpw(password, hash);
+            } catch (IllegalArgumentException e) {
+                return false;
+            }
+        });
+    }
+
+    /**
+     * Checks whether a hash was made with another cost than the configured one.
+     *
+     * @param hash the stored BCrypt hash
+     * @return true if the password should be hashed again
+     */
+    public boolean needsRehash(String hash) {
+        return costOf(hash) != cost;
+    }
+
+    /**
+     * Returns the BCrypt cost of new hashes.
+     *
+     * @return the cost
+     */
+    public int getCost() {
+        return cost;
+    }
+
+    /**
+     * Returns the latency metrics of the hasher.
+     *
+     * @return the metrics
+     */
+    public PasswordHashMetrics getMetrics() {
+        return metrics;
+    }
+
+    /**
+     * Returns the current state of the hasher, with the latency percentiles.
+     *
+     * @return the stats
+     */
+    public PasswordHashStats getStats() {
+        return metrics.snapshot()
+                .cost(cost)
+                .threads(threads)
+                .queuedOperations(executor.getQueue().size())
+                .build();
+    }
+
+    /**
+     * Stops the hashing threads once the queued operations are done.
+     */
+    public void shutdown() {
+        executor.shutdown();
+    }
+
+    /**
+     * Reads the cost of a BCrypt hash, {@code $2a$NN$...}.
+     *
+     * @return the cost, or -1 if the hash is malformed
+     */
+    static int costOf(String hash) {
+        if (hash == null || hash.length() < 7 || hash.charAt(0) != '$' || hash.charAt(3) != '$') {
+            return -1;
+        }
+        try {
+            return Integer.parseInt(hash.substring(4, 6));
+        } catch (NumberFormatException e) {
+            return -1;
+        }
+    }
+
+    private <T> T run(Callable<T> operation) {
+        long submittedAt = System.nanoTime();
+        Future<T> future;
+        try {
+            future = executor.submit(operation);
+        } catch (RejectedExecutionException e) {
+            metrics.recordRejection();
+            throw new IllegalStateException("Serviço de senhas sobrecarregado; tente novamente", e);
+        }
+        try {
+            T result = future.get();
+            metrics.recordOperation(System.nanoTime() - submittedAt);
+            return result;
+        } catch (InterruptedException e) {
+            future.cancel(true);
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrompido aguardando o serviço de senhas", e);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException runtime) {
+                throw runtime;
+            }
+            throw new IllegalStateException(e.getCause());
+        }
+    }
+
+    private static int defaultThreads() {
+        // Leaves at least half of the cores to the rest of the application
+        return Math.max(1, Runtime.getRuntime().availableProcessors() / 2);
+    }
+}
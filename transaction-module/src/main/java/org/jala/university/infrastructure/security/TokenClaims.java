@@ -0,0 +1,30 @@
+package org.jala.university.infrastructure.security;
+
+import java.time.Instant;
+import java.util.Map;
+
+/**
+ * Claims of a validated token, read once when the token is parsed.
+ *
+ * @param keyId the ID of the key the token was signed with
+ * @param subject the subject, the user's email
+ * @param userId the user ID, or null if the token has none
+ * @param role the user's role, or null if the token has none
+ * @param issuedAt when the token was issued
+ * @param expiresAt when the token expires
+ * @param all every claim of the token, unmodifiable
+ */
+public record TokenClaims(String keyId, String subject, Long userId, String role, Instant issuedAt,
+                          Instant expiresAt, Map<String, Object> all) {
+
+    /**
+     * Checks whether the token has expired. As for the JWT parser, a token is still valid at
+     * its expiry instant.
+     *
+     * @param now the current time
+     * @return true if the token is no longer valid at {@code now}
+     */
+    public boolean isExpired(Instant now) {
+        return now.isAfter(expiresAt);
+    }
+}
@@ -0,0 +1,292 @@
+package org.jala.university.infrastructure.security;
+
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwsHeader;
+import io.jsonwebtoken.Jws;
+import io.jsonwebtoken.JwtException;
+import io.jsonwebtoken.JwtParser;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.SignatureAlgorithm;
+import io.jsonwebtoken.SigningKeyResolverAdapter;
+import io.jsonwebtoken.security.Keys;
+import org.jala.university.application.dto.UserDTO;
+
+import java.nio.charset.StandardCharsets;
+import java.security.Key;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Base64;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Issues and validates the HS256 JSON Web Tokens of the bank.
+ * <p>
+ * The signing keys and the parser are built once; the parser is immutable and shared by every
+ * thread, and finds the key of each token by the {@code kid} of its header. Rotating the key
+ * signs new tokens with a new key while the older ones stay valid until their key is retired.
+ * <p>
+ * A token is parsed once into {@link TokenClaims}. Recently validated tokens are kept in a
+ * small LRU cache, keyed by the SHA-256 of the token, so validating the same token again is a
+ * hash and a map lookup; a cached token is still refused once it expires.
+ */
+public final class TokenService {
+
+    /**
+     * System property with the secret of the default key, at least 32 bytes.
+     */
+    public static final String SECRET = "bank.jwt.secret";
+
+    /**
+     * ID of the key configured at startup; also used for tokens without a {@code kid}.
+     */
+    public static final String DEFAULT_KEY_ID = "default";
+
+    /**
+     * Default lifetime of a token.
+     */
+    public static final Duration DEFAULT_TTL = Duration.ofHours(10);
+
+    /**
+     * Default number of validated tokens kept in the cache.
+     */
+    public static final int DEFAULT_CACHE_CAPACITY = 1_024;
+
+    // Secret used before it could be configured; tokens already issued were signed with it
+    private static final String LEGACY_SECRET = "your-secret-key-should-be-at-least-256-bits-long-for-hs256-algorithm";
+
+    private static final ThreadLocal<MessageDigest> SHA_256 = ThreadLocal.withInitial(() -> {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    });
+
+    private final Map<String, Key> keys = new ConcurrentHashMap<>();
+    private volatile String activeKeyId;
+    private final JwtParser parser;
+    private final Duration ttl;
+    private final Clock clock;
+    private final Map<String, TokenClaims> validated;
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+
+    /**
+     * Holder for the shared instance, signing with the secret of {@value #SECRET}.
+     */
+    private static final class InstanceHolder {
+        private static final TokenService INSTANCE = new TokenService(DEFAULT_KEY_ID,
+                System.getProperty(SECRET, LEGACY_SECRET).getBytes(StandardCharsets.UTF_8),
+                DEFAULT_TTL, DEFAULT_CACHE_CAPACITY, Clock.systemUTC());
+    }
+
+    /**
+     * Returns the shared service.
+     *
+     * @return the shared instance
+     */
+    public static TokenService getInstance() {
+        return InstanceHolder.INSTANCE;
+    }
+
+    /**
+     * Creates a service.
+     *
+     * @param keyId the ID of the first signing key
+     * @param secret the secret of the first signing key, at least 32 bytes
+     * @param ttl the lifetime of the tokens
+     * @param cacheCapacity the number of validated tokens kept in the cache
+     * @param clock the clock used to issue and expire tokens
+     */
+    public TokenService(String keyId, byte[] secret, Duration ttl, int cacheCapacity, Clock clock) {
+        if (cacheCapacity < 1) {
+            throw new IllegalArgumentException("Cache capacity must be positive");
+        }
+        this.ttl = ttl;
+        this.clock = clock;
+        this.validated = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, TokenClaims> eldest) {
+                return size() > cacheCapacity;
+            }
+        };
+        rotateKey(keyId, secret);
+        this.parser = Jwts.parserBuilder()
+                .setSigningKeyResolver(new SigningKeyResolverAdapter() {
+                    // jjwt 0.11 declares the header raw; a JwsHeader<?> parameter would not override
+                    @Override
+                    @SuppressWarnings("rawtypes")
+                    public Key resolveSigningKey(JwsHeader header, Claims claims) {
+                        return keyFor(header.getKeyId());
+                    }
+                })
+                .setClock(() -> Date.from(clock.instant()))
+                .build();
+    }
+
+    /**
+     * Issues a token for a user, signed with the active key.
+     *
+     * @param user the user
+     * @return the token
+     */
+    public String issue(UserDTO user) {
+        Map<String, Object> claims = new HashMap<>();
+        claims.put("id", user.getId());
+        claims.put("email", user.getEmail());
+        claims.put("role", user.getRoles().name());
+
+        String keyId = activeKeyId;
+        Instant now = clock.instant();
+        return Jwts.builder()
+                .setHeaderParam(JwsHeader.KEY_ID, keyId)
+                .setClaims(claims)
+                .setSubject(user.getEmail())
+                .setIssuedAt(Date.from(now))
+                .setExpiration(Date.from(now.plus(ttl)))
+                .signWith(keys.get(keyId), SignatureAlgorithm.HS256)
+                .compact();
+    }
+
+    /**
+     * Validates a token and returns its claims.
+     *
+     * @param token the token
+     * @return the claims, or empty if the token is malformed, forged, signed with an unknown or
+     *         retired key, or expired
+     */
+    public Optional<TokenClaims> parse(String token) {
+        if (token == null || token.isBlank()) {
+            return Optional.empty();
+        }
+        Instant now = clock.instant();
+        String cacheKey = hash(token);
+        TokenClaims cached;
+        synchronized (validated) {
+            cached = validated.get(cacheKey);
+        }
+        if (cached != null) {
+            if (!cached.isExpired(now) && keys.containsKey(cached.keyId())) {
+                hits.increment();
+                return Optional.of(cached);
+            }
+            synchronized (validated) {
+                validated.remove(cacheKey);
+            }
+            return Optional.empty();
+        }
+
+        misses.increment();
+        TokenClaims claims;
+        try {
+            claims = toClaims(parser.parseClaimsJws(token));
+        } catch (JwtException | IllegalArgumentException e) {
+            return Optional.empty();
+        }
+        if (claims.isExpired(now)) {
+            return Optional.empty();
+        }
+        synchronized (validated) {
+            validated.put(cacheKey, claims);
+        }
+        return Optional.of(claims);
+    }
+
+    /**
+     * Checks that a token is valid and belongs to a user.
+     *
+     * @param token the token
+     * @param user the user
+     * @return true if the token is valid and its subject is the user's email
+     */
+    public boolean validate(String token, UserDTO user) {
+        return parse(token).map(claims -> claims.subject().equals(user.getEmail())).orElse(false);
+    }
+
+    /**
+     * Adds a signing key and signs the new tokens with it. Tokens signed with the previous keys
+     * stay valid until those keys are retired.
+     *
+     * @param keyId the ID of the key, written in the {@code kid} header of the tokens
+     * @param secret the secret, at least 32 bytes
+     */
+    public void rotateKey(String keyId, byte[] secret) {
+        keys.put(keyId, Keys.hmacShaKeyFor(secret));
+        activeKeyId = keyId;
+    }
+
+    /**
+     * Removes a key, so the tokens signed with it are refused.
+     *
+     * @param keyId the ID of the key
+     * @throws IllegalArgumentException if the key is the active one
+     */
+    public void retireKey(String keyId) {
+        if (keyId.equals(activeKeyId)) {
+            throw new IllegalArgumentException("The active key cannot be retired");
+        }
+        keys.remove(keyId);
+    }
+
+    /**
+     * Returns the ID of the key signing new tokens.
+     *
+     * @return the active key ID
+     */
+    public String getActiveKeyId() {
+        return activeKeyId;
+    }
+
+    /**
+     * Returns the number of validations answered from the cache.
+     *
+     * @return the cache hit count
+     */
+    public long getCacheHits() {
+        return hits.sum();
+    }
+
+    /**
+     * Returns the number of validations that parsed the token.
+     *
+     * @return the cache miss count
+     */
+    public long getCacheMisses() {
+        return misses.sum();
+    }
+
+    private Key keyFor(String keyId) {
+        Key key = keys.get(keyId == null ? DEFAULT_KEY_ID : keyId);
+        if (key == null) {
+            throw new JwtException("Chave de assinatura desconhecida: " + keyId);
+        }
+        return key;
+    }
+
+    private static TokenClaims toClaims(Jws<Claims> jws) {
+        Claims body = jws.getBody();
+        String keyId = jws.getHeader().getKeyId();
+        return new TokenClaims(
+                keyId == null ? DEFAULT_KEY_ID : keyId,
+                body.getSubject(),
+                body.get("id", Long.class),
+                body.get("role", String.class),
+                body.getIssuedAt() == null ? null : body.getIssuedAt().toInstant(),
+                body.getExpiration() == null ? Instant.MAX : body.getExpiration().toInstant(),
+                Map.copyOf(body));
+    }
+
+    private static String hash(String token) {
+        MessageDigest digest = SHA_256.get();
+        return Base64.getEncoder().encodeToString(digest.digest(token.getBytes(StandardCharsets.UTF_8)));
+    }
+}
@@ -1,25 +1,40 @@
 package org.jala.university.infrastructure.utils;
 
 import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtException;
 import io.jsonwebtoken.Jwts;
-import io.jsonwebtoken.SignatureAlgorithm;
-import io.jsonwebtoken.security.Keys;
 import org.jala.university.application.dto.UserDTO;
+import org.jala.university.infrastructure.security.TokenClaims;
+import org.jala.university.infrastructure.security.TokenService;
 
-import java.nio.charset.StandardCharsets;
-import java.security.Key;
 import java.util.Date;
-import java.util.HashMap;
-import java.util.Map;
 import java.util.function.Function;
 
 /**
  * Utility class for JWT token generation and validation.
+ * <p>
+ * Signing and parsing are done by a {@link TokenService}, which builds the key and the parser
+ * once and caches the tokens it has validated.
  */
 public class JwtUtil {
-    
-    private final String SECRET_KEY = "your-secret-key-should-be-at-least-256-bits-long-for-hs256-algorithm";
-    private final long EXPIRATION_TIME = 1000 * 60 * 60 * 10; // 10 hours
+
+    private final TokenService tokenService;
+
+    /**
+     * Creates a utility over the shared token service.
+     */
+    public JwtUtil() {
+        this(TokenService.getInstance());
+    }
+
+    /**
+     * Creates a utility over a token service.
+     *
+     * @param tokenService the token service
+     */
+    public JwtUtil(TokenService tokenService) {
+        this.tokenService = tokenService;
+    }
     
     /**
      * Generates a JWT token for a user.
@@ -28,31 +43,7 @@ public class JwtUtil {
      * @return the generated token
      */
     public String generateToken(UserDTO user) {
-        Map<String, Object> claims = new HashMap<>();
-        claims.put("id", user.getId());
-        claims.put("email", user.getEmail());
-        claims.put("role", user.getRoles().name());
-        
-        return createToken(claims, user.getEmail());
-    }
-    
-    /**
-     * Creates a JWT token with the specified claims and subject.
-     * 
-     * @param claims the claims
-     * @param subject the subject
-     * @return the created token
-     */
-    private String createToken(Map<String, Object> claims, String subject) {
-        Key key = Keys.hmacShaKeyFor(SECRET_KEY.getBytes(StandardCharsets.UTF_8));
-        
-        return Jwts.builder()
-                .setClaims(claims)
-                .setSubject(subject)
-                .setIssuedAt(new Date(System.currentTimeMillis()))
-                .setExpiration(new Date(System.currentTimeMillis() + EXPIRATION_TIME))
-                .signWith(key, SignatureAlgorithm.HS256)
-                .compact();
+        return tokenService.issue(user);
     }
     
     /**
@@ -62,7 +53,7 @@ public class JwtUtil {
      * @return the username
      */
     public String extractUsername(String token) {
-        return extractClaim(token, Claims::getSubject);
+        return parse(token).subject();
     }
     
     /**
@@ -72,7 +63,7 @@ public class JwtUtil {
      * @return the expiration date
      */
     public Date extractExpiration(String token) {
-        return extractClaim(token, Claims::getExpiration);
+        return Date.from(parse(token).expiresAt());
     }
     
     /**
@@ -83,33 +74,7 @@ public class JwtUtil {
      * @return the extracted claim
      */
     public <T> T extractClaim(String token, Function<Claims, T> claimsResolver) {
-        final Claims claims = extractAllClaims(token);
-        return claimsResolver.apply(claims);
-    }
-    
-    /**
-     * Extracts all claims from a token.
-     * 
-     * @param token the token
-     * @return the claims
-     */
-    private Claims extractAllClaims(String token) {
-        Key key = Keys.hmacShaKeyFor(SECRET_KEY.getBytes(StandardCharsets.UTF_8));
-        return Jwts.parserBuilder()
-                .setSigningKey(key)
-                .build()
-                .parseClaimsJws(token)
-                .getBody();
-    }
-    
-    /**
-     * Checks if a token is expired.
-     * 
-     * @param token the token
-     * @return true if the token is expired, false otherwise
-     */
-    private Boolean isTokenExpired(String token) {
-        return extractExpiration(token).before(new Date());
+        return claimsResolver.apply(Jwts.claims(parse(token).all()));
     }
     
     /**
@@ -120,7 +85,17 @@ public class JwtUtil {
      * @return true if the token is valid, false otherwise
      */
     public Boolean validateToken(String token, UserDTO userDetails) {
-        final String username = extractUsername(token);
-        return (username.equals(userDetails.getEmail()) && !isTokenExpired(token));
+        return tokenService.validate(token, userDetails);
+    }
+
+    /**
+     * Parses a token.
+     *
+     * @param token the token
+     * @return the claims
+     * @throws JwtException if the token is invalid or expired
+     */
+    private TokenClaims parse(String token) {
+        return tokenService.parse(token).orElseThrow(() -> new JwtException("Token inválido ou expirado"));
     }
-}
\ No newline at end of file
+}
@@ -30,8 +30,9 @@ import javafx.scene.Scene;
 import javafx.scene.paint.Color;
 import javafx.stage.Stage;
 import javafx.stage.StageStyle;
-import org.jala.university.application.service.impl.CronService;
-import org.jala.university.infrastructure.utils.DatabaseEventInitializer;
+import org.jala.university.application.service.impl.LedgerReconciliationJob;
+import org.jala.university.application.service.impl.PendingTransferScheduler;
+import org.jala.university.infrastructure.purge.PurgeService;
 import org.jala.university.presentation.util.ViewSwitcher;
 
 import java.util.Calendar;
@@ -45,9 +46,6 @@ public class LoginApplication extends Application {
 
     @Override
     public final void start(Stage primaryStage) throws Exception {
-        // Inicializar o evento de limpeza de códigos expirados
-        DatabaseEventInitializer.initializeCleanupEvent();
-
         // Carrega o arquivo FXML
         FXMLLoader loader = new FXMLLoader(getClass().getResource("/fxml/login-view.fxml"));
         Parent root = loader.load();
@@ -71,7 +69,12 @@ public class LoginApplication extends Application {
     public static void main(String[] args) {
 
         Timer timer = new Timer();
-        CronService cronService = new CronService();
+        // Transferências agendadas rodam em segundo plano, com recuperação das janelas perdidas
+        PendingTransferScheduler scheduler = PendingTransferScheduler.isEnabled()
+                ? PendingTransferScheduler.fromProperties()
+                : null;
+        // Códigos expirados e transações obsoletas são removidos em lotes, sem evento no banco
+        PurgeService purgeService = PurgeService.isEnabled() ? PurgeService.fromProperties() : null;
 
         Calendar calendar = Calendar.getInstance();
         calendar.set(Calendar.HOUR_OF_DAY, 0);
@@ -87,16 +90,29 @@ public class LoginApplication extends Application {
         long delay = calendar.getTimeInMillis() - System.currentTimeMillis();
 
         try {
-            timer.scheduleAtFixedRate(cronService, delay, 24 * 60 * 60 * 1000);
+            if (scheduler != null) {
+                scheduler.start();
+            }
+            if (purgeService != null) {
+                purgeService.start();
+            }
+            // Reconcile the ledger every night at 1 AM
+            timer.scheduleAtFixedRate(new LedgerReconciliationJob(), delay + 60 * 60 * 1000, 24 * 60 * 60 * 1000);
             launch(args);
         } catch (Exception e) {
-            System.out.println("Error scheduling cron service" + e);
+            System.out.println("Error scheduling background jobs" + e);
             System.exit(1);
         }
 
         // Cleanup hook
         Runtime.getRuntime().addShutdownHook(new Thread(() -> {
             timer.cancel();
+            if (scheduler != null) {
+                scheduler.stop();
+            }
+            if (purgeService != null) {
+                purgeService.stop();
+            }
             System.out.println("Timer cancelled on shutdown");
         }));
     }
@@ -8,17 +8,14 @@ import javafx.scene.control.TableCell;
 import javafx.scene.control.TableColumn;
 import javafx.scene.control.TableView;
 import javafx.scene.control.cell.PropertyValueFactory;
+import org.jala.university.application.dto.AccountSummaryDTO;
 import org.jala.university.application.dto.TransactionHistoryDTO;
 import org.jala.university.application.dto.UserDTO;
-import org.jala.university.application.service.TransactionHistoryService;
-import org.jala.university.application.service.impl.TransactionHistoryServiceImpl;
-import org.jala.university.application.service.implementations.AccountServiceImpl;
+import org.jala.university.application.service.AccountSummaryService;
+import org.jala.university.application.service.impl.AccountSummaryServiceImpl;
 import org.jala.university.application.service.implementations.UserServiceImpl;
-import org.jala.university.application.service.interfaces.AccountService;
 import org.jala.university.application.service.interfaces.UserService;
 import org.jala.university.domain.entity.enums.TransactionStatus;
-import org.jala.university.domain.repository.TransactionRepository;
-import org.jala.university.infrastructure.persistence.TransactionRepositoryImpl;
 import org.jala.university.infrastructure.utils.SessionManager;
 import org.jala.university.presentation.util.CurrencyFormatter;
 import org.jala.university.presentation.util.DateTimeFormatter;
@@ -52,15 +49,12 @@ public class DashboardController {
     @FXML
     private TableColumn<TransactionHistoryDTO, TransactionStatus> statusColumn;
 
-    private final TransactionHistoryService transactionHistoryService;
-    private final AccountService accountService;
+    private final AccountSummaryService accountSummaryService;
     private final UserService userService;
     private final ObservableList<TransactionHistoryDTO> recentTransactions = FXCollections.observableArrayList();
 
     public DashboardController() {
-        TransactionRepository transactionRepository = new TransactionRepositoryImpl();
-        this.transactionHistoryService = new TransactionHistoryServiceImpl(transactionRepository);
-        this.accountService = new AccountServiceImpl();
+        this.accountSummaryService = new AccountSummaryServiceImpl();
         this.userService = new UserServiceImpl();
     }
 
@@ -102,10 +96,10 @@ public class DashboardController {
 
     private void loadDashboardData(Long accountId) {
         try {
-            BigDecimal balance = accountService.getAccountBalance(accountId);
-            balanceLabel.setText("R$ " + balance.toString());
-            List<TransactionHistoryDTO> transactions = transactionHistoryService.getAccountTransactionHistory(accountId);
-            transactionCountLabel.setText(String.valueOf(transactions.size()));
+            AccountSummaryDTO summary = accountSummaryService.getAccountSummary(accountId);
+            balanceLabel.setText("R$ " + summary.getBalance().toString());
+            transactionCountLabel.setText(String.valueOf(summary.getTransactionCount()));
+            List<TransactionHistoryDTO> transactions = summary.getRecentTransactions();
             recentTransactions.clear();
             int count = Math.min(transactions.size(), MAX_RECENT_TRANSACTIONS);
             if (count > 0) {
@@ -12,6 +12,7 @@ import org.jala.university.application.service.AuthenticationService;
 import org.jala.university.application.service.SignupService;
 import org.jala.university.application.service.impl.AuthenticationServiceImpl;
 import org.jala.university.application.service.impl.SignupServiceImpl;
+import org.jala.university.infrastructure.security.LoginThrottledException;
 import org.jala.university.presentation.util.ViewSwitcher;
 import org.jala.university.presentation.views.TransactionView;
 
@@ -102,6 +103,8 @@ public class LoginController {
                 // Autenticação bem-sucedida, redirecionar para o dashboard
                 ViewSwitcher.switchTo(TransactionView.DASHBOARD);
             }
+        } catch (LoginThrottledException e) {
+            showError(e.getMessage());
         } catch (Exception e) {
             showError("Credenciais inválidas. Tente novamente.");
         }
@@ -1,11 +1,13 @@
 package org.jala.university.presentation.controller;
 
+import javafx.application.Platform;
 import javafx.collections.FXCollections;
 import javafx.collections.ObservableList;
 import javafx.fxml.FXML;
 import javafx.scene.control.*;
 import javafx.scene.control.cell.PropertyValueFactory;
 import javafx.stage.FileChooser;
+import org.jala.university.application.dto.StatementAccount;
 import org.jala.university.application.dto.TransactionHistoryDTO;
 import org.jala.university.application.service.TransactionHistoryService;
 import org.jala.university.application.service.impl.TransactionHistoryServiceImpl;
@@ -15,6 +17,9 @@ import org.jala.university.infrastructure.persistence.TransactionRepositoryImpl;
 import org.jala.university.infrastructure.utils.SessionManager;
 import org.jala.university.presentation.util.PDFExporter;
 import org.jala.university.presentation.util.CSVExporter;
+import org.jala.university.presentation.util.ExportJob;
+import org.jala.university.presentation.util.ExportJobService;
+import org.jala.university.presentation.util.StatementSource;
 import org.jala.university.presentation.util.ViewSwitcher;
 import org.jala.university.presentation.views.TransactionView;
 
@@ -24,6 +29,7 @@ import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.time.LocalTime;
 import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.stream.Collectors;
 
@@ -39,9 +45,18 @@ public class StatementController {
     @FXML private TableColumn<TransactionHistoryDTO, BigDecimal> amountColumn;
     @FXML private Button exportCsvButton;
     @FXML private Button exportPdfButton;
+    @FXML private ProgressBar exportProgressBar;
+    @FXML private Label exportStatusLabel;
+    @FXML private Button cancelExportButton;
 
     private final TransactionHistoryService transactionHistoryService;
     private final ObservableList<TransactionHistoryDTO> filteredTransactions = FXCollections.observableArrayList();
+    // Period shown in the table; null for the whole history
+    private LocalDate shownStartDate;
+    private LocalDate shownEndDate;
+    private final ExportJobService exportJobService = ExportJobService.getInstance();
+    // Exports started from this view, touched only on the application thread
+    private final List<ExportJob> exportJobs = new ArrayList<>();
 
     public StatementController() {
         TransactionRepository repo = new TransactionRepositoryImpl();
@@ -143,6 +158,8 @@ public class StatementController {
                 .collect(Collectors.toList());
         
         filteredTransactions.setAll(completedTransactions);
+        shownStartDate = null;
+        shownEndDate = null;
         
         if (completedTransactions.isEmpty()) {
             showAlert("Nenhuma transação concluída encontrada.");
@@ -182,6 +199,8 @@ public class StatementController {
                 .collect(Collectors.toList());
                 
         filteredTransactions.setAll(completedTransactions);
+        shownStartDate = start;
+        shownEndDate = end;
 
         if (completedTransactions.isEmpty()) {
             showAlert("Nenhuma transação concluída encontrada para o período selecionado.");
@@ -199,8 +218,14 @@ public class StatementController {
         fileChooser.setInitialFileName(defaultFileName);
         
         File file = fileChooser.showSaveDialog(statementTable.getScene().getWindow());
-        if (file != null) {
-            CSVExporter.exportToCsv(filteredTransactions, file);
+        Long accountId = SessionManager.getCurrentAccountId();
+        if (file != null && accountId != null) {
+            // Stream the statement from the database instead of the rows held by the table
+            StatementAccount account = StatementAccount.of(accountId, SessionManager.getCurrentUser());
+            StatementSource source = StatementSource.of(transactionHistoryService, accountId,
+                    shownStartDate, shownEndDate);
+            queueExport(file, (out, progress) -> CSVExporter.exportToCsv(account, source,
+                    CSVExporter.SummaryPosition.HEADER, out, progress));
         }
     }
 
@@ -215,9 +240,83 @@ public class StatementController {
         fileChooser.setInitialFileName(defaultFileName);
         
         File file = fileChooser.showSaveDialog(statementTable.getScene().getWindow());
-        if (file != null) {
-            PDFExporter.exportToPdf(filteredTransactions, file);
+        Long accountId = SessionManager.getCurrentAccountId();
+        if (file != null && accountId != null) {
+            StatementAccount account = StatementAccount.of(accountId, SessionManager.getCurrentUser());
+            StatementSource source = StatementSource.of(transactionHistoryService, accountId,
+                    shownStartDate, shownEndDate);
+            queueExport(file, (out, progress) -> PDFExporter.exportToPdf(account, source, out, progress));
+        }
+    }
+
+    @FXML
+    private void handleCancelExport() {
+        exportJobs.forEach(ExportJob::cancel);
+    }
+
+    /**
+     * Queues an export in the background; its progress is shown below the table.
+     */
+    private void queueExport(File file, ExportJobService.ExportTask task) {
+        ExportJob queued;
+        try {
+            queued = exportJobService.submit(file, task, new ExportJobService.Listener() {
+                @Override
+                public void onProgress(ExportJob job) {
+                    Platform.runLater(StatementController.this::updateExportStatus);
+                }
+
+                @Override
+                public void onFinished(ExportJob job) {
+                    Platform.runLater(() -> exportFinished(job));
+                }
+            });
+        } catch (IllegalStateException e) {
+            showAlert(e.getMessage());
+            return;
+        }
+        exportJobs.add(queued);
+        updateExportStatus();
+    }
+
+    private void exportFinished(ExportJob job) {
+        exportJobs.remove(job);
+        updateExportStatus();
+        switch (job.getState()) {
+            case COMPLETED -> exportStatusLabel.setText("Extrato salvo em " + job.getTarget().getName());
+            case CANCELLED -> exportStatusLabel.setText("Exportação cancelada.");
+            case FAILED -> {
+                exportStatusLabel.setText("");
+                showAlert("Erro ao exportar o extrato: " + job.getFailure().getMessage());
+            }
+            default -> {
+            }
+        }
+    }
+
+    /**
+     * Shows the combined progress of the exports still running.
+     */
+    private void updateExportStatus() {
+        boolean active = !exportJobs.isEmpty();
+        exportProgressBar.setVisible(active);
+        cancelExportButton.setVisible(active);
+        if (!active) {
+            return;
+        }
+
+        double progress = 0;
+        long rowsWritten = 0;
+        for (ExportJob job : exportJobs) {
+            rowsWritten += job.getRowsWritten();
+            if (progress >= 0) {
+                progress = job.getProgress() < 0 ? -1 : progress + job.getProgress() / exportJobs.size();
+            }
         }
+        exportProgressBar.setProgress(progress < 0 ? ProgressBar.INDETERMINATE_PROGRESS : progress);
+        exportStatusLabel.setText(exportJobs.size() == 1
+                ? "Exportando " + exportJobs.get(0).getTarget().getName() + ": " + rowsWritten + " transações"
+                : exportJobs.size() + " exportações em andamento: " + rowsWritten + " transações");
     }
     
     /**
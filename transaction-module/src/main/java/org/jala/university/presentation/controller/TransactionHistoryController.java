@@ -6,6 +6,7 @@ import javafx.fxml.FXML;
 import javafx.scene.control.*;
 import javafx.scene.control.cell.PropertyValueFactory;
 import org.jala.university.application.dto.TransactionHistoryDTO;
+import org.jala.university.application.dto.TransactionHistoryPage;
 import org.jala.university.application.service.TransactionHistoryService;
 import org.jala.university.application.service.impl.TransactionHistoryServiceImpl;
 import org.jala.university.domain.entity.enums.TransactionStatus;
@@ -20,9 +21,12 @@ import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.util.Arrays;
 import java.util.List;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 
 public class TransactionHistoryController {
+    private static final int PAGE_SIZE = 50;
+
     @FXML
     private TableView<TransactionHistoryDTO> transactionTable;
     @FXML
@@ -37,9 +41,14 @@ public class TransactionHistoryController {
     private Button filterButton;
     @FXML
     private Button clearFilterButton;
+    @FXML
+    private Button loadMoreButton;
 
     private final ObservableList<TransactionHistoryDTO> transactionList = FXCollections.observableArrayList();
     private final TransactionHistoryService transactionHistoryService;
+    // Carrega uma página da consulta atual a partir do token de continuação
+    private Function<String, TransactionHistoryPage> pageLoader;
+    private String nextPageToken;
 
     public TransactionHistoryController() {
         // Inicialização do serviço com o novo repositório
@@ -197,12 +206,11 @@ public class TransactionHistoryController {
             Long accountId = SessionManager.getCurrentAccountId();
             if (accountId != null) {
                 // Carregar apenas transações reais
-                List<TransactionHistoryDTO> transactions = transactionHistoryService.getAccountTransactionHistory(accountId);
+                pageLoader = token -> transactionHistoryService.getAccountTransactionHistoryPage(
+                        accountId, PAGE_SIZE, token);
 
-                if (transactions.isEmpty()) {
+                if (!loadFirstPage()) {
                     showMessage("Informação", "Nenhuma transação encontrada para esta conta.");
-                } else {
-                    transactionList.addAll(transactions);
                 }
             } else {
                 showMessage("Erro", "Nenhuma conta selecionada");
@@ -226,23 +234,19 @@ public class TransactionHistoryController {
             LocalDate endDate = endDatePicker.getValue();
             String selectedStatus = statusFilterComboBox.getValue();
 
-            List<TransactionHistoryDTO> filteredTransactions;
-
             // Aplicar filtros apenas em dados reais
             if ("TODOS".equals(selectedStatus)) {
-                filteredTransactions = transactionHistoryService.getAccountTransactionHistory(
-                        accountId, startDate, endDate
+                pageLoader = token -> transactionHistoryService.getAccountTransactionHistoryPage(
+                        accountId, startDate, endDate, PAGE_SIZE, token
                 );
             } else {
                 String statusCode = mapDisplayStatusToEnum(selectedStatus);
-                filteredTransactions = transactionHistoryService.getAccountTransactionHistoryByDateRangeAndStatus(
-                        accountId, startDate, endDate, statusCode
+                pageLoader = token -> transactionHistoryService.getAccountTransactionHistoryPageByDateRangeAndStatus(
+                        accountId, startDate, endDate, statusCode, PAGE_SIZE, token
                 );
             }
 
-            transactionList.addAll(filteredTransactions);
-
-            if (filteredTransactions.isEmpty()) {
+            if (!loadFirstPage()) {
                 showMessage("Informação", "Nenhuma transação encontrada com os filtros aplicados.");
             }
         } catch (Exception e) {
@@ -251,6 +255,37 @@ public class TransactionHistoryController {
         }
     }
 
+    /**
+     * Loads the first page of the current query into the table.
+     *
+     * @return true if the page has any transaction
+     */
+    private boolean loadFirstPage() {
+        nextPageToken = null;
+        return appendPage(pageLoader.apply(null));
+    }
+
+    @FXML
+    private void handleLoadMore() {
+        if (pageLoader == null || nextPageToken == null) {
+            return;
+        }
+        try {
+            appendPage(pageLoader.apply(nextPageToken));
+        } catch (Exception e) {
+            showMessage("Erro", "Falha ao carregar mais transações: " + e.getMessage());
+            e.printStackTrace();
+        }
+    }
+
+    private boolean appendPage(TransactionHistoryPage page) {
+        transactionList.addAll(page.getItems());
+        nextPageToken = page.getNextPageToken();
+        loadMoreButton.setVisible(page.hasNext());
+        loadMoreButton.setManaged(page.hasNext());
+        return !page.getItems().isEmpty();
+    }
+
     private String mapDisplayStatusToEnum(String displayStatus) {
         return switch (displayStatus) {
             case "Pendente" -> "PENDING";
@@ -8,6 +8,7 @@ import javafx.scene.shape.Circle;
 import javafx.stage.Stage;
 import javafx.util.StringConverter;
 import org.jala.university.application.dto.AccountDTO;
+import org.jala.university.application.dto.AccountLookup;
 import org.jala.university.application.dto.BeneficiaryDTO;
 import org.jala.university.application.dto.TransactionDTO;
 import org.jala.university.application.dto.UserDTO;
@@ -31,6 +32,7 @@ import org.jala.university.infrastructure.persistence.AccountBeneficiaryReposito
 import org.jala.university.infrastructure.persistence.AccountRepositoryImp;
 import org.jala.university.infrastructure.persistence.BeneficiaryRepositoryImp;
 import org.jala.university.infrastructure.utils.SessionManager;
+import org.jala.university.presentation.util.SubmissionKeys;
 import org.jala.university.presentation.util.ViewSwitcher;
 import org.jala.university.presentation.views.TransactionView;
 import org.apache.logging.log4j.LogManager;
@@ -93,6 +95,11 @@ public class TransferController {
     private Label userNameLabel;
 
     private AccountDTO selectedSourceAccount;
+
+    /**
+     * Idempotency keys of this form: a resubmission of the unchanged form reuses its key.
+     */
+    private final SubmissionKeys submissionKeys = new SubmissionKeys();
     private final NumberFormat currencyFormat = NumberFormat.getCurrencyInstance(Locale.US);
     private final AccountService accountService;
     private final BeneficiaryUseCases beneficiaryUseCases;
@@ -233,6 +240,13 @@ public class TransferController {
         // Configurar o DatePicker
         configureDatePicker();
 
+        // Uma edição do formulário inicia uma nova transferência
+        sourceAccountCombo.valueProperty().addListener((obs, oldVal, newVal) -> submissionKeys.reset());
+        destinationAccountCombo.valueProperty().addListener((obs, oldVal, newVal) -> submissionKeys.reset());
+        amountField.textProperty().addListener((obs, oldValue, newValue) -> submissionKeys.reset());
+        descriptionField.textProperty().addListener((obs, oldValue, newValue) -> submissionKeys.reset());
+        scheduleDatePicker.valueProperty().addListener((obs, oldVal, newVal) -> submissionKeys.reset());
+
         // Adicionar texto de exemplo na descrição
         descriptionField.setText("PopCorn and Ice Cream Sinners.");
     }
@@ -357,14 +371,24 @@ public class TransferController {
 
         Long currentAccountId = SessionManager.getCurrentAccountId();
         AccountDTO sourceAccount = this.accountService.getAccountById(currentAccountId);
-        AccountDTO destinationAccount = this.accountService
-                .getAccountByAccountNumber(destination.getAccountNumber());
+        AccountLookup destinationLookup = this.accountService.resolveAccountNumber(destination.getAccountNumber());
+        if (destinationLookup == null) {
+            showError("Conta de destino não encontrada.");
+            return;
+        }
+        AccountDTO destinationAccount = this.accountService.getAccountById(destinationLookup.getAccountId());
 
         // Simular a transferência (chama um serviço)
         boolean success = performTransfer(sourceAccount, destinationAccount, amount, description);
+        if (success) {
+            // Só uma submissão confirmada libera o formulário para uma nova transferência
+            submissionKeys.reset();
+        }
         if (scheduleDate != null && scheduleDate.isAfter(LocalDate.now())) {
-            // Simular o agendamento da transferência
-            showScheduleConfirmationDialog(sourceAccount, destinationAccount, amount, scheduleDate, description);
+            if (success) {
+                // Simular o agendamento da transferência
+                showScheduleConfirmationDialog(sourceAccount, destinationAccount, amount, scheduleDate, description);
+            }
         } else {
             if (success) {
                 // Mostrar confirmação
@@ -472,6 +496,8 @@ public class TransferController {
                     .amount(BigDecimal.valueOf(amount))
                     .description(description)
                     .transactionSchedule(scheduleDate != null ? scheduleDate : LocalDate.now())
+                    .idempotencyKey(submissionKeys.keyOf(source.getAccountNumber(), destination.getAccountNumber(),
+                            BigDecimal.valueOf(amount), description, scheduleDate))
                     .build();
 
             this.transactionsService.save(transaction);
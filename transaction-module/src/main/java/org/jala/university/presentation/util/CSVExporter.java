@@ -1,14 +1,21 @@
 package org.jala.university.presentation.util;
 
+import org.jala.university.application.dto.StatementAccount;
+import org.jala.university.application.dto.StatementTotals;
 import org.jala.university.application.dto.TransactionHistoryDTO;
-import org.jala.university.application.dto.UserDTO;
-import org.jala.university.domain.entity.enums.TransactionStatus;
 import org.jala.university.infrastructure.utils.SessionManager;
 
+import java.io.BufferedWriter;
 import java.io.File;
-import java.io.FileWriter;
+import java.io.FileOutputStream;
 import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
 import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.nio.charset.StandardCharsets;
 import java.time.LocalDateTime;
 import java.time.format.DateTimeFormatter;
 import java.util.List;
@@ -16,119 +23,192 @@ import java.util.List;
 /**
  * Classe responsável por exportar transações para um arquivo CSV.
  * Inclui cabeçalho com informações do banco e da conta, além de resumo financeiro.
+ * <p>
+ * As linhas são lidas de um {@link StatementSource} e escritas uma a uma num escritor
+ * bufferizado, então o uso de memória não depende do tamanho do extrato. O resumo pode vir
+ * antes das linhas, calculado com consultas agregadas, ou depois delas, acumulado na mesma
+ * passagem.
  */
 public class CSVExporter {
 
+    /**
+     * Onde o resumo financeiro é escrito.
+     */
+    public enum SummaryPosition {
+        /**
+         * Antes das transações; os totais são lidos antes, com {@link StatementSource#totals()}.
+         */
+        HEADER,
+        /**
+         * Depois das transações; os totais são acumulados enquanto elas são escritas.
+         */
+        TRAILER
+    }
+
+    private static final int BUFFER_SIZE = 64 * 1024;
+    private static final int ROWS_PER_PROGRESS = 1_000;
+    private static final DateTimeFormatter DATE_TIME_FORMATTER = DateTimeFormatter.ofPattern("dd/MM/yyyy HH:mm");
+    private static final DateTimeFormatter PERIOD_FORMATTER = DateTimeFormatter.ofPattern("dd/MM/yyyy");
+
     /**
      * Exporta uma lista de transações para um arquivo CSV formatado.
-     * 
+     *
      * @param transactions Lista de transações a serem exportadas
      * @param file Arquivo de destino
      */
     public static void exportToCsv(List<TransactionHistoryDTO> transactions, File file) {
-        try (FileWriter writer = new FileWriter(file)) {
-            DateTimeFormatter dateFormatter = DateTimeFormatter.ofPattern("dd/MM/yyyy HH:mm");
-            
-            // Adicionar cabeçalho com informações do banco
-            writer.append("BANCO DIGITAL S.A.\n");
-            writer.append("CNPJ: 00.000.000/0001-00\n");
-            writer.append("www.bancodigital.com.br\n");
-            writer.append("Central de Atendimento: 0800 123 4567\n\n");
-            
-            // Adicionar informações da conta
-            UserDTO currentUser = SessionManager.getCurrentUser();
-            Long accountId = SessionManager.getCurrentAccountId();
-            
-            writer.append("EXTRATO DE TRANSAÇÕES\n\n");
-            
-            if (currentUser != null) {
-                writer.append("Cliente: ").append(currentUser.getName()).append("\n");
-                writer.append("CPF: ").append(formatCpf(currentUser.getCpf())).append("\n");
-            } else {
-                writer.append("Cliente: Informação não disponível\n");
-            }
-            
-            writer.append("Conta: ").append(accountId != null ? accountId.toString() : "N/A").append("\n");
-            writer.append("Tipo: Conta Corrente\n\n");
-            
-            // Adicionar período do extrato
-            if (!transactions.isEmpty()) {
-                LocalDateTime firstDate = transactions.stream()
-                        .map(TransactionHistoryDTO::getDate)
-                        .min(LocalDateTime::compareTo)
-                        .orElse(LocalDateTime.now());
-                
-                LocalDateTime lastDate = transactions.stream()
-                        .map(TransactionHistoryDTO::getDate)
-                        .max(LocalDateTime::compareTo)
-                        .orElse(LocalDateTime.now());
-                
-                DateTimeFormatter periodFormatter = DateTimeFormatter.ofPattern("dd/MM/yyyy");
-                writer.append("Período: ")
-                      .append(firstDate.format(periodFormatter))
-                      .append(" a ")
-                      .append(lastDate.format(periodFormatter))
-                      .append("\n\n");
-            }
-            
-            // Adicionar resumo financeiro
-            BigDecimal totalCredits = BigDecimal.ZERO;
-            BigDecimal totalDebits = BigDecimal.ZERO;
-            
-            for (TransactionHistoryDTO tx : transactions) {
-                if (tx.getStatus() == TransactionStatus.COMPLETED) {
-                    if (tx.isDebit()) {
-                        totalDebits = totalDebits.add(tx.getAmount());
-                    } else {
-                        totalCredits = totalCredits.add(tx.getAmount());
-                    }
-                }
-            }
-            
-            BigDecimal balance = totalCredits.subtract(totalDebits);
-            
-            writer.append("RESUMO FINANCEIRO\n");
-            writer.append("Créditos: R$ ").append(String.format("%.2f", totalCredits)).append("\n");
-            writer.append("Débitos: R$ ").append(String.format("%.2f", totalDebits)).append("\n");
-            writer.append("Saldo: R$ ").append(String.format("%.2f", balance)).append("\n\n");
-            
+        StatementAccount account = StatementAccount.of(SessionManager.getCurrentAccountId(),
+                SessionManager.getCurrentUser());
+        try (OutputStream out = new FileOutputStream(file)) {
+            exportToCsv(account, StatementSource.of(transactions), SummaryPosition.HEADER, out,
+                    ExportProgressListener.NONE);
+        } catch (IOException e) {
+            e.printStackTrace(); // Em caso de erro
+        }
+    }
+
+    /**
+     * Exporta as transações de um extrato para um fluxo, em UTF-8, informando o progresso a
+     * cada {@value #ROWS_PER_PROGRESS} linhas.
+     *
+     * @param account a conta e o titular impressos no cabeçalho
+     * @param source as transações do extrato
+     * @param summaryPosition onde escrever o resumo financeiro
+     * @param out o fluxo de destino, que não é fechado
+     * @param progress recebe o progresso; o total só é conhecido com o resumo no cabeçalho
+     * @throws IOException se a escrita falhar
+     */
+    public static void exportToCsv(StatementAccount account, StatementSource source, SummaryPosition summaryPosition,
+                                   OutputStream out, ExportProgressListener progress) throws IOException {
+        Writer writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8), BUFFER_SIZE);
+
+        // Adicionar cabeçalho com informações do banco
+        writer.write("BANCO DIGITAL S.A.\n");
+        writer.write("CNPJ: 00.000.000/0001-00\n");
+        writer.write("www.bancodigital.com.br\n");
+        writer.write("Central de Atendimento: 0800 123 4567\n\n");
+
+        // Adicionar informações da conta
+        writer.write("EXTRATO DE TRANSAÇÕES\n\n");
+
+        if (account.getHolderName() != null) {
+            writer.append("Cliente: ").append(account.getHolderName()).append("\n");
+            writer.append("CPF: ").append(formatCpf(account.getHolderCpf())).append("\n");
+        } else {
+            writer.write("Cliente: Informação não disponível\n");
+        }
+
+        writer.append("Conta: ").append(account.getAccountLabel()).append("\n");
+        writer.append("Tipo: ").append(account.getAccountTypeName()).append("\n\n");
+
+        if (summaryPosition == SummaryPosition.HEADER) {
+            StatementTotals totals = source.totals();
+            writeSummary(writer, totals);
             // Verificar se há transações concluídas
-            if (transactions.stream().noneMatch(tx -> tx.getStatus() == TransactionStatus.COMPLETED)) {
-                writer.append("Não há transações concluídas no período selecionado.\n\n");
+            if (totals.getCount() == 0) {
+                writer.write("Não há transações concluídas no período selecionado.\n\n");
+                writer.flush();
+                progress.onProgress(0, 0);
                 return;
             }
-            
-            // Cabeçalho da tabela de transações
-            writer.append("DETALHAMENTO DE TRANSAÇÕES\n");
-            writer.append("Data,Descrição,Destinatário/Origem,Tipo,Valor\n");
-            
-            // Adicionar as transações no arquivo
-            for (TransactionHistoryDTO tx : transactions) {
-                // Garantir que apenas transações COMPLETED sejam exportadas
-                if (tx.getStatus() == TransactionStatus.COMPLETED) {
-                    String tipo = tx.isDebit() ? "Débito" : "Crédito";
-                    writer.append(String.format("%s,\"%s\",\"%s\",%s,R$ %.2f\n",
-                            tx.getDate().format(dateFormatter),
-                            escapeCsvField(tx.getDescription()),
-                            escapeCsvField(tx.getCounterpartyName()),
-                            tipo,
-                            tx.getAmount()));
-                }
+            writeRows(writer, source, null, totals.getCount(), progress);
+        } else {
+            StatementTotals totals = new StatementTotals();
+            writeRows(writer, source, totals, -1, progress);
+            writer.write("\n");
+            if (totals.getCount() == 0) {
+                writer.write("Não há transações concluídas no período selecionado.\n\n");
             }
-            
-            // Adicionar notas e informações legais
-            writer.append("\nNOTAS IMPORTANTES:\n");
-            writer.append("• Este extrato apresenta apenas as transações concluídas com sucesso.\n");
-            writer.append("• Em caso de dúvidas, entre em contato com nossa central de atendimento.\n");
-            writer.append("• Documento emitido eletronicamente em: ")
-                  .append(LocalDateTime.now().format(dateFormatter))
-                  .append("\n");
-            
-        } catch (IOException e) {
-            e.printStackTrace(); // Em caso de erro
+            writeSummary(writer, totals);
+        }
+
+        // Adicionar notas e informações legais
+        writer.write("\nNOTAS IMPORTANTES:\n");
+        writer.write("• Este extrato apresenta apenas as transações concluídas com sucesso.\n");
+        writer.write("• Em caso de dúvidas, entre em contato com nossa central de atendimento.\n");
+        writer.append("• Documento emitido eletronicamente em: ")
+              .append(LocalDateTime.now().format(DATE_TIME_FORMATTER))
+              .append("\n");
+        writer.flush();
+    }
+
+    /**
+     * Escreve o período e o resumo financeiro do extrato.
+     */
+    private static void writeSummary(Writer writer, StatementTotals totals) throws IOException {
+        // Adicionar período do extrato
+        if (totals.getFirstDate() != null && totals.getLastDate() != null) {
+            writer.append("Período: ")
+                  .append(totals.getFirstDate().format(PERIOD_FORMATTER))
+                  .append(" a ")
+                  .append(totals.getLastDate().format(PERIOD_FORMATTER))
+                  .append("\n\n");
+        }
+
+        writer.write("RESUMO FINANCEIRO\n");
+        writer.append("Créditos: R$ ").append(formatAmount(totals.getCredits())).append("\n");
+        writer.append("Débitos: R$ ").append(formatAmount(totals.getDebits())).append("\n");
+        writer.append("Saldo: R$ ").append(formatAmount(totals.getBalance())).append("\n\n");
+    }
+
+    /**
+     * Escreve a tabela de transações, linha a linha.
+     *
+     * @param totals acumula os totais das linhas escritas, ou null
+     * @param totalRows o número de linhas, ou -1 se não for conhecido
+     */
+    private static void writeRows(Writer writer, StatementSource source, StatementTotals totals, long totalRows,
+                                  ExportProgressListener progress) throws IOException {
+        // Cabeçalho da tabela de transações
+        writer.write("DETALHAMENTO DE TRANSAÇÕES\n");
+        writer.write("Data,Descrição,Destinatário/Origem,Tipo,Valor\n");
+
+        long[] rowCount = new long[1];
+        try {
+            source.forEach(tx -> {
+                try {
+                    writeRow(writer, tx);
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+                if (totals != null) {
+                    totals.add(tx);
+                }
+                if (++rowCount[0] % ROWS_PER_PROGRESS == 0) {
+                    progress.onProgress(rowCount[0], totalRows);
+                }
+            });
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
         }
+        // Ao final o total é sempre conhecido
+        progress.onProgress(rowCount[0], rowCount[0]);
     }
-    
+
+    /**
+     * Escreve uma transação, campo a campo, sem montar a linha numa String intermediária.
+     */
+    private static void writeRow(Writer writer, TransactionHistoryDTO tx) throws IOException {
+        DATE_TIME_FORMATTER.formatTo(tx.getDate(), writer);
+        writer.write(",\"");
+        writeEscaped(writer, tx.getDescription());
+        writer.write("\",\"");
+        writeEscaped(writer, tx.getCounterpartyName());
+        writer.write("\",");
+        writer.write(tx.isDebit() ? "Débito" : "Crédito");
+        writer.write(",R$ ");
+        writer.write(formatAmount(tx.getAmount()));
+        writer.write('\n');
+    }
+
+    /**
+     * Formata um valor com duas casas decimais e ponto como separador, que não conflita com
+     * a vírgula que separa as colunas.
+     */
+    private static String formatAmount(BigDecimal amount) {
+        return amount.setScale(2, RoundingMode.HALF_UP).toPlainString();
+    }
+
     /**
      * Formata um CPF com máscara
      */
@@ -136,18 +216,22 @@ public class CSVExporter {
         if (cpf == null || cpf.length() != 11) {
             return cpf;
         }
-        return cpf.substring(0, 3) + "." + cpf.substring(3, 6) + "." + 
+        return cpf.substring(0, 3) + "." + cpf.substring(3, 6) + "." +
                cpf.substring(6, 9) + "-" + cpf.substring(9);
     }
-    
+
     /**
-     * Escapa campos que podem conter vírgulas para evitar problemas no CSV
+     * Escapa campos que podem conter vírgulas para evitar problemas no CSV.
+     * As aspas duplas são substituídas por aspas simples.
      */
-    private static String escapeCsvField(String field) {
+    private static void writeEscaped(Writer writer, String field) throws IOException {
         if (field == null) {
-            return "";
+            return;
+        }
+        int length = field.length();
+        for (int i = 0; i < length; i++) {
+            char c = field.charAt(i);
+            writer.write(c == '"' ? '\'' : c);
         }
-        // Remover aspas duplas e substituir por aspas simples para evitar problemas no CSV
-        return field.replace("\"", "'");
     }
 }
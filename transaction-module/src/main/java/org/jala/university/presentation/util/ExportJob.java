@@ -0,0 +1,140 @@
+package org.jala.university.presentation.util;
+
+import java.io.File;
+import java.util.concurrent.CancellationException;
+
+/**
+ * A statement export queued in the {@link ExportJobService}.
+ * <p>
+ * The state and progress are updated by the worker running the export and can be read from
+ * any thread.
+ */
+public final class ExportJob {
+
+    /**
+     * The life cycle of a job.
+     */
+    public enum State {
+        QUEUED, RUNNING, COMPLETED, FAILED, CANCELLED;
+
+        /**
+         * Checks whether the job has ended.
+         *
+         * @return true for COMPLETED, FAILED and CANCELLED
+         */
+        public boolean isFinished() {
+            return this == COMPLETED || this == FAILED || this == CANCELLED;
+        }
+    }
+
+    private final long id;
+    private final File target;
+    private volatile State state = State.QUEUED;
+    private volatile long rowsWritten;
+    private volatile long totalRows = -1;
+    private volatile Throwable failure;
+    private volatile boolean cancelRequested;
+
+    ExportJob(long id, File target) {
+        this.id = id;
+        this.target = target;
+    }
+
+    public long getId() {
+        return id;
+    }
+
+    /**
+     * Returns the file the statement is written to. It only appears once the export completes.
+     *
+     * @return the target file
+     */
+    public File getTarget() {
+        return target;
+    }
+
+    public State getState() {
+        return state;
+    }
+
+    public long getRowsWritten() {
+        return rowsWritten;
+    }
+
+    /**
+     * Returns the rows of the statement.
+     *
+     * @return the total, or -1 while not known
+     */
+    public long getTotalRows() {
+        return totalRows;
+    }
+
+    /**
+     * Returns the fraction of the rows written so far.
+     *
+     * @return a value between 0 and 1, or -1 while the total is not known
+     */
+    public double getProgress() {
+        long total = totalRows;
+        if (total < 0) {
+            return -1;
+        }
+        return total == 0 ? 1 : Math.min(1.0, (double) rowsWritten / total);
+    }
+
+    /**
+     * Returns why the job failed.
+     *
+     * @return the failure, or null unless the state is FAILED
+     */
+    public Throwable getFailure() {
+        return failure;
+    }
+
+    /**
+     * Cancels the job. A queued job never starts; a running one stops at its next block of
+     * rows and its partial file is deleted.
+     *
+     * @return false if the job had already finished
+     */
+    public boolean cancel() {
+        if (state.isFinished()) {
+            return false;
+        }
+        cancelRequested = true;
+        return true;
+    }
+
+    boolean isCancelRequested() {
+        return cancelRequested;
+    }
+
+    void setState(State state) {
+        this.state = state;
+    }
+
+    void fail(Throwable failure) {
+        this.failure = failure;
+        this.state = State.FAILED;
+    }
+
+    /**
+     * Records the progress reported by the exporter, stopping it if the job was cancelled.
+     */
+    void progress(long rowsWritten, long totalRows) {
+        if (cancelRequested || Thread.currentThread().isInterrupted()) {
+            throw new CancellationException("Exportação cancelada");
+        }
+        this.rowsWritten = rowsWritten;
+        if (totalRows >= 0) {
+            this.totalRows = totalRows;
+        }
+    }
+
+    @Override
+    public String toString() {
+        return "ExportJob{id=" + id + ", target=" + target + ", state=" + state
+                + ", rowsWritten=" + rowsWritten + ", totalRows=" + totalRows + "}";
+    }
+}
@@ -0,0 +1,218 @@
+package org.jala.university.presentation.util;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Runs statement exports in the background, off the JavaFX application thread.
+ * <p>
+ * At most {@code concurrency} exports run at the same time; further ones wait in a bounded
+ * queue, and a submission is refused once the queue is full. Each export writes to a
+ * {@code .part} file next to its target, which is renamed to the target only when the export
+ * completes, so a failed or cancelled export never leaves a truncated statement behind.
+ * <p>
+ * Listeners are called on the worker thread; UI code must hand the update over to the
+ * application thread itself.
+ */
+public final class ExportJobService {
+    private static final Logger LOGGER = Logger.getLogger(ExportJobService.class.getName());
+
+    /**
+     * Default number of exports running at the same time.
+     */
+    public static final int DEFAULT_CONCURRENCY = 2;
+
+    /**
+     * Default number of exports waiting for a worker.
+     */
+    public static final int DEFAULT_QUEUE_CAPACITY = 16;
+
+    private static final String PARTIAL_SUFFIX = ".part";
+
+    /**
+     * Writes one statement.
+     */
+    @FunctionalInterface
+    public interface ExportTask {
+        /**
+         * Writes the statement to a stream, reporting progress as it goes.
+         *
+         * @param out the stream to write to; closed by the service
+         * @param progress must be called after each block of rows, so that a cancelled job stops
+         * @throws Exception if the export fails
+         */
+        void export(OutputStream out, ExportProgressListener progress) throws Exception;
+    }
+
+    /**
+     * Receives the updates of a job, on the worker thread running it.
+     */
+    public interface Listener {
+        /**
+         * Called after each block of rows.
+         *
+         * @param job the job, with its updated progress
+         */
+        default void onProgress(ExportJob job) {
+        }
+
+        /**
+         * Called once the job has completed, failed or been cancelled.
+         *
+         * @param job the job, in its final state
+         */
+        void onFinished(ExportJob job);
+    }
+
+    private final ThreadPoolExecutor executor;
+    private final Map<Long, ExportJob> jobs = new ConcurrentHashMap<>();
+    private final AtomicLong nextId = new AtomicLong();
+
+    /**
+     * Holder for the shared instance used by the views.
+     */
+    private static final class InstanceHolder {
+        private static final ExportJobService INSTANCE =
+                new ExportJobService(DEFAULT_CONCURRENCY, DEFAULT_QUEUE_CAPACITY);
+    }
+
+    /**
+     * Returns the shared service.
+     *
+     * @return the shared instance
+     */
+    public static ExportJobService getInstance() {
+        return InstanceHolder.INSTANCE;
+    }
+
+    /**
+     * Creates a service.
+     *
+     * @param concurrency the number of exports running at the same time
+     * @param queueCapacity the number of exports that may wait for a worker
+     */
+    public ExportJobService(int concurrency, int queueCapacity) {
+        if (concurrency < 1 || queueCapacity < 1) {
+            throw new IllegalArgumentException("Concurrency and queue capacity must be positive");
+        }
+        AtomicInteger threadNumber = new AtomicInteger();
+        this.executor = new ThreadPoolExecutor(concurrency, concurrency, 30, TimeUnit.SECONDS,
+                new ArrayBlockingQueue<>(queueCapacity), runnable -> {
+                    Thread thread = new Thread(runnable, "statement-export-" + threadNumber.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                });
+        // Idle workers are released, so the service costs nothing while no export is running
+        this.executor.allowCoreThreadTimeOut(true);
+    }
+
+    /**
+     * Queues an export.
+     *
+     * @param target the file to write the statement to
+     * @param task writes the statement
+     * @param listener receives the progress and the outcome
+     * @return the queued job
+     * @throws IllegalStateException if the queue is full
+     */
+    public ExportJob submit(File target, ExportTask task, Listener listener) {
+        ExportJob job = new ExportJob(nextId.incrementAndGet(), target);
+        jobs.put(job.getId(), job);
+        try {
+            executor.execute(() -> run(job, task, listener));
+        } catch (RejectedExecutionException e) {
+            jobs.remove(job.getId());
+            throw new IllegalStateException("Há exportações demais em andamento. Tente novamente em instantes.", e);
+        }
+        return job;
+    }
+
+    /**
+     * Returns a job that has not finished yet.
+     *
+     * @param id the job ID
+     * @return the job, or null if it is unknown or has finished
+     */
+    public ExportJob getJob(long id) {
+        return jobs.get(id);
+    }
+
+    /**
+     * Returns the jobs that are queued or running, oldest first.
+     *
+     * @return a snapshot of the active jobs
+     */
+    public List<ExportJob> getActiveJobs() {
+        return jobs.values().stream()
+                .sorted(Comparator.comparingLong(ExportJob::getId))
+                .toList();
+    }
+
+    /**
+     * Cancels every active job and stops the workers.
+     */
+    public void shutdown() {
+        jobs.values().forEach(ExportJob::cancel);
+        executor.shutdown();
+    }
+
+    private void run(ExportJob job, ExportTask task, Listener listener) {
+        Path target = job.getTarget().toPath();
+        Path partial = target.resolveSibling(target.getFileName() + PARTIAL_SUFFIX);
+        try {
+            if (job.isCancelRequested()) {
+                throw new CancellationException();
+            }
+            job.setState(ExportJob.State.RUNNING);
+            try (OutputStream out = Files.newOutputStream(partial)) {
+                task.export(out, (rowsWritten, totalRows) -> {
+                    job.progress(rowsWritten, totalRows);
+                    listener.onProgress(job);
+                });
+            }
+            if (job.isCancelRequested()) {
+                throw new CancellationException();
+            }
+            Files.move(partial, target, StandardCopyOption.REPLACE_EXISTING);
+            job.setState(ExportJob.State.COMPLETED);
+        } catch (Exception e) {
+            if (job.isCancelRequested()) {
+                job.setState(ExportJob.State.CANCELLED);
+            } else {
+                LOGGER.log(Level.SEVERE, "Erro ao exportar o extrato para " + target, e);
+                job.fail(e);
+            }
+        } finally {
+            if (job.getState() != ExportJob.State.COMPLETED) {
+                deletePartial(partial);
+            }
+            jobs.remove(job.getId());
+            listener.onFinished(job);
+        }
+    }
+
+    private static void deletePartial(Path partial) {
+        try {
+            Files.deleteIfExists(partial);
+        } catch (IOException e) {
+            LOGGER.log(Level.WARNING, "Não foi possível remover o arquivo parcial " + partial, e);
+        }
+    }
+}
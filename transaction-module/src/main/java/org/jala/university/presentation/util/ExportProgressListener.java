@@ -0,0 +1,22 @@
+package org.jala.university.presentation.util;
+
+/**
+ * Receives the progress of a statement export.
+ */
+@FunctionalInterface
+public interface ExportProgressListener {
+
+    /**
+     * A listener that ignores the progress.
+     */
+    ExportProgressListener NONE = (rowsWritten, totalRows) -> {
+    };
+
+    /**
+     * Called each time a batch of rows has been written, and once at the end.
+     *
+     * @param rowsWritten the rows written so far
+     * @param totalRows the rows of the statement, or -1 if not known in advance
+     */
+    void onProgress(long rowsWritten, long totalRows);
+}
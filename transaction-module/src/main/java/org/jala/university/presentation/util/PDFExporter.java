@@ -6,21 +6,30 @@ import com.lowagie.text.Font;
 import com.lowagie.text.Image;
 import com.lowagie.text.Rectangle;
 
+import org.jala.university.application.dto.StatementAccount;
+import org.jala.university.application.dto.StatementTotals;
 import org.jala.university.application.dto.TransactionHistoryDTO;
-import org.jala.university.application.dto.UserDTO;
-import org.jala.university.domain.entity.enums.TransactionStatus;
 import org.jala.university.infrastructure.utils.SessionManager;
 
 import java.awt.Color;
+import java.io.BufferedOutputStream;
 import java.io.File;
 import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
 import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.text.DecimalFormat;
 import java.time.LocalDateTime;
 import java.time.format.DateTimeFormatter;
 import java.util.List;
 
 /**
  * Classe responsável por exportar transações para um arquivo PDF estilizado.
+ * <p>
+ * A tabela de transações é montada em modo incompleto: a cada {@value #ROWS_PER_CHUNK} linhas
+ * ela é adicionada ao documento, que diagrama essas linhas, grava as páginas prontas no fluxo
+ * de saída e as descarta da tabela. Assim o uso de memória não depende do tamanho do extrato.
  */
 public class PDFExporter {
 
@@ -43,6 +52,21 @@ public class PDFExporter {
     private static final Font DEBIT_FONT = FontFactory.getFont(FontFactory.HELVETICA_BOLD, 10, DEBIT_COLOR);
     private static final Font CREDIT_FONT = FontFactory.getFont(FontFactory.HELVETICA_BOLD, 10, CREDIT_COLOR);
 
+    // Textos fixos das linhas, reaproveitados em todas elas
+    private static final Phrase DEBIT_PHRASE = new Phrase("Débito", DEBIT_FONT);
+    private static final Phrase CREDIT_PHRASE = new Phrase("Crédito", CREDIT_FONT);
+    private static final Color ODD_ROW_COLOR = new Color(245, 245, 245);
+
+    private static final DateTimeFormatter DATE_TIME_FORMATTER = DateTimeFormatter.ofPattern("dd/MM/yyyy HH:mm");
+    private static final DateTimeFormatter PERIOD_FORMATTER = DateTimeFormatter.ofPattern("dd/MM/yyyy");
+    private static final DateTimeFormatter GENERATED_AT_FORMATTER = DateTimeFormatter.ofPattern("dd/MM/yyyy HH:mm:ss");
+
+    /**
+     * Linhas adicionadas à tabela entre duas descargas no documento.
+     */
+    static final int ROWS_PER_CHUNK = 500;
+    private static final int BUFFER_SIZE = 64 * 1024;
+
     /**
      * Exporta uma lista de transações para um arquivo PDF estilizado.
      * 
@@ -50,100 +74,112 @@ public class PDFExporter {
      * @param file Arquivo de destino
      */
     public static void exportToPdf(List<TransactionHistoryDTO> transactions, File file) {
-        try {
-            // Configurar o documento PDF
-            Document document = new Document(PageSize.A4, 36, 36, 54, 36); // Margens
-            PdfWriter writer = PdfWriter.getInstance(document, new FileOutputStream(file));
-            
-            // Adicionar eventos de página para cabeçalho e rodapé
-            writer.setPageEvent(new PdfPageEventHelper() {
-                public void onEndPage(PdfWriter writer, Document document) {
-                    try {
-                        // Adicionar rodapé
-                        PdfContentByte cb = writer.getDirectContent();
-                        
-                        // Linha separadora
-                        cb.setColorStroke(SECONDARY_COLOR);
-                        cb.setLineWidth(1);
-                        cb.moveTo(document.left(), document.bottom() - 10);
-                        cb.lineTo(document.right(), document.bottom() - 10);
-                        cb.stroke();
-                        
-                        // Texto do rodapé
-                        ColumnText.showTextAligned(cb, Element.ALIGN_CENTER,
-                                new Phrase("Este documento é um extrato digital das transações concluídas. Página " + 
-                                           writer.getPageNumber(), FOOTER_FONT),
-                                (document.left() + document.right()) / 2,
-                                document.bottom() - 20, 0);
-                        
-                        // Data e hora de geração
-                        ColumnText.showTextAligned(cb, Element.ALIGN_RIGHT,
-                                new Phrase("Gerado em: " + 
-                                           LocalDateTime.now().format(DateTimeFormatter.ofPattern("dd/MM/yyyy HH:mm:ss")), FOOTER_FONT),
-                                document.right(),
-                                document.bottom() - 20, 0);
-                    } catch (Exception e) {
-                        e.printStackTrace();
-                    }
-                }
-            });
-            
-            document.open();
-            
-            // Adicionar cabeçalho com informações do banco
-            addBankHeader(document);
-            
-            // Adicionar informações da conta
-            addAccountInfo(document);
-            
-            // Adicionar título do extrato
-            Paragraph title = new Paragraph("EXTRATO DE TRANSAÇÕES", TITLE_FONT);
-            title.setAlignment(Element.ALIGN_CENTER);
-            title.setSpacingBefore(10);
-            title.setSpacingAfter(5);
-            document.add(title);
-            
-            // Adicionar período do extrato
-            if (!transactions.isEmpty()) {
-                LocalDateTime firstDate = transactions.stream()
-                        .map(TransactionHistoryDTO::getDate)
-                        .min(LocalDateTime::compareTo)
-                        .orElse(LocalDateTime.now());
-                
-                LocalDateTime lastDate = transactions.stream()
-                        .map(TransactionHistoryDTO::getDate)
-                        .max(LocalDateTime::compareTo)
-                        .orElse(LocalDateTime.now());
-                
-                DateTimeFormatter dateFormatter = DateTimeFormatter.ofPattern("dd/MM/yyyy");
-                
-                Paragraph period = new Paragraph(
-                        "Período: " + firstDate.format(dateFormatter) + " a " + lastDate.format(dateFormatter),
-                        SUBTITLE_FONT);
-                period.setAlignment(Element.ALIGN_CENTER);
-                period.setSpacingAfter(15);
-                document.add(period);
-            }
-            
-            // Adicionar resumo financeiro
-            addFinancialSummary(document, transactions);
-            
-            // Adicionar tabela de transações
-            addTransactionsTable(document, transactions);
-            
-            // Adicionar notas e informações legais
-            addLegalNotes(document);
-            
-            document.close();
+        StatementAccount account = StatementAccount.of(SessionManager.getCurrentAccountId(),
+                SessionManager.getCurrentUser());
+        try (OutputStream out = new FileOutputStream(file)) {
+            exportToPdf(account, StatementSource.of(transactions), out, ExportProgressListener.NONE);
         } catch (Exception e) {
             e.printStackTrace();
         }
     }
+
+    /**
+     * Exporta as transações de um extrato para um fluxo, como um PDF estilizado.
+     *
+     * @param account a conta e o titular impressos no cabeçalho
+     * @param source as transações do extrato
+     * @param out o fluxo de destino, que não é fechado
+     * @param progress recebe o progresso a cada bloco de linhas
+     * @throws DocumentException se o documento não puder ser montado
+     * @throws IOException se a escrita falhar
+     */
+    public static void exportToPdf(StatementAccount account, StatementSource source, OutputStream out,
+                                   ExportProgressListener progress) throws DocumentException, IOException {
+        // O resumo vem antes da tabela, então os totais são lidos primeiro
+        StatementTotals totals = source.totals();
+
+        BufferedOutputStream buffered = new BufferedOutputStream(out, BUFFER_SIZE);
+        // Configurar o documento PDF
+        Document document = new Document(PageSize.A4, 36, 36, 54, 36); // Margens
+        PdfWriter writer = PdfWriter.getInstance(document, buffered);
+        writer.setCloseStream(false);
+        
+        // Adicionar eventos de página para cabeçalho e rodapé
+        Phrase generatedAt = new Phrase("Gerado em: " + LocalDateTime.now().format(GENERATED_AT_FORMATTER),
+                FOOTER_FONT);
+        writer.setPageEvent(new PdfPageEventHelper() {
+            public void onEndPage(PdfWriter writer, Document document) {
+                try {
+                    // Adicionar rodapé
+                    PdfContentByte cb = writer.getDirectContent();
+                    
+                    // Linha separadora
+                    cb.setColorStroke(SECONDARY_COLOR);
+                    cb.setLineWidth(1);
+                    cb.moveTo(document.left(), document.bottom() - 10);
+                    cb.lineTo(document.right(), document.bottom() - 10);
+                    cb.stroke();
+                    
+                    // Texto do rodapé
+                    ColumnText.showTextAligned(cb, Element.ALIGN_CENTER,
+                            new Phrase("Este documento é um extrato digital das transações concluídas. Página " + 
+                                       writer.getPageNumber(), FOOTER_FONT),
+                            (document.left() + document.right()) / 2,
+                            document.bottom() - 20, 0);
+                    
+                    // Data e hora de geração
+                    ColumnText.showTextAligned(cb, Element.ALIGN_RIGHT, generatedAt,
+                            document.right(),
+                            document.bottom() - 20, 0);
+                } catch (Exception e) {
+                    e.printStackTrace();
+                }
+            }
+        });
+        
+        document.open();
+        
+        // Adicionar cabeçalho com informações do banco
+        addBankHeader(document);
+        
+        // Adicionar informações da conta
+        addAccountInfo(document, account);
+        
+        // Adicionar título do extrato
+        Paragraph title = new Paragraph("EXTRATO DE TRANSAÇÕES", TITLE_FONT);
+        title.setAlignment(Element.ALIGN_CENTER);
+        title.setSpacingBefore(10);
+        title.setSpacingAfter(5);
+        document.add(title);
+        
+        // Adicionar período do extrato
+        if (totals.getFirstDate() != null && totals.getLastDate() != null) {
+            Paragraph period = new Paragraph(
+                    "Período: " + totals.getFirstDate().format(PERIOD_FORMATTER) + " a "
+                            + totals.getLastDate().format(PERIOD_FORMATTER),
+                    SUBTITLE_FONT);
+            period.setAlignment(Element.ALIGN_CENTER);
+            period.setSpacingAfter(15);
+            document.add(period);
+        }
+        
+        // Adicionar resumo financeiro
+        addFinancialSummary(document, totals);
+        
+        // Adicionar tabela de transações
+        addTransactionsTable(document, source, totals.getCount(), progress);
+        
+        // Adicionar notas e informações legais
+        addLegalNotes(document);
+        
+        document.close();
+        buffered.flush();
+    }
     
     /**
      * Adiciona o cabeçalho com informações do banco
      */
-    private static void addBankHeader(Document document) throws Exception {
+    private static void addBankHeader(Document document) throws DocumentException {
         // Criar tabela para o cabeçalho
         PdfPTable headerTable = new PdfPTable(2);
         headerTable.setWidthPercentage(100);
@@ -187,11 +223,7 @@ public class PDFExporter {
     /**
      * Adiciona informações da conta do usuário
      */
-    private static void addAccountInfo(Document document) throws Exception {
-        // Obter informações do usuário atual
-        UserDTO currentUser = SessionManager.getCurrentUser();
-        Long accountId = SessionManager.getCurrentAccountId();
-        
+    private static void addAccountInfo(Document document, StatementAccount account) throws DocumentException {
         // Criar tabela para informações da conta
         PdfPTable accountTable = new PdfPTable(2);
         accountTable.setWidthPercentage(100);
@@ -202,12 +234,12 @@ public class PDFExporter {
         PdfPCell clientCell = new PdfPCell();
         Paragraph clientInfo = new Paragraph();
         
-        if (currentUser != null) {
+        if (account.getHolderName() != null) {
             clientInfo.add(new Chunk("Cliente: ", BOLD_FONT));
-            clientInfo.add(new Chunk(currentUser.getName() + "\n", NORMAL_FONT));
+            clientInfo.add(new Chunk(account.getHolderName() + "\n", NORMAL_FONT));
             
             clientInfo.add(new Chunk("CPF: ", BOLD_FONT));
-            clientInfo.add(new Chunk(formatCpf(currentUser.getCpf()) + "\n", NORMAL_FONT));
+            clientInfo.add(new Chunk(formatCpf(account.getHolderCpf()) + "\n", NORMAL_FONT));
         } else {
             clientInfo.add(new Chunk("Cliente: ", BOLD_FONT));
             clientInfo.add(new Chunk("Informação não disponível\n", NORMAL_FONT));
@@ -222,10 +254,10 @@ public class PDFExporter {
         Paragraph accountInfo = new Paragraph();
         
         accountInfo.add(new Chunk("Conta: ", BOLD_FONT));
-        accountInfo.add(new Chunk(accountId != null ? accountId.toString() : "N/A" + "\n", NORMAL_FONT));
+        accountInfo.add(new Chunk(account.getAccountLabel() + "\n", NORMAL_FONT));
         
         accountInfo.add(new Chunk("Tipo: ", BOLD_FONT));
-        accountInfo.add(new Chunk("Conta Corrente\n", NORMAL_FONT));
+        accountInfo.add(new Chunk(account.getAccountTypeName() + "\n", NORMAL_FONT));
         
         accountCell.addElement(accountInfo);
         accountCell.setHorizontalAlignment(Element.ALIGN_RIGHT);
@@ -238,22 +270,10 @@ public class PDFExporter {
     /**
      * Adiciona um resumo financeiro das transações
      */
-    private static void addFinancialSummary(Document document, List<TransactionHistoryDTO> transactions) throws Exception {
-        // Calcular totais
-        BigDecimal totalCredits = BigDecimal.ZERO;
-        BigDecimal totalDebits = BigDecimal.ZERO;
-        
-        for (TransactionHistoryDTO tx : transactions) {
-            if (tx.getStatus() == TransactionStatus.COMPLETED) {
-                if (tx.isDebit()) {
-                    totalDebits = totalDebits.add(tx.getAmount());
-                } else {
-                    totalCredits = totalCredits.add(tx.getAmount());
-                }
-            }
-        }
-        
-        BigDecimal balance = totalCredits.subtract(totalDebits);
+    private static void addFinancialSummary(Document document, StatementTotals totals) throws DocumentException {
+        BigDecimal totalCredits = totals.getCredits();
+        BigDecimal totalDebits = totals.getDebits();
+        BigDecimal balance = totals.getBalance();
         
         // Criar tabela para o resumo
         PdfPTable summaryTable = new PdfPTable(3);
@@ -305,29 +325,32 @@ public class PDFExporter {
     }
     
     /**
-     * Adiciona a tabela de transações
+     * Adiciona a tabela de transações, em blocos de {@value #ROWS_PER_CHUNK} linhas.
      */
-    private static void addTransactionsTable(Document document, List<TransactionHistoryDTO> transactions) throws Exception {
+    private static void addTransactionsTable(Document document, StatementSource source, long totalRows,
+                                             ExportProgressListener progress) throws DocumentException {
         // Título da seção
         Paragraph tableTitle = new Paragraph("Detalhamento de Transações", SUBTITLE_FONT);
         tableTitle.setSpacingBefore(10);
         tableTitle.setSpacingAfter(10);
         document.add(tableTitle);
         
-        if (transactions.isEmpty() || transactions.stream().noneMatch(tx -> tx.getStatus() == TransactionStatus.COMPLETED)) {
+        if (totalRows == 0) {
             Paragraph noTransactions = new Paragraph("Não há transações concluídas no período selecionado.", NORMAL_FONT);
             noTransactions.setAlignment(Element.ALIGN_CENTER);
             noTransactions.setSpacingBefore(10);
             noTransactions.setSpacingAfter(10);
             document.add(noTransactions);
+            progress.onProgress(0, 0);
             return;
         }
         
-        // Criar a tabela com 5 colunas
+        // Criar a tabela com 5 colunas, em modo incompleto para ser descarregada em blocos
         PdfPTable table = new PdfPTable(5);
         table.setWidthPercentage(100);
         table.setWidths(new float[]{2, 3, 3, 1.5f, 1.5f});
         table.setSpacingAfter(10);
+        table.setComplete(false);
         
         // Estilo para o cabeçalho da tabela
         PdfPCell headerCell = new PdfPCell();
@@ -350,65 +373,96 @@ public class PDFExporter {
         headerCell.setPhrase(new Phrase("Valor", HEADER_FONT));
         table.addCell(headerCell);
         
-        // Formatador de data
-        DateTimeFormatter dateFormatter = DateTimeFormatter.ofPattern("dd/MM/yyyy HH:mm");
-        
-        // Estilo para as células de dados
-        PdfPCell dataCell = new PdfPCell();
-        dataCell.setPadding(5);
-        
-        // Contador para alternar cores das linhas
-        int rowCount = 0;
-        
-        // Adicionar as transações (apenas COMPLETED)
-        for (TransactionHistoryDTO tx : transactions) {
-            if (tx.getStatus() == TransactionStatus.COMPLETED) {
-                // Alternar cores das linhas para melhor legibilidade
-                if (rowCount % 2 == 0) {
-                    dataCell.setBackgroundColor(Color.WHITE);
-                } else {
-                    dataCell.setBackgroundColor(new Color(245, 245, 245));
-                }
-                
-                // Data
-                dataCell.setPhrase(new Phrase(tx.getDate().format(dateFormatter), NORMAL_FONT));
-                table.addCell(dataCell);
-                
-                // Descrição
-                dataCell.setPhrase(new Phrase(tx.getDescription(), NORMAL_FONT));
-                table.addCell(dataCell);
-                
-                // Destinatário/Origem
-                dataCell.setPhrase(new Phrase(tx.getCounterpartyName(), NORMAL_FONT));
-                table.addCell(dataCell);
-                
-                // Tipo (Débito/Crédito)
-                String tipoText = tx.isDebit() ? "Débito" : "Crédito";
-                Font tipoFont = tx.isDebit() ? DEBIT_FONT : CREDIT_FONT;
-                dataCell.setPhrase(new Phrase(tipoText, tipoFont));
-                table.addCell(dataCell);
-                
-                // Valor
-                String valorFormatado = String.format("R$ %.2f", tx.getAmount());
-                Font valorFont = tx.isDebit() ? DEBIT_FONT : CREDIT_FONT;
-                dataCell.setPhrase(new Phrase(valorFormatado, valorFont));
-                dataCell.setHorizontalAlignment(Element.ALIGN_RIGHT);
-                table.addCell(dataCell);
-                
-                // Resetar alinhamento para as próximas células
-                dataCell.setHorizontalAlignment(Element.ALIGN_LEFT);
-                
-                rowCount++;
+        // Adicionar as transações
+        long rows;
+        try {
+            rows = addRows(document, table, source, totalRows, progress);
+        } catch (ExceptionConverter e) {
+            if (e.getException() instanceof DocumentException documentException) {
+                throw documentException;
             }
+            throw e;
         }
         
+        table.setComplete(true);
         document.add(table);
+        progress.onProgress(rows, totalRows);
+    }
+    
+    /**
+     * Adiciona as linhas à tabela, descarregando-a no documento a cada bloco.
+     *
+     * @return o número de linhas adicionadas
+     */
+    private static long addRows(Document document, PdfPTable table, StatementSource source, long totalRows,
+                                ExportProgressListener progress) {
+        // A tabela copia a célula a cada addCell, então as mesmas células servem para todas as linhas
+        PdfPCell evenCell = new PdfPCell();
+        evenCell.setPadding(5);
+        evenCell.setBackgroundColor(Color.WHITE);
+        PdfPCell oddCell = new PdfPCell(evenCell);
+        oddCell.setBackgroundColor(ODD_ROW_COLOR);
+        
+        // Mesmo formato de String.format("%.2f"), sem reinterpretar o padrão a cada linha
+        DecimalFormat amountFormat = new DecimalFormat("0.00");
+        amountFormat.setRoundingMode(RoundingMode.HALF_UP);
+        StringBuilder text = new StringBuilder(32);
+        long[] rowCount = new long[1];
+        
+        source.forEach(tx -> {
+            // Alternar cores das linhas para melhor legibilidade
+            PdfPCell dataCell = rowCount[0] % 2 == 0 ? evenCell : oddCell;
+            Font amountFont = tx.isDebit() ? DEBIT_FONT : CREDIT_FONT;
+            
+            // Data
+            text.setLength(0);
+            DATE_TIME_FORMATTER.formatTo(tx.getDate(), text);
+            dataCell.setPhrase(new Phrase(text.toString(), NORMAL_FONT));
+            table.addCell(dataCell);
+            
+            // Descrição
+            dataCell.setPhrase(new Phrase(tx.getDescription(), NORMAL_FONT));
+            table.addCell(dataCell);
+            
+            // Destinatário/Origem
+            dataCell.setPhrase(new Phrase(tx.getCounterpartyName(), NORMAL_FONT));
+            table.addCell(dataCell);
+            
+            // Tipo (Débito/Crédito)
+            dataCell.setPhrase(tx.isDebit() ? DEBIT_PHRASE : CREDIT_PHRASE);
+            table.addCell(dataCell);
+            
+            // Valor
+            text.setLength(0);
+            text.append("R$ ").append(amountFormat.format(tx.getAmount()));
+            dataCell.setPhrase(new Phrase(text.toString(), amountFont));
+            dataCell.setHorizontalAlignment(Element.ALIGN_RIGHT);
+            table.addCell(dataCell);
+            
+            // Resetar alinhamento para as próximas células
+            dataCell.setHorizontalAlignment(Element.ALIGN_LEFT);
+            
+            // Descarregar o bloco: as linhas são diagramadas e removidas da tabela
+            if (++rowCount[0] % ROWS_PER_CHUNK == 0) {
+                addChunk(document, table);
+                progress.onProgress(rowCount[0], totalRows);
+            }
+        });
+        return rowCount[0];
+    }
+    
+    private static void addChunk(Document document, PdfPTable table) {
+        try {
+            document.add(table);
+        } catch (DocumentException e) {
+            throw new ExceptionConverter(e);
+        }
     }
     
     /**
      * Adiciona notas e informações legais
      */
-    private static void addLegalNotes(Document document) throws Exception {
+    private static void addLegalNotes(Document document) throws DocumentException {
         // Linha separadora
         PdfPTable lineTable = new PdfPTable(1);
         lineTable.setWidthPercentage(100);
@@ -0,0 +1,185 @@
+package org.jala.university.presentation.util;
+
+import com.lowagie.text.Document;
+import com.lowagie.text.DocumentException;
+import com.lowagie.text.Font;
+import com.lowagie.text.PageSize;
+import com.lowagie.text.Paragraph;
+import com.lowagie.text.Rectangle;
+import com.lowagie.text.pdf.BaseFont;
+import com.lowagie.text.pdf.PdfWriter;
+import org.jala.university.application.dto.TransactionDetailsDTO;
+
+import java.awt.Color;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.text.NumberFormat;
+import java.time.format.DateTimeFormatter;
+import java.util.Locale;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipOutputStream;
+
+/**
+ * Renders transfer receipts from a preloaded layout.
+ * <p>
+ * The fonts are resolved once, when the template is created, and the texts, colors and page
+ * size are fixed, so rendering a receipt only builds its paragraphs. A template is immutable
+ * and can render receipts on any number of threads at the same time; the only mutable helper,
+ * the currency format, is kept per thread.
+ * <p>
+ * Receipts can be rendered one per PDF, as the pages of a single PDF, or as the PDF entries of
+ * a ZIP stream.
+ */
+public final class ReceiptTemplate {
+
+    private static final DateTimeFormatter DATE_TIME_FORMATTER = DateTimeFormatter.ofPattern("dd/MM/yyyy HH:mm:ss");
+    private static final ThreadLocal<NumberFormat> CURRENCY_FORMAT =
+            ThreadLocal.withInitial(() -> NumberFormat.getCurrencyInstance(new Locale("pt", "BR")));
+
+    private final Rectangle pageSize;
+    private final String title;
+    private final Font titleFont;
+    private final Font bodyFont;
+
+    /**
+     * Holder for the template of the bank's receipts.
+     */
+    private static final class InstanceHolder {
+        private static final ReceiptTemplate INSTANCE = new ReceiptTemplate(
+                PageSize.A4, "Comprovante de Transação Bancária", Color.BLACK);
+    }
+
+    /**
+     * Returns the template of the bank's receipts.
+     *
+     * @return the shared template
+     */
+    public static ReceiptTemplate getDefault() {
+        return InstanceHolder.INSTANCE;
+    }
+
+    /**
+     * Creates a template, resolving its fonts.
+     *
+     * @param pageSize the page size of each receipt
+     * @param title the title printed at the top of each receipt
+     * @param textColor the color of the text
+     */
+    ReceiptTemplate(Rectangle pageSize, String title, Color textColor) {
+        this.pageSize = pageSize;
+        this.title = title;
+        try {
+            BaseFont regular = BaseFont.createFont(BaseFont.HELVETICA, BaseFont.CP1252, BaseFont.NOT_EMBEDDED);
+            BaseFont bold = BaseFont.createFont(BaseFont.HELVETICA_BOLD, BaseFont.CP1252, BaseFont.NOT_EMBEDDED);
+            this.titleFont = new Font(bold, 18, Font.NORMAL, textColor);
+            this.bodyFont = new Font(regular, 12, Font.NORMAL, textColor);
+        } catch (DocumentException | IOException e) {
+            throw new IllegalStateException("Não foi possível carregar as fontes do comprovante", e);
+        }
+    }
+
+    /**
+     * Renders one receipt as a PDF.
+     *
+     * @param receipt the transaction details
+     * @param out the stream to write to, which is not closed
+     * @throws DocumentException if the document cannot be built
+     */
+    public void render(TransactionDetailsDTO receipt, OutputStream out) throws DocumentException {
+        Document document = open(out);
+        addReceipt(document, receipt);
+        document.close();
+    }
+
+    /**
+     * Renders several receipts as a single PDF, one receipt per page.
+     *
+     * @param receipts the transaction details, in page order
+     * @param out the stream to write to, which is not closed
+     * @return the number of receipts rendered
+     * @throws DocumentException if the document cannot be built
+     */
+    public int renderAll(Iterable<TransactionDetailsDTO> receipts, OutputStream out) throws DocumentException {
+        Document document = open(out);
+        int count = 0;
+        for (TransactionDetailsDTO receipt : receipts) {
+            if (count++ > 0) {
+                document.newPage();
+            }
+            addReceipt(document, receipt);
+        }
+        if (count == 0) {
+            // A PDF needs at least one page
+            document.add(new Paragraph("Nenhum comprovante selecionado.", bodyFont));
+        }
+        document.close();
+        return count;
+    }
+
+    /**
+     * Renders several receipts as a ZIP stream with one PDF per receipt, named after the
+     * transaction ID.
+     *
+     * @param receipts the transaction details
+     * @param out the stream to write to, which is not closed
+     * @return the number of receipts rendered
+     * @throws DocumentException if a document cannot be built
+     * @throws IOException if the ZIP stream cannot be written
+     */
+    public int renderZip(Iterable<TransactionDetailsDTO> receipts, OutputStream out)
+            throws DocumentException, IOException {
+        ZipOutputStream zip = new ZipOutputStream(out);
+        int count = 0;
+        for (TransactionDetailsDTO receipt : receipts) {
+            zip.putNextEntry(new ZipEntry(fileName(receipt)));
+            render(receipt, zip);
+            zip.closeEntry();
+            count++;
+        }
+        // Writes the central directory without closing the caller's stream
+        zip.finish();
+        return count;
+    }
+
+    /**
+     * Returns the file name of a receipt.
+     *
+     * @param receipt the transaction details
+     * @return "COMPROVANTE_" followed by the transaction ID
+     */
+    public static String fileName(TransactionDetailsDTO receipt) {
+        return "COMPROVANTE_" + receipt.getId() + ".pdf";
+    }
+
+    private Document open(OutputStream out) throws DocumentException {
+        Document document = new Document(pageSize);
+        PdfWriter writer = PdfWriter.getInstance(document, out);
+        writer.setCloseStream(false);
+        document.open();
+        return document;
+    }
+
+    private void addReceipt(Document document, TransactionDetailsDTO dto) throws DocumentException {
+        document.add(new Paragraph(title, titleFont));
+        document.add(new Paragraph(" ", bodyFont)); // Espaço
+
+        line(document, "Data: ", dto.getCreatedAt().format(DATE_TIME_FORMATTER));
+        line(document, "ID da Transação: ", String.valueOf(dto.getId()));
+        line(document, "Tipo: ", dto.isDebit() ? "Enviada" : "Recebida");
+        line(document, "Valor: ", CURRENCY_FORMAT.get().format(dto.getAmount()));
+        line(document, "Status: ", dto.getStatus().name());
+        line(document, "Descrição: ", dto.getDescription() == null ? "N/A" : dto.getDescription());
+
+        line(document, "\n--- Remetente ---", "");
+        line(document, "Nome: ", dto.getSenderName());
+        line(document, "Conta: ", dto.getSenderAccountNumber());
+
+        line(document, "\n--- Destinatário ---", "");
+        line(document, "Nome: ", dto.getReceiverName());
+        line(document, "Conta: ", dto.getReceiverAccountNumber());
+    }
+
+    private void line(Document document, String label, String value) throws DocumentException {
+        document.add(new Paragraph(label + value, bodyFont));
+    }
+}
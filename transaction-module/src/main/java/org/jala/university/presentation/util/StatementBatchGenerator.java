@@ -0,0 +1,244 @@
+package org.jala.university.presentation.util;
+
+import org.jala.university.application.dto.StatementAccount;
+import org.jala.university.application.service.TransactionHistoryService;
+import org.jala.university.application.service.impl.TransactionHistoryServiceImpl;
+import org.jala.university.commons.infrastructure.persistance.UnitOfWork;
+import org.jala.university.infrastructure.config.JPAConfig;
+import org.jala.university.infrastructure.persistence.TransactionRepositoryImpl;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Generates the statements of every account for a period, in parallel.
+ * <p>
+ * Accounts are read in chunks of {@value #ACCOUNT_CHUNK_SIZE}, using the last id of a chunk
+ * as the starting point of the next one. Each account of a chunk is exported as its own task
+ * on a fork-join pool, so a worker that finishes a small account takes the next one instead of
+ * waiting behind a large one; the next chunk is only read once the previous one has finished,
+ * which bounds the work in flight. Each task streams the completed transactions of its account
+ * straight into its file, with the account and holder passed explicitly rather than read from
+ * the session.
+ * <p>
+ * Every worker holds one database connection while it exports, so the number of workers
+ * should not exceed {@code bank.pool.maximumSize}.
+ * <p>
+ * A manifest, {@value #MANIFEST_FILE}, lists each account with its file, row count, size and
+ * error, if any. It is written to the output directory as the chunks complete.
+ */
+public class StatementBatchGenerator {
+    private static final Logger LOGGER = Logger.getLogger(StatementBatchGenerator.class.getName());
+
+    /**
+     * Number of accounts read and exported at a time.
+     */
+    public static final int ACCOUNT_CHUNK_SIZE = 500;
+
+    /**
+     * Name of the manifest written to the output directory.
+     */
+    public static final String MANIFEST_FILE = "manifest.csv";
+
+    private static final String ACCOUNTS_JPQL = "SELECT new org.jala.university.application.dto.StatementAccount("
+            + "a.id, a.accountNumber, a.agency, a.accountType, u.name, u.cpf) "
+            + "FROM Account a JOIN a.user u WHERE a.id > :afterId ORDER BY a.id";
+
+    private static final DateTimeFormatter FILE_DATE_FORMATTER = DateTimeFormatter.BASIC_ISO_DATE;
+
+    /**
+     * The file format of the statements.
+     */
+    public enum Format {
+        CSV("csv"), PDF("pdf");
+
+        private final String extension;
+
+        Format(String extension) {
+            this.extension = extension;
+        }
+
+        public String getExtension() {
+            return extension;
+        }
+    }
+
+    /**
+     * The outcome of a batch.
+     *
+     * @param accounts the number of accounts processed
+     * @param failed the number of accounts whose statement could not be generated
+     * @param rows the number of transactions written, over all statements
+     * @param elapsed the duration of the batch
+     * @param manifest the manifest file
+     */
+    public record Result(int accounts, int failed, long rows, Duration elapsed, Path manifest) {
+
+        /**
+         * Returns the throughput of the batch.
+         *
+         * @return the accounts processed per second
+         */
+        public double accountsPerSecond() {
+            return elapsed.isZero() ? accounts : accounts * 1_000_000_000.0 / elapsed.toNanos();
+        }
+    }
+
+    /**
+     * One line of the manifest.
+     */
+    private record ManifestEntry(String account, String file, long rows, long bytes, String error) {
+    }
+
+    private final UnitOfWork unitOfWork;
+    private final TransactionHistoryService transactionHistoryService;
+    private final int workers;
+
+    /**
+     * Creates a generator using the shared unit of work.
+     *
+     * @param workers the number of statements generated at the same time
+     */
+    public StatementBatchGenerator(int workers) {
+        this(JPAConfig.getUnitOfWork(), new TransactionHistoryServiceImpl(new TransactionRepositoryImpl()), workers);
+    }
+
+    /**
+     * Creates a generator.
+     *
+     * @param unitOfWork the unit of work used to read the accounts
+     * @param transactionHistoryService the service that streams the transactions of each account
+     * @param workers the number of statements generated at the same time
+     */
+    public StatementBatchGenerator(UnitOfWork unitOfWork, TransactionHistoryService transactionHistoryService,
+                                   int workers) {
+        if (workers < 1) {
+            throw new IllegalArgumentException("Worker count must be positive");
+        }
+        this.unitOfWork = unitOfWork;
+        this.transactionHistoryService = transactionHistoryService;
+        this.workers = workers;
+    }
+
+    /**
+     * Generates the statement of every account.
+     *
+     * @param startDate the start date (inclusive), or null for the whole history
+     * @param endDate the end date (inclusive), or null for the whole history
+     * @param format the file format
+     * @param outputDirectory the directory to write the statements and the manifest to
+     * @return the outcome of the batch
+     * @throws IOException if the output directory or the manifest cannot be written
+     */
+    public Result generate(LocalDate startDate, LocalDate endDate, Format format, Path outputDirectory)
+            throws IOException {
+        Files.createDirectories(outputDirectory);
+        Path manifestFile = outputDirectory.resolve(MANIFEST_FILE);
+        String period = startDate != null && endDate != null
+                ? startDate.format(FILE_DATE_FORMATTER) + "_" + endDate.format(FILE_DATE_FORMATTER)
+                : "COMPLETO";
+
+        int accounts = 0;
+        int failed = 0;
+        long rows = 0;
+        long start = System.nanoTime();
+        ForkJoinPool pool = new ForkJoinPool(workers);
+        try (Writer manifest = Files.newBufferedWriter(manifestFile, StandardCharsets.UTF_8)) {
+            manifest.write("conta,arquivo,transacoes,bytes,erro\n");
+            long afterId = 0L;
+            List<StatementAccount> chunk;
+            do {
+                chunk = findAccounts(afterId);
+                List<ForkJoinTask<ManifestEntry>> tasks = new ArrayList<>(chunk.size());
+                for (StatementAccount account : chunk) {
+                    tasks.add(pool.submit(() -> export(account, startDate, endDate, format, period, outputDirectory)));
+                    afterId = account.getAccountId();
+                }
+                // Joined in account order, so the manifest is ordered like the accounts
+                for (ForkJoinTask<ManifestEntry> task : tasks) {
+                    ManifestEntry entry = task.join();
+                    writeEntry(manifest, entry);
+                    accounts++;
+                    rows += entry.rows();
+                    if (entry.error() != null) {
+                        failed++;
+                    }
+                }
+            } while (chunk.size() == ACCOUNT_CHUNK_SIZE);
+        } finally {
+            pool.shutdown();
+        }
+
+        Result result = new Result(accounts, failed, rows, Duration.ofNanos(System.nanoTime() - start), manifestFile);
+        LOGGER.info("Extratos gerados: " + accounts + " contas (" + failed + " com erro), " + rows
+                + " transações em " + result.elapsed().toMillis() + " ms com " + workers + " workers");
+        return result;
+    }
+
+    private List<StatementAccount> findAccounts(long afterId) {
+        return unitOfWork.read(entityManager -> entityManager.createQuery(ACCOUNTS_JPQL, StatementAccount.class)
+                .setParameter("afterId", afterId)
+                .setMaxResults(ACCOUNT_CHUNK_SIZE)
+                .getResultList());
+    }
+
+    /**
+     * Writes the statement of one account. A failure is recorded in the manifest instead of
+     * stopping the batch.
+     */
+    private ManifestEntry export(StatementAccount account, LocalDate startDate, LocalDate endDate, Format format,
+                                 String period, Path outputDirectory) {
+        String label = account.getAccountLabel();
+        String fileName = "EXTRATO_" + label.replaceAll("[^A-Za-z0-9-]", "_") + "_" + period + "."
+                + format.getExtension();
+        Path file = outputDirectory.resolve(fileName);
+        StatementSource source = StatementSource.of(transactionHistoryService, account.getAccountId(),
+                startDate, endDate);
+        long[] rows = new long[1];
+        ExportProgressListener progress = (rowsWritten, totalRows) -> rows[0] = rowsWritten;
+        try {
+            try (OutputStream out = Files.newOutputStream(file)) {
+                if (format == Format.PDF) {
+                    PDFExporter.exportToPdf(account, source, out, progress);
+                } else {
+                    // Summary after the rows: a single pass, without the totals queries
+                    CSVExporter.exportToCsv(account, source, CSVExporter.SummaryPosition.TRAILER, out, progress);
+                }
+            }
+            return new ManifestEntry(label, fileName, rows[0], Files.size(file), null);
+        } catch (Exception e) {
+            LOGGER.log(Level.SEVERE, "Erro ao gerar o extrato da conta " + label, e);
+            try {
+                Files.deleteIfExists(file);
+            } catch (IOException deleteFailure) {
+                e.addSuppressed(deleteFailure);
+            }
+            String error = e.getMessage() != null ? e.getMessage() : e.getClass().getSimpleName();
+            return new ManifestEntry(label, "", 0, 0, error);
+        }
+    }
+
+    private static void writeEntry(Writer manifest, ManifestEntry entry) throws IOException {
+        manifest.append(entry.account()).append(',')
+                .append(entry.file()).append(',')
+                .append(Long.toString(entry.rows())).append(',')
+                .append(Long.toString(entry.bytes())).append(',');
+        if (entry.error() != null) {
+            manifest.append('"').append(entry.error().replace('"', '\'').replace('\n', ' ')).append('"');
+        }
+        manifest.append('\n');
+    }
+}
@@ -0,0 +1,90 @@
+package org.jala.university.presentation.util;
+
+import org.jala.university.application.dto.StatementTotals;
+import org.jala.university.application.dto.TransactionHistoryDTO;
+import org.jala.university.application.service.TransactionHistoryService;
+import org.jala.university.domain.entity.enums.TransactionStatus;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.function.Consumer;
+
+/**
+ * The completed transactions of a statement, as read by the exporters.
+ * <p>
+ * A source is read row by row, so a statement streamed from the database is never held in
+ * memory as a whole.
+ */
+public interface StatementSource {
+
+    /**
+     * Passes every row of the statement to an action, in statement order.
+     *
+     * @param action receives each row
+     * @return the number of rows
+     */
+    long forEach(Consumer<TransactionHistoryDTO> action);
+
+    /**
+     * Computes the totals of the statement without passing the rows to the exporter.
+     * Needed only for a summary placed before the rows.
+     *
+     * @return the totals
+     */
+    StatementTotals totals();
+
+    /**
+     * Creates a source over transactions already in memory. Only the completed ones are part
+     * of the statement.
+     *
+     * @param transactions the transactions
+     * @return the source
+     */
+    static StatementSource of(List<TransactionHistoryDTO> transactions) {
+        return new StatementSource() {
+            @Override
+            public long forEach(Consumer<TransactionHistoryDTO> action) {
+                long count = 0;
+                for (TransactionHistoryDTO transaction : transactions) {
+                    if (transaction.getStatus() == TransactionStatus.COMPLETED) {
+                        action.accept(transaction);
+                        count++;
+                    }
+                }
+                return count;
+            }
+
+            @Override
+            public StatementTotals totals() {
+                StatementTotals totals = new StatementTotals();
+                forEach(totals::add);
+                return totals;
+            }
+        };
+    }
+
+    /**
+     * Creates a source that streams the completed transactions of an account from the database.
+     *
+     * @param historyService the service to read with
+     * @param accountId the account ID
+     * @param startDate the start date (inclusive), or null for the whole history
+     * @param endDate the end date (inclusive), or null for the whole history
+     * @return the source
+     */
+    static StatementSource of(TransactionHistoryService historyService, Long accountId,
+                              LocalDate startDate, LocalDate endDate) {
+        String completed = TransactionStatus.COMPLETED.name();
+        return new StatementSource() {
+            @Override
+            public long forEach(Consumer<TransactionHistoryDTO> action) {
+                return historyService.streamAccountTransactionHistory(accountId, startDate, endDate, completed, action);
+            }
+
+            @Override
+            public StatementTotals totals() {
+                return historyService.getAccountTransactionTotals(accountId, startDate, endDate, completed);
+            }
+        };
+    }
+}
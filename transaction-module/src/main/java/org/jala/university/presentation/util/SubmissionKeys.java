@@ -0,0 +1,44 @@
+package org.jala.university.presentation.util;
+
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.util.UUID;
+
+/**
+ * Idempotency keys of the submissions of a transfer form.
+ * <p>
+ * The key of a submission is derived from a per-form nonce and the form contents, so that a
+ * repeated submission of the same form, such as a double click or a retry after a failure or
+ * a timeout, carries the same key and is executed at most once. The nonce is drawn again only
+ * when the form is edited or cleared, or after a confirmed submission, so that the same
+ * contents can then be sent as a new transfer.
+ */
+public final class SubmissionKeys {
+
+    private String nonce = UUID.randomUUID().toString();
+
+    /**
+     * Returns the idempotency key of a submission of the form.
+     *
+     * @param sourceAccount the account number of the sender
+     * @param destinationAccount the account number of the receiver
+     * @param amount the amount to transfer
+     * @param description the description, possibly null
+     * @param scheduleDate the scheduled date, or null for an immediate transfer
+     * @return the key, the same for every submission of the same form until the next {@link #reset()}
+     */
+    public String keyOf(String sourceAccount, String destinationAccount, BigDecimal amount, String description,
+                        LocalDate scheduleDate) {
+        String form = String.join("|", nonce, sourceAccount, destinationAccount, amount.toPlainString(),
+                String.valueOf(description), String.valueOf(scheduleDate));
+        return UUID.nameUUIDFromBytes(form.getBytes(StandardCharsets.UTF_8)).toString();
+    }
+
+    /**
+     * Starts a new form: later submissions get new keys even if the contents repeat.
+     */
+    public void reset() {
+        nonce = UUID.randomUUID().toString();
+    }
+}
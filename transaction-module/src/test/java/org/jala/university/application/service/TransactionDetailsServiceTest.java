@@ -3,11 +3,12 @@ package org.jala.university.application.service;
 import jakarta.persistence.EntityManager;
 import jakarta.persistence.EntityManagerFactory;
 import jakarta.persistence.EntityTransaction;
+import jakarta.persistence.TypedQuery;
 import org.jala.university.application.dto.TransactionDetailsDTO;
 import org.jala.university.application.service.impl.TransactionDetailsServiceImpl;
 import org.jala.university.application.service.impl.mocks.transactions.TransactionMock;
+import org.jala.university.commons.infrastructure.persistance.UnitOfWork;
 import org.jala.university.domain.entity.Transaction;
-import org.jala.university.domain.repository.TransactionRepository;
 import org.jala.university.infrastructure.config.JPAConfig;
 import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.BeforeEach;
@@ -21,9 +22,13 @@ import org.mockito.MockitoAnnotations;
 import java.lang.reflect.Field;
 import java.text.NumberFormat;
 import java.time.format.DateTimeFormatter;
+import java.util.List;
 
 import static org.junit.jupiter.api.Assertions.*;
-import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.contains;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.when;
 
@@ -31,7 +36,7 @@ import static org.mockito.Mockito.when;
 class TransactionDetailsServiceTest {
 
     @Mock
-    private TransactionRepository transactionRepository;
+    private TypedQuery<TransactionDetailsDTO> detailsQuery;
 
     @Mock
     private DateTimeFormatter dateFormatter = DateTimeFormatter.ofPattern("dd/MM/yyyy HH:mm:ss");
@@ -58,6 +63,8 @@ class TransactionDetailsServiceTest {
         MockitoAnnotations.openMocks(this);
 
         when(entityManager.getTransaction()).thenReturn(transaction);
+        when(entityManager.createQuery(anyString(), eq(TransactionDetailsDTO.class))).thenReturn(detailsQuery);
+        when(detailsQuery.setParameter(anyString(), any())).thenReturn(detailsQuery);
 
         // Mock JPAConfig
         EntityManagerFactory mockFactory = mock(EntityManagerFactory.class);
@@ -66,7 +73,7 @@ class TransactionDetailsServiceTest {
 
         // Create an instance of TwoFactorAuthServiceImpl
         this.service = Mockito.spy(new TransactionDetailsServiceImpl());
-        setField(service, "transactionRepository", transactionRepository);
+        setField(service, "unitOfWork", UnitOfWork.bound(entityManager));
 
     }
 
@@ -94,8 +101,7 @@ class TransactionDetailsServiceTest {
     @DisplayName("Should get transaction details of a transaction")
     void getTransactionDetails() {
         Transaction expectedResponse = TransactionMock.createAValidTransaction();
-        when(this.transactionRepository.findById(anyLong()))
-                .thenReturn(expectedResponse);
+        when(this.detailsQuery.getResultList()).thenReturn(List.of(details(expectedResponse)));
 
         TransactionDetailsDTO response = this.service.getTransactionDetails(1L);
 
@@ -107,12 +113,28 @@ class TransactionDetailsServiceTest {
     @DisplayName("Should get transaction detail by account id successfully")
     void testGetTransactionDetails() {
         Transaction expectedResponse = TransactionMock.createAValidTransaction();
-        when(this.transactionRepository.findById(anyLong()))
-                .thenReturn(expectedResponse);
+        when(this.detailsQuery.getResultList()).thenReturn(List.of(details(expectedResponse)));
 
         TransactionDetailsDTO response = this.service.getTransactionDetails(1L, 1L);
 
         assertNotNull(response);
         assertEquals(response.getAmount(), expectedResponse.getAmount());
+        Mockito.verify(entityManager).createQuery(contains("r.id = :accountId"), eq(TransactionDetailsDTO.class));
+        Mockito.verify(detailsQuery).setParameter("accountId", 1L);
+    }
+
+    @Test
+    @DisplayName("Should return null when the account is not part of the transaction")
+    void getTransactionDetailsOfAnotherAccount() {
+        when(this.detailsQuery.getResultList()).thenReturn(List.of());
+
+        assertNull(this.service.getTransactionDetails(1L, 99L));
+    }
+
+    private static TransactionDetailsDTO details(Transaction transaction) {
+        return TransactionDetailsDTO.builder()
+                .id(transaction.getId())
+                .amount(transaction.getAmount())
+                .build();
     }
 }
\ No newline at end of file
@@ -0,0 +1,181 @@
+package org.jala.university.application.service.impl;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import jakarta.persistence.EntityTransaction;
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.TypedQuery;
+import org.jala.university.application.dto.LedgerDiscrepancyDTO;
+import org.jala.university.domain.entity.Account;
+import org.jala.university.domain.entity.BalanceSnapshot;
+import org.jala.university.domain.entity.enums.PostingType;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@DisplayName("Ledger service")
+class LedgerServiceImplTest {
+
+    @Mock
+    private EntityManagerFactory entityManagerFactory;
+
+    @Mock
+    private EntityManager entityManager;
+
+    @Mock
+    private EntityTransaction dbTransaction;
+
+    @Mock
+    private TypedQuery<BalanceSnapshot> snapshotQuery;
+
+    @Mock
+    private TypedQuery<Object[]> postingsQuery;
+
+    @Mock
+    private TypedQuery<Long> accountIdsQuery;
+
+    private LedgerServiceImpl ledgerService;
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+
+        when(entityManagerFactory.createEntityManager()).thenReturn(entityManager);
+        when(entityManager.getTransaction()).thenReturn(dbTransaction);
+        when(entityManager.createQuery(anyString(), eq(BalanceSnapshot.class))).thenReturn(snapshotQuery);
+        when(snapshotQuery.setParameter(anyString(), any())).thenReturn(snapshotQuery);
+        when(snapshotQuery.setMaxResults(anyInt())).thenReturn(snapshotQuery);
+        when(entityManager.createQuery(anyString(), eq(Object[].class))).thenReturn(postingsQuery);
+        when(postingsQuery.setParameter(anyString(), any())).thenReturn(postingsQuery);
+        when(entityManager.createQuery(anyString(), eq(Long.class))).thenReturn(accountIdsQuery);
+        when(accountIdsQuery.getResultList()).thenReturn(List.of(1L));
+
+        ledgerService = new LedgerServiceImpl(entityManagerFactory);
+    }
+
+    @Test
+    @DisplayName("Should derive the balance from the latest snapshot and the postings since it")
+    void getBalance() {
+        when(snapshotQuery.getResultList()).thenReturn(List.of(snapshot("100.00", 7L)));
+        when(postingsQuery.getResultList()).thenReturn(List.of(
+                new Object[]{PostingType.CREDIT, new BigDecimal("50.00"), 9L},
+                new Object[]{PostingType.DEBIT, new BigDecimal("30.00"), 12L}));
+
+        BigDecimal balance = ledgerService.getBalance(1L);
+
+        assertEquals(new BigDecimal("120.00"), balance);
+        verify(postingsQuery).setParameter("afterId", 7L);
+        verify(entityManager).close();
+    }
+
+    @Test
+    @DisplayName("Should snapshot an account whose balance matches the journal")
+    void reconcileMatchingAccount() {
+        when(entityManager.find(Account.class, 1L, LockModeType.PESSIMISTIC_WRITE))
+                .thenReturn(account("80.00"));
+        when(snapshotQuery.getResultList()).thenReturn(List.of(snapshot("100.00", 7L)));
+        when(postingsQuery.getResultList()).thenReturn(List.<Object[]>of(
+                new Object[]{PostingType.DEBIT, new BigDecimal("20.00"), 9L}));
+
+        List<LedgerDiscrepancyDTO> discrepancies = ledgerService.reconcile();
+
+        assertTrue(discrepancies.isEmpty());
+        ArgumentCaptor<BalanceSnapshot> snapshot = ArgumentCaptor.forClass(BalanceSnapshot.class);
+        verify(entityManager).persist(snapshot.capture());
+        assertEquals(new BigDecimal("80.00"), snapshot.getValue().getBalance());
+        assertEquals(9L, snapshot.getValue().getLastEntryId());
+        verify(dbTransaction).commit();
+    }
+
+    @Test
+    @DisplayName("Should report an account whose balance differs from the journal")
+    void reconcileDivergentAccount() {
+        when(entityManager.find(Account.class, 1L, LockModeType.PESSIMISTIC_WRITE))
+                .thenReturn(account("95.00"));
+        when(snapshotQuery.getResultList()).thenReturn(List.of(snapshot("100.00", 7L)));
+        when(postingsQuery.getResultList()).thenReturn(List.<Object[]>of(
+                new Object[]{PostingType.DEBIT, new BigDecimal("20.00"), 9L}));
+
+        List<LedgerDiscrepancyDTO> discrepancies = ledgerService.reconcile();
+
+        assertEquals(1, discrepancies.size());
+        assertEquals(new BigDecimal("80.00"), discrepancies.get(0).getLedgerBalance());
+        assertEquals(new BigDecimal("15.00"), discrepancies.get(0).getDifference());
+        verify(entityManager, never()).persist(any(BalanceSnapshot.class));
+    }
+
+    @Test
+    @DisplayName("Should open an account without snapshot from its current balance")
+    void reconcileAccountWithoutSnapshot() {
+        when(entityManager.find(Account.class, 1L, LockModeType.PESSIMISTIC_WRITE))
+                .thenReturn(account("50000.00"));
+        when(snapshotQuery.getResultList()).thenReturn(List.of());
+        when(postingsQuery.getResultList()).thenReturn(List.<Object[]>of(
+                new Object[]{PostingType.CREDIT, new BigDecimal("10.00"), 3L}));
+
+        List<LedgerDiscrepancyDTO> discrepancies = ledgerService.reconcile();
+
+        assertTrue(discrepancies.isEmpty());
+        ArgumentCaptor<BalanceSnapshot> snapshot = ArgumentCaptor.forClass(BalanceSnapshot.class);
+        verify(entityManager).persist(snapshot.capture());
+        assertEquals(new BigDecimal("49990.00"), snapshot.getValue().getBalance());
+        assertEquals(0L, snapshot.getValue().getLastEntryId());
+    }
+
+    @Test
+    @DisplayName("Should derive the balance of an account without snapshot from its opening balance")
+    void getBalanceWithoutSnapshot() {
+        when(entityManager.find(Account.class, 1L, LockModeType.NONE)).thenReturn(account("50000.00"));
+        when(snapshotQuery.getResultList()).thenReturn(List.of());
+        when(postingsQuery.getResultList()).thenReturn(List.<Object[]>of(
+                new Object[]{PostingType.CREDIT, new BigDecimal("10.00"), 3L}));
+
+        assertEquals(new BigDecimal("50000.00"), ledgerService.getBalance(1L));
+        verify(entityManager, never()).persist(any());
+    }
+
+    @Test
+    @DisplayName("Should open the journal before the first snapshot of an account")
+    void takeSnapshotWithoutSnapshot() {
+        when(entityManager.find(Account.class, 1L, LockModeType.PESSIMISTIC_WRITE))
+                .thenReturn(account("50000.00"));
+        when(snapshotQuery.getResultList()).thenReturn(List.of());
+        when(postingsQuery.getResultList()).thenReturn(List.<Object[]>of(
+                new Object[]{PostingType.CREDIT, new BigDecimal("10.00"), 3L}));
+
+        BigDecimal balance = ledgerService.takeSnapshot(1L);
+
+        assertEquals(new BigDecimal("50000.00"), balance);
+        ArgumentCaptor<BalanceSnapshot> snapshots = ArgumentCaptor.forClass(BalanceSnapshot.class);
+        verify(entityManager, times(2)).persist(snapshots.capture());
+        assertEquals(new BigDecimal("49990.00"), snapshots.getAllValues().get(0).getBalance());
+        assertEquals(0L, snapshots.getAllValues().get(0).getLastEntryId());
+        assertEquals(new BigDecimal("50000.00"), snapshots.getAllValues().get(1).getBalance());
+        assertEquals(3L, snapshots.getAllValues().get(1).getLastEntryId());
+        verify(dbTransaction).commit();
+    }
+
+    private static BalanceSnapshot snapshot(String balance, Long lastEntryId) {
+        return BalanceSnapshot.builder()
+                .balance(new BigDecimal(balance))
+                .lastEntryId(lastEntryId)
+                .build();
+    }
+
+    private static Account account(String balance) {
+        return Account.builder().id(1L).accountNumber("123456789").balance(new BigDecimal(balance)).build();
+    }
+}
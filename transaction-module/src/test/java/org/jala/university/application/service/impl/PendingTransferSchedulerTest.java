@@ -0,0 +1,105 @@
+package org.jala.university.application.service.impl;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import jakarta.persistence.EntityTransaction;
+import org.jala.university.domain.entity.SchedulerWatermark;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@DisplayName("Pending transfer scheduler")
+class PendingTransferSchedulerTest {
+
+    private static final ZoneId ZONE = ZoneId.of("America/Sao_Paulo");
+    private static final LocalDateTime NOW = LocalDateTime.of(2025, 3, 10, 9, 30);
+
+    @Mock
+    private EntityManagerFactory entityManagerFactory;
+
+    @Mock
+    private EntityManager entityManager;
+
+    @Mock
+    private EntityTransaction dbTransaction;
+
+    @Mock
+    private ScheduledTransferExecutor transferExecutor;
+
+    private PendingTransferScheduler scheduler;
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+
+        when(entityManagerFactory.createEntityManager()).thenReturn(entityManager);
+        when(entityManager.getTransaction()).thenReturn(dbTransaction);
+
+        Clock clock = Clock.fixed(NOW.atZone(ZONE).toInstant(), ZONE);
+        scheduler = new PendingTransferScheduler(entityManagerFactory, transferExecutor, Duration.ofMinutes(1), clock);
+    }
+
+    @Test
+    @DisplayName("Should catch up immediately when the job never ran or missed a window")
+    void catchUpOnStart() {
+        assertEquals(0L, scheduler.initialDelayMillis(null));
+        assertEquals(0L, scheduler.initialDelayMillis(NOW.minusHours(12)));
+    }
+
+    @Test
+    @DisplayName("Should wait for the rest of the interval when the last run is recent")
+    void waitForNextWindow() {
+        assertEquals(Duration.ofSeconds(40).toMillis(), scheduler.initialDelayMillis(NOW.minusSeconds(20)));
+    }
+
+    @Test
+    @DisplayName("Should settle everything due today and advance the watermark")
+    void runOnce() {
+        scheduler.runOnce();
+
+        verify(transferExecutor).executeDue(LocalDate.of(2025, 3, 10));
+        ArgumentCaptor<SchedulerWatermark> watermark = ArgumentCaptor.forClass(SchedulerWatermark.class);
+        verify(entityManager).merge(watermark.capture());
+        assertEquals(PendingTransferScheduler.JOB_NAME, watermark.getValue().getId());
+        assertEquals(NOW, watermark.getValue().getLastRunAt());
+        verify(dbTransaction).commit();
+    }
+
+    @Test
+    @DisplayName("Should keep the watermark when a run fails")
+    void runOnceWithFailure() {
+        when(transferExecutor.executeDue(any(LocalDate.class))).thenThrow(new IllegalStateException("db down"));
+
+        assertDoesNotThrow(() -> scheduler.runOnce());
+
+        verify(entityManager, never()).merge(any());
+    }
+
+    @Test
+    @DisplayName("Should read the watermark of the job")
+    void getLastRunAt() {
+        LocalDateTime lastRun = Instant.parse("2025-03-09T03:00:00Z").atZone(ZONE).toLocalDateTime();
+        SchedulerWatermark watermark = SchedulerWatermark.builder()
+                .id(PendingTransferScheduler.JOB_NAME)
+                .lastRunAt(lastRun)
+                .build();
+        when(entityManager.find(SchedulerWatermark.class, PendingTransferScheduler.JOB_NAME)).thenReturn(watermark);
+
+        assertEquals(lastRun, scheduler.getLastRunAt());
+        verify(entityManager).close();
+    }
+}
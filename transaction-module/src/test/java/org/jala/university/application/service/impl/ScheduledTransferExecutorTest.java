@@ -0,0 +1,105 @@
+package org.jala.university.application.service.impl;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import jakarta.persistence.TypedQuery;
+import org.jala.university.application.service.TransferEngine;
+import org.jala.university.domain.entity.enums.TransactionStatus;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@DisplayName("Scheduled transfer executor")
+class ScheduledTransferExecutorTest {
+
+    @Mock
+    private EntityManagerFactory entityManagerFactory;
+
+    @Mock
+    private EntityManager entityManager;
+
+    @Mock
+    private TypedQuery<Object[]> dueQuery;
+
+    @Mock
+    private TransferEngine transferEngine;
+
+    private ScheduledTransferExecutor executor;
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+
+        when(entityManagerFactory.createEntityManager()).thenReturn(entityManager);
+        when(entityManager.createQuery(anyString(), eq(Object[].class))).thenReturn(dueQuery);
+        when(dueQuery.setParameter(anyString(), any())).thenReturn(dueQuery);
+        when(dueQuery.setMaxResults(anyInt())).thenReturn(dueQuery);
+
+        executor = new ScheduledTransferExecutor(entityManagerFactory, transferEngine, 2, 2);
+    }
+
+    @AfterEach
+    void tearDown() {
+        executor.shutdown();
+    }
+
+    @Test
+    @DisplayName("Should page through due transactions by id and settle each one")
+    void executeDueInChunks() {
+        when(dueQuery.getResultList())
+                .thenReturn(List.of(row(1L, 10L, 20L), row(2L, 10L, 30L)))
+                .thenReturn(List.<Object[]>of(row(5L, 20L, 10L)));
+        when(transferEngine.settle(anyLong())).thenReturn(TransactionStatus.COMPLETED);
+        when(transferEngine.settle(2L)).thenReturn(TransactionStatus.CANCELLED);
+
+        Map<TransactionStatus, Integer> summary = executor.executeDue(LocalDate.now());
+
+        assertEquals(2, summary.get(TransactionStatus.COMPLETED));
+        assertEquals(1, summary.get(TransactionStatus.CANCELLED));
+        verify(dueQuery).setParameter("afterId", 0L);
+        verify(dueQuery).setParameter("afterId", 2L);
+        verify(dueQuery, times(2)).setParameter("pending", TransactionStatus.PENDING);
+        verify(transferEngine).settle(1L);
+        verify(transferEngine).settle(2L);
+        verify(transferEngine).settle(5L);
+    }
+
+    @Test
+    @DisplayName("Should leave a transaction pending when its settlement fails")
+    void executeDueWithFailure() {
+        when(dueQuery.getResultList()).thenReturn(List.<Object[]>of(row(1L, 10L, 20L)));
+        when(transferEngine.settle(1L)).thenThrow(new IllegalStateException("deadlock"));
+
+        Map<TransactionStatus, Integer> summary = executor.executeDue(LocalDate.now());
+
+        assertEquals(Map.of(TransactionStatus.PENDING, 1), summary);
+    }
+
+    @Test
+    @DisplayName("Should not settle anything when no transaction is due")
+    void executeDueWithNothingDue() {
+        when(dueQuery.getResultList()).thenReturn(List.of());
+
+        assertTrue(executor.executeDue(LocalDate.now()).isEmpty());
+        verify(transferEngine, never()).settle(anyLong());
+    }
+
+    private static Object[] row(Long transactionId, Long senderId, Long receiverId) {
+        return new Object[]{transactionId, senderId, receiverId};
+    }
+}
@@ -6,6 +6,7 @@ import jakarta.persistence.EntityTransaction;
 import org.jala.university.application.dto.UserDTO;
 import org.jala.university.application.map.UserMapper;
 import org.jala.university.commons.domain.Role;
+import org.jala.university.commons.infrastructure.persistance.UnitOfWork;
 import org.jala.university.domain.entity.User;
 import org.jala.university.domain.repository.UserRepository;
 import org.jala.university.infrastructure.config.JPAConfig;
@@ -80,9 +81,9 @@ class SignupServiceImpTest {
 
         // Use reflection to set the mocked dependencies
         try {
-            java.lang.reflect.Field entityManagerField = SignupServiceImpl.class.getDeclaredField("entityManager");
-            entityManagerField.setAccessible(true);
-            entityManagerField.set(signupService, entityManager);
+            java.lang.reflect.Field unitOfWorkField = SignupServiceImpl.class.getDeclaredField("unitOfWork");
+            unitOfWorkField.setAccessible(true);
+            unitOfWorkField.set(signupService, UnitOfWork.bound(entityManager));
             
             java.lang.reflect.Field userRepositoryField = SignupServiceImpl.class.getDeclaredField("userRepository");
             userRepositoryField.setAccessible(true);
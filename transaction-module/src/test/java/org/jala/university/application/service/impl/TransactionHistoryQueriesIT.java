@@ -0,0 +1,171 @@
+package org.jala.university.application.service.impl;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import jakarta.persistence.Persistence;
+import jakarta.persistence.Query;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.jala.university.application.dto.TransactionDetailsDTO;
+import org.jala.university.application.dto.TransactionHistoryDTO;
+import org.jala.university.application.dto.TransactionHistoryPage;
+import org.jala.university.commons.domain.Role;
+import org.jala.university.domain.entity.Account;
+import org.jala.university.domain.entity.Transaction;
+import org.jala.university.domain.entity.User;
+import org.jala.university.domain.entity.enums.AccountType;
+import org.jala.university.domain.entity.enums.TransactionStatus;
+import org.jala.university.infrastructure.migration.SchemaMigrator;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("Transaction history queries on an embedded database")
+class TransactionHistoryQueriesIT {
+
+    private static final int TRANSACTIONS = 30;
+
+    private static EntityManagerFactory entityManagerFactory;
+    private static Statistics statistics;
+    private static Account alice;
+    private static Long firstTransactionId;
+
+    private EntityManager entityManager;
+
+    @BeforeAll
+    static void createData() {
+        entityManagerFactory = Persistence.createEntityManagerFactory("test");
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        new SchemaMigrator(entityManagerFactory).migrate();
+
+        EntityManager entityManager = entityManagerFactory.createEntityManager();
+        entityManager.getTransaction().begin();
+        alice = account(entityManager, "Alice", "1");
+        Account bob = account(entityManager, "Bob", "2");
+        for (int i = 0; i < TRANSACTIONS; i++) {
+            boolean sent = i % 2 == 0;
+            Transaction transaction = Transaction.builder()
+                    .sender(sent ? alice : bob)
+                    .receiver(sent ? bob : alice)
+                    .amount(BigDecimal.ONE)
+                    .status(TransactionStatus.COMPLETED)
+                    .description("Transferência " + i)
+                    .build();
+            entityManager.persist(transaction);
+            if (firstTransactionId == null) {
+                firstTransactionId = transaction.getId();
+            }
+        }
+        entityManager.getTransaction().commit();
+        entityManager.close();
+    }
+
+    @AfterAll
+    static void closeFactory() {
+        entityManagerFactory.close();
+    }
+
+    @BeforeEach
+    void setUp() {
+        entityManager = entityManagerFactory.createEntityManager();
+        statistics.clear();
+    }
+
+    @AfterEach
+    void tearDown() {
+        entityManager.close();
+    }
+
+    @Test
+    @DisplayName("Should read a page of history with a fixed number of statements")
+    void historyPageStatementCount() {
+        TransactionHistoryServiceImpl service = new TransactionHistoryServiceImpl(null, entityManager);
+
+        TransactionHistoryPage page = service.getAccountTransactionHistoryPage(alice.getId(), 10, null);
+
+        assertEquals(10, page.getItems().size());
+        assertTrue(page.getItems().stream().allMatch(item -> "Bob".equals(item.getCounterpartyName())));
+        // A single statement, independent of the number of rows
+        assertEquals(1, statistics.getPrepareStatementCount());
+        assertEquals(0, statistics.getEntityLoadCount());
+    }
+
+    @Test
+    @DisplayName("Should read the whole history without loading accounts or users")
+    void fullHistoryStatementCount() {
+        TransactionHistoryServiceImpl service = new TransactionHistoryServiceImpl(null, entityManager);
+
+        List<TransactionHistoryDTO> history = service.getAccountTransactionHistory(alice.getId());
+
+        assertEquals(TRANSACTIONS, history.size());
+        assertEquals(TRANSACTIONS / 2, history.stream().filter(TransactionHistoryDTO::isDebit).count());
+        assertEquals(1, statistics.getPrepareStatementCount());
+        assertEquals(0, statistics.getEntityLoadCount());
+    }
+
+    @Test
+    @DisplayName("Should read transaction details in a single statement")
+    void detailsStatementCount() {
+        TransactionDetailsServiceImpl service = new TransactionDetailsServiceImpl(entityManager);
+
+        TransactionDetailsDTO details = service.getTransactionDetails(firstTransactionId, alice.getId());
+
+        assertNotNull(details);
+        assertEquals("Alice", details.getSenderName());
+        assertEquals("Bob", details.getReceiverName());
+        assertTrue(details.isDebit());
+        assertEquals(1, statistics.getPrepareStatementCount());
+        assertEquals(0, statistics.getEntityLoadCount());
+    }
+
+    @Test
+    @DisplayName("Should walk the transaction indexes instead of scanning the table")
+    void historyQueryPlans() {
+        for (boolean status : new boolean[]{false, true}) {
+            String plan = explain(TransactionHistoryServiceImpl.historySql(false, status, true, 11),
+                    status).toLowerCase();
+
+            assertFalse(plan.contains("transactions.tablescan"), plan);
+        }
+    }
+
+    private String explain(String sql, boolean status) {
+        Query query = entityManager.createNativeQuery("EXPLAIN " + sql)
+                .setParameter("accountId", alice.getId())
+                .setParameter("cursorCreatedAt", LocalDateTime.now())
+                .setParameter("cursorId", Long.MAX_VALUE);
+        if (status) {
+            query.setParameter("status", TransactionStatus.COMPLETED.name());
+        }
+        return String.valueOf(query.getSingleResult());
+    }
+
+    private static Account account(EntityManager entityManager, String name, String suffix) {
+        User user = User.builder()
+                .name(name)
+                .email(name.toLowerCase() + "@test.com")
+                .password("secret")
+                .cpf("000.000.000-0" + suffix)
+                .roles(Role.USER)
+                .build();
+        entityManager.persist(user);
+        Account account = Account.builder()
+                .user(user)
+                .agency("0001")
+                .accountNumber("00000" + suffix)
+                .accountType(AccountType.CHECKING)
+                .balance(BigDecimal.valueOf(1000))
+                .build();
+        entityManager.persist(account);
+        return account;
+    }
+}
@@ -0,0 +1,149 @@
+package org.jala.university.application.service.impl;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import jakarta.persistence.Query;
+import org.jala.university.application.dto.TransactionHistoryDTO;
+import org.jala.university.application.dto.TransactionHistoryPage;
+import org.jala.university.application.service.TransactionHistoryService;
+import org.jala.university.commons.infrastructure.persistance.UnitOfWork;
+import org.jala.university.domain.entity.enums.TransactionStatus;
+import org.jala.university.domain.repository.TransactionRepository;
+import org.jala.university.infrastructure.config.JPAConfig;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mock;
+import org.mockito.MockedStatic;
+import org.mockito.Mockito;
+import org.mockito.MockitoAnnotations;
+
+import java.math.BigDecimal;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.contains;
+import static org.mockito.Mockito.*;
+
+@DisplayName("Transaction history service")
+class TransactionHistoryServiceImplTest {
+
+    private static final Long ACCOUNT_ID = 1L;
+    private static final LocalDateTime NOW = LocalDateTime.of(2025, 3, 10, 9, 30);
+
+    @Mock
+    private EntityManager entityManager;
+
+    @Mock
+    private Query historyQuery;
+
+    @Mock
+    private TransactionRepository transactionRepository;
+
+    private MockedStatic<JPAConfig> mockedJPAConfig;
+
+    private TransactionHistoryServiceImpl historyService;
+
+    @BeforeEach
+    void setUp() {
+        mockedJPAConfig = Mockito.mockStatic(JPAConfig.class);
+        MockitoAnnotations.openMocks(this);
+
+        EntityManagerFactory mockFactory = mock(EntityManagerFactory.class);
+        when(mockFactory.createEntityManager()).thenReturn(entityManager);
+        mockedJPAConfig.when(JPAConfig::getEntityManagerFactory).thenReturn(mockFactory);
+        mockedJPAConfig.when(JPAConfig::getUnitOfWork).thenReturn(UnitOfWork.bound(entityManager));
+
+        when(entityManager.createNativeQuery(anyString())).thenReturn(historyQuery);
+        when(historyQuery.setParameter(anyString(), any())).thenReturn(historyQuery);
+
+        historyService = new TransactionHistoryServiceImpl(transactionRepository);
+    }
+
+    @AfterEach
+    void tearDown() {
+        mockedJPAConfig.close();
+    }
+
+    @Test
+    @DisplayName("Should read sent and received transactions in one query and return a continuation token")
+    void firstPage() {
+        when(historyQuery.getResultList()).thenReturn(List.of(
+                sent(5L, NOW), received(4L, NOW.minusHours(1)), sent(3L, NOW.minusHours(2)),
+                received(2L, NOW.minusHours(3))));
+
+        TransactionHistoryPage page = historyService.getAccountTransactionHistoryPage(ACCOUNT_ID, 3, null);
+
+        assertEquals(List.of(5L, 4L, 3L), page.getItems().stream().map(TransactionHistoryDTO::getId).toList());
+        assertTrue(page.getItems().get(0).isDebit());
+        assertFalse(page.getItems().get(1).isDebit());
+        assertEquals(TransactionStatus.COMPLETED, page.getItems().get(1).getStatus());
+        assertTrue(page.hasNext());
+        verify(entityManager).createNativeQuery(contains("UNION ALL"));
+        verify(entityManager).createNativeQuery(contains("LIMIT 4"));
+    }
+
+    @Test
+    @DisplayName("Should seek after the last row of the previous page")
+    void nextPage() {
+        when(historyQuery.getResultList()).thenReturn(List.of(
+                sent(5L, NOW), received(4L, NOW.minusHours(1)), sent(3L, NOW.minusHours(2))));
+        String token = historyService.getAccountTransactionHistoryPage(ACCOUNT_ID, 2, null).getNextPageToken();
+
+        when(historyQuery.getResultList()).thenReturn(List.<Object[]>of(sent(3L, NOW.minusHours(2))));
+        TransactionHistoryPage page = historyService.getAccountTransactionHistoryPage(ACCOUNT_ID, 2, token);
+
+        verify(historyQuery).setParameter("cursorCreatedAt", NOW.minusHours(1));
+        verify(historyQuery).setParameter("cursorId", 4L);
+        assertEquals(List.of(3L), page.getItems().stream().map(TransactionHistoryDTO::getId).toList());
+        assertFalse(page.hasNext());
+        assertNull(page.getNextPageToken());
+    }
+
+    @Test
+    @DisplayName("Should cap the page size and filter by status")
+    void pageSizeLimits() {
+        when(historyQuery.getResultList()).thenReturn(List.of());
+
+        historyService.getAccountTransactionHistoryPageByStatus(ACCOUNT_ID, "pending", 10_000, null);
+        historyService.getAccountTransactionHistoryPage(ACCOUNT_ID, 0, null);
+
+        verify(entityManager).createNativeQuery(contains("LIMIT " + (TransactionHistoryService.MAX_PAGE_SIZE + 1)));
+        verify(entityManager).createNativeQuery(contains("LIMIT " + (TransactionHistoryService.DEFAULT_PAGE_SIZE + 1)));
+        verify(historyQuery).setParameter("status", "PENDING");
+    }
+
+    @Test
+    @DisplayName("Should list a transfer to the account itself only once")
+    void selfTransfer() {
+        String sql = TransactionHistoryServiceImpl.historySql(false, false, false, 0);
+
+        assertTrue(sql.contains("t.sender_id <> :accountId"));
+        assertFalse(sql.contains("LIMIT"));
+    }
+
+    @Test
+    @DisplayName("Should reject a malformed page token")
+    void invalidToken() {
+        assertThrows(IllegalArgumentException.class,
+                () -> historyService.getAccountTransactionHistoryPage(ACCOUNT_ID, 10, "not-a-token"));
+    }
+
+    private static Object[] sent(Long id, LocalDateTime createdAt) {
+        return row(id, createdAt, 1);
+    }
+
+    private static Object[] received(Long id, LocalDateTime createdAt) {
+        return row(id, createdAt, 0);
+    }
+
+    private static Object[] row(Long id, LocalDateTime createdAt, int debit) {
+        return new Object[]{id, "COMPLETED", BigDecimal.TEN, Timestamp.valueOf(createdAt), "Transferência",
+                "Test User", debit};
+    }
+}
@@ -3,15 +3,21 @@ package org.jala.university.application.service.impl;
 import jakarta.persistence.EntityManager;
 import jakarta.persistence.EntityManagerFactory;
 import jakarta.persistence.EntityTransaction;
+import org.jala.university.application.dto.AccountSummaryDTO;
 import org.jala.university.application.dto.TransactionDTO;
 import org.jala.university.application.map.TransactionMapper;
-import org.jala.university.application.service.interfaces.AccountService;
+import org.jala.university.application.service.TransferEngine;
 import org.jala.university.application.service.interfaces.UserService;
-import org.jala.university.application.service.impl.mocks.account.AccountMock;
 import org.jala.university.application.service.impl.mocks.transactions.TransactionMock;
+import org.jala.university.commons.infrastructure.persistance.UnitOfWork;
+import org.jala.university.domain.entity.Account;
 import org.jala.university.domain.entity.Transaction;
+import org.jala.university.domain.entity.enums.TransactionStatus;
 import org.jala.university.domain.repository.TransactionsRepository;
+import org.jala.university.infrastructure.cache.AccountSummaryStore;
+import org.jala.university.infrastructure.cache.IdempotencyCache;
 import org.jala.university.infrastructure.config.JPAConfig;
+import org.jala.university.presentation.util.SubmissionKeys;
 import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
@@ -22,9 +28,20 @@ import org.mockito.Mockito;
 import org.mockito.MockitoAnnotations;
 
 import java.lang.reflect.Field;
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
 
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
 import static org.mockito.ArgumentMatchers.anyLong;
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.Mockito.*;
@@ -47,10 +64,14 @@ class TransactionsServiceImplTest {
     @Mock
     private UserService userService;
     @Mock
-    private AccountService accountService;
+    private TransferEngine transferEngine;
 
     private static MockedStatic<JPAConfig> mockedJPAConfig;
 
+    private final AccountSummaryStore summaryStore = new AccountSummaryStore(3, Duration.ofMinutes(1));
+
+    private final IdempotencyCache idempotencyCache = new IdempotencyCache(Duration.ofMinutes(1));
+
     private TransactionsServiceImpl transactionsService;
 
 
@@ -64,14 +85,17 @@ class TransactionsServiceImplTest {
         EntityManagerFactory mockFactory = mock(EntityManagerFactory.class);
         when(mockFactory.createEntityManager()).thenReturn(entityManager);
         mockedJPAConfig.when(JPAConfig::getEntityManagerFactory).thenReturn(mockFactory);
+        mockedJPAConfig.when(JPAConfig::getUnitOfWork).thenReturn(UnitOfWork.bound(entityManager));
         this.transactionsService = Mockito.spy(new TransactionsServiceImpl());
 
 
-        setField(transactionsService, "entityManager", entityManager);
         setField(transactionsService, "transactionsRepository", transactionsRepository);
-        setField(transactionsService, "accountService", accountService);
-        setField(transactionsService, "map", mapper);
+        setField(transactionsService, "transferEngine", transferEngine);
+        setField(transactionsService, "mapper", mapper);
         setField(transactionsService, "userService", userService);
+        setField(transactionsService, "idempotencyCache", idempotencyCache);
+        setField(transactionsService, "summaryStore", summaryStore);
+        when(transactionsRepository.save(any(Transaction.class))).thenAnswer(invocation -> invocation.getArgument(0));
     }
 
     private void setField(Object target, String fieldName, Object value) {
@@ -137,14 +161,305 @@ class TransactionsServiceImplTest {
     @Test
     @DisplayName("Should save a transaction successfully")
     void save() {
-        when(transactionsRepository.save(any(Transaction.class)))
-                .thenReturn(TransactionMock.createAValidTransaction());
+        Transaction transaction = TransactionMock.createAValidTransaction();
+        transaction.setTransactionSchedule(LocalDate.now());
+        when(mapper.mapFrom(any(TransactionDTO.class))).thenReturn(transaction);
+        when(transferEngine.transfer(any(Transaction.class))).thenReturn(TransactionStatus.COMPLETED);
+
+        assertTrue(this.transactionsService.save(TransactionMock.createAValidTransactionDTO()));
+        verify(transferEngine, times(1)).transfer(transaction);
+        verify(transactionsRepository, never()).save(any(Transaction.class));
+    }
 
-        when(accountService.getAccountByUserId(anyLong())).thenReturn(
-                AccountMock.createAValidAccountDTO()
-        );
+    @Test
+    @DisplayName("Should report a cancelled transfer when the sender has insufficient balance")
+    void saveWithInsufficientBalance() {
+        Transaction transaction = TransactionMock.createAValidTransaction();
+        transaction.setTransactionSchedule(LocalDate.now());
+        when(mapper.mapFrom(any(TransactionDTO.class))).thenReturn(transaction);
+        when(transferEngine.transfer(any(Transaction.class))).thenReturn(TransactionStatus.CANCELLED);
+
+        assertFalse(this.transactionsService.save(TransactionMock.createAValidTransactionDTO()));
+    }
+
+    @Test
+    @DisplayName("Should return the original outcome for a duplicate idempotency key without transferring again")
+    void saveDuplicateSubmission() {
+        Transaction transaction = TransactionMock.createAValidTransaction();
+        transaction.setTransactionSchedule(LocalDate.now());
+        when(mapper.mapFrom(any(TransactionDTO.class))).thenReturn(transaction);
+        when(transferEngine.transfer(any(Transaction.class))).thenReturn(TransactionStatus.COMPLETED);
+        TransactionDTO submission = TransactionMock.createAValidTransactionDTO();
+        submission.setIdempotencyKey("form-1");
+
+        assertTrue(this.transactionsService.save(submission));
+        assertTrue(this.transactionsService.save(submission));
+
+        verify(transferEngine, times(1)).transfer(any(Transaction.class));
+        verify(transactionsRepository, times(1)).findByIdempotencyKey("form-1");
+    }
+
+    @Test
+    @DisplayName("Should transfer once a form submitted twice, including after a failed attempt")
+    void saveSameFormTwice() {
+        Transaction transaction = TransactionMock.createAValidTransaction();
+        transaction.setTransactionSchedule(LocalDate.now());
+        when(mapper.mapFrom(any(TransactionDTO.class))).thenReturn(transaction);
+        when(transferEngine.transfer(any(Transaction.class)))
+                .thenThrow(new IllegalStateException("timeout"))
+                .thenReturn(TransactionStatus.COMPLETED);
+        SubmissionKeys keys = new SubmissionKeys();
+        TransactionDTO submission = TransactionMock.createAValidTransactionDTO();
+        submission.setIdempotencyKey(keys.keyOf("123", "456", BigDecimal.TEN, "aluguel", null));
+        TransactionDTO resubmission = TransactionMock.createAValidTransactionDTO();
+        resubmission.setIdempotencyKey(keys.keyOf("123", "456", BigDecimal.TEN, "aluguel", null));
+
+        assertThrows(RuntimeException.class, () -> this.transactionsService.save(submission));
+        assertTrue(this.transactionsService.save(resubmission));
+        assertTrue(this.transactionsService.save(resubmission));
+
+        verify(transferEngine, times(2)).transfer(any(Transaction.class));
+        verify(transactionsRepository, times(1)).save(any(Transaction.class));
+    }
+
+    @Test
+    @DisplayName("Should retry a duplicate whose original submission fails while it waits")
+    void saveDuplicateOfFailedSubmission() throws Exception {
+        Transaction transaction = TransactionMock.createAValidTransaction();
+        transaction.setTransactionSchedule(LocalDate.now());
+        when(mapper.mapFrom(any(TransactionDTO.class))).thenReturn(transaction);
+        when(transferEngine.transfer(any(Transaction.class))).thenReturn(TransactionStatus.COMPLETED);
+        TransactionDTO submission = TransactionMock.createAValidTransactionDTO();
+        submission.setIdempotencyKey("form-3");
+
+        Boolean saved = whileOriginalFails("form-3", () -> this.transactionsService.save(submission));
+
+        assertTrue(saved);
+        verify(transferEngine, times(1)).transfer(any(Transaction.class));
+    }
+
+    @Test
+    @DisplayName("Should return the stored outcome of a key that is no longer cached")
+    void saveKeyAlreadyStored() {
+        Transaction stored = TransactionMock.createAValidTransaction();
+        stored.setStatus(TransactionStatus.CANCELLED);
+        when(transactionsRepository.findByIdempotencyKey("form-2")).thenReturn(stored);
+        TransactionDTO submission = TransactionMock.createAValidTransactionDTO();
+        submission.setIdempotencyKey("form-2");
+
+        assertFalse(this.transactionsService.save(submission));
+
+        verify(transferEngine, never()).transfer(any(Transaction.class));
+        verify(mapper, never()).mapFrom(any(TransactionDTO.class));
+    }
+
+    @Test
+    @DisplayName("Should group today's transfers in one engine call and keep future ones pending")
+    void saveAll() {
+        Transaction first = TransactionMock.createAValidTransaction();
+        first.setTransactionSchedule(LocalDate.now());
+        Transaction second = TransactionMock.createAValidTransaction();
+        second.setTransactionSchedule(LocalDate.now());
+        Transaction scheduled = TransactionMock.createAValidTransaction();
+        scheduled.setTransactionSchedule(LocalDate.now().plusDays(1));
+        when(mapper.mapFrom(any(TransactionDTO.class))).thenReturn(first, second, scheduled);
+        when(mapper.mapTo(any(Transaction.class))).thenAnswer(invocation -> {
+            Transaction mapped = invocation.getArgument(0);
+            return TransactionDTO.builder().status(mapped.getStatus()).build();
+        });
+        when(transferEngine.transferAll(anyList())).thenAnswer(invocation -> {
+            List<Transaction> group = invocation.getArgument(0);
+            group.get(0).setStatus(TransactionStatus.COMPLETED);
+            group.get(1).setStatus(TransactionStatus.CANCELLED);
+            return List.of(TransactionStatus.COMPLETED, TransactionStatus.CANCELLED);
+        });
+
+        List<TransactionDTO> results = this.transactionsService.saveAll(List.of(
+                TransactionMock.createAValidTransactionDTO(),
+                TransactionMock.createAValidTransactionDTO(),
+                TransactionMock.createAValidTransactionDTO()));
+
+        assertEquals(3, results.size());
+        assertEquals(TransactionStatus.COMPLETED, results.get(0).getStatus());
+        assertEquals(TransactionStatus.CANCELLED, results.get(1).getStatus());
+        assertEquals(TransactionStatus.PENDING, results.get(2).getStatus());
+        verify(transferEngine, times(1)).transferAll(List.of(first, second));
+        verify(transactionsRepository).save(scheduled);
+    }
+
+    @Test
+    @DisplayName("Should execute each idempotency key of a batch at most once")
+    void saveAllDuplicateKeys() {
+        Transaction first = TransactionMock.createAValidTransaction();
+        first.setTransactionSchedule(LocalDate.now());
+        first.setIdempotencyKey("lote-1");
+        Transaction repeated = TransactionMock.createAValidTransaction();
+        repeated.setTransactionSchedule(LocalDate.now());
+        repeated.setIdempotencyKey("lote-1");
+        Transaction alreadyStored = TransactionMock.createAValidTransaction();
+        alreadyStored.setTransactionSchedule(LocalDate.now());
+        alreadyStored.setIdempotencyKey("lote-2");
+        Transaction resubmitted = TransactionMock.createAValidTransaction();
+        resubmitted.setTransactionSchedule(LocalDate.now());
+        resubmitted.setIdempotencyKey("lote-1");
+        Transaction stored = TransactionMock.createAValidTransaction();
+        stored.setStatus(TransactionStatus.CANCELLED);
+        when(transactionsRepository.findByIdempotencyKey("lote-2")).thenReturn(stored);
+        when(mapper.mapFrom(any(TransactionDTO.class))).thenReturn(first, repeated, alreadyStored, resubmitted);
+        when(mapper.mapTo(any(Transaction.class))).thenAnswer(invocation -> {
+            Transaction mapped = invocation.getArgument(0);
+            return TransactionDTO.builder().status(mapped.getStatus()).build();
+        });
+        when(transferEngine.transferAll(anyList())).thenAnswer(invocation -> {
+            List<Transaction> group = invocation.getArgument(0);
+            group.forEach(transaction -> transaction.setStatus(TransactionStatus.COMPLETED));
+            return group.stream().map(Transaction::getStatus).toList();
+        });
+
+        List<TransactionDTO> results = this.transactionsService.saveAll(List.of(
+                TransactionMock.createAValidTransactionDTO(),
+                TransactionMock.createAValidTransactionDTO(),
+                TransactionMock.createAValidTransactionDTO()));
+        List<TransactionDTO> retried = this.transactionsService.saveAll(List.of(
+                TransactionMock.createAValidTransactionDTO()));
+
+        assertEquals(TransactionStatus.COMPLETED, results.get(0).getStatus());
+        assertEquals(TransactionStatus.COMPLETED, results.get(1).getStatus());
+        assertEquals(TransactionStatus.CANCELLED, results.get(2).getStatus());
+        assertEquals(TransactionStatus.COMPLETED, retried.get(0).getStatus());
+        verify(transferEngine, times(1)).transferAll(anyList());
+        verify(transferEngine).transferAll(List.of(first));
+    }
+
+    @Test
+    @DisplayName("Should release the key of a failed batch transfer for a retry")
+    void saveAllFailedKey() {
+        Transaction failed = TransactionMock.createAValidTransaction();
+        failed.setTransactionSchedule(LocalDate.now());
+        failed.setIdempotencyKey("lote-3");
+        Transaction retry = TransactionMock.createAValidTransaction();
+        retry.setTransactionSchedule(LocalDate.now());
+        retry.setIdempotencyKey("lote-3");
+        when(mapper.mapFrom(any(TransactionDTO.class))).thenReturn(failed, retry);
+        when(mapper.mapTo(any(Transaction.class))).thenAnswer(invocation -> {
+            Transaction mapped = invocation.getArgument(0);
+            return TransactionDTO.builder().status(mapped.getStatus()).build();
+        });
+        when(transferEngine.transferAll(anyList())).thenAnswer(invocation -> {
+            List<Transaction> group = invocation.getArgument(0);
+            group.get(0).setStatus(failed == group.get(0) ? TransactionStatus.FAILED : TransactionStatus.COMPLETED);
+            return List.of(group.get(0).getStatus());
+        });
+
+        List<TransactionDTO> first = this.transactionsService.saveAll(List.of(
+                TransactionMock.createAValidTransactionDTO()));
+        List<TransactionDTO> second = this.transactionsService.saveAll(List.of(
+                TransactionMock.createAValidTransactionDTO()));
+
+        assertEquals(TransactionStatus.FAILED, first.get(0).getStatus());
+        assertEquals(TransactionStatus.COMPLETED, second.get(0).getStatus());
+        verify(transferEngine, times(2)).transferAll(anyList());
+    }
+
+    @Test
+    @DisplayName("Should retry a batch duplicate whose original submission fails while it waits, as save does")
+    void saveAllDuplicateOfFailedSubmission() throws Exception {
+        Transaction transaction = TransactionMock.createAValidTransaction();
+        transaction.setTransactionSchedule(LocalDate.now());
+        transaction.setIdempotencyKey("lote-4");
+        when(mapper.mapFrom(any(TransactionDTO.class))).thenReturn(transaction);
+        when(mapper.mapTo(any(Transaction.class))).thenAnswer(invocation -> {
+            Transaction mapped = invocation.getArgument(0);
+            return TransactionDTO.builder().status(mapped.getStatus()).build();
+        });
+        when(transferEngine.transferAll(anyList())).thenAnswer(invocation -> {
+            List<Transaction> group = invocation.getArgument(0);
+            group.get(0).setStatus(TransactionStatus.COMPLETED);
+            return List.of(TransactionStatus.COMPLETED);
+        });
+
+        List<TransactionDTO> results = whileOriginalFails("lote-4",
+                () -> this.transactionsService.saveAll(List.of(TransactionMock.createAValidTransactionDTO())));
+
+        assertEquals(TransactionStatus.COMPLETED, results.get(0).getStatus());
+        verify(transferEngine, times(1)).transferAll(anyList());
+    }
+
+    /**
+     * Runs a submission while an original submission of the same key is in progress, and fails
+     * the original once the submission waits for it.
+     */
+    private <T> T whileOriginalFails(String idempotencyKey, Callable<T> submission) throws Exception {
+        assertNull(this.idempotencyCache.reserve(idempotencyKey));
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        try {
+            Future<T> result = executor.submit(submission);
+            while (this.idempotencyCache.getHits() == 0) {
+                Thread.onSpinWait();
+            }
+            this.idempotencyCache.release(idempotencyKey, new IllegalStateException("timeout"));
+            return result.get(5, TimeUnit.SECONDS);
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    @DisplayName("Should store a future transaction as pending without moving funds")
+    void saveScheduledTransaction() {
+        Transaction transaction = TransactionMock.createAValidTransaction();
+        transaction.setTransactionSchedule(LocalDate.now().plusDays(1));
+        when(mapper.mapFrom(any(TransactionDTO.class))).thenReturn(transaction);
+
+        assertTrue(this.transactionsService.save(TransactionMock.createAValidTransactionDTO()));
+        assertEquals(TransactionStatus.PENDING, transaction.getStatus());
+        verify(transactionsRepository).save(transaction);
+        verify(transferEngine, never()).transfer(any(Transaction.class));
+    }
+
+    @Test
+    @DisplayName("Should let a scheduled transaction be settled in the summary store")
+    void settleScheduledTransaction() {
+        Transaction transaction = Transaction.builder()
+                .sender(Account.builder().id(1L).build())
+                .receiver(Account.builder().id(2L).build())
+                .amount(BigDecimal.TEN)
+                .description("Aluguel")
+                .transactionSchedule(LocalDate.now().plusDays(1))
+                .build();
+        when(mapper.mapFrom(any(TransactionDTO.class))).thenReturn(transaction);
+        when(transactionsRepository.save(any(Transaction.class))).thenAnswer(invocation -> {
+            // The repository returns the managed copy, with the generated id
+            Transaction stored = invocation.getArgument(0);
+            return Transaction.builder()
+                    .id(7L)
+                    .sender(stored.getSender())
+                    .receiver(stored.getReceiver())
+                    .amount(stored.getAmount())
+                    .status(stored.getStatus())
+                    .description(stored.getDescription())
+                    .transactionSchedule(stored.getTransactionSchedule())
+                    .createdAt(LocalDateTime.now())
+                    .build();
+        });
+        summaryStore.get(1L, accountId -> AccountSummaryDTO.builder()
+                .accountId(accountId)
+                .balance(BigDecimal.valueOf(100))
+                .countsByStatus(Map.of())
+                .monthlyTotals(Map.of())
+                .recentTransactions(List.of())
+                .build());
+
+        assertTrue(this.transactionsService.save(TransactionMock.createAValidTransactionDTO()));
+        try (AccountSummaryStore.Update update = summaryStore.open(1L, 2L)) {
+            update.settle(7L, 1L, 2L, BigDecimal.TEN, TransactionStatus.COMPLETED);
+        }
 
-        assertDoesNotThrow(() -> this.transactionsService.save(TransactionMock.createAValidTransactionDTO()));
+        AccountSummaryDTO summary = summaryStore.get(1L, accountId -> fail("summary should be cached"));
+        assertEquals(7L, transaction.getId());
+        assertEquals(7L, summary.getRecentTransactions().get(0).getId());
+        assertEquals(TransactionStatus.COMPLETED, summary.getRecentTransactions().get(0).getStatus());
+        assertNull(summary.getCountsByStatus().get(TransactionStatus.PENDING));
     }
 
     @Test
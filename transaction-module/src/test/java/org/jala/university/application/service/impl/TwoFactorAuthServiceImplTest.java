@@ -6,9 +6,9 @@ import jakarta.persistence.EntityTransaction;
 import org.jala.university.application.map.TwoFactorCodeMapper;
 import org.jala.university.application.map.UserMapper;
 import org.jala.university.application.service.EmailService;
-import org.jala.university.domain.entity.TwoFactorCode;
+import org.jala.university.commons.infrastructure.persistance.UnitOfWork;
 import org.jala.university.domain.entity.User;
-import org.jala.university.domain.repository.TwoFactorCodeRepository;
+import org.jala.university.domain.repository.TwoFactorCodeStore;
 import org.jala.university.domain.repository.UserRepository;
 import org.jala.university.infrastructure.config.JPAConfig;
 import org.junit.jupiter.api.AfterAll;
@@ -22,6 +22,8 @@ import org.mockito.MockitoAnnotations;
 
 import java.lang.reflect.Field;
 import java.security.SecureRandom;
+import java.time.Duration;
+import java.util.Optional;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.any;
@@ -46,7 +48,7 @@ class TwoFactorAuthServiceImplTest {
     private UserRepository userRepository;
 
     @Mock
-    private TwoFactorCodeRepository twoFactorCodeRepository;
+    private TwoFactorCodeStore codeStore;
 
     @Mock
     private UserMapper userMapper;
@@ -93,9 +95,9 @@ class TwoFactorAuthServiceImplTest {
         twoFactorAuthService = Mockito.spy(new TwoFactorAuthServiceImpl());
 
         // Use reflection to set the mocked dependencies
-        setField(twoFactorAuthService, "entityManager", entityManager);
+        setField(twoFactorAuthService, "unitOfWork", UnitOfWork.bound(entityManager));
         setField(twoFactorAuthService, "userRepository", userRepository);
-        setField(twoFactorAuthService, "twoFactorCodeRepository", twoFactorCodeRepository);
+        setField(twoFactorAuthService, "codeStore", codeStore);
         setField(twoFactorAuthService, "userMapper", userMapper);
         setField(twoFactorAuthService, "twoFactorCodeMapper", twoFactorCodeMapper);
         setField(twoFactorAuthService, "emailService", emailService);
@@ -283,7 +285,8 @@ class TwoFactorAuthServiceImplTest {
         
         when(userRepository.findById(userId)).thenReturn(user);
         doThrow(new RuntimeException("Database error")).when(entityManager).merge(user);
-        when(transaction.isActive()).thenReturn(true);
+        // No enclosing transaction when the operation starts, then the one it began
+        when(transaction.isActive()).thenReturn(false, true);
 
         // Act
         boolean result = twoFactorAuthService.setTwoFactorEnabled(userId, true);
@@ -295,7 +298,7 @@ class TwoFactorAuthServiceImplTest {
         verify(userRepository).findById(userId);
         verify(transaction).begin();
         verify(entityManager).merge(user);
-        verify(transaction).isActive();
+        verify(transaction, times(2)).isActive();
         verify(transaction).rollback();
     }
 
@@ -318,6 +321,7 @@ class TwoFactorAuthServiceImplTest {
         
         when(userRepository.findById(userId)).thenReturn(user);
         when(secureRandom.nextInt(900000)).thenReturn(23456);
+        when(codeStore.getTimeToLive()).thenReturn(Duration.ofMinutes(10));
         when(emailService.sendEmail(anyString(), anyString(), anyString())).thenReturn(true);
 
         // Act
@@ -328,9 +332,7 @@ class TwoFactorAuthServiceImplTest {
         
         // Verify
         verify(userRepository).findById(userId);
-        verify(transaction).begin();
-        verify(entityManager).persist(any(TwoFactorCode.class));
-        verify(transaction).commit();
+        verify(codeStore).save(userId, generatedCode);
         verify(emailService).sendEmail(eq("john@example.com"), anyString(), contains("123456"));
     }
 
@@ -352,9 +354,51 @@ class TwoFactorAuthServiceImplTest {
         
         // Verify
         verify(userRepository).findById(userId);
-        verify(transaction).begin();
-        verify(entityManager, never()).persist(any(TwoFactorCode.class));
+        verify(codeStore, never()).save(any(), anyString());
 
         verify(emailService, never()).sendEmail(anyString(), anyString(), anyString());
     }
+
+    /**
+     * Test verifying a code.
+     * Verifies that only a code accepted by the store is valid.
+     */
+    @Test
+    void shouldVerifyCodeAgainstStore() {
+        // Arrange
+        when(codeStore.verify(1L, "123456")).thenReturn(TwoFactorCodeStore.Result.VALID);
+        when(codeStore.verify(1L, "000000")).thenReturn(TwoFactorCodeStore.Result.LOCKED);
+
+        // Act & Assert
+        assertTrue(twoFactorAuthService.verifyCode(1L, "123456"));
+        assertFalse(twoFactorAuthService.verifyCode(1L, "000000"));
+        verifyNoInteractions(userRepository);
+    }
+
+    /**
+     * Test resending a code that is still active.
+     * Verifies that the same code is emailed again with its remaining time.
+     */
+    @Test
+    void shouldResendActiveCode() {
+        // Arrange
+        Long userId = 1L;
+        User user = User.builder()
+                .id(userId)
+                .email("john@example.com")
+                .build();
+
+        when(codeStore.findActive(userId))
+                .thenReturn(Optional.of(new TwoFactorCodeStore.ActiveCode("654321", Duration.ofMinutes(7))));
+        when(userRepository.findById(userId)).thenReturn(user);
+        when(emailService.sendEmail(anyString(), anyString(), anyString())).thenReturn(true);
+
+        // Act
+        boolean result = twoFactorAuthService.resendCode(userId);
+
+        // Assert
+        assertTrue(result);
+        verify(codeStore, never()).save(any(), anyString());
+        verify(emailService).sendEmail(eq("john@example.com"), anyString(), contains("expira em 7 minutos"));
+    }
 }
\ No newline at end of file
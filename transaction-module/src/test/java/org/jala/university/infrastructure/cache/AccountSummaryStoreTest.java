@@ -0,0 +1,166 @@
+package org.jala.university.infrastructure.cache;
+
+import org.jala.university.application.dto.AccountSummaryDTO;
+import org.jala.university.application.dto.TransactionHistoryDTO;
+import org.jala.university.domain.entity.Account;
+import org.jala.university.domain.entity.Transaction;
+import org.jala.university.domain.entity.enums.TransactionStatus;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.YearMonth;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("Account summary store")
+class AccountSummaryStoreTest {
+
+    private static final Long ALICE = 1L;
+    private static final Long BOB = 2L;
+
+    private final AtomicLong now = new AtomicLong();
+    private final AtomicInteger loads = new AtomicInteger();
+    private final Function<Long, AccountSummaryDTO> database = accountId -> {
+        loads.incrementAndGet();
+        return AccountSummaryDTO.builder()
+                .accountId(accountId)
+                .balance(BigDecimal.valueOf(100))
+                .countsByStatus(Map.of(TransactionStatus.COMPLETED, 1L))
+                .monthlyTotals(Map.of())
+                .recentTransactions(List.of(TransactionHistoryDTO.builder()
+                        .id(1L)
+                        .status(TransactionStatus.COMPLETED)
+                        .amount(BigDecimal.TEN)
+                        .build()))
+                .build();
+    };
+
+    private AccountSummaryStore store;
+
+    @BeforeEach
+    void setUp() {
+        store = new AccountSummaryStore(3, Duration.ofMinutes(1), now::get);
+    }
+
+    @Test
+    @DisplayName("Should load a summary once and answer later reads from memory")
+    void loadOnce() {
+        store.get(ALICE, database);
+        AccountSummaryDTO summary = store.get(ALICE, database);
+
+        assertEquals(1, loads.get());
+        assertEquals(1, store.getHits());
+        assertEquals(0, BigDecimal.valueOf(100).compareTo(summary.getBalance()));
+        assertEquals(1, summary.getTransactionCount());
+        assertEquals(1L, summary.getRecentTransactions().get(0).getId());
+    }
+
+    @Test
+    @DisplayName("Should apply a completed transfer to both accounts")
+    void completedTransfer() {
+        store.get(ALICE, database);
+        store.get(BOB, database);
+
+        try (AccountSummaryStore.Update update = store.open(ALICE, BOB)) {
+            update.record(transaction(2L, ALICE, BOB, 30, TransactionStatus.COMPLETED));
+        }
+
+        AccountSummaryDTO alice = store.get(ALICE, database);
+        AccountSummaryDTO bob = store.get(BOB, database);
+        YearMonth month = YearMonth.now();
+        assertEquals(0, BigDecimal.valueOf(70).compareTo(alice.getBalance()));
+        assertEquals(0, BigDecimal.valueOf(130).compareTo(bob.getBalance()));
+        assertEquals(2L, alice.getCountsByStatus().get(TransactionStatus.COMPLETED));
+        assertEquals(0, BigDecimal.valueOf(30).compareTo(alice.getMonthlyTotals().get(month).getDebits()));
+        assertEquals(0, BigDecimal.valueOf(30).compareTo(bob.getMonthlyTotals().get(month).getCredits()));
+        assertTrue(alice.getRecentTransactions().get(0).isDebit());
+        assertFalse(bob.getRecentTransactions().get(0).isDebit());
+        assertEquals(2, loads.get());
+    }
+
+    @Test
+    @DisplayName("Should keep only the most recent transactions, newest first")
+    void recentRing() {
+        store.get(ALICE, database);
+
+        try (AccountSummaryStore.Update update = store.open(ALICE, BOB)) {
+            for (long id = 2; id <= 5; id++) {
+                update.record(transaction(id, ALICE, BOB, 1, TransactionStatus.CANCELLED));
+            }
+        }
+
+        List<Long> ids = store.get(ALICE, database).getRecentTransactions().stream()
+                .map(TransactionHistoryDTO::getId)
+                .toList();
+        assertEquals(List.of(5L, 4L, 3L), ids);
+        assertEquals(5, store.get(ALICE, database).getTransactionCount());
+    }
+
+    @Test
+    @DisplayName("Should move a settled transaction out of PENDING")
+    void settle() {
+        store.get(ALICE, database);
+        try (AccountSummaryStore.Update update = store.open(ALICE, BOB)) {
+            update.record(transaction(2L, ALICE, BOB, 40, TransactionStatus.PENDING));
+        }
+
+        try (AccountSummaryStore.Update update = store.open(ALICE, BOB)) {
+            update.settle(2L, ALICE, BOB, BigDecimal.valueOf(40), TransactionStatus.COMPLETED);
+        }
+
+        AccountSummaryDTO alice = store.get(ALICE, database);
+        assertNull(alice.getCountsByStatus().get(TransactionStatus.PENDING));
+        assertEquals(2L, alice.getCountsByStatus().get(TransactionStatus.COMPLETED));
+        assertEquals(TransactionStatus.COMPLETED, alice.getRecentTransactions().get(0).getStatus());
+        assertEquals(0, BigDecimal.valueOf(60).compareTo(alice.getBalance()));
+    }
+
+    @Test
+    @DisplayName("Should not store a summary loaded while a write on the account is in progress")
+    void loadDuringWrite() {
+        AccountSummaryStore.Update update = store.open(ALICE, BOB);
+        try {
+            store.get(ALICE, database);
+        } finally {
+            update.close();
+        }
+        store.get(ALICE, database);
+
+        assertEquals(2, loads.get());
+        store.get(ALICE, database);
+        assertEquals(2, loads.get());
+    }
+
+    @Test
+    @DisplayName("Should reload a summary once its time-to-live has passed")
+    void expiry() {
+        store.get(ALICE, database);
+
+        now.addAndGet(Duration.ofMinutes(2).toNanos());
+        store.get(ALICE, database);
+
+        assertEquals(2, loads.get());
+    }
+
+    private static Transaction transaction(Long id, Long senderId, Long receiverId, int amount,
+                                           TransactionStatus status) {
+        return Transaction.builder()
+                .id(id)
+                .sender(Account.builder().id(senderId).build())
+                .receiver(Account.builder().id(receiverId).build())
+                .amount(BigDecimal.valueOf(amount))
+                .status(status)
+                .description("Transferência")
+                .createdAt(LocalDateTime.now())
+                .build();
+    }
+}
@@ -0,0 +1,78 @@
+package org.jala.university.infrastructure.cache;
+
+import org.jala.university.domain.entity.enums.TransactionStatus;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("Idempotency cache")
+class IdempotencyCacheTest {
+
+    private final AtomicLong now = new AtomicLong();
+
+    private IdempotencyCache cache;
+
+    @BeforeEach
+    void setUp() {
+        cache = new IdempotencyCache(Duration.ofSeconds(10), now::get);
+    }
+
+    @Test
+    @DisplayName("Should reserve a new key and answer duplicates with its outcome")
+    void reserveAndComplete() {
+        assertNull(cache.reserve("key"));
+        cache.complete("key", TransactionStatus.COMPLETED);
+
+        CompletableFuture<TransactionStatus> duplicate = cache.reserve("key");
+
+        assertNotNull(duplicate);
+        assertEquals(TransactionStatus.COMPLETED, duplicate.join());
+        assertEquals(1, cache.getHits());
+        assertEquals(1, cache.getMisses());
+    }
+
+    @Test
+    @DisplayName("Should give a duplicate the pending outcome of a submission still in progress")
+    void duplicateWhileInProgress() {
+        assertNull(cache.reserve("key"));
+
+        CompletableFuture<TransactionStatus> duplicate = cache.reserve("key");
+        assertFalse(duplicate.isDone());
+
+        cache.complete("key", TransactionStatus.CANCELLED);
+        assertEquals(TransactionStatus.CANCELLED, duplicate.join());
+    }
+
+    @Test
+    @DisplayName("Should evict keys once their time-to-live has passed")
+    void expiry() {
+        assertNull(cache.reserve("key"));
+        cache.complete("key", TransactionStatus.COMPLETED);
+
+        now.addAndGet(Duration.ofSeconds(11).toNanos());
+
+        assertNull(cache.reserve("other"));
+        assertEquals(1, cache.size());
+        assertNull(cache.reserve("key"));
+        assertEquals(3, cache.getMisses());
+    }
+
+    @Test
+    @DisplayName("Should let a released key be retried and fail waiting duplicates")
+    void release() {
+        assertNull(cache.reserve("key"));
+        CompletableFuture<TransactionStatus> duplicate = cache.reserve("key");
+
+        cache.release("key", new IllegalStateException("boom"));
+
+        assertThrows(CompletionException.class, duplicate::join);
+        assertNull(cache.reserve("key"));
+    }
+}
@@ -0,0 +1,84 @@
+package org.jala.university.infrastructure.cache;
+
+import org.jala.university.domain.repository.TwoFactorCodeStore.Result;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("In-memory two-factor code store")
+class InMemoryTwoFactorCodeStoreTest {
+
+    private final AtomicLong now = new AtomicLong();
+
+    private InMemoryTwoFactorCodeStore store;
+
+    @BeforeEach
+    void setUp() {
+        store = new InMemoryTwoFactorCodeStore(Duration.ofMinutes(10), 3, now::get);
+    }
+
+    @Test
+    @DisplayName("Should accept the saved code once")
+    void verifyOnce() {
+        store.save(1L, "123456");
+
+        assertEquals(Result.VALID, store.verify(1L, "123456"));
+        assertEquals(Result.MISSING, store.verify(1L, "123456"));
+    }
+
+    @Test
+    @DisplayName("Should replace the previous code of the user")
+    void replace() {
+        store.save(1L, "111111");
+        store.save(1L, "222222");
+
+        assertEquals(Result.INVALID, store.verify(1L, "111111"));
+        assertEquals(Result.VALID, store.verify(1L, "222222"));
+    }
+
+    @Test
+    @DisplayName("Should discard the code after the last wrong attempt")
+    void lockAfterMaxAttempts() {
+        store.save(1L, "123456");
+
+        assertEquals(Result.INVALID, store.verify(1L, "000000"));
+        assertEquals(Result.INVALID, store.verify(1L, "000001"));
+        assertEquals(Result.LOCKED, store.verify(1L, "000002"));
+        assertEquals(Result.MISSING, store.verify(1L, "123456"));
+    }
+
+    @Test
+    @DisplayName("Should expire codes and evict them without a cleanup job")
+    void expiry() {
+        store.save(1L, "123456");
+        now.addAndGet(Duration.ofMinutes(4).toNanos());
+        store.save(2L, "654321");
+
+        assertEquals(Duration.ofMinutes(6), store.findActive(1L).orElseThrow().remaining());
+
+        now.addAndGet(Duration.ofMinutes(7).toNanos());
+        assertTrue(store.findActive(1L).isEmpty());
+        assertEquals(Result.VALID, store.verify(2L, "654321"));
+        assertEquals(0, store.size());
+    }
+
+    @Test
+    @DisplayName("Should keep the codes of different users apart")
+    void separateUsers() {
+        store.save(1L, "123456");
+        store.save(2L, "654321");
+
+        assertEquals(Result.INVALID, store.verify(1L, "654321"));
+        store.invalidate(2L);
+
+        assertEquals(Result.MISSING, store.verify(2L, "654321"));
+        assertEquals(Result.VALID, store.verify(1L, "123456"));
+        assertEquals(Result.MISSING, store.verify(3L, "123456"));
+        assertEquals(Result.MISSING, store.verify(1L, null));
+    }
+}
@@ -0,0 +1,187 @@
+package org.jala.university.infrastructure.cache;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import jakarta.persistence.Persistence;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.jala.university.commons.domain.Role;
+import org.jala.university.commons.infrastructure.persistance.UnitOfWork;
+import org.jala.university.domain.entity.Account;
+import org.jala.university.domain.entity.Transaction;
+import org.jala.university.domain.entity.User;
+import org.jala.university.domain.entity.enums.AccountType;
+import org.jala.university.infrastructure.persistence.AccountRepositoryImp;
+import org.jala.university.infrastructure.persistence.TransferEngineImpl;
+import org.jala.university.infrastructure.persistence.UserRepositoryImp;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("Second-level cache on an embedded database")
+class SecondLevelCacheIT {
+
+    private static EntityManagerFactory entityManagerFactory;
+    private static Statistics statistics;
+    private static Account account;
+    private static Account otherAccount;
+
+    private UnitOfWork unitOfWork;
+    private AccountRepositoryImp accountRepository;
+    private UserRepositoryImp userRepository;
+
+    @BeforeAll
+    static void createData() {
+        entityManagerFactory = Persistence.createEntityManagerFactory("test", Map.of(
+                "jakarta.persistence.jdbc.url", "jdbc:h2:mem:second_level_cache;MODE=MySQL;DATABASE_TO_LOWER=TRUE",
+                "jakarta.persistence.sharedCache.mode", "ENABLE_SELECTIVE",
+                "hibernate.cache.use_second_level_cache", "true",
+                "hibernate.cache.use_query_cache", "true",
+                "hibernate.cache.region.factory_class", "jcache",
+                "hibernate.javax.cache.provider", "org.ehcache.jsr107.EhcacheCachingProvider",
+                "hibernate.javax.cache.uri", "META-INF/ehcache.xml"));
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+
+        EntityManager entityManager = entityManagerFactory.createEntityManager();
+        entityManager.getTransaction().begin();
+        User user = User.builder()
+                .name("Alice")
+                .email("alice@test.com")
+                .password("secret")
+                .cpf("000.000.000-01")
+                .roles(Role.USER)
+                .build();
+        entityManager.persist(user);
+        account = Account.builder()
+                .user(user)
+                .agency("0001")
+                .accountNumber("000001")
+                .accountType(AccountType.CHECKING)
+                .balance(BigDecimal.valueOf(1000))
+                .build();
+        entityManager.persist(account);
+        otherAccount = Account.builder()
+                .user(user)
+                .agency("0001")
+                .accountNumber("000002")
+                .accountType(AccountType.SAVINGS)
+                .balance(BigDecimal.valueOf(1000))
+                .build();
+        entityManager.persist(otherAccount);
+        entityManager.getTransaction().commit();
+        entityManager.close();
+    }
+
+    @AfterAll
+    static void closeFactory() {
+        entityManagerFactory.close();
+    }
+
+    @BeforeEach
+    void setUp() {
+        unitOfWork = new UnitOfWork(entityManagerFactory);
+        accountRepository = new AccountRepositoryImp(unitOfWork);
+        userRepository = new UserRepositoryImp(unitOfWork);
+        entityManagerFactory.getCache().evictAll();
+        statistics.clear();
+    }
+
+    @Test
+    @DisplayName("Should read a user and an account by id from the cache after the first read")
+    void entityReads() {
+        userRepository.findById(account.getUser().getId());
+        accountRepository.findByAccountId(account.getId());
+        long statements = statistics.getPrepareStatementCount();
+
+        User user = userRepository.findById(account.getUser().getId());
+        Account cached = accountRepository.findByAccountId(account.getId());
+
+        assertEquals("Alice", user.getName());
+        assertEquals("000001", cached.getAccountNumber());
+        assertEquals(statements, statistics.getPrepareStatementCount());
+        assertTrue(SecondLevelCacheStats.of(entityManagerFactory).getEntityHitRatio() > 0);
+    }
+
+    @Test
+    @DisplayName("Should answer a repeated lookup by account number from the query cache")
+    void queryCache() {
+        accountRepository.findByAccountNumber("000001");
+        long statements = statistics.getPrepareStatementCount();
+
+        accountRepository.findByAccountNumber("000001");
+
+        assertEquals(statements, statistics.getPrepareStatementCount());
+        assertEquals(1, SecondLevelCacheStats.of(entityManagerFactory).getQueryHits());
+    }
+
+    @Test
+    @DisplayName("Should read the new state after a write through the repository")
+    void repositoryWrite() {
+        Account cached = accountRepository.findByAccountId(account.getId());
+        cached.setAgency("0002");
+
+        accountRepository.save(cached);
+
+        assertEquals("0002", accountRepository.findByAccountId(account.getId()).getAgency());
+        cached.setAgency("0001");
+        accountRepository.save(cached);
+    }
+
+    @Test
+    @DisplayName("Should read the balance from the database after a bulk balance update")
+    void balanceIsNotStale() {
+        accountRepository.findByAccountId(account.getId());
+
+        unitOfWork.execute(entityManager -> entityManager
+                .createQuery("UPDATE Account a SET a.balance = a.balance - 1 WHERE a.id = :accountId")
+                .setParameter("accountId", account.getId())
+                .executeUpdate());
+
+        BigDecimal balance = accountRepository.findBalanceById(account.getId());
+        assertEquals(0, balance.compareTo(accountRepository.findByAccountId(account.getId()).getBalance()));
+        assertEquals(0, BigDecimal.valueOf(999).compareTo(balance));
+
+        unitOfWork.execute(entityManager -> entityManager
+                .createQuery("UPDATE Account a SET a.balance = a.balance + 1 WHERE a.id = :accountId")
+                .setParameter("accountId", account.getId())
+                .executeUpdate());
+    }
+
+    @Test
+    @DisplayName("Should keep both accounts cached, with their new balances, after a transfer")
+    void transferKeepsAccountsCached() {
+        TransferEngineImpl transferEngine = new TransferEngineImpl(entityManagerFactory,
+                new AccountSummaryStore(AccountSummaryStore.DEFAULT_RECENT_SIZE, AccountSummaryStore.DEFAULT_TTL));
+        accountRepository.findByAccountId(account.getId());
+        accountRepository.findByAccountId(otherAccount.getId());
+
+        transferEngine.transfer(transfer(account, otherAccount));
+        long statements = statistics.getPrepareStatementCount();
+        Account sender = accountRepository.findByAccountId(account.getId());
+        Account receiver = accountRepository.findByAccountId(otherAccount.getId());
+
+        assertEquals(statements, statistics.getPrepareStatementCount());
+        assertEquals(0, BigDecimal.valueOf(999).compareTo(sender.getBalance()));
+        assertEquals(0, BigDecimal.valueOf(1001).compareTo(receiver.getBalance()));
+
+        transferEngine.transfer(transfer(otherAccount, account));
+    }
+
+    private static Transaction transfer(Account sender, Account receiver) {
+        return Transaction.builder()
+                .sender(Account.builder().id(sender.getId()).build())
+                .receiver(Account.builder().id(receiver.getId()).build())
+                .amount(BigDecimal.ONE)
+                .description("Transferência")
+                .transactionSchedule(LocalDate.now())
+                .build();
+    }
+}
@@ -0,0 +1,162 @@
+package org.jala.university.infrastructure.mail;
+
+import jakarta.mail.MessagingException;
+import jakarta.mail.Session;
+import org.jala.university.infrastructure.mock.LocalSmtpServer;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.BooleanSupplier;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("Email outbox")
+class EmailOutboxTest {
+
+    private EmailOutbox outbox;
+
+    @AfterEach
+    void tearDown() throws InterruptedException {
+        if (outbox != null) {
+            outbox.shutdown();
+            outbox.awaitTermination(Duration.ofSeconds(5));
+        }
+    }
+
+    @Test
+    @DisplayName("Should deliver queued messages over one reused connection per worker")
+    void deliversOverReusedConnections() throws Exception {
+        try (LocalSmtpServer server = LocalSmtpServer.start(0)) {
+            MailSettings settings = MailSettings.local(server.getPort());
+            Session session = settings.createSession();
+            outbox = new EmailOutbox(() -> new SmtpConnection(settings, session), 2, 100, 3, Duration.ofMillis(10));
+
+            for (int i = 0; i < 20; i++) {
+                assertTrue(outbox.sendEmail("cliente" + i + "@example.com", "Assunto " + i, "Corpo " + i));
+            }
+
+            awaitUntil(() -> server.getMessages().size() == 20);
+            assertTrue(server.getConnectionCount() <= 2);
+            Set<String> recipients = server.getMessages().stream()
+                    .flatMap(message -> message.recipients().stream())
+                    .collect(Collectors.toSet());
+            assertTrue(recipients.contains("cliente7@example.com"));
+            assertTrue(server.getMessages().stream().anyMatch(message -> message.data().contains("Subject: Assunto 7")));
+            awaitUntil(() -> outbox.getPendingCount() == 0);
+            assertEquals(20, outbox.getSentCount());
+        }
+    }
+
+    @Test
+    @DisplayName("Should retry a failed message and reconnect")
+    void retriesWithBackoff() throws Exception {
+        AtomicInteger attempts = new AtomicInteger();
+        AtomicInteger disconnects = new AtomicInteger();
+        outbox = new EmailOutbox(() -> new MailConnection() {
+            @Override
+            public void send(EmailMessage message) throws MessagingException {
+                if (attempts.incrementAndGet() < 3) {
+                    throw new MessagingException("conexão recusada");
+                }
+            }
+
+            @Override
+            public void disconnect() {
+                disconnects.incrementAndGet();
+            }
+        }, 1, 10, 5, Duration.ofMillis(10));
+
+        assertTrue(outbox.sendEmail("cliente@example.com", "Código", "123456"));
+
+        awaitUntil(() -> outbox.getSentCount() == 1);
+        assertEquals(3, attempts.get());
+        assertTrue(disconnects.get() >= 2);
+        assertEquals(0, outbox.getFailedCount());
+    }
+
+    @Test
+    @DisplayName("Should drop a message after the last attempt")
+    void dropsAfterMaxAttempts() throws Exception {
+        AtomicInteger attempts = new AtomicInteger();
+        outbox = new EmailOutbox(() -> new MailConnection() {
+            @Override
+            public void send(EmailMessage message) throws MessagingException {
+                attempts.incrementAndGet();
+                throw new MessagingException("servidor indisponível");
+            }
+
+            @Override
+            public void disconnect() {
+            }
+        }, 1, 10, 3, Duration.ofMillis(10));
+
+        assertTrue(outbox.sendEmail("cliente@example.com", "Código", "123456"));
+
+        awaitUntil(() -> outbox.getFailedCount() == 1);
+        assertEquals(3, attempts.get());
+        assertEquals(0, outbox.getPendingCount());
+    }
+
+    @Test
+    @DisplayName("Should refuse messages once the outbox is full")
+    void refusesWhenFull() throws Exception {
+        CountDownLatch release = new CountDownLatch(1);
+        outbox = new EmailOutbox(() -> new MailConnection() {
+            @Override
+            public void send(EmailMessage message) {
+                try {
+                    release.await(5, TimeUnit.SECONDS);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+
+            @Override
+            public void disconnect() {
+            }
+        }, 1, 1, 1, Duration.ofMillis(10));
+
+        assertTrue(outbox.sendEmail("primeiro@example.com", "Código", "1"));
+        assertFalse(outbox.sendEmail("segundo@example.com", "Código", "2"));
+
+        release.countDown();
+        awaitUntil(() -> outbox.getSentCount() == 1);
+        assertTrue(outbox.sendEmail("terceiro@example.com", "Código", "3"));
+    }
+
+    @Test
+    @DisplayName("Should refuse an invalid address without queuing it")
+    void refusesInvalidAddress() {
+        outbox = new EmailOutbox(() -> new MailConnection() {
+            @Override
+            public void send(EmailMessage message) {
+                fail("Nenhum email deveria ser enviado");
+            }
+
+            @Override
+            public void disconnect() {
+            }
+        }, 1, 10, 1, Duration.ofMillis(10));
+
+        assertFalse(outbox.sendEmail("não é um email", "Código", "1"));
+        assertFalse(outbox.sendEmail(null, "Código", "1"));
+        assertEquals(0, outbox.getPendingCount());
+    }
+
+    private static void awaitUntil(BooleanSupplier condition) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+        while (!condition.getAsBoolean()) {
+            if (System.nanoTime() > deadline) {
+                fail("Condição não atingida a tempo");
+            }
+            Thread.sleep(10);
+        }
+    }
+}
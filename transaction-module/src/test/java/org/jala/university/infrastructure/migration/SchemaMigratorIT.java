@@ -0,0 +1,125 @@
+package org.jala.university.infrastructure.migration;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import jakarta.persistence.Persistence;
+import org.hibernate.Session;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.sql.Connection;
+import java.sql.DatabaseMetaData;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("Schema migrator on an embedded database")
+class SchemaMigratorIT {
+
+    private static EntityManagerFactory entityManagerFactory;
+
+    @BeforeAll
+    static void createDatabase() {
+        entityManagerFactory = Persistence.createEntityManagerFactory("test", Map.of(
+                "jakarta.persistence.jdbc.url", "jdbc:h2:mem:schema_migrator;MODE=MySQL;DATABASE_TO_LOWER=TRUE"));
+        new SchemaMigrator(entityManagerFactory).migrate();
+    }
+
+    @AfterAll
+    static void closeFactory() {
+        entityManagerFactory.close();
+    }
+
+    @Test
+    @DisplayName("Should record the applied versions and not apply them again")
+    void migrateOnce() {
+        assertEquals(0, new SchemaMigrator(entityManagerFactory).migrate());
+        assertEquals(List.of(1, 2), query("SELECT version FROM schema_version ORDER BY version").stream()
+                .map(version -> ((Number) version).intValue())
+                .toList());
+    }
+
+    @Test
+    @DisplayName("Should create every index of the migrations")
+    void indexesExist() {
+        for (Migration migration : SchemaMigrations.all()) {
+            for (IndexMigration.IndexDefinition index : ((IndexMigration) migration).getIndexes()) {
+                assertTrue(indexNames(index.table()).contains(index.name()), index.name());
+            }
+        }
+    }
+
+    @Test
+    @DisplayName("Should look up two-factor codes and accounts of a user through an index")
+    void lookupPlans() {
+        String codesPlan = explain("SELECT * FROM two_factor_codes WHERE user_id = 1 AND expires_at > NOW()");
+        String accountsPlan = explain("SELECT * FROM accounts WHERE user_id = 1");
+
+        assertFalse(codesPlan.contains("tablescan"), codesPlan);
+        assertFalse(accountsPlan.contains("tablescan"), accountsPlan);
+    }
+
+    @Test
+    @DisplayName("Should not record a migration that fails")
+    void failedMigration() {
+        Migration failing = new Migration() {
+            @Override
+            public int getVersion() {
+                return 99;
+            }
+
+            @Override
+            public String getDescription() {
+                return "Falha";
+            }
+
+            @Override
+            public void apply(Connection connection) throws SQLException {
+                throw new SQLException("boom");
+            }
+        };
+
+        SchemaMigrator migrator = new SchemaMigrator(entityManagerFactory, List.of(failing));
+
+        assertThrows(RuntimeException.class, migrator::migrate);
+        assertTrue(query("SELECT version FROM schema_version WHERE version = 99").isEmpty());
+    }
+
+    private static List<?> query(String sql) {
+        EntityManager entityManager = entityManagerFactory.createEntityManager();
+        try {
+            return entityManager.createNativeQuery(sql).getResultList();
+        } finally {
+            entityManager.close();
+        }
+    }
+
+    private static String explain(String sql) {
+        return String.valueOf(query("EXPLAIN " + sql).get(0)).toLowerCase();
+    }
+
+    private static Set<String> indexNames(String table) {
+        EntityManager entityManager = entityManagerFactory.createEntityManager();
+        try {
+            return entityManager.unwrap(Session.class).doReturningWork(connection -> {
+                Set<String> names = new HashSet<>();
+                DatabaseMetaData metaData = connection.getMetaData();
+                try (ResultSet rows = metaData.getIndexInfo(null, null, table, false, false)) {
+                    while (rows.next()) {
+                        names.add(rows.getString("INDEX_NAME").toLowerCase());
+                    }
+                }
+                return names;
+            });
+        } finally {
+            entityManager.close();
+        }
+    }
+}
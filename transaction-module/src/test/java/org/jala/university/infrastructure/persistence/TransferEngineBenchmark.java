@@ -0,0 +1,127 @@
+package org.jala.university.infrastructure.persistence;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import org.jala.university.domain.entity.Account;
+import org.jala.university.domain.entity.Transaction;
+import org.jala.university.domain.entity.enums.TransactionStatus;
+import org.jala.university.infrastructure.config.JPAConfig;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Manual throughput benchmark for {@link TransferEngineImpl}.
+ * <p>
+ * Runs random transfers between existing accounts from many threads against the database
+ * configured in {@code persistence.xml}, then prints transfers per second and checks that
+ * the total balance of the accounts involved did not drift.
+ * <p>
+ * Not executed by the test suite. Usage:
+ * {@code TransferEngineBenchmark <threads> <transfersPerThread> <accountId> <accountId> [accountId...]}
+ * <p>
+ * Pass {@code -Dgroup=<size>} to submit the transfers through
+ * {@link TransferEngineImpl#transferAll(List)} in groups of that size instead of one by one.
+ */
+public final class TransferEngineBenchmark {
+
+    private static final BigDecimal AMOUNT = new BigDecimal("1.00");
+
+    private TransferEngineBenchmark() {
+    }
+
+    public static void main(String[] args) throws Exception {
+        if (args.length < 4) {
+            System.out.println("Usage: TransferEngineBenchmark <threads> <transfersPerThread> <accountId> <accountId> ...");
+            return;
+        }
+        int threads = Integer.parseInt(args[0]);
+        int transfersPerThread = Integer.parseInt(args[1]);
+        int groupSize = Integer.getInteger("group", 1);
+        List<Long> accountIds = new ArrayList<>();
+        for (int i = 2; i < args.length; i++) {
+            accountIds.add(Long.parseLong(args[i]));
+        }
+
+        EntityManagerFactory factory = JPAConfig.getEntityManagerFactory();
+        TransferEngineImpl engine = new TransferEngineImpl(factory);
+        BigDecimal totalBefore = totalBalance(factory, accountIds);
+
+        AtomicLong completed = new AtomicLong();
+        AtomicLong cancelled = new AtomicLong();
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        List<Future<?>> futures = new ArrayList<>();
+        long start = System.nanoTime();
+        for (int t = 0; t < threads; t++) {
+            futures.add(executor.submit(() -> {
+                ThreadLocalRandom random = ThreadLocalRandom.current();
+                List<Transaction> group = new ArrayList<>(groupSize);
+                for (int i = 0; i < transfersPerThread; i++) {
+                    int from = random.nextInt(accountIds.size());
+                    int to = (from + 1 + random.nextInt(accountIds.size() - 1)) % accountIds.size();
+                    Transaction transfer = transfer(accountIds.get(from), accountIds.get(to));
+                    if (groupSize <= 1) {
+                        count(engine.transfer(transfer), completed, cancelled);
+                        continue;
+                    }
+                    group.add(transfer);
+                    if (group.size() == groupSize || i == transfersPerThread - 1) {
+                        engine.transferAll(group).forEach(status -> count(status, completed, cancelled));
+                        group = new ArrayList<>(groupSize);
+                    }
+                }
+            }));
+        }
+        for (Future<?> future : futures) {
+            future.get();
+        }
+        long elapsedNanos = System.nanoTime() - start;
+        executor.shutdown();
+        executor.awaitTermination(1, TimeUnit.MINUTES);
+
+        BigDecimal totalAfter = totalBalance(factory, accountIds);
+        long transfers = completed.get() + cancelled.get();
+        double seconds = elapsedNanos / 1_000_000_000.0;
+        System.out.printf("group=%d threads=%d transfers=%d completed=%d cancelled=%d "
+                        + "elapsed=%.2fs throughput=%.1f transfers/s%n",
+                groupSize, threads, transfers, completed.get(), cancelled.get(), seconds, transfers / seconds);
+        System.out.printf("total balance before=%s after=%s drift=%s%n",
+                totalBefore, totalAfter, totalAfter.subtract(totalBefore));
+
+        JPAConfig.close();
+    }
+
+    private static void count(TransactionStatus status, AtomicLong completed, AtomicLong cancelled) {
+        (status == TransactionStatus.COMPLETED ? completed : cancelled).incrementAndGet();
+    }
+
+    private static Transaction transfer(Long senderId, Long receiverId) {
+        return Transaction.builder()
+                .amount(AMOUNT)
+                .description("benchmark")
+                .sender(Account.builder().id(senderId).build())
+                .receiver(Account.builder().id(receiverId).build())
+                .transactionSchedule(LocalDate.now())
+                .build();
+    }
+
+    private static BigDecimal totalBalance(EntityManagerFactory factory, List<Long> accountIds) {
+        EntityManager entityManager = factory.createEntityManager();
+        try {
+            return entityManager.createQuery(
+                            "SELECT SUM(a.balance) FROM Account a WHERE a.id IN :ids", BigDecimal.class)
+                    .setParameter("ids", accountIds)
+                    .getSingleResult();
+        } finally {
+            entityManager.close();
+        }
+    }
+}
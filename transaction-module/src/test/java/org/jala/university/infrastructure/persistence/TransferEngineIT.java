@@ -0,0 +1,165 @@
+package org.jala.university.infrastructure.persistence;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import jakarta.persistence.Persistence;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.jala.university.commons.domain.Role;
+import org.jala.university.domain.entity.Account;
+import org.jala.university.domain.entity.LedgerEntry;
+import org.jala.university.domain.entity.Transaction;
+import org.jala.university.domain.entity.User;
+import org.jala.university.domain.entity.enums.AccountType;
+import org.jala.university.domain.entity.enums.PostingType;
+import org.jala.university.domain.entity.enums.TransactionStatus;
+import org.jala.university.infrastructure.cache.AccountSummaryStore;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("Transfer engine on an embedded database")
+class TransferEngineIT {
+
+    private EntityManagerFactory entityManagerFactory;
+    private Statistics statistics;
+    private TransferEngineImpl transferEngine;
+    private Account payer;
+    private Account payee;
+
+    @BeforeEach
+    void setUp() {
+        entityManagerFactory = Persistence.createEntityManagerFactory("test", Map.of(
+                "jakarta.persistence.jdbc.url", "jdbc:h2:mem:transfer_engine;MODE=MySQL;DATABASE_TO_LOWER=TRUE"));
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        transferEngine = new TransferEngineImpl(entityManagerFactory,
+                new AccountSummaryStore(AccountSummaryStore.DEFAULT_RECENT_SIZE, AccountSummaryStore.DEFAULT_TTL));
+
+        EntityManager entityManager = entityManagerFactory.createEntityManager();
+        entityManager.getTransaction().begin();
+        User user = User.builder()
+                .name("Alice")
+                .email("alice@test.com")
+                .password("secret")
+                .cpf("000.000.000-01")
+                .roles(Role.USER)
+                .build();
+        entityManager.persist(user);
+        payer = account(user, "000001", "100");
+        entityManager.persist(payer);
+        payee = account(user, "000002", "0");
+        entityManager.persist(payee);
+        entityManager.getTransaction().commit();
+        entityManager.close();
+    }
+
+    @AfterEach
+    void closeFactory() {
+        entityManagerFactory.close();
+    }
+
+    @Test
+    @DisplayName("Should write the transactions, postings and balances of a group in one commit")
+    void transferAllGroupCommit() {
+        LocalDate schedule = LocalDate.of(2025, 3, 10);
+        List<Transaction> transactions = List.of(
+                transfer(payer, payee, "40", "key-1"),
+                transfer(payer, payee, "40", "key-2"),
+                transfer(payer, payee, "40", "key-3"));
+        transactions.get(0).setTransactionSchedule(schedule);
+        statistics.clear();
+
+        List<TransactionStatus> statuses = transferEngine.transferAll(transactions);
+
+        assertEquals(List.of(TransactionStatus.COMPLETED, TransactionStatus.COMPLETED, TransactionStatus.CANCELLED),
+                statuses);
+        // A group whose inserts do not match the schema would be retried one transfer at a time
+        assertEquals(1, statistics.getSuccessfulTransactionCount());
+        EntityManager entityManager = entityManagerFactory.createEntityManager();
+        try {
+            for (int i = 0; i < transactions.size(); i++) {
+                Transaction stored = entityManager.find(Transaction.class, transactions.get(i).getId());
+                assertNotNull(stored);
+                assertEquals(statuses.get(i), stored.getStatus());
+                assertEquals(0, new BigDecimal("40").compareTo(stored.getAmount()));
+                assertEquals(payer.getId(), stored.getSender().getId());
+                assertEquals(payee.getId(), stored.getReceiver().getId());
+                assertEquals("Transferência", stored.getDescription());
+                assertEquals("key-" + (i + 1), stored.getIdempotencyKey());
+                assertNotNull(stored.getCreatedAt());
+            }
+            assertEquals(schedule, entityManager.find(Transaction.class, transactions.get(0).getId())
+                    .getTransactionSchedule());
+
+            List<LedgerEntry> postings = entityManager.createQuery(
+                            "SELECT e FROM LedgerEntry e ORDER BY e.id", LedgerEntry.class)
+                    .getResultList();
+            assertEquals(4, postings.size());
+            assertEquals(PostingType.DEBIT, postings.get(0).getType());
+            assertEquals(payer.getId(), postings.get(0).getAccount().getId());
+            assertEquals(PostingType.CREDIT, postings.get(1).getType());
+            assertEquals(payee.getId(), postings.get(1).getAccount().getId());
+            assertEquals(transactions.get(1).getId(), postings.get(3).getTransaction().getId());
+
+            assertEquals(0, new BigDecimal("20").compareTo(
+                    entityManager.find(Account.class, payer.getId()).getBalance()));
+            assertEquals(0, new BigDecimal("80").compareTo(
+                    entityManager.find(Account.class, payee.getId()).getBalance()));
+        } finally {
+            entityManager.close();
+        }
+    }
+
+    @Test
+    @DisplayName("Should retry a group that breaks a constraint one by one and store the failed transfer")
+    void transferAllRetriesFailedGroup() {
+        List<Transaction> transactions = List.of(
+                transfer(payer, payee, "10", "key-1"),
+                transfer(payer, payee, "10", "key-1"));
+
+        List<TransactionStatus> statuses = transferEngine.transferAll(transactions);
+
+        assertEquals(List.of(TransactionStatus.COMPLETED, TransactionStatus.FAILED), statuses);
+        EntityManager entityManager = entityManagerFactory.createEntityManager();
+        try {
+            Transaction failed = entityManager.find(Transaction.class, transactions.get(1).getId());
+            assertNotNull(failed);
+            assertEquals(TransactionStatus.FAILED, failed.getStatus());
+            assertNull(failed.getIdempotencyKey());
+            assertEquals(2L, entityManager.createQuery("SELECT COUNT(t) FROM Transaction t", Long.class)
+                    .getSingleResult());
+            assertEquals(0, new BigDecimal("90").compareTo(
+                    entityManager.find(Account.class, payer.getId()).getBalance()));
+        } finally {
+            entityManager.close();
+        }
+    }
+
+    private static Account account(User user, String accountNumber, String balance) {
+        return Account.builder()
+                .user(user)
+                .agency("0001")
+                .accountNumber(accountNumber)
+                .accountType(AccountType.CHECKING)
+                .balance(new BigDecimal(balance))
+                .build();
+    }
+
+    private static Transaction transfer(Account sender, Account receiver, String amount, String idempotencyKey) {
+        return Transaction.builder()
+                .sender(Account.builder().id(sender.getId()).build())
+                .receiver(Account.builder().id(receiver.getId()).build())
+                .amount(new BigDecimal(amount))
+                .description("Transferência")
+                .idempotencyKey(idempotencyKey)
+                .build();
+    }
+}
@@ -0,0 +1,373 @@
+package org.jala.university.infrastructure.persistence;
+
+import jakarta.persistence.CacheRetrieveMode;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import jakarta.persistence.EntityTransaction;
+import jakarta.persistence.PersistenceException;
+import jakarta.persistence.Query;
+import jakarta.persistence.TypedQuery;
+import org.hibernate.Session;
+import org.hibernate.jdbc.Work;
+import org.jala.university.domain.entity.Account;
+import org.jala.university.domain.entity.LedgerEntry;
+import org.jala.university.domain.entity.Transaction;
+import org.jala.university.domain.entity.enums.PostingType;
+import org.jala.university.domain.entity.enums.TransactionStatus;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InOrder;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+
+import java.math.BigDecimal;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@DisplayName("Transfer engine")
+class TransferEngineImplTest {
+
+    @Mock
+    private EntityManagerFactory entityManagerFactory;
+
+    @Mock
+    private EntityManager entityManager;
+
+    @Mock
+    private EntityTransaction dbTransaction;
+
+    @Mock
+    private Query lockQuery;
+
+    @Mock
+    private TypedQuery<Account> accountsQuery;
+
+    @Mock
+    private TypedQuery<Object[]> pendingQuery;
+
+    @Mock
+    private TypedQuery<TransactionStatus> statusQuery;
+
+    @Mock
+    private Query settleQuery;
+
+    @Mock
+    private Session session;
+
+    @Mock
+    private Connection connection;
+
+    @Mock
+    private PreparedStatement insertStatement;
+
+    @Mock
+    private ResultSet generatedKeys;
+
+    @Mock
+    private PreparedStatement ledgerStatement;
+
+    private TransferEngineImpl transferEngine;
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+
+        when(entityManagerFactory.createEntityManager()).thenReturn(entityManager);
+        when(entityManager.getTransaction()).thenReturn(dbTransaction);
+        when(entityManager.createNativeQuery(contains("FOR UPDATE"))).thenReturn(lockQuery);
+        when(lockQuery.setParameter(anyString(), any())).thenReturn(lockQuery);
+        when(lockQuery.getResultList()).thenReturn(List.of(1L, 2L));
+        when(entityManager.createQuery(anyString(), eq(Account.class))).thenReturn(accountsQuery);
+        when(accountsQuery.setParameter(anyString(), any())).thenReturn(accountsQuery);
+        when(accountsQuery.setHint(anyString(), any())).thenReturn(accountsQuery);
+        when(accountsQuery.getResultList()).thenAnswer(
+                invocation -> List.of(account(1L, "100"), account(2L, "100")));
+        when(entityManager.createQuery(anyString(), eq(Object[].class))).thenReturn(pendingQuery);
+        when(pendingQuery.setParameter(anyString(), any())).thenReturn(pendingQuery);
+        when(entityManager.createQuery(anyString(), eq(TransactionStatus.class))).thenReturn(statusQuery);
+        when(statusQuery.setParameter(anyString(), any())).thenReturn(statusQuery);
+        when(entityManager.createQuery(contains("t.status = :pending"))).thenReturn(settleQuery);
+        when(settleQuery.setParameter(anyString(), any())).thenReturn(settleQuery);
+        when(entityManager.getReference(eq(Account.class), any())).thenAnswer(
+                invocation -> account(invocation.getArgument(1)));
+
+        transferEngine = new TransferEngineImpl(entityManagerFactory);
+    }
+
+    private void mockBatchInsert() throws SQLException {
+        when(entityManager.unwrap(Session.class)).thenReturn(session);
+        doAnswer(invocation -> {
+            Work work = invocation.getArgument(0);
+            try {
+                work.execute(connection);
+            } catch (SQLException e) {
+                throw new PersistenceException(e);
+            }
+            return null;
+        }).when(session).doWork(any(Work.class));
+        when(connection.prepareStatement(anyString(), anyInt())).thenReturn(insertStatement);
+        when(connection.prepareStatement(contains("ledger_entries"))).thenReturn(ledgerStatement);
+        when(insertStatement.getGeneratedKeys()).thenReturn(generatedKeys);
+        when(generatedKeys.next()).thenReturn(true, true, true, false);
+        when(generatedKeys.getLong(1)).thenReturn(10L, 11L, 12L);
+    }
+
+    @Test
+    @DisplayName("Should debit, credit and insert the transaction in a single commit")
+    void transferCompleted() {
+        Transaction transaction = transaction(2L, 1L);
+
+        TransactionStatus status = transferEngine.transfer(transaction);
+
+        assertEquals(TransactionStatus.COMPLETED, status);
+        assertEquals(TransactionStatus.COMPLETED, transaction.getStatus());
+        assertEquals(new BigDecimal("90"), transaction.getSender().getBalance());
+        assertEquals(new BigDecimal("110"), transaction.getReceiver().getBalance());
+        InOrder inOrder = inOrder(dbTransaction, lockQuery, accountsQuery, entityManager);
+        inOrder.verify(dbTransaction).begin();
+        inOrder.verify(lockQuery).getResultList();
+        inOrder.verify(accountsQuery).getResultList();
+        inOrder.verify(entityManager).persist(transaction);
+        inOrder.verify(dbTransaction).commit();
+        verify(dbTransaction, times(1)).commit();
+        verify(entityManager).close();
+        // No bulk update, which would evict the whole Account cache region
+        verify(entityManager, never()).createQuery(anyString());
+    }
+
+    @Test
+    @DisplayName("Should append a debit and a credit posting for a completed transfer")
+    void transferPostsToLedger() {
+        Transaction transaction = transaction(1L, 2L);
+
+        transferEngine.transfer(transaction);
+
+        ArgumentCaptor<LedgerEntry> postings = ArgumentCaptor.forClass(LedgerEntry.class);
+        verify(entityManager, times(2)).persist(postings.capture());
+        LedgerEntry debit = postings.getAllValues().get(0);
+        LedgerEntry credit = postings.getAllValues().get(1);
+        assertEquals(PostingType.DEBIT, debit.getType());
+        assertEquals(1L, debit.getAccount().getId());
+        assertEquals(PostingType.CREDIT, credit.getType());
+        assertEquals(2L, credit.getAccount().getId());
+        assertSame(transaction, debit.getTransaction());
+        assertEquals(BigDecimal.TEN, credit.getAmount());
+    }
+
+    @Test
+    @DisplayName("Should lock only the account ids in ascending id order, then read the locked rows")
+    void transferLocksInIdOrder() {
+        transferEngine.transfer(transaction(2L, 1L));
+
+        verify(entityManager).createNativeQuery(contains("ORDER BY id FOR UPDATE"));
+        verify(lockQuery).setParameter("ids", List.of(1L, 2L));
+        verify(entityManager).createQuery(contains("JOIN FETCH a.user"), eq(Account.class));
+        verify(accountsQuery).setHint("jakarta.persistence.cache.retrieveMode", CacheRetrieveMode.BYPASS);
+    }
+
+    @Test
+    @DisplayName("Should record a cancelled transaction without crediting when the debit is rejected")
+    void transferWithInsufficientBalance() {
+        when(accountsQuery.getResultList()).thenReturn(List.of(account(1L, "5"), account(2L, "0")));
+        Transaction transaction = transaction(1L, 2L);
+
+        TransactionStatus status = transferEngine.transfer(transaction);
+
+        assertEquals(TransactionStatus.CANCELLED, status);
+        assertEquals(new BigDecimal("5"), transaction.getSender().getBalance());
+        assertEquals(new BigDecimal("0"), transaction.getReceiver().getBalance());
+        verify(entityManager).persist(transaction);
+        verify(entityManager, never()).persist(any(LedgerEntry.class));
+        verify(dbTransaction, times(1)).commit();
+    }
+
+    @Test
+    @DisplayName("Should roll back and close the entity manager when the transfer fails")
+    void transferRollsBackOnFailure() {
+        doThrow(new PersistenceException("deadlock")).when(entityManager).persist(any(Transaction.class));
+        when(dbTransaction.isActive()).thenReturn(true);
+
+        assertThrows(PersistenceException.class, () -> transferEngine.transfer(transaction(1L, 2L)));
+
+        verify(dbTransaction).rollback();
+        verify(dbTransaction, never()).commit();
+        verify(entityManager).close();
+    }
+
+    @Test
+    @DisplayName("Should reject transfers to the same account")
+    void transferToSameAccount() {
+        assertThrows(IllegalArgumentException.class, () -> transferEngine.transfer(transaction(1L, 1L)));
+        verify(entityManagerFactory, never()).createEntityManager();
+    }
+
+    @Test
+    @DisplayName("Should apply a group in order and commit it once with a single insert batch")
+    void transferAllGroupCommit() throws SQLException {
+        mockBatchInsert();
+        Account payer = account(1L, "100");
+        Account first = account(2L, "0");
+        Account second = account(3L, "0");
+        when(accountsQuery.getResultList()).thenReturn(List.of(payer, first, second));
+        List<Transaction> transactions = List.of(
+                transaction(1L, 2L, "40"), transaction(1L, 3L, "40"), transaction(1L, 2L, "40"));
+
+        List<TransactionStatus> statuses = transferEngine.transferAll(transactions);
+
+        assertEquals(List.of(TransactionStatus.COMPLETED, TransactionStatus.COMPLETED, TransactionStatus.CANCELLED),
+                statuses);
+        assertEquals(new BigDecimal("20"), payer.getBalance());
+        assertEquals(new BigDecimal("40"), first.getBalance());
+        assertEquals(new BigDecimal("40"), second.getBalance());
+        assertEquals(10L, transactions.get(0).getId());
+        verify(lockQuery).setParameter("ids", List.of(1L, 2L, 3L));
+        verify(insertStatement, times(3)).addBatch();
+        verify(insertStatement, times(1)).executeBatch();
+        verify(ledgerStatement, times(4)).addBatch();
+        verify(ledgerStatement, times(1)).executeBatch();
+        verify(dbTransaction, times(1)).commit();
+        verify(entityManager).close();
+    }
+
+    @Test
+    @DisplayName("Should fail invalid items and unknown accounts without affecting the rest of the group")
+    void transferAllWithInvalidItems() throws SQLException {
+        mockBatchInsert();
+        when(accountsQuery.getResultList()).thenReturn(List.of(account(1L, "100"), account(2L, "0")));
+        List<Transaction> transactions = List.of(
+                transaction(1L, 1L, "10"), transaction(1L, 9L, "10"), transaction(1L, 2L, "10"));
+
+        List<TransactionStatus> statuses = transferEngine.transferAll(transactions);
+
+        assertEquals(List.of(TransactionStatus.FAILED, TransactionStatus.FAILED, TransactionStatus.COMPLETED),
+                statuses);
+        verify(insertStatement, times(1)).addBatch();
+        verify(dbTransaction, times(1)).commit();
+    }
+
+    @Test
+    @DisplayName("Should retry a failed group one by one and store the transfers that fail again")
+    void transferAllRetriesFailedGroup() throws SQLException {
+        mockBatchInsert();
+        when(insertStatement.executeBatch()).thenThrow(new SQLException("deadlock"));
+        when(dbTransaction.isActive()).thenReturn(true);
+        doNothing().doThrow(new PersistenceException("deadlock")).doNothing()
+                .when(entityManager).persist(any(Transaction.class));
+        List<Transaction> transactions = List.of(transaction(1L, 2L, "10"), transaction(2L, 1L, "5"));
+        transactions.get(1).setIdempotencyKey("key-2");
+
+        List<TransactionStatus> statuses = transferEngine.transferAll(transactions);
+
+        assertEquals(List.of(TransactionStatus.COMPLETED, TransactionStatus.FAILED), statuses);
+        ArgumentCaptor<Transaction> persisted = ArgumentCaptor.forClass(Transaction.class);
+        verify(entityManager, times(3)).persist(persisted.capture());
+        assertSame(transactions.get(0), persisted.getAllValues().get(0));
+        Transaction failed = persisted.getAllValues().get(2);
+        assertEquals(TransactionStatus.FAILED, failed.getStatus());
+        assertEquals(new BigDecimal("5"), failed.getAmount());
+        assertEquals(2L, failed.getSender().getId());
+        assertNull(failed.getIdempotencyKey());
+        assertEquals("key-2", transactions.get(1).getIdempotencyKey());
+        verify(dbTransaction, times(2)).rollback();
+        verify(dbTransaction, times(2)).commit();
+        verify(entityManager, times(4)).close();
+    }
+
+    @Test
+    @DisplayName("Should settle a pending transaction in place and post it to the ledger")
+    void settlePendingTransaction() {
+        when(pendingQuery.getResultList()).thenReturn(List.<Object[]>of(
+                new Object[]{1L, 2L, BigDecimal.TEN, TransactionStatus.PENDING}));
+        when(settleQuery.executeUpdate()).thenReturn(1);
+
+        TransactionStatus status = transferEngine.settle(7L);
+
+        assertEquals(TransactionStatus.COMPLETED, status);
+        verify(settleQuery).setParameter("status", TransactionStatus.COMPLETED);
+        verify(settleQuery).setParameter("id", 7L);
+        verify(entityManager, times(2)).persist(any(LedgerEntry.class));
+        verify(entityManager, never()).persist(any(Transaction.class));
+        verify(dbTransaction).commit();
+    }
+
+    @Test
+    @DisplayName("Should skip a transaction that is no longer pending")
+    void settleAlreadySettledTransaction() {
+        when(pendingQuery.getResultList()).thenReturn(List.<Object[]>of(
+                new Object[]{1L, 2L, BigDecimal.TEN, TransactionStatus.COMPLETED}));
+
+        TransactionStatus status = transferEngine.settle(7L);
+
+        assertEquals(TransactionStatus.COMPLETED, status);
+        verify(lockQuery, never()).getResultList();
+        verify(settleQuery, never()).executeUpdate();
+    }
+
+    @Test
+    @DisplayName("Should roll back the funds when another worker settled the transaction first")
+    void settleLostRace() {
+        when(pendingQuery.getResultList()).thenReturn(List.<Object[]>of(
+                new Object[]{1L, 2L, BigDecimal.TEN, TransactionStatus.PENDING}));
+        when(settleQuery.executeUpdate()).thenReturn(0);
+        when(statusQuery.getSingleResult()).thenReturn(TransactionStatus.COMPLETED);
+
+        TransactionStatus status = transferEngine.settle(7L);
+
+        assertEquals(TransactionStatus.COMPLETED, status);
+        verify(dbTransaction).rollback();
+        verify(dbTransaction, never()).commit();
+        verify(entityManager, never()).persist(any(LedgerEntry.class));
+    }
+
+    @Test
+    @DisplayName("Should mark a pending transaction with an unknown account as failed")
+    void settleWithUnknownAccount() {
+        when(pendingQuery.getResultList()).thenReturn(List.<Object[]>of(
+                new Object[]{1L, 9L, BigDecimal.TEN, TransactionStatus.PENDING}));
+        when(accountsQuery.getResultList()).thenReturn(List.of(account(1L)));
+        when(settleQuery.executeUpdate()).thenReturn(1);
+
+        TransactionStatus status = transferEngine.settle(7L);
+
+        assertEquals(TransactionStatus.FAILED, status);
+        verify(settleQuery).setParameter("status", TransactionStatus.FAILED);
+        verify(dbTransaction).commit();
+    }
+
+    private static Transaction transaction(Long senderId, Long receiverId, String amount) {
+        Transaction transaction = transaction(senderId, receiverId);
+        transaction.setAmount(new BigDecimal(amount));
+        return transaction;
+    }
+
+    private static Account account(Long id, String balance) {
+        return Account.builder().id(id).balance(new BigDecimal(balance)).build();
+    }
+
+    private static Transaction transaction(Long senderId, Long receiverId) {
+        return Transaction.builder()
+                .amount(BigDecimal.TEN)
+                .description("description")
+                .sender(account(senderId))
+                .receiver(account(receiverId))
+                .transactionSchedule(LocalDate.now())
+                .build();
+    }
+
+    private static Account account(Long id) {
+        return Account.builder().id(id).build();
+    }
+}
@@ -0,0 +1,58 @@
+package org.jala.university.infrastructure.pool;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("Connection pool metrics")
+class ConnectionPoolMetricsTest {
+
+    @Test
+    @DisplayName("Should compute wait percentiles by nearest rank")
+    void percentiles() {
+        ConnectionPoolMetrics metrics = new ConnectionPoolMetrics();
+        for (int millis = 1; millis <= 100; millis++) {
+            metrics.recordAcquisition(Duration.ofMillis(millis).toNanos());
+        }
+
+        ConnectionPoolStats stats = metrics.snapshot().build();
+
+        assertEquals(100, stats.getAcquisitions());
+        assertEquals(Duration.ofMillis(50), stats.getWaitP50());
+        assertEquals(Duration.ofMillis(95), stats.getWaitP95());
+        assertEquals(Duration.ofMillis(99), stats.getWaitP99());
+        assertEquals(Duration.ofMillis(100), stats.getMaxWait());
+    }
+
+    @Test
+    @DisplayName("Should compute the percentiles over the most recent acquisitions only")
+    void slidingWindow() {
+        ConnectionPoolMetrics metrics = new ConnectionPoolMetrics();
+        for (int i = 0; i < ConnectionPoolMetrics.WINDOW; i++) {
+            metrics.recordAcquisition(Duration.ofSeconds(1).toNanos());
+        }
+        for (int i = 0; i < ConnectionPoolMetrics.WINDOW; i++) {
+            metrics.recordAcquisition(Duration.ofMillis(1).toNanos());
+        }
+
+        assertEquals(Duration.ofMillis(1), metrics.getWaitPercentile(99));
+        assertEquals(Duration.ofSeconds(1), metrics.getMaxWait());
+        assertEquals(2L * ConnectionPoolMetrics.WINDOW, metrics.getAcquisitions());
+    }
+
+    @Test
+    @DisplayName("Should report zero waits and count timeouts before any acquisition")
+    void empty() {
+        ConnectionPoolMetrics metrics = new ConnectionPoolMetrics();
+        metrics.recordTimeout();
+
+        ConnectionPoolStats stats = metrics.snapshot().build();
+
+        assertEquals(Duration.ZERO, stats.getWaitP99());
+        assertEquals(0, stats.getAcquisitions());
+        assertEquals(1, stats.getTimeouts());
+    }
+}
@@ -0,0 +1,105 @@
+package org.jala.university.infrastructure.pool;
+
+import jakarta.persistence.EntityManagerFactory;
+import jakarta.persistence.Persistence;
+import org.jala.university.commons.infrastructure.persistance.UnitOfWork;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("Connection pool under 200 concurrent callers")
+class ConnectionPoolStressIT {
+
+    private static final int CALLERS = 200;
+    private static final int CALLS_PER_CALLER = 25;
+    private static final int POOL_SIZE = 10;
+
+    private static EntityManagerFactory entityManagerFactory;
+
+    @BeforeAll
+    static void createFactory() {
+        entityManagerFactory = Persistence.createEntityManagerFactory("test", Map.of(
+                "jakarta.persistence.jdbc.url", "jdbc:h2:mem:connection_pool;MODE=MySQL;DATABASE_TO_LOWER=TRUE",
+                "hibernate.connection.provider_class", PooledConnectionProvider.class.getName(),
+                PooledConnectionProvider.MAXIMUM_SIZE, String.valueOf(POOL_SIZE),
+                PooledConnectionProvider.MINIMUM_IDLE, String.valueOf(POOL_SIZE),
+                PooledConnectionProvider.ACQUISITION_TIMEOUT, "5000"));
+    }
+
+    @AfterAll
+    static void closeFactory() {
+        entityManagerFactory.close();
+    }
+
+    @Test
+    @DisplayName("Should serve every caller without timeouts and with bounded latency")
+    void concurrentCallers() throws Exception {
+        UnitOfWork unitOfWork = new UnitOfWork(entityManagerFactory);
+        ExecutorService executor = Executors.newFixedThreadPool(CALLERS);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<long[]>> callers = new ArrayList<>();
+        try {
+            for (int i = 0; i < CALLERS; i++) {
+                callers.add(executor.submit(() -> {
+                    start.await();
+                    long[] latencies = new long[CALLS_PER_CALLER];
+                    for (int call = 0; call < CALLS_PER_CALLER; call++) {
+                        long begin = System.nanoTime();
+                        unitOfWork.read(entityManager -> entityManager
+                                .createNativeQuery("SELECT COUNT(*) FROM accounts")
+                                .getSingleResult());
+                        latencies[call] = System.nanoTime() - begin;
+                    }
+                    return latencies;
+                }));
+            }
+            start.countDown();
+
+            List<Long> firstHalf = new ArrayList<>();
+            List<Long> secondHalf = new ArrayList<>();
+            for (Future<long[]> caller : callers) {
+                long[] latencies = caller.get(1, TimeUnit.MINUTES);
+                for (int call = 0; call < latencies.length; call++) {
+                    (call < latencies.length / 2 ? firstHalf : secondHalf).add(latencies[call]);
+                }
+            }
+
+            ConnectionPoolStats stats = PooledConnectionProvider.of(entityManagerFactory).getStats();
+            Duration firstP99 = p99(firstHalf);
+            Duration secondP99 = p99(secondHalf);
+            System.out.println(stats + ", latência p99: " + firstP99.toMillis() + " ms / "
+                    + secondP99.toMillis() + " ms");
+
+            assertEquals(0, stats.getTimeouts());
+            assertTrue(stats.getAcquisitions() >= (long) CALLERS * CALLS_PER_CALLER);
+            assertTrue(stats.getTotalConnections() <= POOL_SIZE);
+            assertEquals(0, stats.getActiveConnections());
+            assertTrue(stats.getWaitP99().compareTo(Duration.ofSeconds(1)) < 0, stats.toString());
+            // Stable: the tail latency does not grow while the callers keep queueing on the pool
+            assertTrue(secondP99.compareTo(firstP99.multipliedBy(3).plusMillis(50)) <= 0,
+                    firstP99 + " -> " + secondP99);
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    private static Duration p99(List<Long> latencies) {
+        long[] sorted = latencies.stream().mapToLong(Long::longValue).toArray();
+        Arrays.sort(sorted);
+        return Duration.ofNanos(sorted[(int) Math.ceil(0.99 * sorted.length) - 1]);
+    }
+}
@@ -0,0 +1,135 @@
+package org.jala.university.infrastructure.purge;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityTransaction;
+import org.jala.university.commons.infrastructure.persistance.UnitOfWork;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@DisplayName("Purge service")
+class PurgeServiceTest {
+
+    private static final Clock CLOCK = Clock.fixed(Instant.parse("2025-03-10T12:00:00Z"), ZoneOffset.UTC);
+
+    private final EntityTransaction transaction = mock(EntityTransaction.class);
+    private UnitOfWork unitOfWork;
+
+    @BeforeEach
+    void setUp() {
+        EntityManager entityManager = mock(EntityManager.class);
+        when(entityManager.getTransaction()).thenReturn(transaction);
+        unitOfWork = UnitOfWork.bound(entityManager);
+    }
+
+    @Test
+    @DisplayName("Should purge in batches, each in its own transaction, until a batch comes back short")
+    void batches() {
+        FakeTask task = new FakeTask("codigos", 1_234);
+        PurgeService service = new PurgeService(unitOfWork, List.of(task), 500, Duration.ZERO,
+                Duration.ofMinutes(30), CLOCK);
+
+        List<PurgeReport> reports = service.runOnce();
+
+        assertEquals(List.of(500, 500, 234), task.batches);
+        assertEquals(1, reports.size());
+        assertEquals("codigos", reports.get(0).task());
+        assertEquals(1_234, reports.get(0).rows());
+        assertEquals(3, reports.get(0).batches());
+        assertFalse(reports.get(0).failed());
+        verify(transaction, times(3)).begin();
+        verify(transaction, times(3)).commit();
+    }
+
+    @Test
+    @DisplayName("Should run a last, empty batch when the rows fill the batches exactly")
+    void exactMultiple() {
+        FakeTask task = new FakeTask("codigos", 1_000);
+        PurgeService service = new PurgeService(unitOfWork, List.of(task), 500, Duration.ZERO,
+                Duration.ofMinutes(30), CLOCK);
+
+        PurgeReport report = service.runOnce().get(0);
+
+        assertEquals(List.of(500, 500, 0), task.batches);
+        assertEquals(1_000, report.rows());
+    }
+
+    @Test
+    @DisplayName("Should give every batch of a run the same time")
+    void sameTimePerRun() {
+        FakeTask task = new FakeTask("codigos", 25);
+        new PurgeService(unitOfWork, List.of(task), 10, Duration.ofMillis(1), Duration.ofMinutes(30), CLOCK)
+                .runOnce();
+
+        assertEquals(List.of(LocalDateTime.of(2025, 3, 10, 12, 0)), task.times.stream().distinct().toList());
+    }
+
+    @Test
+    @DisplayName("Should report a failing task and go on with the next ones")
+    void failingTask() {
+        PurgeTask failing = new PurgeTask() {
+            @Override
+            public String getName() {
+                return "transacoes";
+            }
+
+            @Override
+            public int purgeBatch(EntityManager entityManager, LocalDateTime now, int batchSize) {
+                throw new IllegalStateException("lock wait timeout");
+            }
+        };
+        FakeTask next = new FakeTask("codigos", 3);
+        PurgeService service = new PurgeService(unitOfWork, List.of(failing, next), 500, Duration.ZERO,
+                Duration.ofMinutes(30), CLOCK);
+
+        List<PurgeReport> reports = service.runOnce();
+
+        assertTrue(reports.get(0).failed());
+        assertEquals(0, reports.get(0).rows());
+        assertFalse(reports.get(1).failed());
+        assertEquals(3, reports.get(1).rows());
+    }
+
+    /**
+     * Task over a counter of remaining rows.
+     */
+    private static final class FakeTask implements PurgeTask {
+        private final String name;
+        private int remaining;
+        private final List<Integer> batches = new ArrayList<>();
+        private final List<LocalDateTime> times = new ArrayList<>();
+
+        private FakeTask(String name, int rows) {
+            this.name = name;
+            this.remaining = rows;
+        }
+
+        @Override
+        public String getName() {
+            return name;
+        }
+
+        @Override
+        public int purgeBatch(EntityManager entityManager, LocalDateTime now, int batchSize) {
+            int removed = Math.min(remaining, batchSize);
+            remaining -= removed;
+            batches.add(removed);
+            times.add(now);
+            return removed;
+        }
+    }
+}
@@ -0,0 +1,82 @@
+package org.jala.university.infrastructure.purge;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.Query;
+import jakarta.persistence.TypedQuery;
+import org.jala.university.domain.entity.ArchivedTransaction;
+import org.jala.university.domain.entity.enums.TransactionStatus;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@DisplayName("Stale transaction archiver")
+class StaleTransactionArchiverTest {
+
+    private static final LocalDateTime NOW = LocalDateTime.of(2025, 3, 10, 12, 0);
+
+    private final EntityManager entityManager = mock(EntityManager.class);
+    @SuppressWarnings("unchecked")
+    private final TypedQuery<Object[]> selectQuery = mock(TypedQuery.class);
+    private final Query deleteQuery = mock(Query.class);
+
+    private final StaleTransactionArchiver archiver = new StaleTransactionArchiver(Duration.ofDays(90));
+
+    @BeforeEach
+    void setUp() {
+        when(entityManager.createQuery(anyString(), eq(Object[].class))).thenReturn(selectQuery);
+        when(selectQuery.setParameter(anyString(), any())).thenReturn(selectQuery);
+        when(selectQuery.setMaxResults(anyInt())).thenReturn(selectQuery);
+        when(entityManager.createQuery(anyString())).thenReturn(deleteQuery);
+        when(deleteQuery.setParameter(anyString(), any())).thenReturn(deleteQuery);
+    }
+
+    @Test
+    @DisplayName("Should delete each selected transaction only if its status is unchanged")
+    void archiveStale() {
+        when(selectQuery.getResultList()).thenReturn(List.of(
+                row(1L, TransactionStatus.PENDING), row(2L, TransactionStatus.CANCELLED)));
+        when(deleteQuery.executeUpdate()).thenReturn(1);
+
+        assertEquals(2, archiver.purgeBatch(entityManager, NOW, 10));
+
+        verify(deleteQuery).setParameter("id", 1L);
+        verify(deleteQuery).setParameter("status", TransactionStatus.PENDING);
+        verify(deleteQuery).setParameter("status", TransactionStatus.CANCELLED);
+        verify(entityManager, times(2)).persist(any(ArchivedTransaction.class));
+        verify(entityManager).flush();
+    }
+
+    @Test
+    @DisplayName("Should leave a transaction settled after it was selected where it is")
+    void skipSettled() {
+        when(selectQuery.getResultList()).thenReturn(List.of(
+                row(1L, TransactionStatus.PENDING), row(2L, TransactionStatus.PENDING)));
+        when(deleteQuery.executeUpdate()).thenReturn(0, 1);
+
+        assertEquals(1, archiver.purgeBatch(entityManager, NOW, 10));
+
+        ArgumentCaptor<ArchivedTransaction> archived = ArgumentCaptor.forClass(ArchivedTransaction.class);
+        verify(entityManager).persist(archived.capture());
+        assertEquals(2L, archived.getValue().getId());
+        assertEquals(NOW, archived.getValue().getArchivedAt());
+    }
+
+    private static Object[] row(Long id, TransactionStatus status) {
+        return new Object[]{id, BigDecimal.TEN, 1L, 2L, status, LocalDate.of(2024, 1, 10), "Aluguel",
+                LocalDateTime.of(2024, 1, 9, 8, 0), null};
+    }
+}
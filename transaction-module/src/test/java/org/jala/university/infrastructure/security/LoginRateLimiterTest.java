@@ -0,0 +1,86 @@
+package org.jala.university.infrastructure.security;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("Login rate limiter")
+class LoginRateLimiterTest {
+
+    private final AtomicLong now = new AtomicLong();
+
+    private LoginRateLimiter limiter;
+
+    @BeforeEach
+    void setUp() {
+        limiter = new LoginRateLimiter(3, Duration.ofSeconds(10), 5, Duration.ofSeconds(1), now::get);
+    }
+
+    @Test
+    @DisplayName("Should refuse an email after its burst and refill it over time")
+    void emailBucket() {
+        for (int i = 0; i < 3; i++) {
+            assertTrue(limiter.tryAcquire("Cliente@Example.com", null));
+        }
+        assertFalse(limiter.tryAcquire("cliente@example.com ", null));
+        assertEquals(Duration.ofSeconds(10), limiter.getRetryAfter("cliente@example.com"));
+
+        now.addAndGet(Duration.ofSeconds(10).toNanos());
+        assertTrue(limiter.tryAcquire("cliente@example.com", null));
+        assertFalse(limiter.tryAcquire("cliente@example.com", null));
+    }
+
+    @Test
+    @DisplayName("Should not let attempts on one email starve another")
+    void separateEmails() {
+        for (int i = 0; i < 10; i++) {
+            limiter.tryAcquire("vitima@example.com", null);
+        }
+
+        assertTrue(limiter.tryAcquire("outro@example.com", null));
+    }
+
+    @Test
+    @DisplayName("Should refuse an origin guessing across many emails")
+    void originBucket() {
+        for (int i = 0; i < 5; i++) {
+            assertTrue(limiter.tryAcquire("email" + i + "@example.com", "10.0.0.1"));
+        }
+
+        assertFalse(limiter.tryAcquire("novo@example.com", "10.0.0.1"));
+        assertTrue(limiter.tryAcquire("novo@example.com", "10.0.0.2"));
+    }
+
+    @Test
+    @DisplayName("Should refill an email after a successful login")
+    void reset() {
+        for (int i = 0; i < 3; i++) {
+            limiter.tryAcquire("cliente@example.com", null);
+        }
+
+        limiter.reset("cliente@example.com");
+
+        assertTrue(limiter.tryAcquire("cliente@example.com", null));
+        assertEquals(Duration.ZERO, limiter.getRetryAfter("cliente@example.com"));
+    }
+
+    @Test
+    @DisplayName("Should drop full buckets over the key limit once a refill interval has passed")
+    void eviction() {
+        for (int i = 0; i <= LoginRateLimiter.MAX_TRACKED_KEYS; i++) {
+            limiter.tryAcquire("email" + i + "@example.com", null);
+        }
+        limiter.tryAcquire("cedo@example.com", null);
+        assertEquals(LoginRateLimiter.MAX_TRACKED_KEYS + 2, limiter.size());
+
+        now.addAndGet(Duration.ofSeconds(10).toNanos());
+        limiter.tryAcquire("tarde@example.com", null);
+
+        assertEquals(1, limiter.size());
+    }
+}
@@ -0,0 +1,93 @@
+package org.jala.university.infrastructure.security;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("Password hasher")
+class PasswordHasherTest {
+
+    private final PasswordHasher hasher = new PasswordHasher(4, 2, 64);
+
+    @AfterEach
+    void tearDown() {
+        hasher.shutdown();
+    }
+
+    @Test
+    @DisplayName("Should verify a password against its hash")
+    void hashAndVerify() {
+        String hash = hasher.hash("senha123");
+
+        assertTrue(hash.startsWith("$2a$04$"));
+        assertTrue(hasher.verify("senha123", hash));
+        assertFalse(hasher.verify("senha124", hash));
+    }
+
+    @Test
+    @DisplayName("Should refuse a malformed hash without failing")
+    void malformedHash() {
+        assertFalse(hasher.verify("senha123", "texto-puro"));
+        assertFalse(hasher.verify("senha123", null));
+        assertFalse(hasher.verify(null, hasher.hash("senha123")));
+    }
+
+    @Test
+    @DisplayName("Should ask for a rehash when the cost changed")
+    void needsRehash() {
+        PasswordHasher stronger = new PasswordHasher(5, 1, 8);
+        try {
+            String oldHash = hasher.hash("senha123");
+
+            assertFalse(hasher.needsRehash(oldHash));
+            assertTrue(stronger.needsRehash(oldHash));
+            assertTrue(stronger.verify("senha123", oldHash));
+            assertFalse(stronger.needsRehash(stronger.hash("senha123")));
+        } finally {
+            stronger.shutdown();
+        }
+    }
+
+    @Test
+    @DisplayName("Should expose latency percentiles of concurrent operations")
+    void stats() throws Exception {
+        String hash = hasher.hash("senha123");
+        ExecutorService callers = Executors.newFixedThreadPool(8);
+        try {
+            List<Future<Boolean>> results = new ArrayList<>();
+            for (int i = 0; i < 32; i++) {
+                results.add(callers.submit(() -> hasher.verify("senha123", hash)));
+            }
+            for (Future<Boolean> result : results) {
+                assertTrue(result.get());
+            }
+        } finally {
+            callers.shutdown();
+        }
+
+        PasswordHashStats stats = hasher.getStats();
+        assertEquals(33, stats.getOperations());
+        assertEquals(4, stats.getCost());
+        assertEquals(2, stats.getThreads());
+        assertTrue(stats.getLatencyP50().compareTo(Duration.ZERO) > 0);
+        assertTrue(stats.getLatencyP99().compareTo(stats.getLatencyP50()) >= 0);
+        assertTrue(stats.getMaxLatency().compareTo(stats.getLatencyP99()) >= 0);
+    }
+
+    @Test
+    @DisplayName("Should read the cost of a hash")
+    void costOf() {
+        assertEquals(12, PasswordHasher.costOf("$2a$12$abcdefghijklmnopqrstuv"));
+        assertEquals(-1, PasswordHasher.costOf("senha"));
+        assertEquals(-1, PasswordHasher.costOf(null));
+    }
+}
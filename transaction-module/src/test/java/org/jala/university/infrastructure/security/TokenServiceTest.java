@@ -0,0 +1,150 @@
+package org.jala.university.infrastructure.security;
+
+import org.jala.university.application.dto.UserDTO;
+import org.jala.university.commons.domain.Role;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("Token service")
+class TokenServiceTest {
+
+    private static final byte[] FIRST_SECRET = "first-secret-with-at-least-thirty-two-bytes".getBytes(StandardCharsets.UTF_8);
+    private static final byte[] SECOND_SECRET = "second-secret-with-at-least-thirty-two-bytes".getBytes(StandardCharsets.UTF_8);
+
+    private final MutableClock clock = new MutableClock(Instant.parse("2025-03-10T12:00:00Z"));
+    private final TokenService service = new TokenService("k1", FIRST_SECRET, Duration.ofHours(1), 16, clock);
+
+    private final UserDTO user = UserDTO.builder()
+            .id(42L)
+            .email("john@example.com")
+            .roles(Role.USER)
+            .build();
+
+    @Test
+    @DisplayName("Should read back the claims of an issued token")
+    void roundTrip() {
+        TokenClaims claims = service.parse(service.issue(user)).orElseThrow();
+
+        assertEquals("k1", claims.keyId());
+        assertEquals("john@example.com", claims.subject());
+        assertEquals(42L, claims.userId());
+        assertEquals("USER", claims.role());
+        assertEquals(Instant.parse("2025-03-10T13:00:00Z"), claims.expiresAt());
+        assertTrue(service.validate(service.issue(user), user));
+    }
+
+    @Test
+    @DisplayName("Should answer a repeated validation from the cache")
+    void cache() {
+        String token = service.issue(user);
+
+        TokenClaims first = service.parse(token).orElseThrow();
+        TokenClaims second = service.parse(token).orElseThrow();
+
+        assertSame(first, second);
+        assertEquals(1, service.getCacheMisses());
+        assertEquals(1, service.getCacheHits());
+    }
+
+    @Test
+    @DisplayName("Should accept a token up to its expiry and refuse it after, even from the cache")
+    void expired() {
+        String token = service.issue(user);
+        assertTrue(service.parse(token).isPresent());
+
+        clock.advance(Duration.ofHours(1));
+
+        assertTrue(service.parse(token).isPresent());
+
+        clock.advance(Duration.ofSeconds(1));
+
+        assertTrue(service.parse(token).isEmpty());
+        assertTrue(service.parse(token).isEmpty());
+        assertTrue(service.parse(token).isEmpty());
+        assertEquals(1, service.getCacheHits());
+    }
+
+    @Test
+    @DisplayName("Should refuse a tampered or malformed token")
+    void tampered() {
+        String token = service.issue(user);
+        String tampered = token.substring(0, token.length() - 2) + (token.endsWith("AA") ? "BB" : "AA");
+
+        assertTrue(service.parse(tampered).isEmpty());
+        assertTrue(service.parse("not-a-token").isEmpty());
+        assertTrue(service.parse(null).isEmpty());
+        assertFalse(service.validate(tampered, user));
+    }
+
+    @Test
+    @DisplayName("Should refuse a token of another user")
+    void otherUser() {
+        UserDTO other = UserDTO.builder().id(7L).email("jane@example.com").roles(Role.USER).build();
+
+        assertFalse(service.validate(service.issue(other), user));
+    }
+
+    @Test
+    @DisplayName("Should keep tokens of the previous key valid until it is retired")
+    void rotation() {
+        String oldToken = service.issue(user);
+        service.rotateKey("k2", SECOND_SECRET);
+        String newToken = service.issue(user);
+
+        assertEquals("k2", service.parse(newToken).orElseThrow().keyId());
+        assertTrue(service.parse(oldToken).isPresent());
+
+        service.retireKey("k1");
+
+        assertTrue(service.parse(oldToken).isEmpty());
+        assertTrue(service.parse(newToken).isPresent());
+        assertThrows(IllegalArgumentException.class, () -> service.retireKey("k2"));
+    }
+
+    @Test
+    @DisplayName("Should refuse a token signed by another service's key under the same ID")
+    void foreignKey() {
+        TokenService foreign = new TokenService("k1", SECOND_SECRET, Duration.ofHours(1), 16, clock);
+
+        assertTrue(service.parse(foreign.issue(user)).isEmpty());
+    }
+
+    /**
+     * Clock moved by the tests.
+     */
+    private static final class MutableClock extends Clock {
+        private Instant now;
+
+        private MutableClock(Instant now) {
+            this.now = now;
+        }
+
+        private void advance(Duration duration) {
+            now = now.plus(duration);
+        }
+
+        @Override
+        public ZoneId getZone() {
+            return ZoneOffset.UTC;
+        }
+
+        @Override
+        public Clock withZone(ZoneId zone) {
+            return this;
+        }
+
+        @Override
+        public Instant instant() {
+            return now;
+        }
+    }
+}
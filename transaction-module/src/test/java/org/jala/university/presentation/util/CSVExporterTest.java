@@ -0,0 +1,98 @@
+package org.jala.university.presentation.util;
+
+import org.jala.university.application.dto.StatementAccount;
+import org.jala.university.application.dto.TransactionHistoryDTO;
+import org.jala.university.domain.entity.enums.AccountType;
+import org.jala.university.domain.entity.enums.TransactionStatus;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("CSV statement exporter")
+class CSVExporterTest {
+
+    private static final StatementAccount ACCOUNT = StatementAccount.builder()
+            .accountId(7L)
+            .accountNumber("12345-6")
+            .accountType(AccountType.SAVINGS)
+            .holderName("João Silva")
+            .holderCpf("12345678901")
+            .build();
+
+    private final List<TransactionHistoryDTO> transactions = List.of(
+            transaction(1L, "120.50", true, TransactionStatus.COMPLETED, "Aluguel \"março\""),
+            transaction(2L, "300", false, TransactionStatus.COMPLETED, "Salário"),
+            transaction(3L, "99", false, TransactionStatus.PENDING, "Pendente"));
+
+    @Test
+    @DisplayName("Should write the summary before the completed rows")
+    void summaryInHeader() throws IOException {
+        String csv = export(CSVExporter.SummaryPosition.HEADER);
+
+        assertTrue(csv.indexOf("RESUMO FINANCEIRO") < csv.indexOf("DETALHAMENTO DE TRANSAÇÕES"));
+        assertTrue(csv.contains("Créditos: R$ 300.00\n"));
+        assertTrue(csv.contains("Débitos: R$ 120.50\n"));
+        assertTrue(csv.contains("Saldo: R$ 179.50\n"));
+        assertTrue(csv.contains("Período: 01/03/2025 a 02/03/2025\n"));
+        assertTrue(csv.contains("01/03/2025 10:00,\"Aluguel 'março'\",\"Maria\",Débito,R$ 120.50\n"));
+        assertFalse(csv.contains("Pendente"));
+    }
+
+    @Test
+    @DisplayName("Should print the account and holder it is given")
+    void accountHeader() throws IOException {
+        String csv = export(CSVExporter.SummaryPosition.HEADER);
+
+        assertTrue(csv.contains("Cliente: João Silva\nCPF: 123.456.789-01\n"));
+        assertTrue(csv.contains("Conta: 12345-6\nTipo: Conta Poupança\n"));
+    }
+
+    @Test
+    @DisplayName("Should accumulate the summary while writing the rows and place it after them")
+    void summaryInTrailer() throws IOException {
+        String csv = export(CSVExporter.SummaryPosition.TRAILER);
+
+        assertTrue(csv.indexOf("DETALHAMENTO DE TRANSAÇÕES") < csv.indexOf("RESUMO FINANCEIRO"));
+        assertTrue(csv.contains("Saldo: R$ 179.50\n"));
+        assertTrue(csv.contains("02/03/2025 10:00,\"Salário\",\"Maria\",Crédito,R$ 300.00\n"));
+    }
+
+    @Test
+    @DisplayName("Should report an empty statement")
+    void empty() throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        CSVExporter.exportToCsv(ACCOUNT, StatementSource.of(List.of()), CSVExporter.SummaryPosition.HEADER, out,
+                ExportProgressListener.NONE);
+
+        String csv = out.toString(StandardCharsets.UTF_8);
+        assertTrue(csv.contains("Não há transações concluídas no período selecionado."));
+        assertFalse(csv.contains("DETALHAMENTO DE TRANSAÇÕES"));
+    }
+
+    private String export(CSVExporter.SummaryPosition position) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        CSVExporter.exportToCsv(ACCOUNT, StatementSource.of(transactions), position, out, ExportProgressListener.NONE);
+        return out.toString(StandardCharsets.UTF_8);
+    }
+
+    private static TransactionHistoryDTO transaction(Long id, String amount, boolean debit,
+                                                     TransactionStatus status, String description) {
+        return TransactionHistoryDTO.builder()
+                .id(id)
+                .amount(new BigDecimal(amount))
+                .debit(debit)
+                .status(status)
+                .description(description)
+                .counterpartyName("Maria")
+                .date(LocalDateTime.of(2025, 3, id.intValue(), 10, 0))
+                .build();
+    }
+}
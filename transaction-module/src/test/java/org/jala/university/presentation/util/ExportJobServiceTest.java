@@ -0,0 +1,151 @@
+package org.jala.university.presentation.util;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("Export job service")
+class ExportJobServiceTest {
+
+    @TempDir
+    Path directory;
+
+    private ExportJobService service = new ExportJobService(2, 4);
+    private final Map<Long, CountDownLatch> finished = new ConcurrentHashMap<>();
+    private final ExportJobService.Listener listener = job -> latch(job).countDown();
+
+    @AfterEach
+    void tearDown() {
+        service.shutdown();
+    }
+
+    @Test
+    @DisplayName("Should write the statement to the target file and report progress")
+    void completes() throws Exception {
+        File target = directory.resolve("extrato.csv").toFile();
+
+        ExportJob job = service.submit(target, (out, progress) -> {
+            out.write("linha".getBytes(StandardCharsets.UTF_8));
+            progress.onProgress(1, 2);
+            progress.onProgress(2, 2);
+        }, listener);
+        await(job);
+
+        assertEquals(ExportJob.State.COMPLETED, job.getState());
+        assertEquals("linha", Files.readString(target.toPath()));
+        assertEquals(1.0, job.getProgress());
+        assertFalse(Files.exists(directory.resolve("extrato.csv.part")));
+        assertNull(service.getJob(job.getId()));
+    }
+
+    @Test
+    @DisplayName("Should run no more exports at once than the concurrency limit")
+    void concurrencyLimit() throws Exception {
+        AtomicInteger running = new AtomicInteger();
+        AtomicInteger maxRunning = new AtomicInteger();
+        CountDownLatch release = new CountDownLatch(1);
+        ExportJobService.ExportTask task = (out, progress) -> {
+            maxRunning.accumulateAndGet(running.incrementAndGet(), Math::max);
+            release.await();
+            running.decrementAndGet();
+        };
+
+        List<ExportJob> jobs = List.of(
+                service.submit(directory.resolve("1.pdf").toFile(), task, listener),
+                service.submit(directory.resolve("2.pdf").toFile(), task, listener),
+                service.submit(directory.resolve("3.pdf").toFile(), task, listener));
+        while (running.get() < 2) {
+            Thread.sleep(5);
+        }
+
+        assertEquals(ExportJob.State.QUEUED, jobs.get(2).getState());
+        assertEquals(3, service.getActiveJobs().size());
+        release.countDown();
+        for (ExportJob job : jobs) {
+            await(job);
+            assertEquals(ExportJob.State.COMPLETED, job.getState());
+        }
+        assertEquals(2, maxRunning.get());
+    }
+
+    @Test
+    @DisplayName("Should stop a cancelled export at its next progress report and delete the partial file")
+    void cancelRunning() throws Exception {
+        File target = directory.resolve("extrato.pdf").toFile();
+        CountDownLatch started = new CountDownLatch(1);
+
+        ExportJob job = service.submit(target, (out, progress) -> {
+            for (long rows = 1; ; rows++) {
+                out.write('x');
+                progress.onProgress(rows, -1);
+                started.countDown();
+                Thread.sleep(1);
+            }
+        }, listener);
+        assertTrue(started.await(5, TimeUnit.SECONDS));
+        assertTrue(job.cancel());
+        await(job);
+
+        assertEquals(ExportJob.State.CANCELLED, job.getState());
+        assertFalse(target.exists());
+        assertFalse(Files.exists(directory.resolve("extrato.pdf.part")));
+        assertFalse(job.cancel());
+    }
+
+    @Test
+    @DisplayName("Should record the failure of an export")
+    void failure() throws Exception {
+        File target = directory.resolve("extrato.csv").toFile();
+
+        ExportJob job = service.submit(target, (out, progress) -> {
+            out.write('x');
+            throw new IOException("disco cheio");
+        }, listener);
+        await(job);
+
+        assertEquals(ExportJob.State.FAILED, job.getState());
+        assertEquals("disco cheio", job.getFailure().getMessage());
+        assertFalse(target.exists());
+    }
+
+    @Test
+    @DisplayName("Should refuse an export once the queue is full")
+    void queueFull() throws Exception {
+        service.shutdown();
+        service = new ExportJobService(1, 1);
+        CountDownLatch release = new CountDownLatch(1);
+        ExportJobService.ExportTask task = (out, progress) -> release.await();
+
+        ExportJob running = service.submit(directory.resolve("1.csv").toFile(), task, listener);
+        ExportJob queued = service.submit(directory.resolve("2.csv").toFile(), task, listener);
+
+        assertThrows(IllegalStateException.class,
+                () -> service.submit(directory.resolve("3.csv").toFile(), task, listener));
+        release.countDown();
+        await(running);
+        await(queued);
+    }
+
+    private CountDownLatch latch(ExportJob job) {
+        return finished.computeIfAbsent(job.getId(), id -> new CountDownLatch(1));
+    }
+
+    private void await(ExportJob job) throws InterruptedException {
+        assertTrue(latch(job).await(5, TimeUnit.SECONDS), "export did not finish: " + job);
+    }
+}
@@ -0,0 +1,123 @@
+package org.jala.university.presentation.util;
+
+import com.lowagie.text.pdf.PdfReader;
+import com.lowagie.text.pdf.parser.PdfTextExtractor;
+import org.jala.university.application.dto.TransactionDetailsDTO;
+import org.jala.university.domain.entity.enums.TransactionStatus;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.stream.LongStream;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipInputStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("Receipt template")
+class ReceiptTemplateTest {
+
+    private final ReceiptTemplate template = ReceiptTemplate.getDefault();
+
+    @Test
+    @DisplayName("Should render a receipt as a PDF")
+    void render() throws Exception {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        template.render(receipt(42L), out);
+
+        String text = text(out.toByteArray(), 1);
+        assertTrue(text.contains("Comprovante de Transação Bancária"));
+        assertTrue(hasLine(text, "ID da Transação: 42"));
+        assertTrue(text.contains("Nome: Remetente 42"));
+    }
+
+    @Test
+    @DisplayName("Should render several receipts as the pages of one PDF")
+    void renderAll() throws Exception {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        int count = template.renderAll(receipts(3), out);
+
+        assertEquals(3, count);
+        PdfReader reader = new PdfReader(out.toByteArray());
+        assertEquals(3, reader.getNumberOfPages());
+        assertTrue(hasLine(text(out.toByteArray(), 2), "ID da Transação: 2"));
+    }
+
+    @Test
+    @DisplayName("Should render several receipts as the entries of a ZIP stream")
+    void renderZip() throws Exception {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        int count = template.renderZip(receipts(3), out);
+
+        assertEquals(3, count);
+        List<String> names = new ArrayList<>();
+        try (ZipInputStream zip = new ZipInputStream(new ByteArrayInputStream(out.toByteArray()))) {
+            ZipEntry entry;
+            while ((entry = zip.getNextEntry()) != null) {
+                names.add(entry.getName());
+                assertTrue(hasLine(text(zip.readAllBytes(), 1), "ID da Transação: " + names.size()));
+            }
+        }
+        assertEquals(List.of("COMPROVANTE_1.pdf", "COMPROVANTE_2.pdf", "COMPROVANTE_3.pdf"), names);
+    }
+
+    @Test
+    @DisplayName("Should render receipts on several threads at once")
+    void concurrentRendering() throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        try {
+            List<Future<String>> texts = new ArrayList<>();
+            for (long id = 1; id <= 64; id++) {
+                long receiptId = id;
+                texts.add(executor.submit(() -> {
+                    ByteArrayOutputStream out = new ByteArrayOutputStream();
+                    template.render(receipt(receiptId), out);
+                    return text(out.toByteArray(), 1);
+                }));
+            }
+            for (int i = 0; i < texts.size(); i++) {
+                assertTrue(hasLine(texts.get(i).get(), "ID da Transação: " + (i + 1)));
+            }
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    private static String text(byte[] pdf, int page) throws Exception {
+        return new PdfTextExtractor(new PdfReader(pdf)).getTextFromPage(page);
+    }
+
+    private static boolean hasLine(String text, String line) {
+        return text.lines().map(String::trim).anyMatch(line::equals);
+    }
+
+    private static List<TransactionDetailsDTO> receipts(int count) {
+        return LongStream.rangeClosed(1, count).mapToObj(ReceiptTemplateTest::receipt).toList();
+    }
+
+    private static TransactionDetailsDTO receipt(long id) {
+        return TransactionDetailsDTO.builder()
+                .id(id)
+                .amount(new BigDecimal("150.75"))
+                .createdAt(LocalDateTime.of(2025, 3, 10, 14, 30))
+                .status(TransactionStatus.COMPLETED)
+                .description("Aluguel")
+                .senderName("Remetente " + id)
+                .senderAccountNumber("10001-1")
+                .receiverName("Destinatário")
+                .receiverAccountNumber("10002-2")
+                .isDebit(true)
+                .build();
+    }
+}
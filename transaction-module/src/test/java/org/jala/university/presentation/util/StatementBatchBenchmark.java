@@ -0,0 +1,64 @@
+package org.jala.university.presentation.util;
+
+import org.jala.university.infrastructure.config.JPAConfig;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.YearMonth;
+import java.util.Comparator;
+import java.util.stream.Stream;
+
+/**
+ * Manual scaling benchmark for {@link StatementBatchGenerator}.
+ * <p>
+ * Generates the statements of every account in the database configured in
+ * {@code persistence.xml} with 1, 2, 4... workers, up to the number of available processors,
+ * and prints the accounts and transactions per second of each run. The pool size
+ * ({@code -Dbank.pool.maximumSize}) must be at least the largest worker count.
+ * <p>
+ * Not executed by the test suite. Usage: {@code StatementBatchBenchmark <yyyy-MM> <csv|pdf>}
+ */
+public final class StatementBatchBenchmark {
+
+    private StatementBatchBenchmark() {
+    }
+
+    public static void main(String[] args) throws Exception {
+        if (args.length < 2) {
+            System.out.println("Usage: StatementBatchBenchmark <yyyy-MM> <csv|pdf>");
+            return;
+        }
+        YearMonth month = YearMonth.parse(args[0]);
+        StatementBatchGenerator.Format format = StatementBatchGenerator.Format.valueOf(args[1].toUpperCase());
+        int processors = Runtime.getRuntime().availableProcessors();
+
+        try {
+            for (int workers = 1; ; workers = Math.min(workers * 2, processors)) {
+                Path directory = Files.createTempDirectory("statements-" + workers + "-");
+                try {
+                    StatementBatchGenerator.Result result = new StatementBatchGenerator(workers)
+                            .generate(month.atDay(1), month.atEndOfMonth(), format, directory);
+                    double seconds = result.elapsed().toNanos() / 1_000_000_000.0;
+                    System.out.printf("%2d workers: %d accounts in %.2f s, %.1f accounts/s, %.0f rows/s%n",
+                            workers, result.accounts(), seconds, result.accountsPerSecond(), result.rows() / seconds);
+                } finally {
+                    delete(directory);
+                }
+                if (workers == processors) {
+                    break;
+                }
+            }
+        } finally {
+            JPAConfig.close();
+        }
+    }
+
+    private static void delete(Path directory) throws IOException {
+        try (Stream<Path> files = Files.walk(directory)) {
+            for (Path file : files.sorted(Comparator.reverseOrder()).toList()) {
+                Files.delete(file);
+            }
+        }
+    }
+}
@@ -0,0 +1,132 @@
+package org.jala.university.presentation.util;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.TypedQuery;
+import org.jala.university.application.dto.StatementAccount;
+import org.jala.university.application.dto.StatementTotals;
+import org.jala.university.application.dto.TransactionHistoryDTO;
+import org.jala.university.application.service.TransactionHistoryService;
+import org.jala.university.commons.infrastructure.persistance.UnitOfWork;
+import org.jala.university.domain.entity.enums.AccountType;
+import org.jala.university.domain.entity.enums.TransactionStatus;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.function.Consumer;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+@DisplayName("Statement batch generator")
+class StatementBatchGeneratorTest {
+
+    private static final LocalDate START = LocalDate.of(2025, 3, 1);
+    private static final LocalDate END = LocalDate.of(2025, 3, 31);
+
+    @TempDir
+    Path directory;
+
+    private final TransactionHistoryService historyService = mock(TransactionHistoryService.class);
+    private StatementBatchGenerator generator;
+
+    @BeforeEach
+    @SuppressWarnings("unchecked")
+    void setUp() {
+        EntityManager entityManager = mock(EntityManager.class);
+        TypedQuery<StatementAccount> query = mock(TypedQuery.class);
+        when(entityManager.createQuery(anyString(), eq(StatementAccount.class))).thenReturn(query);
+        when(query.setParameter(anyString(), any())).thenReturn(query);
+        when(query.setMaxResults(anyInt())).thenReturn(query);
+        when(query.getResultList()).thenReturn(List.of(account(1L, "10001-1"), account(2L, "10002-2"),
+                account(3L, "10003-3")));
+
+        when(historyService.streamAccountTransactionHistory(anyLong(), eq(START), eq(END), eq("COMPLETED"), any()))
+                .thenAnswer(invocation -> {
+                    Long accountId = invocation.getArgument(0);
+                    if (accountId == 3L) {
+                        throw new IllegalStateException("conexão perdida");
+                    }
+                    Consumer<TransactionHistoryDTO> action = invocation.getArgument(4);
+                    for (int i = 0; i < accountId; i++) {
+                        action.accept(transaction(i));
+                    }
+                    return accountId;
+                });
+
+        generator = new StatementBatchGenerator(UnitOfWork.bound(entityManager), historyService, 2);
+    }
+
+    @Test
+    @DisplayName("Should write one statement per account and list them in the manifest")
+    void generate() throws Exception {
+        StatementBatchGenerator.Result result = generator.generate(START, END, StatementBatchGenerator.Format.CSV,
+                directory);
+
+        assertEquals(3, result.accounts());
+        assertEquals(1, result.failed());
+        assertEquals(3, result.rows());
+
+        String statement = Files.readString(directory.resolve("EXTRATO_10002-2_20250301_20250331.csv"),
+                StandardCharsets.UTF_8);
+        assertTrue(statement.contains("Cliente: Titular 2\n"));
+        assertTrue(statement.contains("Conta: 10002-2\nTipo: Conta Poupança\n"));
+        assertFalse(Files.exists(directory.resolve("EXTRATO_10003-3_20250301_20250331.csv")));
+
+        List<String> manifest = Files.readAllLines(result.manifest(), StandardCharsets.UTF_8);
+        assertEquals("conta,arquivo,transacoes,bytes,erro", manifest.get(0));
+        assertTrue(manifest.get(1).startsWith("10001-1,EXTRATO_10001-1_20250301_20250331.csv,1,"));
+        assertTrue(manifest.get(2).startsWith("10002-2,EXTRATO_10002-2_20250301_20250331.csv,2,"));
+        assertEquals("10003-3,,0,0,\"conexão perdida\"", manifest.get(3));
+    }
+
+    @Test
+    @DisplayName("Should write PDF statements")
+    void generatePdf() throws Exception {
+        when(historyService.getAccountTransactionTotals(anyLong(), eq(START), eq(END), eq("COMPLETED")))
+                .thenReturn(new StatementTotals());
+
+        StatementBatchGenerator.Result result = generator.generate(START, END, StatementBatchGenerator.Format.PDF,
+                directory);
+
+        byte[] pdf = Files.readAllBytes(directory.resolve("EXTRATO_10001-1_20250301_20250331.pdf"));
+        assertEquals("%PDF", new String(pdf, 0, 4, StandardCharsets.US_ASCII));
+        assertEquals(3, result.accounts());
+    }
+
+    private static StatementAccount account(Long id, String number) {
+        return StatementAccount.builder()
+                .accountId(id)
+                .accountNumber(number)
+                .accountType(id % 2 == 0 ? AccountType.SAVINGS : AccountType.CHECKING)
+                .holderName("Titular " + id)
+                .holderCpf("1234567890" + id)
+                .build();
+    }
+
+    private static TransactionHistoryDTO transaction(int i) {
+        return TransactionHistoryDTO.builder()
+                .id((long) i)
+                .status(TransactionStatus.COMPLETED)
+                .amount(BigDecimal.TEN)
+                .date(LocalDateTime.of(2025, 3, 10, 12, 0))
+                .description("Pagamento " + i)
+                .counterpartyName("Loja")
+                .debit(true)
+                .build();
+    }
+}
@@ -0,0 +1,114 @@
+package org.jala.university.presentation.util;
+
+import org.jala.university.application.dto.StatementAccount;
+import org.jala.university.application.dto.StatementTotals;
+import org.jala.university.application.dto.TransactionHistoryDTO;
+import org.jala.university.domain.entity.enums.TransactionStatus;
+
+import java.io.OutputStream;
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryMXBean;
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.function.Consumer;
+
+/**
+ * Manual throughput benchmark for the statement exporters.
+ * <p>
+ * Renders a synthetic statement of the given size as PDF and as CSV, discarding the output,
+ * and prints rows per second, output size and the highest heap usage seen after each block
+ * of rows. Run it with a small heap (e.g. {@code -Xmx64m}) to check that memory does not grow
+ * with the statement.
+ * <p>
+ * Not executed by the test suite. Usage: {@code StatementExportBenchmark [rows]} (default 100000)
+ */
+public final class StatementExportBenchmark {
+
+    private static final MemoryMXBean MEMORY = ManagementFactory.getMemoryMXBean();
+    private static final StatementAccount ACCOUNT = StatementAccount.builder()
+            .accountId(1L)
+            .accountNumber("00001-0")
+            .holderName("Cliente Benchmark")
+            .holderCpf("00000000000")
+            .build();
+
+    private StatementExportBenchmark() {
+    }
+
+    public static void main(String[] args) throws Exception {
+        int rows = args.length > 0 ? Integer.parseInt(args[0]) : 100_000;
+        StatementSource source = syntheticSource(rows);
+
+        // Warm-up run for the JIT
+        PDFExporter.exportToPdf(ACCOUNT, syntheticSource(Math.min(rows, 5_000)), new CountingOutputStream(),
+                ExportProgressListener.NONE);
+
+        long[] peakHeap = new long[1];
+        CountingOutputStream pdf = new CountingOutputStream();
+        long start = System.nanoTime();
+        PDFExporter.exportToPdf(ACCOUNT, source, pdf, (written, total) ->
+                peakHeap[0] = Math.max(peakHeap[0], MEMORY.getHeapMemoryUsage().getUsed()));
+        report("PDF", rows, System.nanoTime() - start, pdf.count, peakHeap[0]);
+
+        CountingOutputStream csv = new CountingOutputStream();
+        start = System.nanoTime();
+        CSVExporter.exportToCsv(ACCOUNT, source, CSVExporter.SummaryPosition.TRAILER, csv,
+                ExportProgressListener.NONE);
+        report("CSV", rows, System.nanoTime() - start, csv.count, MEMORY.getHeapMemoryUsage().getUsed());
+    }
+
+    private static void report(String format, int rows, long nanos, long bytes, long heap) {
+        double seconds = nanos / 1_000_000_000.0;
+        System.out.printf("%s: %d rows in %.2f s (%.0f rows/s), %d KiB written, heap %d MiB%n",
+                format, rows, seconds, rows / seconds, bytes / 1024, heap / (1024 * 1024));
+    }
+
+    /**
+     * A statement whose rows are generated as they are read, so the benchmark itself holds none.
+     */
+    private static StatementSource syntheticSource(int rows) {
+        LocalDateTime first = LocalDateTime.of(2024, 1, 1, 8, 0);
+        return new StatementSource() {
+            @Override
+            public long forEach(Consumer<TransactionHistoryDTO> action) {
+                for (int i = 0; i < rows; i++) {
+                    action.accept(row(first, i));
+                }
+                return rows;
+            }
+
+            @Override
+            public StatementTotals totals() {
+                StatementTotals totals = new StatementTotals();
+                forEach(totals::add);
+                return totals;
+            }
+        };
+    }
+
+    private static TransactionHistoryDTO row(LocalDateTime first, int i) {
+        return TransactionHistoryDTO.builder()
+                .id((long) i)
+                .status(TransactionStatus.COMPLETED)
+                .amount(BigDecimal.valueOf(1_000 + i % 50_000, 2))
+                .date(first.plusMinutes(i))
+                .description("Transferência " + i)
+                .counterpartyName("Cliente " + i % 1_000)
+                .debit(i % 3 == 0)
+                .build();
+    }
+
+    private static final class CountingOutputStream extends OutputStream {
+        private long count;
+
+        @Override
+        public void write(int b) {
+            count++;
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) {
+            count += len;
+        }
+    }
+}
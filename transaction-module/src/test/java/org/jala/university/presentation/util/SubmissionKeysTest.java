@@ -0,0 +1,48 @@
+package org.jala.university.presentation.util;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("Submission keys")
+class SubmissionKeysTest {
+
+    private final SubmissionKeys keys = new SubmissionKeys();
+
+    @Test
+    @DisplayName("Should give a resubmitted form the same key")
+    void sameForm() {
+        LocalDate scheduleDate = LocalDate.of(2025, 3, 10);
+
+        assertEquals(keys.keyOf("123", "456", new BigDecimal("10.00"), "aluguel", scheduleDate),
+                keys.keyOf("123", "456", new BigDecimal("10.00"), "aluguel", scheduleDate));
+        assertEquals(keys.keyOf("123", "456", BigDecimal.TEN, null, null),
+                keys.keyOf("123", "456", BigDecimal.TEN, null, null));
+    }
+
+    @Test
+    @DisplayName("Should give an edited form a new key")
+    void editedForm() {
+        String key = keys.keyOf("123", "456", BigDecimal.TEN, "aluguel", null);
+
+        assertNotEquals(key, keys.keyOf("123", "789", BigDecimal.TEN, "aluguel", null));
+        assertNotEquals(key, keys.keyOf("123", "456", BigDecimal.ONE, "aluguel", null));
+        assertNotEquals(key, keys.keyOf("123", "456", BigDecimal.TEN, "luz", null));
+        assertNotEquals(key, keys.keyOf("123", "456", BigDecimal.TEN, "aluguel", LocalDate.of(2025, 3, 10)));
+    }
+
+    @Test
+    @DisplayName("Should give the same contents a new key once the form is reset")
+    void reset() {
+        String key = keys.keyOf("123", "456", BigDecimal.TEN, "aluguel", null);
+
+        keys.reset();
+
+        assertNotEquals(key, keys.keyOf("123", "456", BigDecimal.TEN, "aluguel", null));
+        assertNotEquals(key, new SubmissionKeys().keyOf("123", "456", BigDecimal.TEN, "aluguel", null));
+    }
+}